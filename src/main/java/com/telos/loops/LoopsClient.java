@@ -1,15 +1,44 @@
 package com.telos.loops;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.telos.loops.apikey.ApiKeyClient;
 import com.telos.loops.contacts.ContactsClient;
+import com.telos.loops.error.OverloadedException;
 import com.telos.loops.events.EventsClient;
+import com.telos.loops.internal.AdmissionController;
+import com.telos.loops.internal.ByteBudget;
+import com.telos.loops.internal.ConnectionWarmer;
 import com.telos.loops.internal.CoreSender;
+import com.telos.loops.internal.RequestPipeline;
 import com.telos.loops.ips.DedicatedIpsClient;
 import com.telos.loops.lists.MailingListsClient;
+import com.telos.loops.model.RequestOptions;
 import com.telos.loops.properties.ContactPropertiesClient;
+import com.telos.loops.resilience.AdaptiveConcurrencyLimiter;
+import com.telos.loops.resilience.AdmissionSettings;
+import com.telos.loops.resilience.BulkheadSettings;
+import com.telos.loops.resilience.BulkheadStats;
+import com.telos.loops.resilience.CircuitBreakerListener;
+import com.telos.loops.resilience.CircuitBreakerSettings;
+import com.telos.loops.resilience.CircuitBreakerStats;
+import com.telos.loops.resilience.HedgePolicy;
+import com.telos.loops.resilience.HedgeStats;
+import com.telos.loops.resilience.RateLimiter;
+import com.telos.loops.resilience.RetryPolicy;
+import com.telos.loops.resilience.TenantStats;
 import com.telos.loops.transactional.TransactionalClient;
+import com.telos.loops.transport.ConcurrencySettings;
+import com.telos.loops.transport.ConnectionPoolSettings;
 import com.telos.loops.transport.OkHttpTransport;
 import com.telos.loops.transport.Transport;
+import com.telos.loops.transport.WarmUpResult;
+import com.telos.loops.transport.WarmUpSettings;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import okhttp3.OkHttpClient;
 
 /**
  * Main client for interacting with the Loops API.
@@ -32,6 +61,25 @@ import com.telos.loops.transport.Transport;
  * var event = new EventSendRequest("eventName", "user@example.com", null, null, null);
  * client.events().send(event);
  * }</pre>
+ *
+ * <p>Clients are cheap to create. To serve many API keys (for example one per tenant) over a single
+ * tuned connection pool, build each client over the same {@link Transport}:
+ *
+ * <pre>{@code
+ * Transport shared = new OkHttpTransport(tunedOkHttpClient);
+ * ObjectMapper mapper = new ObjectMapper();
+ *
+ * LoopsClient tenantA = LoopsClient.builder()
+ *         .apiKey(tenantAKey)
+ *         .transport(shared)
+ *         .objectMapper(mapper)
+ *         .build();
+ * LoopsClient tenantB = LoopsClient.builder()
+ *         .apiKey(tenantBKey)
+ *         .transport(shared)
+ *         .objectMapper(mapper)
+ *         .build();
+ * }</pre>
  */
 public class LoopsClient {
 
@@ -42,8 +90,20 @@ public class LoopsClient {
   private final MailingListsClient mailingListsClient;
   private final ContactPropertiesClient contactPropertiesClient;
   private final TransactionalClient transactionalClient;
+  private final RequestPipeline pipeline;
+  private final AdmissionController admission;
+  private final ByteBudget bodyBudget;
+  private final ConnectionWarmer warmer;
 
-  private LoopsClient(CoreSender coreSender) {
+  private LoopsClient(
+      CoreSender coreSender,
+      RequestPipeline pipeline,
+      AdmissionController admission,
+      ByteBudget bodyBudget,
+      String baseUrl) {
+    this.pipeline = pipeline;
+    this.admission = admission;
+    this.bodyBudget = bodyBudget;
 
     this.contactsClient = new ContactsClient(coreSender);
     this.eventsClient = new EventsClient(coreSender);
@@ -52,6 +112,7 @@ public class LoopsClient {
     this.mailingListsClient = new MailingListsClient(coreSender);
     this.contactPropertiesClient = new ContactPropertiesClient(coreSender);
     this.transactionalClient = new TransactionalClient(coreSender);
+    this.warmer = new ConnectionWarmer(pipeline.transport(), baseUrl, apiKeyClient::testAsync);
   }
 
   /**
@@ -126,10 +187,158 @@ public class LoopsClient {
     return transactionalClient;
   }
 
+  /**
+   * Returns the transport this client executes requests on.
+   *
+   * <p>Useful for reading transport-level gauges, for example {@link
+   * OkHttpTransport#concurrencyStats()} when the default transport is in use.
+   *
+   * @return the transport
+   */
+  public Transport transport() {
+    return pipeline.transport();
+  }
+
+  /**
+   * Returns queue wait and throughput for each tenant that has sent a request through this client.
+   *
+   * <p>Requests are attributed to the tenant in their {@link RequestOptions#tenant()}, or to {@code
+   * "default"} when untagged. Empty when the client has no rate budget to schedule. Without a rate
+   * limiter or tenant weights, only requests sent while a 429 pause or the header throttle holds
+   * dispatches are counted.
+   *
+   * @return stats by tenant name, sorted by name
+   * @see Builder#tenantWeight(String, int)
+   */
+  public Map<String, TenantStats> tenantStats() {
+    return pipeline.tenantStats();
+  }
+
+  /**
+   * Returns whether the client would shed the next request with {@link OverloadedException}.
+   *
+   * <p>The check costs a few atomic reads, so callers can use it to shed load upstream, for example
+   * by answering 503 before doing any work for a request that would end up being rejected.
+   *
+   * @return true if the client is at an admission limit; always false when no limits are set
+   * @see Builder#admission(AdmissionSettings)
+   */
+  public boolean isSaturated() {
+    return admission != null && admission.isSaturated();
+  }
+
+  /**
+   * Returns how many more requests the client would admit right now.
+   *
+   * @return the free queue depth, 0 if the client is saturated, or {@link Integer#MAX_VALUE} when
+   *     no limits are set
+   * @see Builder#admission(AdmissionSettings)
+   */
+  public int capacity() {
+    return admission != null ? admission.capacity() : Integer.MAX_VALUE;
+  }
+
+  /**
+   * Returns the request body bytes currently held for requests in flight.
+   *
+   * <p>Counts every body from serialization until its response arrives, plus the reservations of
+   * large sends about to be serialized.
+   *
+   * @return the bytes in flight, or 0 when no budget is set with {@link
+   *     Builder#maxBytesInFlightMb(int)}
+   */
+  public long bytesInFlight() {
+    return bodyBudget != null ? bodyBudget.bytesInFlight() : 0;
+  }
+
+  /**
+   * Returns in-flight, queued and rejected counts for each bulkhead that has admitted a request.
+   *
+   * @return stats by bulkhead name (endpoint path or configured prefix), sorted by name; empty when
+   *     no bulkheads are configured
+   * @see Builder#bulkheads(BulkheadSettings)
+   * @see Builder#bulkhead(String, BulkheadSettings)
+   */
+  public Map<String, BulkheadStats> bulkheadStats() {
+    return pipeline.bulkheadStats();
+  }
+
+  /**
+   * Returns how many GETs were eligible for hedging, how many were hedged, and how many hedges
+   * answered first.
+   *
+   * @return the hedge counters, all zero when hedging is off
+   * @see Builder#hedging(HedgePolicy)
+   */
+  public HedgeStats hedgeStats() {
+    return pipeline.hedgeStats();
+  }
+
+  /**
+   * Returns the state, failure rate and slow-call rate of each endpoint's circuit breaker.
+   *
+   * @return stats by endpoint path for every endpoint called so far, sorted by path; empty when no
+   *     circuit breaker is configured
+   * @see Builder#circuitBreaker(CircuitBreakerSettings)
+   */
+  public Map<String, CircuitBreakerStats> circuitBreakerStats() {
+    return pipeline.circuitBreakerStats();
+  }
+
+  /**
+   * Opens pooled connections to the API so that the first requests skip the DNS lookup and the TCP
+   * and TLS handshakes, blocking until the warm-up finishes or times out.
+   *
+   * <p>The connections stay in the transport's pool for reuse; size the pool with {@link
+   * Builder#connectionPool(ConnectionPoolSettings)} so it keeps them. A warm-up never throws:
+   * connections that could not be opened, or a failed key test, show in the result.
+   *
+   * @param settings how many connections to open and whether to test the API key
+   * @return the warm-up's outcome, including its duration and the pool's idle connections
+   * @see Builder#warmUp(WarmUpSettings)
+   */
+  public WarmUpResult warmUp(WarmUpSettings settings) {
+    return warmUpAsync(settings).join();
+  }
+
+  /**
+   * Opens pooled connections to the API asynchronously.
+   *
+   * @param settings how many connections to open and whether to test the API key
+   * @return a future that completes with the warm-up's outcome; it never completes exceptionally
+   * @see #warmUp(WarmUpSettings) for the synchronous variant
+   */
+  public CompletableFuture<WarmUpResult> warmUpAsync(WarmUpSettings settings) {
+    return warmer.warmUp(settings);
+  }
+
   /** Builder for constructing a LoopsClient instance. */
   public static class Builder {
+    // The endpoint ApiKeyClient#test() calls, used as the circuit breakers' health probe
+    private static final String API_KEY_PATH = "/api-key";
+
     private String apiKey;
     private String baseUrl = "https://app.loops.so/api/v1";
+    private Transport transport;
+    private OkHttpClient okHttpClient;
+    private ConcurrencySettings concurrencySettings;
+    private ConnectionPoolSettings connectionPool;
+    private WarmUpSettings warmUp;
+    private Executor callbackExecutor;
+    private ObjectMapper objectMapper;
+    private RateLimiter rateLimiter;
+    private RetryPolicy retryPolicy;
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private boolean proactiveThrottling = true;
+    private boolean pauseOnRateLimit = true;
+    private final Map<String, Integer> tenantWeights = new HashMap<>();
+    private final Map<String, BulkheadSettings> bulkheads = new HashMap<>();
+    private BulkheadSettings defaultBulkhead;
+    private AdmissionSettings admission;
+    private int maxBytesInFlightMb;
+    private HedgePolicy hedgePolicy;
+    private CircuitBreakerSettings circuitBreaker;
+    private CircuitBreakerListener circuitBreakerListener;
 
     private Builder() {}
 
@@ -155,19 +364,423 @@ public class LoopsClient {
       return this;
     }
 
+    /**
+     * Sets the transport used to execute HTTP requests (optional).
+     *
+     * <p>A transport can be shared by any number of clients, which then share its connection pool
+     * and dispatcher. Defaults to an {@link OkHttpTransport} with a default {@link OkHttpClient}.
+     *
+     * @param transport the transport to use
+     * @return this Builder instance
+     * @see #okHttpClient(OkHttpClient)
+     */
+    public Builder transport(Transport transport) {
+      this.transport = transport;
+      return this;
+    }
+
+    /**
+     * Sets the OkHttpClient the default {@link OkHttpTransport} is built on (optional).
+     *
+     * <p>Use this to share one tuned OkHttpClient (timeouts, connection pool, dispatcher,
+     * interceptors) across clients. Cannot be combined with {@link #transport(Transport)}.
+     *
+     * @param okHttpClient the OkHttpClient to use
+     * @return this Builder instance
+     */
+    public Builder okHttpClient(OkHttpClient okHttpClient) {
+      this.okHttpClient = okHttpClient;
+      return this;
+    }
+
+    /**
+     * Sets the asynchronous concurrency limits of the default OkHttp transport (optional).
+     *
+     * <p>Applies to the transport built from {@link #okHttpClient(OkHttpClient)} or the default
+     * client. Defaults to {@link ConcurrencySettings#defaults()} for the default client; a supplied
+     * OkHttpClient keeps its own dispatcher unless settings are given. Cannot be combined with
+     * {@link #transport(Transport)}: configure a custom transport directly instead.
+     *
+     * @param concurrencySettings the limits to apply
+     * @return this Builder instance
+     */
+    public Builder concurrency(ConcurrencySettings concurrencySettings) {
+      this.concurrencySettings = concurrencySettings;
+      return this;
+    }
+
+    /**
+     * Sets the connection pool of the default OkHttp transport (optional).
+     *
+     * <p>By default the transport uses its OkHttpClient's pool, which keeps 5 idle connections
+     * unless configured otherwise. Keep as many idle connections as the client runs calls at once,
+     * so bursts after a quiet spell reuse connections rather than open new ones. Cannot be combined
+     * with {@link #transport(Transport)}.
+     *
+     * @param connectionPool the pool sizing
+     * @return this Builder instance
+     */
+    public Builder connectionPool(ConnectionPoolSettings connectionPool) {
+      this.connectionPool = connectionPool;
+      return this;
+    }
+
+    /**
+     * Warms up connections while the client is built (optional; off by default).
+     *
+     * <p>{@link #build()} then blocks until the warm-up finishes or its timeout passes, and logs
+     * its outcome. A failed warm-up does not fail the build. Use {@link
+     * LoopsClient#warmUp(WarmUpSettings)} instead to warm up later or to inspect the result.
+     *
+     * @param warmUp the warm-up to run, or null for none
+     * @return this Builder instance
+     */
+    public Builder warmUp(WarmUpSettings warmUp) {
+      this.warmUp = warmUp;
+      return this;
+    }
+
+    /**
+     * Sets the executor that asynchronous response handling runs on (optional).
+     *
+     * <p>Deserialization and validation of async responses, and any continuations you chain without
+     * an explicit executor, run on this executor. By default they run on the thread that completes
+     * the transport call.
+     *
+     * @param callbackExecutor the executor for async continuations
+     * @return this Builder instance
+     */
+    public Builder callbackExecutor(Executor callbackExecutor) {
+      this.callbackExecutor = callbackExecutor;
+      return this;
+    }
+
+    /**
+     * Sets the ObjectMapper used to serialize requests and deserialize responses (optional).
+     *
+     * <p>ObjectMapper is thread-safe once configured, so one instance can be shared across clients.
+     * Defaults to a new {@code ObjectMapper} per client.
+     *
+     * @param objectMapper the ObjectMapper to use
+     * @return this Builder instance
+     */
+    public Builder objectMapper(ObjectMapper objectMapper) {
+      this.objectMapper = objectMapper;
+      return this;
+    }
+
+    /**
+     * Sets a client-side rate limiter that every request must obtain a permit from (optional).
+     *
+     * <p>The limiter is shared by all sub-clients of the built client (contacts, events,
+     * transactional and so on), so it paces the client's whole request stream. Pass the same
+     * limiter to several clients that use one API key to pace them together. Requests the limiter
+     * refuses fail with a {@link com.telos.loops.error.RateLimitExceededException} whose status
+     * code is 0. By default no client-side limit is applied.
+     *
+     * @param rateLimiter the rate limiter, for example a {@link
+     *     com.telos.loops.resilience.TokenBucketRateLimiter}
+     * @return this Builder instance
+     */
+    public Builder rateLimiter(RateLimiter rateLimiter) {
+      this.rateLimiter = rateLimiter;
+      return this;
+    }
+
+    /**
+     * Sets the policy for retrying failed idempotent requests (optional).
+     *
+     * <p>GETs, contact updates, and event or transactional sends that carry an idempotency key are
+     * retried on 429, 5xx and network failures, with jittered exponential backoff that honours
+     * {@code Retry-After}. Other requests are never retried. By default nothing is retried.
+     *
+     * @param retryPolicy the retry policy, for example {@link RetryPolicy#defaults()}
+     * @return this Builder instance
+     */
+    public Builder retryPolicy(RetryPolicy retryPolicy) {
+      this.retryPolicy = retryPolicy;
+      return this;
+    }
+
+    /**
+     * Sets an adaptive limit on the number of requests in flight (optional).
+     *
+     * <p>Unlike {@link #concurrency(ConcurrencySettings)}, which sizes the OkHttp dispatcher, this
+     * limit is enforced by the client in front of any transport and moves with the API's observed
+     * latency and overload responses. Keep a reference to the limiter to read its {@link
+     * AdaptiveConcurrencyLimiter#stats() stats}. By default no adaptive limit is applied.
+     *
+     * @param concurrencyLimiter the concurrency limiter
+     * @return this Builder instance
+     */
+    public Builder concurrencyLimiter(AdaptiveConcurrencyLimiter concurrencyLimiter) {
+      this.concurrencyLimiter = concurrencyLimiter;
+      return this;
+    }
+
+    /**
+     * Sets whether the client slows its own dispatch as the API's rate limit budget runs out
+     * (optional, enabled by default).
+     *
+     * <p>The Loops API reports the per-second limit and the requests remaining in the current
+     * window on every response. When the remaining budget runs low the client spaces out further
+     * requests, and once it is spent holds them until the window rolls over, instead of collecting
+     * 429s. The advertised limit also caps the rate of the {@link #rateLimiter(RateLimiter) rate
+     * limiter}, if one is set.
+     *
+     * @param proactiveThrottling whether to throttle from rate limit headers
+     * @return this Builder instance
+     */
+    public Builder proactiveThrottling(boolean proactiveThrottling) {
+      this.proactiveThrottling = proactiveThrottling;
+      return this;
+    }
+
+    /**
+     * Sets whether a 429 response pauses all of the client's requests (optional, enabled by
+     * default).
+     *
+     * <p>When the API answers 429, every request this client has not yet sent, including those
+     * queued behind the concurrency limiter or waiting to retry, is held until the response's
+     * {@code Retry-After} passes (one second if absent, at most 30). Dispatch then resumes on a
+     * one-second ramp up to the advertised limit rather than all at once. While no pause is in
+     * effect the check costs a single volatile read.
+     *
+     * @param pauseOnRateLimit whether to pause all requests after a 429
+     * @return this Builder instance
+     */
+    public Builder pauseOnRateLimit(boolean pauseOnRateLimit) {
+      this.pauseOnRateLimit = pauseOnRateLimit;
+      return this;
+    }
+
+    /**
+     * Sets a tenant's weight in the fair share of the client's rate budget (optional; every tenant
+     * weighs 1 by default).
+     *
+     * <p>When requests wait for the budget, tenants tagged through {@link RequestOptions#tenant()}
+     * are served in turn within each priority class, each sending up to its weight per turn. A
+     * tenant with weight 3 therefore gets three times the throughput of a tenant with weight 1
+     * while both have requests waiting, and a tenant with nothing waiting leaves its share to the
+     * others.
+     *
+     * @param tenant the tenant name; use {@code "default"} for untagged requests
+     * @param weight the tenant's weight, at least 1
+     * @return this Builder instance
+     * @throws IllegalArgumentException if tenant is null or weight is less than 1
+     */
+    public Builder tenantWeight(String tenant, int weight) {
+      if (tenant == null) {
+        throw new IllegalArgumentException("tenant is required");
+      }
+      if (weight < 1) {
+        throw new IllegalArgumentException("weight must be positive, got: " + weight);
+      }
+      tenantWeights.put(tenant, weight);
+      return this;
+    }
+
+    /**
+     * Sets limits beyond which the client sheds requests (optional; no limits by default).
+     *
+     * <p>A request that would push the client past a limit fails immediately with {@link
+     * OverloadedException} instead of joining the backlog. Use {@link LoopsClient#isSaturated()} to
+     * check before submitting.
+     *
+     * @param admission the admission limits, or null for none
+     * @return this Builder instance
+     */
+    public Builder admission(AdmissionSettings admission) {
+      this.admission = admission;
+      return this;
+    }
+
+    /**
+     * Caps the request body bytes in flight at once (optional; no cap by default).
+     *
+     * <p>Transactional sends with attachments reserve their size before they are serialized; a send
+     * that does not fit waits, without allocating its body, until earlier requests complete. Other
+     * requests are never held back but count towards the budget. A single send larger than the
+     * whole budget goes through once nothing else is in flight.
+     *
+     * @param megabytes the budget in megabytes, or 0 for none
+     * @return this Builder instance
+     * @throws IllegalArgumentException if megabytes is negative
+     * @see LoopsClient#bytesInFlight()
+     */
+    public Builder maxBytesInFlightMb(int megabytes) {
+      if (megabytes < 0) {
+        throw new IllegalArgumentException(
+            "maxBytesInFlightMb must not be negative, got: " + megabytes);
+      }
+      this.maxBytesInFlightMb = megabytes;
+      return this;
+    }
+
+    /**
+     * Gives every endpoint a bulkhead of its own (optional; no bulkheads by default).
+     *
+     * <p>Each endpoint path, such as {@code /contacts/find} or {@code /transactional}, gets a
+     * separate pool of in-flight slots and a bounded queue, so a slow endpoint can only exhaust its
+     * own capacity. Endpoints covered by a {@link #bulkhead(String, BulkheadSettings) prefix} use
+     * that pool instead.
+     *
+     * @param settings the size of each endpoint's bulkhead, or null for none
+     * @return this Builder instance
+     */
+    public Builder bulkheads(BulkheadSettings settings) {
+      this.defaultBulkhead = settings;
+      return this;
+    }
+
+    /**
+     * Sets a bulkhead shared by all endpoints under a path prefix (optional).
+     *
+     * <p>A prefix matches on path segments: {@code /contacts} covers {@code /contacts/find} and
+     * {@code /contacts/properties}; the longest matching prefix wins. Use a sub-client's prefix,
+     * such as {@code /events} or {@code /transactional}, to size that sub-client's pool, or a full
+     * path to size a single endpoint.
+     *
+     * @param pathPrefix the path prefix, starting with {@code /}
+     * @param settings the size of the shared bulkhead
+     * @return this Builder instance
+     * @throws IllegalArgumentException if pathPrefix does not start with {@code /} or settings is
+     *     null
+     */
+    public Builder bulkhead(String pathPrefix, BulkheadSettings settings) {
+      if (pathPrefix == null || !pathPrefix.startsWith("/")) {
+        throw new IllegalArgumentException("pathPrefix must start with /, got: " + pathPrefix);
+      }
+      if (settings == null) {
+        throw new IllegalArgumentException("settings is required");
+      }
+      bulkheads.put(pathPrefix, settings);
+      return this;
+    }
+
+    /**
+     * Hedges slow GETs (optional; off by default).
+     *
+     * <p>When a GET such as {@code /contacts/find} has not answered within the policy's percentile
+     * of that endpoint's recent latency, a second copy is sent and whichever answers first is used;
+     * the other call is cancelled. Hedges pass through the same bulkhead, concurrency limit and
+     * rate limiter as any request, and the policy's budget caps them at a small fraction of GET
+     * traffic so they cannot eat into the rate limit.
+     *
+     * @param policy the hedge policy, or null for none
+     * @return this Builder instance
+     */
+    public Builder hedging(HedgePolicy policy) {
+      this.hedgePolicy = policy;
+      return this;
+    }
+
+    /**
+     * Guards each endpoint with a circuit breaker (optional; off by default).
+     *
+     * <p>When an endpoint's recent calls fail or are slow often enough, its breaker opens and
+     * further requests fail at once with {@link com.telos.loops.error.CircuitOpenException} instead
+     * of tying up threads until the transport times out. After the open period a few trial requests
+     * decide whether the breaker closes again; with {@link CircuitBreakerSettings#healthProbe()}
+     * set, {@link ApiKeyClient#test()} must succeed first.
+     *
+     * @param settings the circuit breaker settings, or null for none
+     * @return this Builder instance
+     */
+    public Builder circuitBreaker(CircuitBreakerSettings settings) {
+      this.circuitBreaker = settings;
+      return this;
+    }
+
+    /**
+     * Sets a listener told of every circuit breaker state transition (optional).
+     *
+     * @param listener the listener
+     * @return this Builder instance
+     */
+    public Builder circuitBreakerListener(CircuitBreakerListener listener) {
+      this.circuitBreakerListener = listener;
+      return this;
+    }
+
     /**
      * Builds and returns a new LoopsClient instance.
      *
      * @return a new LoopsClient
-     * @throws IllegalArgumentException if apiKey is not set
+     * @throws IllegalArgumentException if apiKey is not set, or if a custom transport is combined
+     *     with an OkHttpClient, concurrency settings or connection pool settings
      */
     public LoopsClient build() {
       if (apiKey == null || apiKey.isBlank()) {
         throw new IllegalArgumentException("API key is required");
       }
-      Transport transport = new OkHttpTransport();
-      CoreSender coreSender = new CoreSender(transport, baseUrl, apiKey);
-      return new LoopsClient(coreSender);
+      if (transport != null && okHttpClient != null) {
+        throw new IllegalArgumentException("Set either a transport or an OkHttpClient, not both");
+      }
+      if (transport != null && concurrencySettings != null) {
+        throw new IllegalArgumentException(
+            "Concurrency settings apply to the default transport; configure the custom transport"
+                + " directly");
+      }
+      if (transport != null && connectionPool != null) {
+        throw new IllegalArgumentException(
+            "Connection pool settings apply to the default transport; configure the custom"
+                + " transport directly");
+      }
+      Transport resolvedTransport = resolveTransport();
+      // The health probe is the API key test, reachable once the client exists
+      AtomicReference<LoopsClient> built = new AtomicReference<>();
+      RequestPipeline pipeline =
+          RequestPipeline.builder(resolvedTransport)
+              .rateLimiter(rateLimiter)
+              .retryPolicy(retryPolicy)
+              .concurrencyLimiter(concurrencyLimiter)
+              .proactiveThrottling(proactiveThrottling)
+              .pauseOnRateLimit(pauseOnRateLimit)
+              .tenantWeights(tenantWeights)
+              .bulkheads(bulkheads)
+              .defaultBulkhead(defaultBulkhead)
+              .hedging(hedgePolicy)
+              .circuitBreaker(circuitBreaker)
+              .circuitBreakerListener(circuitBreakerListener)
+              .healthProbe(API_KEY_PATH, () -> built.get().apiKey().testAsync())
+              .build();
+      AdmissionController admissionController =
+          admission != null ? new AdmissionController(admission) : null;
+      ByteBudget bodyBudget =
+          maxBytesInFlightMb > 0 ? new ByteBudget(maxBytesInFlightMb * 1024L * 1024L) : null;
+      CoreSender coreSender =
+          new CoreSender(
+              pipeline,
+              admissionController,
+              bodyBudget,
+              baseUrl,
+              apiKey,
+              objectMapper != null ? objectMapper : new ObjectMapper(),
+              callbackExecutor);
+      LoopsClient client =
+          new LoopsClient(coreSender, pipeline, admissionController, bodyBudget, baseUrl);
+      built.set(client);
+      if (warmUp != null) {
+        client.warmUp(warmUp);
+      }
+      return client;
+    }
+
+    private Transport resolveTransport() {
+      if (transport != null) {
+        return transport;
+      }
+      if (concurrencySettings != null || connectionPool != null) {
+        // A supplied OkHttpClient keeps its dispatcher unless concurrency settings are given
+        ConcurrencySettings concurrency =
+            concurrencySettings == null && okHttpClient == null
+                ? ConcurrencySettings.defaults()
+                : concurrencySettings;
+        return new OkHttpTransport(
+            okHttpClient != null ? okHttpClient : new OkHttpClient(), concurrency, connectionPool);
+      }
+      return okHttpClient != null ? new OkHttpTransport(okHttpClient) : new OkHttpTransport();
     }
   }
 }
@@ -0,0 +1,92 @@
+package com.telos.loops.contacts;
+
+import com.telos.loops.model.RequestOptions;
+import java.time.Duration;
+
+/**
+ * Window and bounds of a {@link ContactUpdateCoalescer}.
+ *
+ * <p>The first update to a contact opens its window; updates to the same contact that arrive before
+ * the window closes are merged into it, and one update is sent when it closes. A longer window
+ * merges more updates at the cost of delaying each of them by up to the window.
+ *
+ * <p>Example usage:
+ *
+ * <pre>{@code
+ * CoalescingSettings settings = CoalescingSettings.builder()
+ *     .window(Duration.ofSeconds(2))
+ *     .maxPendingContacts(50_000)
+ *     .build();
+ * }</pre>
+ *
+ * @param window how long updates to a contact are collected before one is sent
+ * @param maxPendingContacts maximum number of contacts with an open window; an update to another
+ *     contact while this many are pending is sent at once without merging
+ * @param options the options every merged update is sent with
+ */
+public record CoalescingSettings(Duration window, int maxPendingContacts, RequestOptions options) {
+
+  /** Default coalescing window. */
+  public static final Duration DEFAULT_WINDOW = Duration.ofSeconds(1);
+
+  /** Default maximum number of contacts with an open window. */
+  public static final int DEFAULT_MAX_PENDING_CONTACTS = 10_000;
+
+  public CoalescingSettings {
+    window = window == null ? DEFAULT_WINDOW : window;
+    if (window.isNegative() || window.isZero()) {
+      throw new IllegalArgumentException("window must be positive, got: " + window);
+    }
+    if (maxPendingContacts < 1) {
+      throw new IllegalArgumentException(
+          "maxPendingContacts must be positive, got: " + maxPendingContacts);
+    }
+    options = options == null ? RequestOptions.none() : options;
+  }
+
+  /**
+   * Returns the default settings: a one-second window and up to 10,000 pending contacts.
+   *
+   * @return the default settings
+   */
+  public static CoalescingSettings defaults() {
+    return builder().build();
+  }
+
+  /**
+   * Creates a new builder for {@link CoalescingSettings}.
+   *
+   * @return a new builder
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /** Builder for {@link CoalescingSettings}. */
+  public static final class Builder {
+    private Duration window = DEFAULT_WINDOW;
+    private int maxPendingContacts = DEFAULT_MAX_PENDING_CONTACTS;
+    private RequestOptions options;
+
+    private Builder() {}
+
+    public Builder window(Duration window) {
+      this.window = window;
+      return this;
+    }
+
+    public Builder maxPendingContacts(int maxPendingContacts) {
+      this.maxPendingContacts = maxPendingContacts;
+      return this;
+    }
+
+    public Builder options(RequestOptions options) {
+      this.options = options;
+      return this;
+    }
+
+    public CoalescingSettings build() {
+      return new CoalescingSettings(window, maxPendingContacts, options);
+    }
+  }
+}
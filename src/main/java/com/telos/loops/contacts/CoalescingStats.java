@@ -0,0 +1,13 @@
+package com.telos.loops.contacts;
+
+/**
+ * Point-in-time view of a {@link ContactUpdateCoalescer}.
+ *
+ * <p>Counters are cumulative since the coalescer was created. The ratio of {@link #updatesSent()}
+ * to {@link #updatesReceived()} is the share of update traffic that still reaches the API.
+ *
+ * @param pendingContacts contacts with an open window
+ * @param updatesReceived updates handed to the coalescer
+ * @param updatesSent updates sent to the API, merged or not
+ */
+public record CoalescingStats(int pendingContacts, long updatesReceived, long updatesSent) {}
@@ -0,0 +1,227 @@
+package com.telos.loops.contacts;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Merges updates to the same contact that arrive within a window into one update.
+ *
+ * <p>The first update to a contact opens a window of {@link CoalescingSettings#window()}; updates
+ * to the same contact until it closes are merged, and one PUT is sent when it closes. In the merged
+ * update each field takes the last value set for it, so an update that leaves a field null does not
+ * clear what an earlier one set; {@code mailingLists} and {@code additionalProperties} are merged
+ * key by key, later values winning. Every caller gets its own future, completed with the response
+ * to the merged update.
+ *
+ * <p>Contacts are identified by email, or by user ID when the update has no email. Merged updates
+ * to one contact are sent one at a time in window order, so a later window never overtakes an
+ * earlier one. An update with neither identifier is sent at once and fails validation as usual.
+ *
+ * <pre>{@code
+ * ContactUpdateCoalescer coalescer = client.contacts().coalescing(CoalescingSettings.defaults());
+ *
+ * coalescer.updateAsync(ContactUpdateRequest.builder().email(email).firstName("Neil").build());
+ * coalescer.updateAsync(
+ *     ContactUpdateRequest.builder().email(email).putMailingList(listId, true).build());
+ * // One PUT with both changes, a second later
+ * }</pre>
+ */
+public final class ContactUpdateCoalescer implements AutoCloseable {
+
+  private final ContactsClient contacts;
+  private final CoalescingSettings settings;
+  private final ScheduledThreadPoolExecutor scheduler;
+  private final ConcurrentHashMap<String, Window> windows = new ConcurrentHashMap<>();
+  // The last merged update sent for each contact, which the next one for that contact waits on
+  private final Map<String, CompletableFuture<ContactResponse>> sending = new ConcurrentHashMap<>();
+  private final LongAdder received = new LongAdder();
+  private final LongAdder sent = new LongAdder();
+  private volatile boolean closed;
+
+  ContactUpdateCoalescer(ContactsClient contacts, CoalescingSettings settings) {
+    this.contacts = contacts;
+    this.settings = settings;
+    this.scheduler =
+        new ScheduledThreadPoolExecutor(
+            1,
+            runnable -> {
+              Thread thread = new Thread(runnable, "loops-contact-coalescer");
+              thread.setDaemon(true);
+              return thread;
+            });
+    scheduler.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+  }
+
+  /**
+   * Queues an update to be merged with others to the same contact.
+   *
+   * <p>Cancelling the returned future does not cancel the merged update, which other callers may be
+   * waiting on.
+   *
+   * @param request the update
+   * @return a future completed with the response to the merged update
+   */
+  public CompletableFuture<ContactResponse> updateAsync(ContactUpdateRequest request) {
+    Objects.requireNonNull(request, "request");
+    received.increment();
+    String key = keyOf(request);
+    if (key == null || closed) {
+      return sendNow(request);
+    }
+    CompletableFuture<ContactResponse> response = new CompletableFuture<>();
+    Window window =
+        windows.compute(
+            key,
+            (ignored, open) -> {
+              if (open == null) {
+                if (windows.size() >= settings.maxPendingContacts()) {
+                  return null;
+                }
+                try {
+                  scheduler.schedule(
+                      () -> closeWindow(key), settings.window().toNanos(), TimeUnit.NANOSECONDS);
+                } catch (RejectedExecutionException e) {
+                  // Closed since the check above
+                  return null;
+                }
+                open = new Window();
+              }
+              open.add(request, response);
+              return open;
+            });
+    return window == null ? sendNow(request) : response;
+  }
+
+  /**
+   * Returns the number of pending contacts and update counters.
+   *
+   * @return the coalescer's stats
+   */
+  public CoalescingStats stats() {
+    return new CoalescingStats(windows.size(), received.sum(), sent.sum());
+  }
+
+  /**
+   * Sends every pending merged update now and stops merging; updates after this are sent at once.
+   * Does not wait for the responses, which complete the callers' futures as they arrive.
+   */
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    scheduler.shutdown();
+    try {
+      // Once a window closing on the scheduler has finished, this thread is the only sender
+      scheduler.awaitTermination(settings.window().toNanos(), TimeUnit.NANOSECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    for (String key : windows.keySet()) {
+      closeWindow(key);
+    }
+  }
+
+  /** Sends a contact's merged update; runs on the scheduler, or on the closing thread. */
+  private void closeWindow(String key) {
+    Window window = windows.remove(key);
+    if (window == null) {
+      return;
+    }
+    CompletableFuture<ContactResponse> previous = sending.get(key);
+    CompletableFuture<ContactResponse> response =
+        previous == null
+            ? sendMerged(window.merged)
+            : previous
+                .handle((ignoredResponse, ignoredError) -> null)
+                .thenCompose(ignored -> sendMerged(window.merged));
+    sending.put(key, response);
+    response.whenComplete(
+        (result, error) -> {
+          sending.remove(key, response);
+          for (CompletableFuture<ContactResponse> caller : window.callers) {
+            if (error == null) {
+              caller.complete(result);
+            } else {
+              caller.completeExceptionally(error);
+            }
+          }
+        });
+  }
+
+  private CompletableFuture<ContactResponse> sendMerged(ContactUpdateRequest request) {
+    try {
+      return sendNow(request);
+    } catch (RuntimeException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+
+  private CompletableFuture<ContactResponse> sendNow(ContactUpdateRequest request) {
+    sent.increment();
+    return contacts.updateAsync(request, settings.options());
+  }
+
+  private static String keyOf(ContactUpdateRequest request) {
+    if (request.email() != null) {
+      return "email:" + request.email();
+    }
+    if (request.userId() != null) {
+      return "userId:" + request.userId();
+    }
+    return null;
+  }
+
+  /**
+   * Returns {@code later} applied on top of {@code earlier}: each field takes the later value
+   * unless it is null, and the maps are merged key by key.
+   */
+  static ContactUpdateRequest merge(ContactUpdateRequest earlier, ContactUpdateRequest later) {
+    return new ContactUpdateRequest(
+        latest(earlier.email(), later.email()),
+        latest(earlier.firstName(), later.firstName()),
+        latest(earlier.lastName(), later.lastName()),
+        latest(earlier.subscribed(), later.subscribed()),
+        latest(earlier.userGroup(), later.userGroup()),
+        latest(earlier.userId(), later.userId()),
+        union(earlier.mailingLists(), later.mailingLists()),
+        union(earlier.additionalProperties(), later.additionalProperties()));
+  }
+
+  private static <T> T latest(T earlier, T later) {
+    return later != null ? later : earlier;
+  }
+
+  private static <V> Map<String, V> union(Map<String, V> earlier, Map<String, V> later) {
+    if (earlier == null) {
+      return later;
+    }
+    if (later == null) {
+      return earlier;
+    }
+    Map<String, V> union = new HashMap<>(earlier);
+    union.putAll(later);
+    return union;
+  }
+
+  /** The updates merged for one contact; only touched while its map entry is locked. */
+  private static final class Window {
+    private final List<CompletableFuture<ContactResponse>> callers = new ArrayList<>(2);
+    private ContactUpdateRequest merged;
+
+    private void add(ContactUpdateRequest request, CompletableFuture<ContactResponse> response) {
+      merged = merged == null ? request : merge(merged, request);
+      callers.add(response);
+    }
+  }
+}
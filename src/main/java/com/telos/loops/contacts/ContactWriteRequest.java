@@ -0,0 +1,10 @@
+package com.telos.loops.contacts;
+
+/**
+ * A request that creates, updates or deletes a contact.
+ *
+ * <p>Lets one {@link ContactsClient#bulkAsync bulk run} mix the three kinds of write; each request
+ * is sent to its own endpoint.
+ */
+public sealed interface ContactWriteRequest
+    permits ContactCreateRequest, ContactUpdateRequest, ContactDeleteRequest {}
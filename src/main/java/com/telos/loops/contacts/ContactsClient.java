@@ -1,13 +1,23 @@
 package com.telos.loops.contacts;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.telos.loops.internal.BulkRunner;
 import com.telos.loops.internal.CoreSender;
 import com.telos.loops.internal.mappers.ContactsMapper;
+import com.telos.loops.model.BulkResult;
+import com.telos.loops.model.BulkSettings;
+import com.telos.loops.model.BulkSummary;
 import com.telos.loops.model.RequestOptions;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Client for managing contacts in Loops.
@@ -139,13 +149,13 @@ public class ContactsClient {
   public CompletableFuture<ContactResponse> createAsync(
       ContactCreateRequest request, RequestOptions options) {
     var generatedRequest = ContactsMapper.toGenerated(request);
-    return sender
-        .postJsonAsync(
+    return CoreSender.map(
+        sender.postJsonAsync(
             CREATE_PATH,
             generatedRequest,
             com.telos.loops.internal.openapi.model.ContactSuccessResponse.class,
-            options)
-        .thenApply(ContactsMapper::fromGenerated);
+            options),
+        ContactsMapper::fromGenerated);
   }
 
   // ============================================================
@@ -212,13 +222,25 @@ public class ContactsClient {
   public CompletableFuture<ContactResponse> updateAsync(
       ContactUpdateRequest request, RequestOptions options) {
     var generatedRequest = ContactsMapper.toGenerated(request);
-    return sender
-        .putJsonAsync(
+    return CoreSender.map(
+        sender.putJsonAsync(
             UPDATE_PATH,
             generatedRequest,
             com.telos.loops.internal.openapi.model.ContactSuccessResponse.class,
-            options)
-        .thenApply(ContactsMapper::fromGenerated);
+            options),
+        ContactsMapper::fromGenerated);
+  }
+
+  /**
+   * Creates a coalescer that merges updates to the same contact arriving within a window into one
+   * update.
+   *
+   * @param settings the window and bounds
+   * @return a new coalescer sending through this client
+   * @see ContactUpdateCoalescer
+   */
+  public ContactUpdateCoalescer coalescing(CoalescingSettings settings) {
+    return new ContactUpdateCoalescer(this, Objects.requireNonNull(settings));
   }
 
   // ============================================================
@@ -287,17 +309,16 @@ public class ContactsClient {
   public CompletableFuture<List<Contact>> findAsync(
       ContactFindRequest request, RequestOptions options) {
     var queryParams = ContactsMapper.toQueryParams(request);
-    return sender
-        .getListAsync(
+    return CoreSender.map(
+        sender.getListAsync(
             FIND_PATH,
             queryParams,
             new TypeReference<List<com.telos.loops.internal.openapi.model.Contact>>() {},
-            options)
-        .thenApply(
-            generatedContacts ->
-                generatedContacts.stream()
-                    .map(ContactsMapper::fromGenerated)
-                    .collect(Collectors.toList()));
+            options),
+        generatedContacts ->
+            generatedContacts.stream()
+                .map(ContactsMapper::fromGenerated)
+                .collect(Collectors.toList()));
   }
 
   // ============================================================
@@ -365,12 +386,111 @@ public class ContactsClient {
   public CompletableFuture<ContactResponse> deleteAsync(
       ContactDeleteRequest request, RequestOptions options) {
     var generatedRequest = ContactsMapper.toGenerated(request);
-    return sender
-        .deleteJsonAsync(
+    return CoreSender.map(
+        sender.deleteJsonAsync(
             DELETE_PATH,
             generatedRequest,
             com.telos.loops.internal.openapi.model.ContactDeleteResponse.class,
-            options)
-        .thenApply(ContactsMapper::fromGenerated);
+            options),
+        ContactsMapper::fromGenerated);
+  }
+
+  // ============================================================
+  // Bulk Operations
+  // ============================================================
+
+  /**
+   * Runs a stream of contact writes with a bounded number in flight and waits for all of them.
+   *
+   * @param requests the creates, updates and deletes to send
+   * @param settings the concurrency, timeout and request options
+   * @param results receives each request's outcome in completion order
+   * @return the totals
+   * @see #bulkAsync(Stream, BulkSettings, Consumer) for the asynchronous variant
+   */
+  public BulkSummary bulk(
+      Stream<? extends ContactWriteRequest> requests,
+      BulkSettings settings,
+      Consumer<? super BulkResult<ContactWriteRequest, ContactResponse>> results) {
+    try {
+      return bulkAsync(requests, settings, results).join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Asynchronously runs a stream of contact writes with a bounded number in flight.
+   *
+   * <p>Requests are read from the stream only as slots free up, so a lazily produced stream, such
+   * as rows read from a database cursor, is consumed at the pace the API accepts it and memory
+   * stays constant however long the stream is. A slow {@code results} consumer holds back the
+   * stream in turn. Each request passes through the client's rate limits like any other. A failed
+   * request is reported to {@code results} and does not stop the run.
+   *
+   * <p>When the stream's size is known and the settings have a timeout, each request's deadline is
+   * its fair share of the time left; see {@link com.telos.loops.model.DeadlineBudget}. The stream
+   * is closed when the run finishes.
+   *
+   * <pre>{@code
+   * BulkSummary summary = client.contacts()
+   *     .bulkAsync(users.map(this::toUpdate), BulkSettings.defaults(), result -> {
+   *         if (!result.isSuccess()) {
+   *             log.warn("Update {} failed", result.index(), result.error());
+   *         }
+   *     })
+   *     .join();
+   * }</pre>
+   *
+   * @param requests the creates, updates and deletes to send
+   * @param settings the concurrency, timeout and request options
+   * @param results receives each request's outcome in completion order, possibly from several
+   *     threads at once
+   * @return a future that completes with the totals once every request has completed; cancelling it
+   *     stops the run and cancels the requests in flight
+   */
+  public CompletableFuture<BulkSummary> bulkAsync(
+      Stream<? extends ContactWriteRequest> requests,
+      BulkSettings settings,
+      Consumer<? super BulkResult<ContactWriteRequest, ContactResponse>> results) {
+    Spliterator<? extends ContactWriteRequest> spliterator = requests.spliterator();
+    CompletableFuture<BulkSummary> summary =
+        BulkRunner.run(
+            Spliterators.iterator(spliterator),
+            spliterator.getExactSizeIfKnown(),
+            settings,
+            this::writeAsync,
+            results);
+    summary.whenComplete((ignored, error) -> requests.close());
+    return summary;
+  }
+
+  /**
+   * Asynchronously runs contact writes read from an iterator with a bounded number in flight.
+   *
+   * @param requests the creates, updates and deletes to send; read from one thread at a time
+   * @param settings the concurrency, timeout and request options
+   * @param results receives each request's outcome in completion order, possibly from several
+   *     threads at once
+   * @return a future that completes with the totals once every request has completed
+   * @see #bulkAsync(Stream, BulkSettings, Consumer)
+   */
+  public CompletableFuture<BulkSummary> bulkAsync(
+      Iterator<? extends ContactWriteRequest> requests,
+      BulkSettings settings,
+      Consumer<? super BulkResult<ContactWriteRequest, ContactResponse>> results) {
+    return BulkRunner.run(requests, -1, settings, this::writeAsync, results);
+  }
+
+  private CompletableFuture<ContactResponse> writeAsync(
+      ContactWriteRequest request, RequestOptions options) {
+    return switch (request) {
+      case ContactCreateRequest create -> createAsync(create, options);
+      case ContactUpdateRequest update -> updateAsync(update, options);
+      case ContactDeleteRequest delete -> deleteAsync(delete, options);
+    };
   }
 }
@@ -15,6 +15,10 @@
  *   <li>{@link com.telos.loops.contacts.ContactFindRequest} - Request to find contacts
  *   <li>{@link com.telos.loops.contacts.ContactDeleteRequest} - Request to delete a contact
  *   <li>{@link com.telos.loops.contacts.ContactResponse} - Response from contact operations
+ *   <li>{@link com.telos.loops.contacts.ContactWriteRequest} - A create, update or delete, as
+ *       accepted by the bulk operations
+ *   <li>{@link com.telos.loops.contacts.ContactUpdateCoalescer} - Merges updates to the same
+ *       contact within a window into one
  * </ul>
  *
  * <h2>Example Usage</h2>
@@ -0,0 +1,45 @@
+package com.telos.loops.error;
+
+/**
+ * Thrown when a request fails fast because the circuit breaker for its endpoint is open.
+ *
+ * <p>The breaker opens after the endpoint's recent calls failed or were slow often enough, and
+ * while it is open requests are rejected without being sent instead of waiting out connect and read
+ * timeouts against an API that is down. The request was never sent, so it is safe to retry once the
+ * breaker closes. The status code is 0, since no HTTP response was received.
+ *
+ * <h2>Example Usage</h2>
+ *
+ * <pre>{@code
+ * try {
+ *     client.transactional().send(email);
+ * } catch (CircuitOpenException e) {
+ *     // Loops is unavailable: queue the email for later
+ *     outbox.add(email);
+ * }
+ * }</pre>
+ *
+ * @see LoopsApiException
+ */
+public class CircuitOpenException extends LoopsApiException {
+  private final String endpoint;
+
+  /**
+   * Constructs a new CircuitOpenException.
+   *
+   * @param endpoint the endpoint path whose breaker rejected the request
+   */
+  public CircuitOpenException(String endpoint) {
+    super("Circuit breaker for " + endpoint + " is open", false);
+    this.endpoint = endpoint;
+  }
+
+  /**
+   * Returns the endpoint whose breaker rejected the request.
+   *
+   * @return the endpoint path
+   */
+  public String endpoint() {
+    return endpoint;
+  }
+}
@@ -0,0 +1,69 @@
+package com.telos.loops.error;
+
+/**
+ * Thrown when a request's {@link com.telos.loops.model.RequestOptions#deadline() deadline} passes
+ * before it completed.
+ *
+ * <p>While the client's rate budget is contended, requests wait to be dispatched. A request whose
+ * deadline expires while it waits is dropped without being sent and without using any of the
+ * budget, so the API has not seen it and it is safe to resend. Once a request is sent, the deadline
+ * also bounds the HTTP call, and a call still waiting for its response when the deadline passes is
+ * abandoned. The API may already have received and acted on it, so resending it, or falling back to
+ * another channel, can repeat its effect. {@link #wasSent()} tells the two cases apart. The status
+ * code is 0, since no HTTP response was received.
+ *
+ * <h2>Example Usage</h2>
+ *
+ * <pre>{@code
+ * RequestOptions options = RequestOptions.builder()
+ *         .priority(RequestPriority.CRITICAL)
+ *         .deadline(Instant.now().plusSeconds(5))
+ *         .build();
+ *
+ * try {
+ *     client.transactional().send(request, options);
+ * } catch (DeadlineExceededException e) {
+ *     if (!e.wasSent()) {
+ *         // Never sent: safe to fall back to another channel
+ *     } else {
+ *         // The email may still go out: check before sending it another way
+ *     }
+ * }
+ * }</pre>
+ *
+ * @see LoopsApiException
+ */
+public class DeadlineExceededException extends LoopsApiException {
+
+  private final boolean sent;
+
+  /**
+   * Constructs a new DeadlineExceededException for a request that was never sent.
+   *
+   * @param message the error message
+   */
+  public DeadlineExceededException(String message) {
+    this(message, false);
+  }
+
+  /**
+   * Constructs a new DeadlineExceededException.
+   *
+   * @param message the error message
+   * @param sent whether the request had been sent when its deadline passed
+   */
+  public DeadlineExceededException(String message, boolean sent) {
+    super(message);
+    this.sent = sent;
+  }
+
+  /**
+   * Returns whether the request had been sent when its deadline passed. If it had, the API may have
+   * received and acted on it; if not, the API has not seen it and it is safe to resend.
+   *
+   * @return true if the deadline passed while waiting for the response
+   */
+  public boolean wasSent() {
+    return sent;
+  }
+}
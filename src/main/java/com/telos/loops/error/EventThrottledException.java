@@ -0,0 +1,32 @@
+package com.telos.loops.error;
+
+/**
+ * Thrown when an event is suppressed because the same event was sent to the same contact within its
+ * throttle interval.
+ *
+ * <p>The event was never sent; suppression is the intended outcome of the throttle, not a failure
+ * to retry. The status code is 0, since no HTTP response was received.
+ *
+ * <h2>Example Usage</h2>
+ *
+ * <pre>{@code
+ * try {
+ *     throttledEvents.send(cartAbandoned);
+ * } catch (EventThrottledException e) {
+ *     // Already sent to this contact recently
+ * }
+ * }</pre>
+ *
+ * @see com.telos.loops.events.EventThrottleSettings
+ */
+public class EventThrottledException extends LoopsApiException {
+
+  /**
+   * Constructs a new EventThrottledException.
+   *
+   * @param message the error message
+   */
+  public EventThrottledException(String message) {
+    super(message, false);
+  }
+}
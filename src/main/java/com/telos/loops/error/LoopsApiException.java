@@ -66,6 +66,22 @@ public class LoopsApiException extends RuntimeException {
     this.error = null;
   }
 
+  /**
+   * Constructs a new LoopsApiException for a request the client turned away without sending it.
+   *
+   * <p>Subclasses for local rejections, which can be thrown at a high rate under load, pass false
+   * to skip capturing a stack trace, which would dominate the cost of a rejection.
+   *
+   * @param message the error message
+   * @param writableStackTrace whether the stack trace is captured
+   */
+  protected LoopsApiException(String message, boolean writableStackTrace) {
+    super(message, null, true, writableStackTrace);
+    this.statusCode = 0;
+    this.rawBody = null;
+    this.error = null;
+  }
+
   /**
    * Constructs a new LoopsApiException from an HTTP error response.
    *
@@ -0,0 +1,36 @@
+package com.telos.loops.error;
+
+/**
+ * Thrown when the client sheds a request because it is already saturated.
+ *
+ * <p>Raised when admission control finds the client's backlog too deep, too large or too slow to
+ * drain, and when a bulkhead or the concurrency limiter has no room left in its queue. The request
+ * was never sent, so it is safe to retry later or to shed further upstream. The status code is 0,
+ * since no HTTP response was received.
+ *
+ * <h2>Example Usage</h2>
+ *
+ * <pre>{@code
+ * if (client.isSaturated()) {
+ *     return Response.status(503).build();
+ * }
+ * try {
+ *     client.events().send(event);
+ * } catch (OverloadedException e) {
+ *     // Not sent: back off or drop
+ * }
+ * }</pre>
+ *
+ * @see LoopsApiException
+ */
+public class OverloadedException extends LoopsApiException {
+
+  /**
+   * Constructs a new OverloadedException.
+   *
+   * @param message the error message
+   */
+  public OverloadedException(String message) {
+    super(message, false);
+  }
+}
@@ -12,6 +12,10 @@ package com.telos.loops.error;
  * <p>The Loops API enforces rate limits to ensure fair usage and system stability. When you exceed
  * these limits, this exception provides the number of seconds to wait before retrying.
  *
+ * <p>When the client is configured with a client-side {@link
+ * com.telos.loops.resilience.RateLimiter}, this exception is also thrown, with a status code of 0,
+ * for requests the limiter refuses before they are sent.
+ *
  * <h2>Example Usage</h2>
  *
  * <pre>{@code
@@ -41,9 +45,11 @@ package com.telos.loops.error;
  *
  * <h2>Retry Behavior</h2>
  *
- * <p>The SDK does not automatically retry rate-limited requests. It's the caller's responsibility
- * to implement retry logic with appropriate backoff. Always respect the {@link #retryAfterSeconds}
- * value to avoid further rate limiting.
+ * <p>By default the SDK does not retry rate-limited requests. Configure a {@link
+ * com.telos.loops.resilience.RetryPolicy} on the client to retry idempotent requests automatically;
+ * this exception is then thrown only once the policy's attempt or time budget is spent. Otherwise,
+ * implement retry logic with appropriate backoff and respect the {@link #retryAfterSeconds} value
+ * to avoid further rate limiting.
  *
  * <p><b>Best Practices:</b>
  *
@@ -73,6 +79,18 @@ public class RateLimitExceededException extends LoopsApiException {
     this.retryAfterSeconds = retryAfterSeconds;
   }
 
+  /**
+   * Constructs a new RateLimitExceededException for a request refused by the client-side rate
+   * limiter before it was sent. The status code is 0, since no HTTP response was received.
+   *
+   * @param message the error message
+   * @param retryAfterSeconds the number of seconds until the limiter can grant a permit
+   */
+  public RateLimitExceededException(String message, long retryAfterSeconds) {
+    super(message);
+    this.retryAfterSeconds = retryAfterSeconds;
+  }
+
   /**
    * Returns the number of seconds to wait before retrying the request.
    *
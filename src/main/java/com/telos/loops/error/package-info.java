@@ -12,6 +12,14 @@
  *   +-- LoopsApiException (HTTP errors from API)
  *   |     |
  *   |     +-- RateLimitExceededException (HTTP 429)
+ *   |     |
+ *   |     +-- DeadlineExceededException (Deadline passed before completion)
+ *   |     |
+ *   |     +-- OverloadedException (Shed because the client is saturated)
+ *   |     |
+ *   |     +-- CircuitOpenException (Failed fast while the endpoint's circuit is open)
+ *   |     |
+ *   |     +-- EventThrottledException (Suppressed by a per-contact event throttle)
  *   |
  *   +-- LoopsValidationException (Client-side validation errors)
  * </pre>
@@ -23,6 +31,14 @@
  *       5xx)
  *   <li>{@link com.telos.loops.error.RateLimitExceededException} - Thrown when rate limit is
  *       exceeded (429)
+ *   <li>{@link com.telos.loops.error.DeadlineExceededException} - Thrown when a request's deadline
+ *       passes before it completes
+ *   <li>{@link com.telos.loops.error.OverloadedException} - Thrown when a request is shed because
+ *       the client is saturated
+ *   <li>{@link com.telos.loops.error.CircuitOpenException} - Thrown when a request fails fast
+ *       because its endpoint's circuit breaker is open
+ *   <li>{@link com.telos.loops.error.EventThrottledException} - Thrown when an event is suppressed
+ *       because it was sent to the contact within its throttle interval
  *   <li>{@link com.telos.loops.error.LoopsValidationException} - Thrown for client-side validation
  *       failures
  * </ul>
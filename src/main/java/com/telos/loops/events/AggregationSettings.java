@@ -0,0 +1,112 @@
+package com.telos.loops.events;
+
+import com.telos.loops.model.RequestOptions;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Window, property reducers and bounds of an {@link EventAggregator}.
+ *
+ * <p>Example usage:
+ *
+ * <pre>{@code
+ * AggregationSettings settings = AggregationSettings.builder()
+ *     .window(Duration.ofMinutes(5))
+ *     .reducer("uses", PropertyReducer.COUNT)
+ *     .reducer("seconds", PropertyReducer.SUM)
+ *     .reducer("peakSeats", PropertyReducer.MAX)
+ *     .build();
+ * }</pre>
+ *
+ * @param window how long events are aggregated before one event per group is emitted
+ * @param reducers how each named event property is combined; properties without a reducer take the
+ *     latest event's value
+ * @param maxGroups maximum number of (contact, event name) groups in a window; an event that would
+ *     start another group is emitted at once without aggregation
+ * @param options the options aggregated events are sent with, when the aggregator sends them
+ */
+public record AggregationSettings(
+    Duration window, Map<String, PropertyReducer> reducers, int maxGroups, RequestOptions options) {
+
+  /** Default aggregation window. */
+  public static final Duration DEFAULT_WINDOW = Duration.ofMinutes(1);
+
+  /** Default maximum number of groups in a window. */
+  public static final int DEFAULT_MAX_GROUPS = 100_000;
+
+  public AggregationSettings {
+    window = window == null ? DEFAULT_WINDOW : window;
+    if (window.isNegative() || window.isZero()) {
+      throw new IllegalArgumentException("window must be positive, got: " + window);
+    }
+    if (reducers != null) {
+      reducers.forEach(
+          (property, reducer) -> {
+            if (property == null || reducer == null) {
+              throw new IllegalArgumentException(
+                  "reducers must not contain nulls, got: " + property + "=" + reducer);
+            }
+          });
+    }
+    reducers =
+        reducers == null ? Map.of() : Collections.unmodifiableMap(new LinkedHashMap<>(reducers));
+    if (maxGroups < 1) {
+      throw new IllegalArgumentException("maxGroups must be positive, got: " + maxGroups);
+    }
+    options = options == null ? RequestOptions.none() : options;
+  }
+
+  /**
+   * Returns the default settings: a one-minute window, no reducers and up to 100,000 groups.
+   *
+   * @return the default settings
+   */
+  public static AggregationSettings defaults() {
+    return builder().build();
+  }
+
+  /**
+   * Creates a new builder for {@link AggregationSettings}.
+   *
+   * @return a new builder
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /** Builder for {@link AggregationSettings}. */
+  public static final class Builder {
+    private Duration window = DEFAULT_WINDOW;
+    private final Map<String, PropertyReducer> reducers = new LinkedHashMap<>();
+    private int maxGroups = DEFAULT_MAX_GROUPS;
+    private RequestOptions options;
+
+    private Builder() {}
+
+    public Builder window(Duration window) {
+      this.window = window;
+      return this;
+    }
+
+    public Builder reducer(String property, PropertyReducer reducer) {
+      this.reducers.put(property, reducer);
+      return this;
+    }
+
+    public Builder maxGroups(int maxGroups) {
+      this.maxGroups = maxGroups;
+      return this;
+    }
+
+    public Builder options(RequestOptions options) {
+      this.options = options;
+      return this;
+    }
+
+    public AggregationSettings build() {
+      return new AggregationSettings(window, reducers, maxGroups, options);
+    }
+  }
+}
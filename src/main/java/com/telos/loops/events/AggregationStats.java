@@ -0,0 +1,15 @@
+package com.telos.loops.events;
+
+/**
+ * Point-in-time view of an {@link EventAggregator}.
+ *
+ * <p>Counters are cumulative since the aggregator was created. The ratio of {@link #emitted()} to
+ * {@link #received()} is the share of events that still reach the API.
+ *
+ * @param groups (contact, event name) groups in the current window
+ * @param received events handed to the aggregator
+ * @param emitted aggregated events emitted at the end of a window
+ * @param passedThrough events emitted unaggregated because the window already held {@link
+ *     AggregationSettings#maxGroups()} groups
+ */
+public record AggregationStats(int groups, long received, long emitted, long passedThrough) {}
@@ -0,0 +1,306 @@
+package com.telos.loops.events;
+
+import com.telos.loops.error.LoopsApiException;
+import com.telos.loops.internal.BoundedMpmcQueue;
+import com.telos.loops.internal.CoreSender;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Buffers events and sends them in the background, so the threads that record events never wait for
+ * the network.
+ *
+ * <p>{@link #offer} puts the event in a lock-free bounded ring and returns: a few atomic operations
+ * and no allocation. Buffered events are sent once {@link EventSinkSettings#flushSize()} of them
+ * are waiting or {@link EventSinkSettings#flushInterval()} has passed. A flush runs up to {@link
+ * EventSinkSettings#dispatchers()} sends at a time until the buffer is empty. Each dispatcher
+ * starts its next send when the previous one completes, so no thread is parked on a response and
+ * the sends pass through the client's rate limits like any other request. What happens to an event
+ * offered while the buffer is full is set by the {@link OverflowPolicy}.
+ *
+ * <p>The Loops API takes one event per request, so buffering does not cut the number of requests;
+ * it takes the request and its future off the caller's thread and smooths bursts into a steady
+ * stream the rate budget can absorb.
+ *
+ * <pre>{@code
+ * BufferedEventSink sink = client.events().buffered(EventSinkSettings.defaults());
+ *
+ * // On a request thread
+ * sink.offer(EventSendRequest.builder().email(email).eventName("pageViewed").build());
+ *
+ * // On shutdown
+ * sink.close();
+ * }</pre>
+ *
+ * <p>Failed sends are logged and counted in {@link #stats()}; pass a failure handler to {@link
+ * EventsClient#buffered(EventSinkSettings, BiConsumer)} to act on them.
+ */
+public final class BufferedEventSink implements AutoCloseable {
+
+  private static final Logger logger = LoggerFactory.getLogger(BufferedEventSink.class);
+
+  // How long a producer blocked on a full buffer parks before it checks again
+  private static final long BLOCKED_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+  private final EventsClient events;
+  private final EventSinkSettings settings;
+  private final BiConsumer<EventSendRequest, LoopsApiException> onFailure;
+  private final BoundedMpmcQueue<EventSendRequest> buffer;
+  private final ScheduledExecutorService flusher;
+
+  private final AtomicInteger dispatchers = new AtomicInteger();
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicBoolean flushPending = new AtomicBoolean();
+  private final Queue<CompletableFuture<Void>> drainWaiters = new ConcurrentLinkedQueue<>();
+  private final LongAdder accepted = new LongAdder();
+  private final LongAdder sent = new LongAdder();
+  private final LongAdder failed = new LongAdder();
+  private final LongAdder dropped = new LongAdder();
+  private volatile boolean closed;
+
+  BufferedEventSink(
+      EventsClient events,
+      EventSinkSettings settings,
+      BiConsumer<EventSendRequest, LoopsApiException> onFailure) {
+    this.events = events;
+    this.settings = settings;
+    this.onFailure = onFailure;
+    this.buffer = new BoundedMpmcQueue<>(settings.capacity());
+    this.flusher =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "loops-event-sink");
+              thread.setDaemon(true);
+              return thread;
+            });
+    long intervalNanos = settings.flushInterval().toNanos();
+    flusher.scheduleWithFixedDelay(
+        this::startDispatchers, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Buffers an event for sending.
+   *
+   * <p>Never waits for the network. With {@link OverflowPolicy#BLOCK}, waits for room while the
+   * buffer is full.
+   *
+   * @param event the event to send
+   * @return true if the event was buffered; false if it was dropped because the buffer is full or
+   *     the sink is closed
+   */
+  public boolean offer(EventSendRequest event) {
+    Objects.requireNonNull(event, "event");
+    if (closed) {
+      dropped.increment();
+      return false;
+    }
+    while (!buffer.offer(event)) {
+      switch (settings.overflowPolicy()) {
+        case DROP_NEWEST -> {
+          dropped.increment();
+          return false;
+        }
+        case DROP_OLDEST -> {
+          if (buffer.poll() != null) {
+            dropped.increment();
+          }
+        }
+        case BLOCK -> {
+          requestFlush();
+          LockSupport.parkNanos(BLOCKED_PARK_NANOS);
+          if (closed) {
+            dropped.increment();
+            return false;
+          }
+        }
+      }
+    }
+    accepted.increment();
+    if (buffer.size() >= settings.flushSize()) {
+      requestFlush();
+    }
+    return true;
+  }
+
+  /**
+   * Sends every buffered event now and waits until the buffer is empty and no send is in flight.
+   *
+   * @param timeout how long to wait
+   * @throws TimeoutException if the sink has not drained within the timeout
+   */
+  public void flush(Duration timeout) throws TimeoutException {
+    try {
+      flushAsync().get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CompletionException(e);
+    } catch (ExecutionException e) {
+      throw new CompletionException(e.getCause());
+    }
+  }
+
+  /**
+   * Sends every buffered event now.
+   *
+   * <p>While events keep arriving the sink only drains once the dispatchers catch up with them.
+   *
+   * @return a future that completes once the buffer is empty and no send is in flight
+   */
+  public CompletableFuture<Void> flushAsync() {
+    CompletableFuture<Void> drained = new CompletableFuture<>();
+    drainWaiters.add(drained);
+    notifyIfDrained();
+    requestFlush();
+    return drained;
+  }
+
+  /**
+   * Stops accepting events, sends those buffered, and waits up to {@link
+   * EventSinkSettings#closeTimeout()} for them. Events still buffered after the timeout are
+   * dropped; sends already in flight complete.
+   */
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      flush(settings.closeTimeout());
+    } catch (TimeoutException e) {
+      int unsent = 0;
+      while (buffer.poll() != null) {
+        dropped.increment();
+        unsent++;
+      }
+      logger.warn(
+          "Event sink dropped {} unsent events after closing for {} ms",
+          unsent,
+          settings.closeTimeout().toMillis());
+    } finally {
+      flusher.shutdownNow();
+    }
+  }
+
+  /**
+   * Returns buffer occupancy and event counters.
+   *
+   * @return the sink's stats
+   */
+  public EventSinkStats stats() {
+    return new EventSinkStats(
+        buffer.size(), inFlight.get(), accepted.sum(), sent.sum(), failed.sum(), dropped.sum());
+  }
+
+  /** Has the flusher thread start dispatchers; producers never dispatch themselves. */
+  private void requestFlush() {
+    if (!flushPending.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      flusher.execute(
+          () -> {
+            flushPending.set(false);
+            startDispatchers();
+          });
+    } catch (RejectedExecutionException e) {
+      // Shut down after a close timed out
+      flushPending.set(false);
+    }
+  }
+
+  private void startDispatchers() {
+    while (!buffer.isEmpty()) {
+      int running = dispatchers.get();
+      if (running >= settings.dispatchers()) {
+        return;
+      }
+      if (dispatchers.compareAndSet(running, running + 1)) {
+        dispatch();
+      }
+    }
+  }
+
+  /**
+   * Sends buffered events one after another until the buffer is empty. Continues on the thread that
+   * completes each send; a send that completes at once is followed in the same loop.
+   */
+  private void dispatch() {
+    while (true) {
+      // Counted before the poll, so a taken event is never invisible to the drain check
+      inFlight.incrementAndGet();
+      EventSendRequest event = buffer.poll();
+      if (event == null) {
+        inFlight.decrementAndGet();
+        dispatchers.decrementAndGet();
+        notifyIfDrained();
+        if (!buffer.isEmpty()) {
+          // Offered after the poll; do not leave it waiting for the next interval
+          requestFlush();
+        }
+        return;
+      }
+      CompletableFuture<EventResponse> send;
+      try {
+        send = events.sendAsync(event, null, settings.options());
+      } catch (RuntimeException e) {
+        send = CompletableFuture.failedFuture(e);
+      }
+      if (!send.isDone()) {
+        send.whenComplete(
+            (response, error) -> {
+              record(event, error);
+              dispatch();
+            });
+        return;
+      }
+      record(event, send.handle((response, error) -> error).join());
+    }
+  }
+
+  private void record(EventSendRequest event, Throwable error) {
+    if (error == null) {
+      sent.increment();
+    } else {
+      failed.increment();
+      LoopsApiException failure = CoreSender.toLoopsException(error);
+      if (onFailure != null) {
+        try {
+          onFailure.accept(event, failure);
+        } catch (RuntimeException e) {
+          logger.warn("Event sink failure handler failed", e);
+        }
+      } else {
+        logger.warn("Buffered event {} failed: {}", event.eventName(), failure.getMessage());
+      }
+    }
+    inFlight.decrementAndGet();
+  }
+
+  private void notifyIfDrained() {
+    if (drainWaiters.isEmpty() || !buffer.isEmpty() || inFlight.get() != 0) {
+      return;
+    }
+    CompletableFuture<Void> waiter;
+    while ((waiter = drainWaiters.poll()) != null) {
+      waiter.complete(null);
+    }
+  }
+}
@@ -0,0 +1,163 @@
+package com.telos.loops.events;
+
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Rolls up high-frequency events into one event per contact and event name per window.
+ *
+ * <p>Events recorded within a {@link AggregationSettings#window()} are grouped by (email, user ID,
+ * event name). When the window ends each group becomes one event: the latest event's fields, with
+ * the properties that have a {@link PropertyReducer} replaced by the reduced value, such as the
+ * number of events or the sum of a property. Other properties keep the latest event's value.
+ *
+ * <pre>{@code
+ * EventAggregator usage = client.events().aggregating(
+ *     AggregationSettings.builder()
+ *         .window(Duration.ofMinutes(5))
+ *         .reducer("uses", PropertyReducer.COUNT)
+ *         .reducer("seconds", PropertyReducer.SUM)
+ *         .build());
+ *
+ * // Thousands of times per contact
+ * usage.record(EventSendRequest.builder()
+ *     .email(email)
+ *     .eventName("featureUsed")
+ *     .putEventProperty("seconds", 3)
+ *     .build());
+ * }</pre>
+ *
+ * <p>Groups are spread over independently locked stripes, and each keeps its aggregates in
+ * primitive arrays, so recording an event for an existing group allocates nothing and threads
+ * recording different contacts rarely contend. {@link #close()} emits the current window.
+ */
+public final class EventAggregator implements AutoCloseable {
+
+  private static final Logger logger = LoggerFactory.getLogger(EventAggregator.class);
+
+  private static final int STRIPE_BITS = 4;
+  private static final int STRIPES = 1 << STRIPE_BITS;
+
+  private final Stripe[] stripes = new Stripe[STRIPES];
+  private final Consumer<EventSendRequest> downstream;
+  private final ScheduledExecutorService scheduler;
+  private final LongAdder received = new LongAdder();
+  private final LongAdder emitted = new LongAdder();
+  private final LongAdder passedThrough = new LongAdder();
+  private volatile boolean closed;
+
+  EventAggregator(AggregationSettings settings, Consumer<EventSendRequest> downstream) {
+    this.downstream = downstream;
+    int groupsPerStripe = (settings.maxGroups() + STRIPES - 1) / STRIPES;
+    for (int i = 0; i < STRIPES; i++) {
+      stripes[i] = new Stripe(settings, groupsPerStripe);
+    }
+    this.scheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "loops-event-aggregator");
+              thread.setDaemon(true);
+              return thread;
+            });
+    long windowNanos = settings.window().toNanos();
+    scheduler.scheduleAtFixedRate(this::emitWindow, windowNanos, windowNanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Adds an event to its group in the current window.
+   *
+   * <p>After {@link #close()}, or when the window already holds {@link
+   * AggregationSettings#maxGroups()} groups and the event would start another, the event is emitted
+   * at once without aggregation.
+   *
+   * @param event the event
+   */
+  public void record(EventSendRequest event) {
+    Objects.requireNonNull(event, "event");
+    received.increment();
+    int hash = EventGroupTable.hash(event);
+    // The stripe takes the top bits and the table slot the low ones, so a stripe's groups still
+    // spread over all of its slots
+    if (closed || !stripes[hash >>> (Integer.SIZE - STRIPE_BITS)].add(event, hash)) {
+      passedThrough.increment();
+      downstream.accept(event);
+    }
+  }
+
+  /** Emits the current window now, on the calling thread, and starts a new one. */
+  public void flush() {
+    emitWindow();
+  }
+
+  /**
+   * Returns the number of groups in the current window and event counters.
+   *
+   * @return the aggregator's stats
+   */
+  public AggregationStats stats() {
+    int groups = 0;
+    for (Stripe stripe : stripes) {
+      groups += stripe.size();
+    }
+    return new AggregationStats(groups, received.sum(), emitted.sum(), passedThrough.sum());
+  }
+
+  /** Stops aggregating and emits the current window; later events are emitted at once. */
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    scheduler.shutdown();
+    emitWindow();
+  }
+
+  /** Swaps each stripe to its spare table and emits the retired one; one window at a time. */
+  private synchronized void emitWindow() {
+    for (Stripe stripe : stripes) {
+      EventGroupTable retired = stripe.swap();
+      retired.drain(
+          event -> {
+            emitted.increment();
+            try {
+              downstream.accept(event);
+            } catch (RuntimeException e) {
+              logger.warn("Aggregated event {} could not be emitted", event.eventName(), e);
+            }
+          });
+      stripe.spare = retired;
+    }
+  }
+
+  private static final class Stripe {
+    private EventGroupTable active;
+    // Touched only by the thread emitting a window
+    private EventGroupTable spare;
+
+    private Stripe(AggregationSettings settings, int maxGroups) {
+      this.active = new EventGroupTable(settings.reducers(), maxGroups);
+      this.spare = new EventGroupTable(settings.reducers(), maxGroups);
+    }
+
+    private synchronized boolean add(EventSendRequest event, int hash) {
+      return active.add(event, hash);
+    }
+
+    private synchronized int size() {
+      return active.size();
+    }
+
+    private synchronized EventGroupTable swap() {
+      EventGroupTable retired = active;
+      active = spare;
+      return retired;
+    }
+  }
+}
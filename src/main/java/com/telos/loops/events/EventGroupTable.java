@@ -0,0 +1,219 @@
+package com.telos.loops.events;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * One window's aggregates for an {@link EventAggregator}, keyed by (email, user ID, event name).
+ *
+ * <p>An open-addressing table over parallel arrays: the keys are read from the event itself and
+ * each group's reduced values live in primitive arrays, so adding an event to an existing group
+ * allocates nothing. Arrays grow by doubling and are cleared, not dropped, after each window, so a
+ * table reaches its working size once. Not thread-safe.
+ */
+final class EventGroupTable {
+
+  private static final int INITIAL_GROUPS = 16;
+  private static final byte SEEN = 1;
+  private static final byte FRACTIONAL = 2;
+
+  private final String[] properties;
+  private final PropertyReducer[] reducers;
+  private final int width;
+  private final int maxGroups;
+
+  // Slot -> group index + 1, or 0 when free; 2 to 4 slots per group, so at most half full
+  private int[] slots;
+  private int[] hashes;
+  private EventSendRequest[] latest;
+  private long[] counts;
+  private double[] values;
+  private byte[] flags;
+  private Object[] lastValues;
+  private int size;
+
+  EventGroupTable(Map<String, PropertyReducer> reducers, int maxGroups) {
+    this.properties = reducers.keySet().toArray(String[]::new);
+    this.reducers = reducers.values().toArray(PropertyReducer[]::new);
+    this.width = properties.length;
+    this.maxGroups = maxGroups;
+    allocate(Math.min(INITIAL_GROUPS, maxGroups));
+  }
+
+  /** Returns the hash an event is grouped by. */
+  static int hash(EventSendRequest event) {
+    int hash = Objects.hashCode(event.email());
+    hash = 31 * hash + Objects.hashCode(event.userId());
+    hash = 31 * hash + event.eventName().hashCode();
+    return hash ^ (hash >>> 16);
+  }
+
+  /**
+   * Adds an event to its group.
+   *
+   * @param event the event
+   * @param hash the event's {@link #hash}
+   * @return false if the event would start a group and the table already holds its maximum
+   */
+  boolean add(EventSendRequest event, int hash) {
+    int group = find(event, hash);
+    if (group < 0) {
+      if (size == maxGroups) {
+        return false;
+      }
+      if (size == latest.length) {
+        grow();
+      }
+      group = size++;
+      hashes[group] = hash;
+      insert(group, hash);
+    }
+    accumulate(group, event);
+    return true;
+  }
+
+  /** Returns the number of groups. */
+  int size() {
+    return size;
+  }
+
+  /** Emits one event per group, then clears the table for the next window. */
+  void drain(Consumer<EventSendRequest> emit) {
+    for (int group = 0; group < size; group++) {
+      emit.accept(toEvent(group));
+    }
+    Arrays.fill(slots, 0);
+    Arrays.fill(latest, 0, size, null);
+    Arrays.fill(counts, 0, size, 0);
+    Arrays.fill(flags, 0, size * width, (byte) 0);
+    Arrays.fill(lastValues, 0, size * width, null);
+    size = 0;
+  }
+
+  private int find(EventSendRequest event, int hash) {
+    int mask = slots.length - 1;
+    for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+      int group = slots[slot] - 1;
+      if (group < 0) {
+        return -1;
+      }
+      if (hashes[group] == hash && sameGroup(latest[group], event)) {
+        return group;
+      }
+    }
+  }
+
+  private static boolean sameGroup(EventSendRequest a, EventSendRequest b) {
+    return a.eventName().equals(b.eventName())
+        && Objects.equals(a.email(), b.email())
+        && Objects.equals(a.userId(), b.userId());
+  }
+
+  private void insert(int group, int hash) {
+    int mask = slots.length - 1;
+    int slot = hash & mask;
+    while (slots[slot] != 0) {
+      slot = (slot + 1) & mask;
+    }
+    slots[slot] = group + 1;
+  }
+
+  private void accumulate(int group, EventSendRequest event) {
+    latest[group] = event;
+    counts[group]++;
+    Map<String, Object> eventProperties = event.eventProperties();
+    for (int property = 0; property < width; property++) {
+      PropertyReducer reducer = reducers[property];
+      if (reducer == PropertyReducer.COUNT) {
+        continue;
+      }
+      Object value = eventProperties.get(properties[property]);
+      int at = group * width + property;
+      if (reducer == PropertyReducer.LAST) {
+        if (value != null) {
+          lastValues[at] = value;
+        }
+      } else if (value instanceof Number number) {
+        double amount = number.doubleValue();
+        if (!isIntegral(number)) {
+          flags[at] |= FRACTIONAL;
+        }
+        if ((flags[at] & SEEN) == 0) {
+          values[at] = amount;
+          flags[at] |= SEEN;
+        } else if (reducer == PropertyReducer.SUM) {
+          values[at] += amount;
+        } else {
+          values[at] = Math.max(values[at], amount);
+        }
+      }
+    }
+  }
+
+  private EventSendRequest toEvent(int group) {
+    EventSendRequest last = latest[group];
+    Map<String, Object> eventProperties = new HashMap<>(last.eventProperties());
+    for (int property = 0; property < width; property++) {
+      String name = properties[property];
+      int at = group * width + property;
+      switch (reducers[property]) {
+        case COUNT -> eventProperties.put(name, counts[group]);
+        case SUM, MAX -> {
+          if ((flags[at] & SEEN) == 0) {
+            eventProperties.remove(name);
+          } else if ((flags[at] & FRACTIONAL) != 0) {
+            eventProperties.put(name, values[at]);
+          } else {
+            eventProperties.put(name, (long) values[at]);
+          }
+        }
+        case LAST -> {
+          if (lastValues[at] != null) {
+            eventProperties.put(name, lastValues[at]);
+          }
+        }
+      }
+    }
+    return new EventSendRequest(
+        last.email(),
+        last.userId(),
+        last.eventName(),
+        eventProperties,
+        last.mailingLists(),
+        last.additionalProperties());
+  }
+
+  private static boolean isIntegral(Number number) {
+    return number instanceof Integer
+        || number instanceof Long
+        || number instanceof Short
+        || number instanceof Byte;
+  }
+
+  private void allocate(int groups) {
+    slots = new int[Integer.highestOneBit(groups) << 2];
+    hashes = new int[groups];
+    latest = new EventSendRequest[groups];
+    counts = new long[groups];
+    values = new double[groups * width];
+    flags = new byte[groups * width];
+    lastValues = new Object[groups * width];
+  }
+
+  private void grow() {
+    int groups = (int) Math.min((long) latest.length << 1, maxGroups);
+    slots = new int[Integer.highestOneBit(groups) << 2];
+    hashes = Arrays.copyOf(hashes, groups);
+    latest = Arrays.copyOf(latest, groups);
+    counts = Arrays.copyOf(counts, groups);
+    values = Arrays.copyOf(values, groups * width);
+    flags = Arrays.copyOf(flags, groups * width);
+    lastValues = Arrays.copyOf(lastValues, groups * width);
+    for (int group = 0; group < size; group++) {
+      insert(group, hashes[group]);
+    }
+  }
+}
@@ -0,0 +1,152 @@
+package com.telos.loops.events;
+
+import com.telos.loops.model.RequestOptions;
+import java.time.Duration;
+
+/**
+ * Buffer size, flush triggers and dispatch concurrency of a {@link BufferedEventSink}.
+ *
+ * <p>Buffered events are sent once {@link #flushSize()} of them are waiting or {@link
+ * #flushInterval()} has passed, whichever comes first, by at most {@link #dispatchers()} sends in
+ * flight. Each send still passes through the client's rate limits, so the dispatchers bound how
+ * much of the client's capacity the sink takes rather than the send rate.
+ *
+ * <p>Example usage:
+ *
+ * <pre>{@code
+ * EventSinkSettings settings = EventSinkSettings.builder()
+ *     .capacity(50_000)
+ *     .flushSize(100)
+ *     .flushInterval(Duration.ofMillis(500))
+ *     .overflowPolicy(OverflowPolicy.DROP_OLDEST)
+ *     .build();
+ * }</pre>
+ *
+ * @param capacity maximum number of buffered events; rounded up to a power of two
+ * @param dispatchers maximum number of sends in flight
+ * @param flushSize number of buffered events that starts a flush
+ * @param flushInterval longest an event waits before a flush starts
+ * @param overflowPolicy what to do with an event offered while the buffer is full
+ * @param closeTimeout how long {@link BufferedEventSink#close()} waits for buffered events to be
+ *     sent
+ * @param options the options every event is sent with
+ */
+public record EventSinkSettings(
+    int capacity,
+    int dispatchers,
+    int flushSize,
+    Duration flushInterval,
+    OverflowPolicy overflowPolicy,
+    Duration closeTimeout,
+    RequestOptions options) {
+
+  /** Default buffer capacity. */
+  public static final int DEFAULT_CAPACITY = 8_192;
+
+  /** Default number of sends in flight. */
+  public static final int DEFAULT_DISPATCHERS = 4;
+
+  /** Default number of buffered events that starts a flush. */
+  public static final int DEFAULT_FLUSH_SIZE = 64;
+
+  /** Default longest wait before a flush starts. */
+  public static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofMillis(200);
+
+  /** Default time close waits for buffered events to be sent. */
+  public static final Duration DEFAULT_CLOSE_TIMEOUT = Duration.ofSeconds(30);
+
+  public EventSinkSettings {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("capacity must be positive, got: " + capacity);
+    }
+    if (dispatchers < 1) {
+      throw new IllegalArgumentException("dispatchers must be positive, got: " + dispatchers);
+    }
+    if (flushSize < 1 || flushSize > capacity) {
+      throw new IllegalArgumentException(
+          "flushSize must be between 1 and capacity, got: " + flushSize);
+    }
+    flushInterval = flushInterval == null ? DEFAULT_FLUSH_INTERVAL : flushInterval;
+    if (flushInterval.isNegative() || flushInterval.isZero()) {
+      throw new IllegalArgumentException("flushInterval must be positive, got: " + flushInterval);
+    }
+    overflowPolicy = overflowPolicy == null ? OverflowPolicy.DROP_NEWEST : overflowPolicy;
+    closeTimeout = closeTimeout == null ? DEFAULT_CLOSE_TIMEOUT : closeTimeout;
+    if (closeTimeout.isNegative()) {
+      throw new IllegalArgumentException("closeTimeout must not be negative, got: " + closeTimeout);
+    }
+    options = options == null ? RequestOptions.none() : options;
+  }
+
+  /**
+   * Returns the default settings: 8192 buffered events, 4 sends in flight, a flush every 64 events
+   * or 200 ms, and new events dropped while the buffer is full.
+   *
+   * @return the default settings
+   */
+  public static EventSinkSettings defaults() {
+    return builder().build();
+  }
+
+  /**
+   * Creates a new builder for {@link EventSinkSettings}.
+   *
+   * @return a new builder
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /** Builder for {@link EventSinkSettings}. */
+  public static final class Builder {
+    private int capacity = DEFAULT_CAPACITY;
+    private int dispatchers = DEFAULT_DISPATCHERS;
+    private int flushSize = DEFAULT_FLUSH_SIZE;
+    private Duration flushInterval = DEFAULT_FLUSH_INTERVAL;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_NEWEST;
+    private Duration closeTimeout = DEFAULT_CLOSE_TIMEOUT;
+    private RequestOptions options;
+
+    private Builder() {}
+
+    public Builder capacity(int capacity) {
+      this.capacity = capacity;
+      return this;
+    }
+
+    public Builder dispatchers(int dispatchers) {
+      this.dispatchers = dispatchers;
+      return this;
+    }
+
+    public Builder flushSize(int flushSize) {
+      this.flushSize = flushSize;
+      return this;
+    }
+
+    public Builder flushInterval(Duration flushInterval) {
+      this.flushInterval = flushInterval;
+      return this;
+    }
+
+    public Builder overflowPolicy(OverflowPolicy overflowPolicy) {
+      this.overflowPolicy = overflowPolicy;
+      return this;
+    }
+
+    public Builder closeTimeout(Duration closeTimeout) {
+      this.closeTimeout = closeTimeout;
+      return this;
+    }
+
+    public Builder options(RequestOptions options) {
+      this.options = options;
+      return this;
+    }
+
+    public EventSinkSettings build() {
+      return new EventSinkSettings(
+          capacity, dispatchers, flushSize, flushInterval, overflowPolicy, closeTimeout, options);
+    }
+  }
+}
@@ -0,0 +1,18 @@
+package com.telos.loops.events;
+
+/**
+ * Point-in-time view of a {@link BufferedEventSink}.
+ *
+ * <p>Counters are cumulative since the sink was created. A growing {@link #dropped()} count means
+ * events arrive faster than the client sends them; raise the sink's capacity or dispatchers, or the
+ * client's rate budget.
+ *
+ * @param buffered events waiting to be sent
+ * @param inFlight sends started and not yet completed
+ * @param accepted events taken into the buffer
+ * @param sent events the API accepted
+ * @param failed events whose send failed
+ * @param dropped events rejected or evicted because the buffer was full, or offered after close
+ */
+public record EventSinkStats(
+    int buffered, int inFlight, long accepted, long sent, long failed, long dropped) {}
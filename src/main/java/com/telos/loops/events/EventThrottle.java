@@ -0,0 +1,124 @@
+package com.telos.loops.events;
+
+import com.telos.loops.error.EventThrottledException;
+import com.telos.loops.internal.FingerprintTtlSet;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Tracks which (event name, contact) pairs were sent within their interval, for {@link
+ * EventsClient#throttled(EventThrottleSettings)}.
+ *
+ * <p>Each pair is hashed to 64 bits straight from the strings, without building a key, and kept in
+ * a {@link FingerprintTtlSet} whose ticks are whole seconds since the throttle was created.
+ */
+final class EventThrottle {
+
+  private static final long FNV_OFFSET = 0xcbf2_9ce4_8422_2325L;
+  private static final long FNV_PRIME = 0x0100_0000_01b3L;
+
+  private final Map<String, Integer> intervalSeconds = new HashMap<>();
+  private final FingerprintTtlSet sent;
+  private final LongSupplier clock;
+  private final long origin;
+  private final LongAdder allowed = new LongAdder();
+  private final LongAdder suppressed = new LongAdder();
+  private final LongAdder untracked = new LongAdder();
+
+  EventThrottle(EventThrottleSettings settings) {
+    this(settings, System::nanoTime);
+  }
+
+  EventThrottle(EventThrottleSettings settings, LongSupplier clock) {
+    settings
+        .limits()
+        .forEach(
+            (eventName, interval) -> intervalSeconds.put(eventName, (int) ceilSeconds(interval)));
+    this.sent = new FingerprintTtlSet(settings.maxKeys());
+    this.clock = clock;
+    this.origin = clock.getAsLong();
+  }
+
+  /**
+   * Records an event about to be sent, unless it was sent to the contact within its interval.
+   *
+   * @param event the event
+   * @return the key to {@link #release} if the send fails, or 0 if the event is not tracked
+   * @throws EventThrottledException if the event is suppressed
+   */
+  long acquire(EventSendRequest event) {
+    Integer interval = intervalSeconds.get(event.eventName());
+    if (interval == null) {
+      return 0;
+    }
+    long key;
+    if (event.email() != null) {
+      key = hash(event.eventName(), 'e', event.email());
+    } else if (event.userId() != null) {
+      key = hash(event.eventName(), 'u', event.userId());
+    } else {
+      // Fails validation when sent
+      return 0;
+    }
+    // Tick 0 is reserved for released keys
+    int now = (int) TimeUnit.NANOSECONDS.toSeconds(clock.getAsLong() - origin) + 1;
+    switch (sent.addIfAbsent(key, now + interval, now)) {
+      case ADDED -> {
+        allowed.increment();
+        return key;
+      }
+      case PRESENT -> {
+        suppressed.increment();
+        throw new EventThrottledException(
+            "Event "
+                + event.eventName()
+                + " suppressed: already sent to this contact within "
+                + Duration.ofSeconds(interval));
+      }
+      default -> {
+        untracked.increment();
+        return 0;
+      }
+    }
+  }
+
+  /** Forgets a send that failed, so the event can be sent again within its interval. */
+  void release(long key) {
+    if (key != 0) {
+      sent.expire(key);
+    }
+  }
+
+  EventThrottleStats stats() {
+    return new EventThrottleStats(allowed.sum(), suppressed.sum(), untracked.sum());
+  }
+
+  /** FNV-1a over the chars, then MurmurHash3's finalizer so every bit depends on every char. */
+  static long hash(String eventName, char kind, String identifier) {
+    long hash = FNV_OFFSET;
+    for (int i = 0; i < eventName.length(); i++) {
+      hash = (hash ^ eventName.charAt(i)) * FNV_PRIME;
+    }
+    // The length keeps ("ab", "c") and ("a", "bc") apart
+    hash = (hash ^ eventName.length()) * FNV_PRIME;
+    hash = (hash ^ kind) * FNV_PRIME;
+    for (int i = 0; i < identifier.length(); i++) {
+      hash = (hash ^ identifier.charAt(i)) * FNV_PRIME;
+    }
+    hash ^= hash >>> 33;
+    hash *= 0xff51_afd7_ed55_8ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ce_b9fe_1a85_ec53L;
+    hash ^= hash >>> 33;
+    return hash == 0 ? 1 : hash;
+  }
+
+  private static long ceilSeconds(Duration interval) {
+    long seconds = interval.getSeconds();
+    return interval.getNano() == 0 ? seconds : seconds + 1;
+  }
+}
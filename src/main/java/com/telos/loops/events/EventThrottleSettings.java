@@ -0,0 +1,115 @@
+package com.telos.loops.events;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-contact send limits of a throttled {@link EventsClient}.
+ *
+ * <p>Each limit allows one event of its name per contact per interval; contacts are told apart by
+ * email, or by user ID when the event has no email. Events without a limit are not throttled. The
+ * throttle's memory is fixed by {@link #maxKeys()}: about 11 to 22 bytes per (event name, contact)
+ * pair, whatever the names and identifiers are.
+ *
+ * <p>Example usage:
+ *
+ * <pre>{@code
+ * EventThrottleSettings settings = EventThrottleSettings.builder()
+ *     .limit("cartAbandoned", Duration.ofHours(6))
+ *     .limit("trialEnding", Duration.ofDays(1))
+ *     .maxKeys(20_000_000)
+ *     .build();
+ * }</pre>
+ *
+ * @param limits the minimum interval between sends of each event name to one contact; whole
+ *     seconds, rounded up
+ * @param maxKeys the number of (event name, contact) pairs the throttle tracks at once
+ */
+public record EventThrottleSettings(Map<String, Duration> limits, int maxKeys) {
+
+  /** Default number of tracked (event name, contact) pairs. */
+  public static final int DEFAULT_MAX_KEYS = 1_000_000;
+
+  /** Longest supported interval. */
+  public static final Duration MAX_INTERVAL = Duration.ofDays(365);
+
+  public EventThrottleSettings {
+    if (limits == null || limits.isEmpty()) {
+      throw new IllegalArgumentException("limits must not be empty, got: " + limits);
+    }
+    limits.forEach(
+        (eventName, interval) -> {
+          if (eventName == null || interval == null) {
+            throw new IllegalArgumentException(
+                "limits must not contain nulls, got: " + eventName + "=" + interval);
+          }
+          if (interval.isNegative() || interval.isZero() || interval.compareTo(MAX_INTERVAL) > 0) {
+            throw new IllegalArgumentException(
+                "interval must be positive and at most "
+                    + MAX_INTERVAL
+                    + ", got: "
+                    + eventName
+                    + "="
+                    + interval);
+          }
+        });
+    limits = Collections.unmodifiableMap(new LinkedHashMap<>(limits));
+    if (maxKeys < 1 || maxKeys > 1 << 29) {
+      throw new IllegalArgumentException("maxKeys must be between 1 and 2^29, got: " + maxKeys);
+    }
+  }
+
+  /**
+   * Creates a new builder for {@link EventThrottleSettings}.
+   *
+   * @return a new builder
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /** Builder for {@link EventThrottleSettings}. */
+  public static final class Builder {
+    private final Map<String, Duration> limits = new LinkedHashMap<>();
+    private int maxKeys = DEFAULT_MAX_KEYS;
+
+    private Builder() {}
+
+    /**
+     * Limits an event to one send per contact per interval. Setting a limit for the same event name
+     * again replaces it.
+     *
+     * @param eventName the event name to throttle
+     * @param interval the minimum time between sends to one contact, rounded up to whole seconds
+     * @return this builder
+     */
+    public Builder limit(String eventName, Duration interval) {
+      this.limits.put(eventName, interval);
+      return this;
+    }
+
+    /**
+     * Sets how many (event name, contact) pairs the throttle tracks at once. Defaults to {@link
+     * #DEFAULT_MAX_KEYS}.
+     *
+     * @param maxKeys the number of tracked pairs, which fixes the throttle's memory
+     * @return this builder
+     */
+    public Builder maxKeys(int maxKeys) {
+      this.maxKeys = maxKeys;
+      return this;
+    }
+
+    /**
+     * Builds the settings.
+     *
+     * @return the settings
+     * @throws IllegalArgumentException if no limit is set or a setting is out of range
+     */
+    public EventThrottleSettings build() {
+      return new EventThrottleSettings(limits, maxKeys);
+    }
+  }
+}
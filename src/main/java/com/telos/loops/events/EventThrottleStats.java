@@ -0,0 +1,14 @@
+package com.telos.loops.events;
+
+/**
+ * Counters of an events client's throttle, cumulative since the throttle was created.
+ *
+ * <p>Only events with a throttle interval are counted. A growing {@link #untracked()} count means
+ * the throttle holds more contacts than {@link EventThrottleSettings#maxKeys()} allows for; those
+ * events are sent without being throttled.
+ *
+ * @param allowed throttled events sent and recorded
+ * @param suppressed events suppressed because they were sent to the contact within the interval
+ * @param untracked throttled events sent without being recorded because the throttle was full
+ */
+public record EventThrottleStats(long allowed, long suppressed, long untracked) {}
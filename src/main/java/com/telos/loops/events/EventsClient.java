@@ -1,5 +1,7 @@
 package com.telos.loops.events;
 
+import com.telos.loops.error.EventThrottledException;
+import com.telos.loops.error.LoopsApiException;
 import com.telos.loops.error.LoopsValidationException;
 import com.telos.loops.internal.CoreSender;
 import com.telos.loops.internal.mappers.EventsMapper;
@@ -8,6 +10,10 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Client for sending events in Loops.
@@ -51,13 +57,20 @@ import java.util.concurrent.CompletableFuture;
  * @see com.telos.loops.LoopsClient
  */
 public class EventsClient {
+  private static final Logger logger = LoggerFactory.getLogger(EventsClient.class);
   private static final String SEND_PATH = "/events/send";
   private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 100;
 
   private final CoreSender sender;
+  private final EventThrottle throttle;
 
   public EventsClient(CoreSender sender) {
+    this(sender, null);
+  }
+
+  private EventsClient(CoreSender sender, EventThrottle throttle) {
     this.sender = Objects.requireNonNull(sender);
+    this.throttle = throttle;
   }
 
   // ============================================================
@@ -118,13 +131,21 @@ public class EventsClient {
     var generatedRequest = EventsMapper.toGenerated(request);
     var optionsWithIdempotency = addIdempotencyKey(options, idempotencyKey);
 
-    var generatedResponse =
-        sender.postJson(
-            SEND_PATH,
-            generatedRequest,
-            com.telos.loops.internal.openapi.model.EventSuccessResponse.class,
-            optionsWithIdempotency);
-    return EventsMapper.fromGenerated(generatedResponse);
+    long throttleKey = throttle == null ? 0 : throttle.acquire(request);
+    try {
+      var generatedResponse =
+          sender.postJson(
+              SEND_PATH,
+              generatedRequest,
+              com.telos.loops.internal.openapi.model.EventSuccessResponse.class,
+              optionsWithIdempotency);
+      return EventsMapper.fromGenerated(generatedResponse);
+    } catch (RuntimeException e) {
+      if (throttleKey != 0) {
+        throttle.release(throttleKey);
+      }
+      throw e;
+    }
   }
 
   /**
@@ -174,13 +195,143 @@ public class EventsClient {
     var generatedRequest = EventsMapper.toGenerated(request);
     var optionsWithIdempotency = addIdempotencyKey(options, idempotencyKey);
 
-    return sender
-        .postJsonAsync(
-            SEND_PATH,
-            generatedRequest,
-            com.telos.loops.internal.openapi.model.EventSuccessResponse.class,
-            optionsWithIdempotency)
-        .thenApply(EventsMapper::fromGenerated);
+    long throttleKey;
+    try {
+      throttleKey = throttle == null ? 0 : throttle.acquire(request);
+    } catch (EventThrottledException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+    CompletableFuture<EventResponse> response =
+        CoreSender.map(
+            sender.postJsonAsync(
+                SEND_PATH,
+                generatedRequest,
+                com.telos.loops.internal.openapi.model.EventSuccessResponse.class,
+                optionsWithIdempotency),
+            EventsMapper::fromGenerated);
+    if (throttleKey != 0) {
+      response.whenComplete(
+          (ignored, error) -> {
+            if (error != null) {
+              throttle.release(throttleKey);
+            }
+          });
+    }
+    return response;
+  }
+
+  // ============================================================
+  // Throttling
+  // ============================================================
+
+  /**
+   * Returns a client for the same account that sends each limited event at most once per contact
+   * per interval.
+   *
+   * <p>An event sent to a contact within its interval is suppressed locally: {@code send} throws,
+   * and {@code sendAsync} completes exceptionally with, an {@link EventThrottledException}, and no
+   * API call is made. A send that fails does not count, so it can be retried. Buffered sinks and
+   * aggregators created from the returned client are throttled too. The throttle's memory is fixed
+   * by {@link EventThrottleSettings#maxKeys()}.
+   *
+   * <pre>{@code
+   * EventsClient events = client.events().throttled(
+   *     EventThrottleSettings.builder().limit("cartAbandoned", Duration.ofHours(6)).build());
+   * }</pre>
+   *
+   * @param settings the per-event intervals and the number of tracked pairs
+   * @return a throttled client; this client is unchanged
+   */
+  public EventsClient throttled(EventThrottleSettings settings) {
+    return new EventsClient(sender, new EventThrottle(Objects.requireNonNull(settings)));
+  }
+
+  /**
+   * Returns how many throttled events were sent, suppressed, or sent untracked because the throttle
+   * was full.
+   *
+   * @return the throttle counters, all zero when this client is not throttled
+   * @see #throttled(EventThrottleSettings)
+   */
+  public EventThrottleStats throttleStats() {
+    return throttle == null ? new EventThrottleStats(0, 0, 0) : throttle.stats();
+  }
+
+  // ============================================================
+  // Buffered and Aggregated Sending
+  // ============================================================
+
+  /**
+   * Creates a sink that buffers events and sends them in the background.
+   *
+   * <p>Failed sends are logged and counted in {@link BufferedEventSink#stats()}. Close the sink to
+   * send what it still buffers.
+   *
+   * @param settings buffer size, flush triggers and dispatch concurrency
+   * @return a new sink sending through this client
+   * @see BufferedEventSink
+   */
+  public BufferedEventSink buffered(EventSinkSettings settings) {
+    return buffered(settings, null);
+  }
+
+  /**
+   * Creates a sink that buffers events and sends them in the background, handing each failed send
+   * to {@code onFailure}.
+   *
+   * <p>The handler runs on the thread that completed the send and must not block.
+   *
+   * @param settings buffer size, flush triggers and dispatch concurrency
+   * @param onFailure receives each event whose send failed, with the error
+   * @return a new sink sending through this client
+   * @see BufferedEventSink
+   */
+  public BufferedEventSink buffered(
+      EventSinkSettings settings, BiConsumer<EventSendRequest, LoopsApiException> onFailure) {
+    return new BufferedEventSink(this, Objects.requireNonNull(settings), onFailure);
+  }
+
+  /**
+   * Creates an aggregator that rolls up events into one per contact and event name per window and
+   * sends the result through this client.
+   *
+   * <p>Failed sends of aggregated events are logged.
+   *
+   * @param settings the window, property reducers and bounds
+   * @return a new aggregator sending through this client
+   * @see EventAggregator
+   */
+  public EventAggregator aggregating(AggregationSettings settings) {
+    RequestOptions options = settings.options();
+    return aggregating(
+        settings,
+        event ->
+            sendAsync(event, null, options)
+                .whenComplete(
+                    (response, error) -> {
+                      if (error != null) {
+                        logger.warn(
+                            "Aggregated event {} failed: {}",
+                            event.eventName(),
+                            error.getMessage());
+                      }
+                    }));
+  }
+
+  /**
+   * Creates an aggregator that rolls up events into one per contact and event name per window and
+   * hands the result to {@code downstream}, such as {@link BufferedEventSink#offer}.
+   *
+   * @param settings the window, property reducers and bounds
+   * @param downstream receives each aggregated event, and each event passed through unaggregated;
+   *     called from the aggregator's thread and from threads recording events
+   * @return a new aggregator
+   * @see EventAggregator
+   */
+  public EventAggregator aggregating(
+      AggregationSettings settings, Consumer<EventSendRequest> downstream) {
+    return new EventAggregator(
+        Objects.requireNonNull(settings), Objects.requireNonNull(downstream));
   }
 
   // ============================================================
@@ -204,6 +355,6 @@ public class EventsClient {
 
     Map<String, String> headers = new HashMap<>(options.headers());
     headers.put("Idempotency-Key", idempotencyKey);
-    return new RequestOptions(headers);
+    return options.withHeaders(headers);
   }
 }
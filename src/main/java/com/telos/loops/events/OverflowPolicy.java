@@ -0,0 +1,16 @@
+package com.telos.loops.events;
+
+/**
+ * What a {@link BufferedEventSink} does with an event offered while its buffer is full.
+ *
+ * <p>A full buffer means events are arriving faster than the client can send them; each policy
+ * picks which side pays.
+ */
+public enum OverflowPolicy {
+  /** Reject the new event; {@link BufferedEventSink#offer} returns false. */
+  DROP_NEWEST,
+  /** Evict the oldest buffered event to make room for the new one. */
+  DROP_OLDEST,
+  /** Make the offering thread wait for room. */
+  BLOCK
+}
@@ -0,0 +1,17 @@
+package com.telos.loops.events;
+
+/**
+ * How an {@link EventAggregator} combines one event property across the events it aggregates.
+ *
+ * <p>Properties without a reducer take their value from the latest event.
+ */
+public enum PropertyReducer {
+  /** The number of events aggregated; the events need not carry the property. */
+  COUNT,
+  /** The sum of the property's numeric values. */
+  SUM,
+  /** The largest of the property's numeric values. */
+  MAX,
+  /** The property's most recent non-null value. */
+  LAST
+}
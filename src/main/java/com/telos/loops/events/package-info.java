@@ -10,6 +10,13 @@
  *   <li>{@link com.telos.loops.events.EventsClient} - Client for event operations
  *   <li>{@link com.telos.loops.events.EventSendRequest} - Request to send an event
  *   <li>{@link com.telos.loops.events.EventResponse} - Response from sending an event
+ *   <li>{@link com.telos.loops.events.BufferedEventSink} - Buffers events and sends them in the
+ *       background
+ *   <li>{@link com.telos.loops.events.EventSinkSettings} - Buffer size and flush triggers of a sink
+ *   <li>{@link com.telos.loops.events.EventAggregator} - Rolls up events into one per contact and
+ *       event name per window
+ *   <li>{@link com.telos.loops.events.EventThrottleSettings} - Per-contact send limits of a
+ *       throttled client
  * </ul>
  *
  * <h2>Example Usage</h2>
@@ -0,0 +1,226 @@
+package com.telos.loops.internal;
+
+import com.telos.loops.error.OverloadedException;
+import com.telos.loops.resilience.AdmissionSettings;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Admits or sheds requests at the entry of {@link CoreSender}, before they reach the {@link
+ * RequestPipeline}.
+ *
+ * <p>A request is pending from {@link #admit()} until {@link #release}. Its queue depth and
+ * expected wait are checked before its body is serialized, and only its size with {@link
+ * #admitBody} afterwards, so a saturated client sheds requests without serializing them. Admission
+ * is lock-free: the pending count and byte total are reserved with atomic adds and rolled back on
+ * rejection, so a saturated client turns a request away in a few atomic operations and a stackless
+ * {@link OverloadedException}.
+ *
+ * <p>The expected queue wait follows Little's law: the pending count divided by the recent
+ * completion rate, which is sampled every {@value #SAMPLE_MILLIS} ms while requests are pending and
+ * smoothed. Until a sample has seen requests complete there is no rate to go on and the wait limit
+ * is not applied; when completions stop while requests are pending, the rate decays and the
+ * estimate grows until the client sheds. Sampling restarts whenever the client drains, so idle time
+ * does not count against throughput.
+ */
+public final class AdmissionController {
+
+  private static final long SAMPLE_MILLIS = 250;
+  private static final long SAMPLE_NANOS = TimeUnit.MILLISECONDS.toNanos(SAMPLE_MILLIS);
+  private static final double SMOOTHING = 0.3;
+  private static final double NANOS_PER_SECOND = 1e9;
+
+  private final int maxQueueDepth;
+  private final long maxQueueWaitNanos;
+  private final long maxPendingBytes;
+  private final LongSupplier clock;
+
+  private final AtomicInteger pending = new AtomicInteger();
+  private final AtomicLong pendingBytes = new AtomicLong();
+  private final LongAdder completed = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+
+  // Throughput sampling; the thread that advances sampleStart owns the other fields for that window
+  private final AtomicLong sampleStart;
+  private volatile long sampleCount;
+  private volatile int sampleStartPending;
+  // Smoothed completions per second, or negative until the first completion is seen
+  private volatile double completionRate = -1;
+
+  public AdmissionController(AdmissionSettings settings) {
+    this(settings, System::nanoTime);
+  }
+
+  AdmissionController(AdmissionSettings settings, LongSupplier clock) {
+    this.maxQueueDepth = settings.maxQueueDepth();
+    this.maxQueueWaitNanos = settings.maxQueueWait().toNanos();
+    this.maxPendingBytes = settings.maxPendingBytes();
+    this.clock = clock;
+    this.sampleStart = new AtomicLong(clock.getAsLong());
+  }
+
+  /**
+   * Admits a request whose body is already serialized, which must be {@link #release released} once
+   * its response is handled.
+   *
+   * @param bodyBytes the size of the request body
+   * @throws OverloadedException if admitting the request would exceed a limit
+   */
+  public void admit(long bodyBytes) {
+    admit();
+    admitBody(bodyBytes);
+  }
+
+  /**
+   * Admits a request by queue depth and expected wait, before its body is serialized. The request
+   * must then go through {@link #admitBody}, or be given back with {@link #abandon} if it is
+   * dropped first.
+   *
+   * @throws OverloadedException if the backlog is too deep or would take too long to drain
+   */
+  public void admit() {
+    int depth = pending.incrementAndGet();
+    if (depth > maxQueueDepth) {
+      pending.decrementAndGet();
+      throw reject("Client overloaded: " + maxQueueDepth + " requests already pending");
+    }
+    if (maxQueueWaitNanos > 0 && expectedWaitNanos(depth) > maxQueueWaitNanos) {
+      pending.decrementAndGet();
+      throw reject(
+          "Client overloaded: backlog of "
+              + depth
+              + " requests would take longer than "
+              + TimeUnit.NANOSECONDS.toMillis(maxQueueWaitNanos)
+              + " ms to drain");
+    }
+  }
+
+  /**
+   * Adds the serialized body of a request taken with {@link #admit()} to the pending bytes. The
+   * request must be {@link #release released} once its response is handled.
+   *
+   * @param bodyBytes the size of the request body
+   * @throws OverloadedException if the pending bodies would exceed the byte limit; the request's
+   *     admission is given back
+   */
+  public void admitBody(long bodyBytes) {
+    if (maxPendingBytes <= 0) {
+      return;
+    }
+    long bytes = pendingBytes.addAndGet(bodyBytes);
+    // A single oversized body is still admitted into an otherwise empty client
+    if (bytes > maxPendingBytes && bytes != bodyBytes) {
+      pendingBytes.addAndGet(-bodyBytes);
+      pending.decrementAndGet();
+      throw reject(
+          "Client overloaded: pending request bodies would exceed " + maxPendingBytes + " bytes");
+    }
+  }
+
+  /** Gives back a request taken with {@link #admit()} that is dropped before {@link #admitBody}. */
+  public void abandon() {
+    pending.decrementAndGet();
+  }
+
+  /**
+   * Releases a request taken with {@link #admit}.
+   *
+   * @param bodyBytes the size of the request body, as passed to {@link #admit} or {@link
+   *     #admitBody}
+   */
+  public void release(long bodyBytes) {
+    if (maxPendingBytes > 0) {
+      pendingBytes.addAndGet(-bodyBytes);
+    }
+    completed.increment();
+    long now = clock.getAsLong();
+    if (pending.decrementAndGet() == 0) {
+      // Drained: restart sampling so the idle time that follows is not mistaken for a stall
+      sampleStart.set(now);
+      sampleCount = completed.sum();
+      sampleStartPending = 0;
+    } else {
+      sample(now);
+    }
+  }
+
+  /**
+   * Returns whether the next request would be shed.
+   *
+   * @return true if the client is at a limit
+   */
+  public boolean isSaturated() {
+    int depth = pending.get();
+    return depth >= maxQueueDepth
+        || (maxPendingBytes > 0 && depth > 0 && pendingBytes.get() >= maxPendingBytes)
+        || (maxQueueWaitNanos > 0 && expectedWaitNanos(depth + 1) > maxQueueWaitNanos);
+  }
+
+  /**
+   * Returns how many more requests the client would admit right now.
+   *
+   * @return the free queue depth, or 0 if the client is saturated
+   */
+  public int capacity() {
+    return isSaturated() ? 0 : Math.max(0, maxQueueDepth - pending.get());
+  }
+
+  /**
+   * Returns the number of pending requests.
+   *
+   * @return requests admitted and not yet released
+   */
+  public int pending() {
+    return pending.get();
+  }
+
+  /**
+   * Returns the number of requests shed so far.
+   *
+   * @return the number of rejected requests
+   */
+  public long rejectedCount() {
+    return rejected.sum();
+  }
+
+  private long expectedWaitNanos(int depth) {
+    sample(clock.getAsLong());
+    double rate = completionRate;
+    if (rate < 0) {
+      return 0;
+    }
+    return rate == 0 ? Long.MAX_VALUE : (long) (depth * NANOS_PER_SECOND / rate);
+  }
+
+  private void sample(long now) {
+    long start = sampleStart.get();
+    long elapsed = now - start;
+    if (elapsed < SAMPLE_NANOS || !sampleStart.compareAndSet(start, now)) {
+      return;
+    }
+    long count = completed.sum();
+    long delta = count - sampleCount;
+    int startPending = sampleStartPending;
+    sampleCount = count;
+    sampleStartPending = pending.get();
+    if (startPending == 0) {
+      // A window that starts idle says nothing about throughput under load
+      return;
+    }
+    double rate = delta * NANOS_PER_SECOND / elapsed;
+    double previous = completionRate;
+    if (previous >= 0) {
+      completionRate = previous + SMOOTHING * (rate - previous);
+    } else if (delta > 0) {
+      completionRate = rate;
+    }
+  }
+
+  private OverloadedException reject(String message) {
+    rejected.increment();
+    return new OverloadedException(message);
+  }
+}
@@ -0,0 +1,122 @@
+package com.telos.loops.internal;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free queue for any number of producers and consumers.
+ *
+ * <p>An array ring in which every slot carries a sequence number telling whether it is ready to be
+ * written or read on the current lap (Vyukov's bounded MPMC queue). An offer or poll claims its
+ * slot with one compare-and-set on the tail or head counter and allocates nothing, so a producer
+ * pays a few atomic operations whether the queue is empty or full.
+ *
+ * @param <E> the element type
+ */
+public final class BoundedMpmcQueue<E> {
+
+  private final AtomicReferenceArray<E> buffer;
+  private final AtomicLongArray sequence;
+  private final int mask;
+  private final AtomicLong head = new AtomicLong();
+  private final AtomicLong tail = new AtomicLong();
+
+  /**
+   * Creates a queue holding at least {@code capacity} elements.
+   *
+   * @param capacity the minimum capacity; rounded up to a power of two
+   * @throws IllegalArgumentException if capacity is not positive or above 2^30
+   */
+  public BoundedMpmcQueue(int capacity) {
+    if (capacity < 1 || capacity > 1 << 30) {
+      throw new IllegalArgumentException("capacity must be between 1 and 2^30, got: " + capacity);
+    }
+    int size =
+        Integer.highestOneBit(capacity) == capacity
+            ? capacity
+            : Integer.highestOneBit(capacity) << 1;
+    this.buffer = new AtomicReferenceArray<>(size);
+    this.sequence = new AtomicLongArray(size);
+    for (int i = 0; i < size; i++) {
+      sequence.set(i, i);
+    }
+    this.mask = size - 1;
+  }
+
+  /**
+   * Adds an element unless the queue is full.
+   *
+   * @param element the element, not null
+   * @return true if the element was added
+   */
+  public boolean offer(E element) {
+    while (true) {
+      long position = tail.get();
+      int index = (int) (position & mask);
+      long lag = sequence.get(index) - position;
+      if (lag == 0) {
+        if (tail.compareAndSet(position, position + 1)) {
+          buffer.set(index, element);
+          sequence.set(index, position + 1);
+          return true;
+        }
+      } else if (lag < 0) {
+        // The slot still holds the element from the previous lap
+        return false;
+      }
+    }
+  }
+
+  /**
+   * Removes the oldest element.
+   *
+   * @return the element, or null if the queue is empty
+   */
+  public E poll() {
+    while (true) {
+      long position = head.get();
+      int index = (int) (position & mask);
+      long lag = sequence.get(index) - (position + 1);
+      if (lag == 0) {
+        if (head.compareAndSet(position, position + 1)) {
+          E element = buffer.get(index);
+          buffer.set(index, null);
+          sequence.set(index, position + mask + 1);
+          return element;
+        }
+      } else if (lag < 0) {
+        // The slot has not been written on this lap yet
+        return null;
+      }
+    }
+  }
+
+  /**
+   * Returns the number of elements, exact only while no offer or poll is in progress.
+   *
+   * @return the number of elements
+   */
+  public int size() {
+    long size = tail.get() - head.get();
+    return (int) Math.max(0, Math.min(size, capacity()));
+  }
+
+  /**
+   * Returns whether the queue holds no elements.
+   *
+   * @return true if empty
+   */
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  /**
+   * Returns the number of elements the queue can hold.
+   *
+   * @return the capacity
+   */
+  public int capacity() {
+    return mask + 1;
+  }
+}
@@ -0,0 +1,198 @@
+package com.telos.loops.internal;
+
+import com.telos.loops.model.BulkResult;
+import com.telos.loops.model.BulkSettings;
+import com.telos.loops.model.BulkSummary;
+import com.telos.loops.model.DeadlineBudget;
+import com.telos.loops.model.RequestOptions;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs a stream of requests with a bounded number in flight.
+ *
+ * <p>The input is read only when a slot is free, so memory stays bounded by the concurrency however
+ * long the input is, and a slow consumer of results holds back the input in turn: a slot is only
+ * freed once the consumer has taken the result.
+ *
+ * <p>The input is read by one thread at a time. Whichever thread frees a slot (usually the one
+ * completing a response) takes the drain loop; a thread that finds the loop taken leaves a mark for
+ * the owner to go round again, so no thread ever waits for another and a response that completes
+ * inside the loop cannot recurse into it.
+ *
+ * @param <T> the request type
+ * @param <R> the response type
+ */
+public final class BulkRunner<T, R> {
+
+  private static final Logger logger = LoggerFactory.getLogger(BulkRunner.class);
+
+  private final Iterator<? extends T> input;
+  private final BiFunction<? super T, RequestOptions, CompletableFuture<R>> send;
+  private final Consumer<? super BulkResult<T, R>> results;
+  private final int concurrency;
+  private final RequestOptions options;
+  private final DeadlineBudget budget;
+  private final Instant end;
+  private final long start = System.nanoTime();
+
+  private final CompletableFuture<BulkSummary> summary = new CompletableFuture<>();
+  private final Set<CompletableFuture<R>> running = ConcurrentHashMap.newKeySet();
+  private final AtomicInteger drainRequests = new AtomicInteger();
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final LongAdder succeeded = new LongAdder();
+  private final LongAdder failed = new LongAdder();
+
+  // Only touched by the thread that owns the drain loop
+  private long nextIndex;
+  private boolean exhausted;
+  private boolean timedOut;
+  private RuntimeException inputError;
+  private volatile boolean cancelled;
+
+  private BulkRunner(
+      Iterator<? extends T> input,
+      long size,
+      BulkSettings settings,
+      BiFunction<? super T, RequestOptions, CompletableFuture<R>> send,
+      Consumer<? super BulkResult<T, R>> results) {
+    this.input = input;
+    this.send = send;
+    this.results = results;
+    this.concurrency = settings.concurrency();
+    this.options = settings.options();
+    Duration timeout = settings.timeout();
+    // A fair share of the time left needs the number of requests still to come
+    this.budget =
+        timeout != null && size >= 0 && size <= Integer.MAX_VALUE
+            ? DeadlineBudget.of(timeout, (int) size, concurrency)
+            : null;
+    this.end = budget != null ? budget.end() : timeout != null ? Instant.now().plus(timeout) : null;
+  }
+
+  /**
+   * Starts a bulk run.
+   *
+   * <p>Cancelling the returned future stops reading the input and cancels the requests in flight.
+   *
+   * @param input the requests; read from one thread at a time, never ahead of a free slot
+   * @param size the number of requests, or a negative value if unknown
+   * @param settings the concurrency, timeout and request options
+   * @param send sends one request with the given options
+   * @param results receives each outcome in completion order, possibly from several threads at once
+   * @return a future that completes with the totals once every request read has completed, or fails
+   *     with the exception the input threw
+   */
+  public static <T, R> CompletableFuture<BulkSummary> run(
+      Iterator<? extends T> input,
+      long size,
+      BulkSettings settings,
+      BiFunction<? super T, RequestOptions, CompletableFuture<R>> send,
+      Consumer<? super BulkResult<T, R>> results) {
+    BulkRunner<T, R> runner = new BulkRunner<>(input, size, settings, send, results);
+    runner.summary.whenComplete(
+        (ignored, error) -> {
+          if (runner.summary.isCancelled()) {
+            runner.cancelled = true;
+            runner.running.forEach(call -> call.cancel(true));
+          }
+        });
+    runner.drain();
+    return runner.summary;
+  }
+
+  private void drain() {
+    if (drainRequests.getAndIncrement() != 0) {
+      return;
+    }
+    do {
+      while (!isStopped() && inFlight.get() < concurrency) {
+        if (end != null && !Instant.now().isBefore(end)) {
+          timedOut = true;
+          break;
+        }
+        T request;
+        try {
+          if (!input.hasNext()) {
+            exhausted = true;
+            break;
+          }
+          request = input.next();
+        } catch (RuntimeException e) {
+          inputError = e;
+          break;
+        }
+        inFlight.incrementAndGet();
+        launch(nextIndex++, request);
+      }
+      if (isStopped() && inFlight.get() == 0) {
+        finish();
+      }
+    } while (drainRequests.decrementAndGet() != 0);
+  }
+
+  private boolean isStopped() {
+    return exhausted || timedOut || inputError != null || cancelled;
+  }
+
+  private void launch(long index, T request) {
+    CompletableFuture<R> call;
+    try {
+      call = send.apply(request, budget != null ? budget.next(options) : withEnd(options));
+    } catch (RuntimeException e) {
+      call = CompletableFuture.failedFuture(e);
+    }
+    running.add(call);
+    CompletableFuture<R> sent = call;
+    call.whenComplete(
+        (response, error) -> {
+          running.remove(sent);
+          BulkResult<T, R> result;
+          if (error == null) {
+            succeeded.increment();
+            result = new BulkResult<>(index, request, response, null);
+          } else {
+            failed.increment();
+            result = new BulkResult<>(index, request, null, CoreSender.toLoopsException(error));
+          }
+          try {
+            results.accept(result);
+          } catch (RuntimeException e) {
+            logger.warn("Bulk result consumer failed for request {}", index, e);
+          }
+          inFlight.decrementAndGet();
+          drain();
+        });
+  }
+
+  private RequestOptions withEnd(RequestOptions requestOptions) {
+    if (end == null) {
+      return requestOptions;
+    }
+    Instant own = requestOptions.deadline();
+    return own != null && own.isBefore(end) ? requestOptions : requestOptions.withDeadline(end);
+  }
+
+  private void finish() {
+    if (inputError != null) {
+      summary.completeExceptionally(inputError);
+      return;
+    }
+    summary.complete(
+        new BulkSummary(
+            succeeded.sum(),
+            failed.sum(),
+            exhausted && !timedOut,
+            Duration.ofNanos(System.nanoTime() - start)));
+  }
+}
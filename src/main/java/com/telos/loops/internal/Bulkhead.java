@@ -0,0 +1,124 @@
+package com.telos.loops.internal;
+
+import com.telos.loops.error.OverloadedException;
+import com.telos.loops.resilience.BulkheadSettings;
+import com.telos.loops.resilience.BulkheadStats;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed pool of in-flight slots for one endpoint or group of endpoints, with a bounded FIFO queue.
+ *
+ * <p>Admission works like {@link com.telos.loops.resilience.AdaptiveConcurrencyLimiter} with a
+ * limit that never moves: a CAS on the in-flight count while nobody is queued, otherwise a
+ * future-based wait that holds no thread.
+ */
+final class Bulkhead {
+
+  private static final CompletableFuture<Void> GRANTED = CompletableFuture.completedFuture(null);
+
+  private final String name;
+  private final int maxConcurrent;
+  private final int maxQueued;
+  private final Duration maxQueueWait;
+
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger queued = new AtomicInteger();
+  private final Queue<CompletableFuture<Void>> waiters = new ConcurrentLinkedQueue<>();
+  private final LongAdder rejected = new LongAdder();
+
+  Bulkhead(String name, BulkheadSettings settings) {
+    this.name = name;
+    this.maxConcurrent = settings.maxConcurrent();
+    this.maxQueued = settings.maxQueued();
+    this.maxQueueWait = settings.maxQueueWait();
+  }
+
+  /**
+   * Requests a slot; the caller must {@link #release()} it once the request is done.
+   *
+   * @return a future that completes when the caller may proceed, or fails with a {@link
+   *     OverloadedException} if the request is rejected
+   */
+  CompletableFuture<Void> acquire() {
+    if (waiters.isEmpty() && tryAcquire()) {
+      return GRANTED;
+    }
+    if (queued.incrementAndGet() > maxQueued) {
+      queued.decrementAndGet();
+      rejected.increment();
+      return CompletableFuture.failedFuture(
+          new OverloadedException(
+              "Bulkhead "
+                  + name
+                  + " is full: "
+                  + maxConcurrent
+                  + " requests in flight and "
+                  + maxQueued
+                  + " queued"));
+    }
+
+    CompletableFuture<Void> waiter = new CompletableFuture<>();
+    waiter.whenComplete(
+        (ignored, error) -> {
+          if (error != null) {
+            waiters.remove(waiter);
+            queued.decrementAndGet();
+          }
+        });
+    waiters.add(waiter);
+    if (!maxQueueWait.isZero()) {
+      RequestPipeline.delayedExecutor(maxQueueWait.toNanos())
+          .execute(
+              () -> {
+                // Counted first so the rejection is visible by the time the caller sees it
+                rejected.increment();
+                if (!waiter.completeExceptionally(
+                    new OverloadedException(
+                        "Timed out after " + maxQueueWait + " waiting for bulkhead " + name))) {
+                  rejected.decrement();
+                }
+              });
+    }
+    drain();
+    return waiter;
+  }
+
+  /** Returns a slot taken with {@link #acquire()}. */
+  void release() {
+    inFlight.decrementAndGet();
+    drain();
+  }
+
+  BulkheadStats stats() {
+    return new BulkheadStats(
+        name, maxConcurrent, inFlight.get(), maxQueued, queued.get(), rejected.sum());
+  }
+
+  private boolean tryAcquire() {
+    while (true) {
+      int current = inFlight.get();
+      if (current >= maxConcurrent) {
+        return false;
+      }
+      if (inFlight.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  private void drain() {
+    while (!waiters.isEmpty() && tryAcquire()) {
+      CompletableFuture<Void> waiter = waiters.poll();
+      if (waiter != null && waiter.complete(null)) {
+        queued.decrementAndGet();
+      } else {
+        inFlight.decrementAndGet();
+      }
+    }
+  }
+}
@@ -0,0 +1,74 @@
+package com.telos.loops.internal;
+
+import com.telos.loops.resilience.BulkheadSettings;
+import com.telos.loops.resilience.BulkheadStats;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps endpoint paths to their bulkheads.
+ *
+ * <p>A path uses the bulkhead of the longest configured prefix that matches it on a segment
+ * boundary, so {@code /contacts} covers {@code /contacts/find} but not {@code /contactsx}, and all
+ * paths under one prefix share one pool. A path no prefix matches gets a bulkhead of its own from
+ * the default settings, or none if there are no defaults. Resolutions are cached per path.
+ */
+final class Bulkheads {
+
+  // Stands in for "no bulkhead" in the cache, which cannot hold null
+  private static final Bulkhead NONE = new Bulkhead("none", BulkheadSettings.defaults());
+
+  private final Map<String, BulkheadSettings> prefixes;
+  private final BulkheadSettings defaults;
+  private final Map<String, Bulkhead> byName = new ConcurrentHashMap<>();
+  private final Map<String, Bulkhead> byPath = new ConcurrentHashMap<>();
+
+  Bulkheads(Map<String, BulkheadSettings> prefixes, BulkheadSettings defaults) {
+    this.prefixes = Map.copyOf(prefixes);
+    this.defaults = defaults;
+  }
+
+  /**
+   * Returns the bulkhead guarding a path.
+   *
+   * @param path the endpoint path, without query string
+   * @return the bulkhead, or null if the path is not guarded
+   */
+  Bulkhead forPath(String path) {
+    Bulkhead bulkhead = byPath.computeIfAbsent(path, this::resolve);
+    return bulkhead == NONE ? null : bulkhead;
+  }
+
+  /**
+   * Returns the state of every bulkhead used so far.
+   *
+   * @return stats by bulkhead name, sorted by name
+   */
+  Map<String, BulkheadStats> stats() {
+    Map<String, BulkheadStats> stats = new TreeMap<>();
+    byName.forEach((name, bulkhead) -> stats.put(name, bulkhead.stats()));
+    return stats;
+  }
+
+  private Bulkhead resolve(String path) {
+    String match = null;
+    for (String prefix : prefixes.keySet()) {
+      boolean matches =
+          path.equals(prefix)
+              || (path.startsWith(prefix)
+                  && (prefix.endsWith("/") || path.charAt(prefix.length()) == '/'));
+      if (matches && (match == null || prefix.length() > match.length())) {
+        match = prefix;
+      }
+    }
+    if (match != null) {
+      BulkheadSettings settings = prefixes.get(match);
+      return byName.computeIfAbsent(match, name -> new Bulkhead(name, settings));
+    }
+    if (defaults == null) {
+      return NONE;
+    }
+    return byName.computeIfAbsent(path, name -> new Bulkhead(name, defaults));
+  }
+}
@@ -0,0 +1,165 @@
+package com.telos.loops.internal;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps the request body bytes a client holds for requests in flight.
+ *
+ * <p>Each request reserves its expected body size before it is serialized, so a large send that
+ * does not fit waits without allocating its body, and gives the bytes back once its response
+ * arrives. Waiters are served in arrival order, so a large send is not starved by a stream of small
+ * ones; a send larger than the whole budget is let through on its own once nothing else is in
+ * flight. Reservations of zero bytes never wait.
+ *
+ * <p>While nobody is waiting a reservation is a single CAS on the byte count; the wait queue is
+ * only touched under this object's lock.
+ */
+public final class ByteBudget {
+
+  private static final CompletableFuture<Void> GRANTED = CompletableFuture.completedFuture(null);
+
+  private final long maxBytes;
+  private final AtomicLong inFlight = new AtomicLong();
+  private final ArrayDeque<Waiter> waiters = new ArrayDeque<>();
+  private volatile int waiting;
+
+  /**
+   * Creates a budget.
+   *
+   * @param maxBytes the body bytes that may be in flight at once
+   * @throws IllegalArgumentException if maxBytes is not positive
+   */
+  public ByteBudget(long maxBytes) {
+    if (maxBytes < 1) {
+      throw new IllegalArgumentException("maxBytes must be positive, got: " + maxBytes);
+    }
+    this.maxBytes = maxBytes;
+  }
+
+  /**
+   * Reserves bytes for a request body; the caller must {@link #release} them once the request is
+   * done. Cancelling a pending future gives up the place in the queue.
+   *
+   * @param bytes the expected body size
+   * @return a future that completes when the bytes are reserved
+   */
+  CompletableFuture<Void> acquire(long bytes) {
+    if (bytes <= 0 || (waiting == 0 && tryAcquire(bytes))) {
+      return GRANTED;
+    }
+    Waiter waiter = new Waiter(bytes);
+    synchronized (this) {
+      waiters.addLast(waiter);
+      waiting = waiters.size();
+    }
+    waiter.future.whenComplete(
+        (ignored, error) -> {
+          if (error != null) {
+            synchronized (this) {
+              waiters.remove(waiter);
+              waiting = waiters.size();
+            }
+            drain();
+          }
+        });
+    drain();
+    return waiter.future;
+  }
+
+  /**
+   * Corrects a reservation once the body's actual size is known. Growing a reservation never waits,
+   * since the body already exists.
+   *
+   * @param delta the actual size minus the reserved size
+   */
+  void adjust(long delta) {
+    if (delta == 0) {
+      return;
+    }
+    inFlight.addAndGet(delta);
+    if (delta < 0) {
+      drain();
+    }
+  }
+
+  /**
+   * Returns bytes taken with {@link #acquire} or {@link #adjust}.
+   *
+   * @param bytes the bytes to give back
+   */
+  void release(long bytes) {
+    if (bytes > 0) {
+      inFlight.addAndGet(-bytes);
+      drain();
+    }
+  }
+
+  /**
+   * Returns the request body bytes currently reserved.
+   *
+   * @return the bytes in flight
+   */
+  public long bytesInFlight() {
+    return inFlight.get();
+  }
+
+  /**
+   * Returns the number of requests waiting for room in the budget.
+   *
+   * @return the waiting requests
+   */
+  public int waiting() {
+    return waiting;
+  }
+
+  /**
+   * Returns the size of the budget.
+   *
+   * @return the body bytes that may be in flight at once
+   */
+  public long maxBytes() {
+    return maxBytes;
+  }
+
+  private boolean tryAcquire(long bytes) {
+    while (true) {
+      long current = inFlight.get();
+      // An oversized body goes through alone rather than never
+      if (current > 0 && current + bytes > maxBytes) {
+        return false;
+      }
+      if (inFlight.compareAndSet(current, current + bytes)) {
+        return true;
+      }
+    }
+  }
+
+  private void drain() {
+    while (true) {
+      Waiter head;
+      synchronized (this) {
+        head = waiters.peekFirst();
+        if (head == null || !tryAcquire(head.bytes)) {
+          return;
+        }
+        waiters.pollFirst();
+        waiting = waiters.size();
+      }
+      if (!head.future.complete(null)) {
+        // Cancelled as it was granted
+        inFlight.addAndGet(-head.bytes);
+      }
+    }
+  }
+
+  private static final class Waiter {
+    final long bytes;
+    final CompletableFuture<Void> future = new CompletableFuture<>();
+
+    Waiter(long bytes) {
+      this.bytes = bytes;
+    }
+  }
+}
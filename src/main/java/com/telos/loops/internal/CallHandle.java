@@ -0,0 +1,52 @@
+package com.telos.loops.internal;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Cancels a call's transport request, whether or not it has started.
+ *
+ * <p>The pipeline {@link #attach attaches} the transport's future each time it hands an attempt
+ * over, replacing the previous attempt's; {@link #cancel} cancels the current one, which transports
+ * map to aborting the HTTP call. A call cancelled before it reaches the transport is never sent,
+ * and is not retried. Either side may run first: both write their own volatile before reading the
+ * other's, so one of them always sees the other.
+ *
+ * <p>{@link CoreSender} gives every async request a handle that its caller's future cancels; a
+ * hedged GET gives each of its two calls a handle of its own and attaches the race's result to the
+ * caller's.
+ */
+final class CallHandle {
+
+  private volatile boolean cancelled;
+  private volatile CompletableFuture<?> call;
+
+  /**
+   * Registers the transport call started for this attempt.
+   *
+   * @param call the transport's future
+   */
+  void attach(CompletableFuture<?> call) {
+    this.call = call;
+    if (cancelled) {
+      call.cancel(true);
+    }
+  }
+
+  /** Cancels the attempt: aborts its transport call, or keeps it from being sent. */
+  void cancel() {
+    cancelled = true;
+    CompletableFuture<?> current = call;
+    if (current != null) {
+      current.cancel(true);
+    }
+  }
+
+  boolean isCancelled() {
+    return cancelled;
+  }
+
+  static CancellationException cancelledException() {
+    return new CancellationException("Request cancelled before it was sent");
+  }
+}
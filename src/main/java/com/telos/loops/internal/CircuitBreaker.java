@@ -0,0 +1,342 @@
+package com.telos.loops.internal;
+
+import com.telos.loops.error.CircuitOpenException;
+import com.telos.loops.resilience.CircuitBreakerListener;
+import com.telos.loops.resilience.CircuitBreakerSettings;
+import com.telos.loops.resilience.CircuitBreakerStats;
+import com.telos.loops.resilience.CircuitState;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Circuit breaker for one endpoint.
+ *
+ * <p>The outcomes of the last calls are kept in a ring of packed flags with running failure and
+ * slow-call counts, so recording a call takes a few atomic operations and no lock; while closed, a
+ * call whose outcome matches the one it overwrites changes no counter at all. The state moves by
+ * compare-and-set, and only the thread that wins a transition resets the window or trial counters
+ * and notifies the listener.
+ *
+ * <p>Each time the breaker opens it starts a new epoch, and {@link #acquire} hands every call a
+ * permit naming the epoch it was let through in and whether it is a half-open trial. Only calls of
+ * the current epoch are outcomes: a call sent before the breaker last opened says nothing about the
+ * API's current health, and while half-open only the trials {@link #acquire} admitted count toward
+ * closing or reopening it. Cancelled calls are not outcomes; a cancelled trial gives its slot back.
+ */
+final class CircuitBreaker {
+
+  private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+
+  // Flags of one window slot; 0 marks a slot not yet used
+  private static final int RECORDED = 1;
+  private static final int FAILED = 2;
+  private static final int SLOW = 4;
+
+  private final String endpoint;
+  private final double failureRateThreshold;
+  private final double slowCallRateThreshold;
+  private final long slowCallNanos;
+  private final int windowSize;
+  private final int minimumCalls;
+  private final long openNanos;
+  private final int halfOpenCalls;
+  private final Supplier<? extends CompletionStage<?>> healthProbe;
+  private final CircuitBreakerListener listener;
+  private final LongSupplier clock;
+
+  private final AtomicReference<CircuitState> state = new AtomicReference<>(CircuitState.CLOSED);
+  private volatile long openedAt;
+  private final AtomicIntegerArray window;
+  private final AtomicLong cursor = new AtomicLong();
+  private final AtomicInteger calls = new AtomicInteger();
+  private final AtomicInteger failures = new AtomicInteger();
+  private final AtomicInteger slowCalls = new AtomicInteger();
+  // High 32 bits: the epoch, advanced each time the breaker opens; low 32 bits: the trials issued
+  // in it. One word, so a trial can never take a slot of an epoch that has already ended
+  private final AtomicLong trialsIssued = new AtomicLong();
+  // Same layout, counting the epoch's trials that succeeded
+  private final AtomicLong trialsSucceeded = new AtomicLong();
+  private final AtomicBoolean probing = new AtomicBoolean();
+  private final LongAdder notPermitted = new LongAdder();
+
+  CircuitBreaker(
+      String endpoint,
+      CircuitBreakerSettings settings,
+      Supplier<? extends CompletionStage<?>> healthProbe,
+      CircuitBreakerListener listener) {
+    this(endpoint, settings, healthProbe, listener, System::nanoTime);
+  }
+
+  CircuitBreaker(
+      String endpoint,
+      CircuitBreakerSettings settings,
+      Supplier<? extends CompletionStage<?>> healthProbe,
+      CircuitBreakerListener listener,
+      LongSupplier clock) {
+    this.endpoint = endpoint;
+    this.failureRateThreshold = settings.failureRateThreshold();
+    this.slowCallRateThreshold = settings.slowCallRateThreshold();
+    this.slowCallNanos = settings.slowCallDuration().toNanos();
+    this.windowSize = settings.windowSize();
+    this.minimumCalls = settings.minimumCalls();
+    this.openNanos = settings.openDuration().toNanos();
+    this.halfOpenCalls = settings.halfOpenCalls();
+    this.healthProbe = healthProbe;
+    this.listener = listener;
+    this.clock = clock;
+    this.window = new AtomicIntegerArray(windowSize);
+  }
+
+  /**
+   * Fails fast if a request would be rejected when it reaches the transport. Takes no trial slot,
+   * so a request can be checked before it queues for local limits.
+   *
+   * @throws CircuitOpenException if the breaker is open, or half-open with every trial taken
+   */
+  void checkPermitted() {
+    switch (state.get()) {
+      case CLOSED -> {}
+      case OPEN -> {
+        if (!openElapsed()) {
+          throw reject();
+        }
+        if (healthProbe != null) {
+          probe();
+          throw reject();
+        }
+      }
+      case HALF_OPEN -> {
+        if ((int) trialsIssued.get() >= halfOpenCalls) {
+          throw reject();
+        }
+      }
+    }
+  }
+
+  /**
+   * Lets a request through to the transport. Its outcome must be passed to {@link #onResult} or, if
+   * it is abandoned, {@link #onCancelled}, together with the returned permit.
+   *
+   * @return the permit identifying the call's epoch and whether it is a half-open trial
+   * @throws CircuitOpenException if the breaker is open, or half-open with every trial taken
+   */
+  long acquire() {
+    while (true) {
+      // Read before the state: a call let through as the breaker opens keeps the old epoch
+      long issued = trialsIssued.get();
+      CircuitState current = state.get();
+      if (current == CircuitState.CLOSED) {
+        return permit(issued, false);
+      }
+      if (current == CircuitState.OPEN) {
+        if (!openElapsed()) {
+          throw reject();
+        }
+        if (healthProbe != null) {
+          probe();
+          throw reject();
+        }
+        transition(CircuitState.OPEN, CircuitState.HALF_OPEN);
+        continue;
+      }
+      if ((int) issued >= halfOpenCalls) {
+        throw reject();
+      }
+      if (trialsIssued.compareAndSet(issued, issued + 1)) {
+        return permit(issued, true);
+      }
+    }
+  }
+
+  /**
+   * Records the outcome of a request let through by {@link #acquire}.
+   *
+   * @param permit the permit {@link #acquire} returned for the request
+   * @param nanos the time the call took
+   * @param failed whether the transport failed or the API answered with a 5xx status
+   */
+  void onResult(long permit, long nanos, boolean failed) {
+    if (epoch(permit) != epochOfCount(trialsIssued.get())) {
+      return;
+    }
+    boolean slow = nanos >= slowCallNanos;
+    CircuitState current = state.get();
+    if (current == CircuitState.HALF_OPEN) {
+      if (!isTrial(permit)) {
+        return;
+      }
+      if (failed || slow) {
+        open(CircuitState.HALF_OPEN);
+      } else if (countSuccess(epoch(permit)) >= halfOpenCalls) {
+        transition(CircuitState.HALF_OPEN, CircuitState.CLOSED);
+      }
+      return;
+    }
+    if (current != CircuitState.CLOSED) {
+      return;
+    }
+    int outcome = RECORDED | (failed ? FAILED : 0) | (slow ? SLOW : 0);
+    int previous = window.getAndSet((int) (cursor.getAndIncrement() % windowSize), outcome);
+    int total = previous == 0 ? calls.incrementAndGet() : calls.get();
+    int failedCalls = update(failures, previous, outcome, FAILED);
+    int slowCallCount = update(slowCalls, previous, outcome, SLOW);
+    if (total >= minimumCalls
+        && (failedCalls >= failureRateThreshold * total
+            || slowCallCount >= slowCallRateThreshold * total)) {
+      open(CircuitState.CLOSED);
+    }
+  }
+
+  /**
+   * Gives back the trial slot of a request that was abandoned before it completed.
+   *
+   * @param permit the permit {@link #acquire} returned for the request
+   */
+  void onCancelled(long permit) {
+    if (!isTrial(permit)) {
+      return;
+    }
+    while (true) {
+      long issued = trialsIssued.get();
+      if (epochOfCount(issued) != epoch(permit) || (int) issued == 0) {
+        return;
+      }
+      if (trialsIssued.compareAndSet(issued, issued - 1)) {
+        return;
+      }
+    }
+  }
+
+  CircuitState state() {
+    return state.get();
+  }
+
+  CircuitBreakerStats stats() {
+    int total = calls.get();
+    return new CircuitBreakerStats(
+        endpoint,
+        state.get(),
+        total,
+        total == 0 ? 0 : (double) failures.get() / total,
+        total == 0 ? 0 : (double) slowCalls.get() / total,
+        notPermitted.sum());
+  }
+
+  private boolean openElapsed() {
+    return clock.getAsLong() - openedAt >= openNanos;
+  }
+
+  /** Packs the epoch of a trial counter word and the trial flag into a permit. */
+  private static long permit(long trials, boolean trial) {
+    return (trials >>> 32) << 1 | (trial ? 1 : 0);
+  }
+
+  private static long epoch(long permit) {
+    return permit >>> 1;
+  }
+
+  private static boolean isTrial(long permit) {
+    return (permit & 1) != 0;
+  }
+
+  /** Returns the epoch of a trial counter word. */
+  private static long epochOfCount(long count) {
+    return count >>> 32;
+  }
+
+  /** Counts a successful trial of the given epoch and returns the epoch's successes so far. */
+  private int countSuccess(long epoch) {
+    while (true) {
+      long succeeded = trialsSucceeded.get();
+      if (epochOfCount(succeeded) != epoch) {
+        return 0;
+      }
+      if (trialsSucceeded.compareAndSet(succeeded, succeeded + 1)) {
+        return (int) (succeeded + 1);
+      }
+    }
+  }
+
+  /** Adjusts a running count when a slot's flag changes and returns the count. */
+  private static int update(AtomicInteger count, int previous, int outcome, int flag) {
+    int delta = (outcome & flag) - (previous & flag);
+    return delta == 0 ? count.get() : count.addAndGet(Integer.signum(delta));
+  }
+
+  private void open(CircuitState from) {
+    openedAt = clock.getAsLong();
+    if (!transition(from, CircuitState.OPEN)) {
+      return;
+    }
+    // A new epoch: calls let through before this point no longer count
+    long epoch = epochOfCount(trialsIssued.get()) + 1;
+    trialsIssued.set(epoch << 32);
+    trialsSucceeded.set(epoch << 32);
+    // Start the next closed period from an empty window; counts follow each slot they clear
+    for (int i = 0; i < windowSize; i++) {
+      int previous = window.getAndSet(i, 0);
+      if (previous != 0) {
+        calls.decrementAndGet();
+        update(failures, previous, 0, FAILED);
+        update(slowCalls, previous, 0, SLOW);
+      }
+    }
+  }
+
+  /** Tests the API before trial requests are let through; one probe runs at a time. */
+  private void probe() {
+    if (!probing.compareAndSet(false, true)) {
+      return;
+    }
+    CompletionStage<?> check;
+    try {
+      check = healthProbe.get();
+    } catch (RuntimeException e) {
+      check = CompletableFuture.failedFuture(e);
+    }
+    check.whenComplete(
+        (ignored, error) -> {
+          if (error == null) {
+            transition(CircuitState.OPEN, CircuitState.HALF_OPEN);
+          } else {
+            logger.debug("Health probe for {} failed: {}", endpoint, error.getMessage());
+            openedAt = clock.getAsLong();
+          }
+          probing.set(false);
+        });
+  }
+
+  private boolean transition(CircuitState from, CircuitState to) {
+    if (!state.compareAndSet(from, to)) {
+      return false;
+    }
+    if (to == CircuitState.OPEN) {
+      logger.warn("Circuit breaker for {} opened", endpoint);
+    } else {
+      logger.info("Circuit breaker for {} is {}", endpoint, to);
+    }
+    if (listener != null) {
+      try {
+        listener.onStateTransition(endpoint, from, to);
+      } catch (RuntimeException e) {
+        logger.warn("Circuit breaker listener failed", e);
+      }
+    }
+    return true;
+  }
+
+  private CircuitOpenException reject() {
+    notPermitted.increment();
+    return new CircuitOpenException(endpoint);
+  }
+}
@@ -0,0 +1,64 @@
+package com.telos.loops.internal;
+
+import com.telos.loops.resilience.CircuitBreakerListener;
+import com.telos.loops.resilience.CircuitBreakerSettings;
+import com.telos.loops.resilience.CircuitBreakerStats;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Maps endpoint paths to their circuit breakers, created on first use.
+ *
+ * <p>Every endpoint gets a breaker of its own, so an outage of one endpoint does not cut off the
+ * others. The health probe's own endpoint is guarded by a breaker without a probe, which would
+ * otherwise only ever be tested against itself.
+ */
+final class CircuitBreakers {
+
+  private final CircuitBreakerSettings settings;
+  private final String probePath;
+  private final Supplier<? extends CompletionStage<?>> healthProbe;
+  private final CircuitBreakerListener listener;
+  private final Map<String, CircuitBreaker> byPath = new ConcurrentHashMap<>();
+
+  CircuitBreakers(
+      CircuitBreakerSettings settings,
+      String probePath,
+      Supplier<? extends CompletionStage<?>> healthProbe,
+      CircuitBreakerListener listener) {
+    this.settings = settings;
+    this.probePath = probePath;
+    this.healthProbe = settings.healthProbe() ? healthProbe : null;
+    this.listener = listener;
+  }
+
+  /**
+   * Returns the circuit breaker guarding a path.
+   *
+   * @param path the endpoint path, without query string
+   * @return the breaker
+   */
+  CircuitBreaker forPath(String path) {
+    CircuitBreaker breaker = byPath.get(path);
+    return breaker != null ? breaker : byPath.computeIfAbsent(path, this::create);
+  }
+
+  /**
+   * Returns the state of every breaker used so far.
+   *
+   * @return stats by endpoint path, sorted by path
+   */
+  Map<String, CircuitBreakerStats> stats() {
+    Map<String, CircuitBreakerStats> stats = new TreeMap<>();
+    byPath.forEach((path, breaker) -> stats.put(path, breaker.stats()));
+    return stats;
+  }
+
+  private CircuitBreaker create(String path) {
+    return new CircuitBreaker(
+        path, settings, path.equals(probePath) ? null : healthProbe, listener);
+  }
+}
@@ -0,0 +1,157 @@
+package com.telos.loops.internal;
+
+import com.telos.loops.model.RequestOptions;
+import com.telos.loops.transport.ConnectionPoolStats;
+import com.telos.loops.transport.HttpMethod;
+import com.telos.loops.transport.OkHttpTransport;
+import com.telos.loops.transport.Transport;
+import com.telos.loops.transport.TransportRequest;
+import com.telos.loops.transport.WarmUpResult;
+import com.telos.loops.transport.WarmUpSettings;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Opens pooled connections to the API before the first real request needs them.
+ *
+ * <p>Warm-up requests are sent concurrently and go straight to the transport: they carry no API
+ * key, so they neither pass through the client's limits nor count against the account's rate limit.
+ * Concurrent requests get a connection each only over HTTP/1.1; over HTTP/2 they share one. The
+ * connections opened are therefore counted from the growth of the {@link OkHttpTransport}'s pool,
+ * and only for other transports, which expose no pool, from the requests that got any HTTP
+ * response. The optional API key test runs afterwards through the client, over one of the warm
+ * connections. Every step shares the warm-up's deadline, and no step fails the warm-up as a whole.
+ */
+public final class ConnectionWarmer {
+
+  private static final Logger logger = LoggerFactory.getLogger(ConnectionWarmer.class);
+
+  private final Transport transport;
+  private final String baseUrl;
+  private final Function<RequestOptions, ? extends CompletionStage<?>> apiKeyTest;
+
+  /**
+   * Creates a warmer for one client.
+   *
+   * @param transport the transport whose connections to open
+   * @param baseUrl the API base URL the warm-up requests are sent to
+   * @param apiKeyTest sends the client's API key test with the given options
+   */
+  public ConnectionWarmer(
+      Transport transport,
+      String baseUrl,
+      Function<RequestOptions, ? extends CompletionStage<?>> apiKeyTest) {
+    this.transport = transport;
+    this.baseUrl = baseUrl;
+    this.apiKeyTest = apiKeyTest;
+  }
+
+  /**
+   * Runs a warm-up.
+   *
+   * @param settings how many connections to open, whether to test the key, and the time limit
+   * @return a future that completes with the outcome once every step has finished or timed out; it
+   *     never completes exceptionally
+   */
+  public CompletableFuture<WarmUpResult> warmUp(WarmUpSettings settings) {
+    long start = System.nanoTime();
+    Instant deadline = Instant.now().plus(settings.timeout());
+    TransportRequest request =
+        TransportRequest.builder()
+            .httpMethod(HttpMethod.GET)
+            .url(baseUrl)
+            .deadline(deadline)
+            .build();
+
+    int pooledBefore = pooledConnections();
+    AtomicInteger responded = new AtomicInteger();
+    CompletableFuture<?>[] calls = new CompletableFuture<?>[settings.connections()];
+    for (int i = 0; i < calls.length; i++) {
+      calls[i] =
+          open(request)
+              .thenAccept(
+                  ok -> {
+                    if (ok) {
+                      responded.incrementAndGet();
+                    }
+                  });
+    }
+
+    return CompletableFuture.allOf(calls)
+        .thenCompose(
+            ignored ->
+                settings.verifyApiKey()
+                    ? verifyApiKey(deadline)
+                    : CompletableFuture.completedFuture(false))
+        .thenApply(
+            verified -> {
+              ConnectionPoolStats pool =
+                  transport instanceof OkHttpTransport okHttp ? okHttp.connectionPoolStats() : null;
+              int opened =
+                  pool == null
+                      ? responded.get()
+                      : Math.clamp(
+                          (long) pool.connections() - pooledBefore, 0, settings.connections());
+              WarmUpResult result =
+                  new WarmUpResult(
+                      settings.connections(),
+                      opened,
+                      verified,
+                      Duration.ofNanos(System.nanoTime() - start),
+                      pool);
+              logger.info(
+                  "Warmed up {} of {} connections in {} ms",
+                  result.connectionsOpened(),
+                  result.connectionsRequested(),
+                  result.elapsed().toMillis());
+              return result;
+            });
+  }
+
+  /** Returns the connections in the transport's pool, or 0 when the transport exposes none. */
+  private int pooledConnections() {
+    return transport instanceof OkHttpTransport okHttp
+        ? okHttp.connectionPoolStats().connections()
+        : 0;
+  }
+
+  /** Sends one warm-up request; completes with whether any HTTP response came back. */
+  private CompletableFuture<Boolean> open(TransportRequest request) {
+    CompletableFuture<?> call;
+    try {
+      call = transport.executeAsync(request);
+    } catch (RuntimeException e) {
+      call = CompletableFuture.failedFuture(e);
+    }
+    return call.handle(
+        (response, error) -> {
+          if (error != null) {
+            logger.debug("Warm-up request to {} failed: {}", baseUrl, error.getMessage());
+          }
+          return error == null;
+        });
+  }
+
+  private CompletableFuture<Boolean> verifyApiKey(Instant deadline) {
+    CompletionStage<?> test;
+    try {
+      test = apiKeyTest.apply(RequestOptions.builder().deadline(deadline).build());
+    } catch (RuntimeException e) {
+      test = CompletableFuture.failedFuture(e);
+    }
+    return test.handle(
+            (response, error) -> {
+              if (error != null) {
+                logger.warn("API key test during warm-up failed: {}", error.getMessage());
+              }
+              return error == null;
+            })
+        .toCompletableFuture();
+  }
+}
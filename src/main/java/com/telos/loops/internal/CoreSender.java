@@ -13,20 +13,94 @@ import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class CoreSender {
   private static final Logger logger = LoggerFactory.getLogger(CoreSender.class);
-  private final Transport transport;
+  private final RequestPipeline pipeline;
+  private final AdmissionController admission;
+  private final ByteBudget bodyBudget;
   private final ObjectMapper objectMapper;
+  private final Executor callbackExecutor;
   private final String baseUrl;
   private final String apiKey;
 
   public CoreSender(Transport transport, String baseUrl, String apiKey) {
-    this.transport = transport;
-    this.objectMapper = new ObjectMapper();
+    this(transport, baseUrl, apiKey, new ObjectMapper(), null);
+  }
+
+  /**
+   * Creates a sender with a caller-supplied codec and continuation executor.
+   *
+   * @param transport the transport requests are executed on
+   * @param baseUrl the API base URL
+   * @param apiKey the API key sent as a bearer token
+   * @param objectMapper the mapper used to serialize requests and deserialize responses
+   * @param callbackExecutor the executor async response handling runs on, or null to run it on the
+   *     thread that completes the transport future
+   */
+  public CoreSender(
+      Transport transport,
+      String baseUrl,
+      String apiKey,
+      ObjectMapper objectMapper,
+      Executor callbackExecutor) {
+    this(RequestPipeline.of(transport), baseUrl, apiKey, objectMapper, callbackExecutor);
+  }
+
+  /**
+   * Creates a sender whose requests pass through the given pipeline of client-side policies.
+   *
+   * @param pipeline the pipeline requests are executed through
+   * @param baseUrl the API base URL
+   * @param apiKey the API key sent as a bearer token
+   * @param objectMapper the mapper used to serialize requests and deserialize responses
+   * @param callbackExecutor the executor async response handling runs on, or null to run it on the
+   *     thread that completes the transport future
+   */
+  public CoreSender(
+      RequestPipeline pipeline,
+      String baseUrl,
+      String apiKey,
+      ObjectMapper objectMapper,
+      Executor callbackExecutor) {
+    this(pipeline, null, null, baseUrl, apiKey, objectMapper, callbackExecutor);
+  }
+
+  /**
+   * Creates a sender that sheds requests the admission controller turns away and holds back large
+   * bodies that do not fit the byte budget, before they enter the pipeline.
+   *
+   * @param pipeline the pipeline requests are executed through
+   * @param admission the admission controller, or null to admit every request
+   * @param bodyBudget the budget for request body bytes in flight, or null for none
+   * @param baseUrl the API base URL
+   * @param apiKey the API key sent as a bearer token
+   * @param objectMapper the mapper used to serialize requests and deserialize responses
+   * @param callbackExecutor the executor async response handling runs on, or null to run it on the
+   *     thread that completes the transport future
+   */
+  public CoreSender(
+      RequestPipeline pipeline,
+      AdmissionController admission,
+      ByteBudget bodyBudget,
+      String baseUrl,
+      String apiKey,
+      ObjectMapper objectMapper,
+      Executor callbackExecutor) {
+    this.pipeline = Objects.requireNonNull(pipeline);
+    this.admission = admission;
+    this.bodyBudget = bodyBudget;
+    this.objectMapper = Objects.requireNonNull(objectMapper);
+    this.callbackExecutor = callbackExecutor;
     this.baseUrl = baseUrl;
     this.apiKey = apiKey;
   }
@@ -45,6 +119,38 @@ public class CoreSender {
     return executeRequestAsync(HttpMethod.POST, path, request, null, responseType, options);
   }
 
+  /**
+   * Posts a request whose body is expected to be large, reserving room for it in the byte budget
+   * before it is serialized.
+   *
+   * @param expectedBodyBytes the approximate serialized size of the request
+   */
+  public <T> T postJson(
+      String path,
+      Object request,
+      Class<T> responseType,
+      RequestOptions options,
+      long expectedBodyBytes) {
+    return executeRequest(
+        HttpMethod.POST, path, request, null, bodyReader(responseType), options, expectedBodyBytes);
+  }
+
+  /**
+   * Posts a request whose body is expected to be large; the request waits, unserialized, until its
+   * body fits the byte budget.
+   *
+   * @param expectedBodyBytes the approximate serialized size of the request
+   */
+  public <T> CompletableFuture<T> postJsonAsync(
+      String path,
+      Object request,
+      Class<T> responseType,
+      RequestOptions options,
+      long expectedBodyBytes) {
+    return executeRequestAsync(
+        HttpMethod.POST, path, request, null, bodyReader(responseType), options, expectedBodyBytes);
+  }
+
   // ============================================================
   // PUT Methods (JSON Body)
   // ============================================================
@@ -102,6 +208,26 @@ public class CoreSender {
     return executeRequestAsync(HttpMethod.DELETE, path, request, null, responseType, options);
   }
 
+  /**
+   * Maps the result of an async request like {@link CompletableFuture#thenApply}, but cancelling
+   * the mapped future also cancels the request, and with it the HTTP call.
+   *
+   * @param response the future returned by one of the async methods
+   * @param mapper the mapping applied to the response
+   * @return the mapped future
+   */
+  public static <T, R> CompletableFuture<R> map(
+      CompletableFuture<T> response, Function<? super T, ? extends R> mapper) {
+    CompletableFuture<R> mapped = response.thenApply(mapper);
+    mapped.whenComplete(
+        (ignored, error) -> {
+          if (mapped.isCancelled()) {
+            response.cancel(true);
+          }
+        });
+    return mapped;
+  }
+
   // ============================================================
   // Core Execution Methods
   // ============================================================
@@ -113,69 +239,297 @@ public class CoreSender {
       Map<String, String> queryParams,
       Class<T> responseType,
       RequestOptions options) {
+    return executeRequest(
+        method, path, requestBody, queryParams, bodyReader(responseType), options, 0);
+  }
+
+  private <T> CompletableFuture<T> executeRequestAsync(
+      HttpMethod method,
+      String path,
+      Object requestBody,
+      Map<String, String> queryParams,
+      Class<T> responseType,
+      RequestOptions options) {
+    return executeRequestAsync(
+        method, path, requestBody, queryParams, bodyReader(responseType), options, 0);
+  }
+
+  private <T> List<T> executeRequestList(
+      HttpMethod method,
+      String path,
+      Object requestBody,
+      Map<String, String> queryParams,
+      TypeReference<List<T>> typeRef,
+      RequestOptions options) {
+    return executeRequest(method, path, requestBody, queryParams, listReader(typeRef), options, 0);
+  }
+
+  private <T> CompletableFuture<List<T>> executeRequestListAsync(
+      HttpMethod method,
+      String path,
+      Object requestBody,
+      Map<String, String> queryParams,
+      TypeReference<List<T>> typeRef,
+      RequestOptions options) {
+    return executeRequestAsync(
+        method, path, requestBody, queryParams, listReader(typeRef), options, 0);
+  }
+
+  private <T> T executeRequest(
+      HttpMethod method,
+      String path,
+      Object requestBody,
+      Map<String, String> queryParams,
+      ResponseReader<T> reader,
+      RequestOptions options,
+      long expectedBodyBytes) {
+    long reserved = reserveBodyBytes(expectedBodyBytes);
     try {
       TransportRequest transportRequest =
-          buildTransportRequest(method, path, requestBody, queryParams, options);
+          admitAndBuild(method, path, requestBody, queryParams, options);
       logRequest(transportRequest);
 
-      TransportResponse response = transport.execute(transportRequest);
-      logResponse(response);
-
-      validateResponse(response);
-
-      return deserializeResponse(response, responseType);
+      long bodyBytes = transportRequest.body().length;
+      reserved = resizeReservation(reserved, bodyBytes);
+      // From here release() gives the reservation back
+      reserved = 0;
+      TransportResponse response;
+      try {
+        response = pipeline.execute(new Exchange(method, path, transportRequest, options));
+      } finally {
+        release(bodyBytes);
+      }
+      return readResponse(response, reader);
     } catch (LoopsApiException e) {
       throw e;
     } catch (Exception e) {
       throw new LoopsApiException("Request failed: " + e.getMessage());
+    } finally {
+      releaseReservation(reserved);
     }
   }
 
+  /**
+   * Reserves room for an expected large body, then sends the request. A send that has to wait for
+   * the byte budget is serialized only once it fits, on the thread that frees the room (or the
+   * callback executor), so waiting sends hold no body bytes.
+   *
+   * <p>Cancelling the returned future cancels the request: an HTTP call in flight is aborted, and
+   * one not yet sent never is.
+   */
   private <T> CompletableFuture<T> executeRequestAsync(
       HttpMethod method,
       String path,
       Object requestBody,
       Map<String, String> queryParams,
-      Class<T> responseType,
-      RequestOptions options) {
-    return CompletableFuture.supplyAsync(
-        () -> executeRequest(method, path, requestBody, queryParams, responseType, options));
+      ResponseReader<T> reader,
+      RequestOptions options,
+      long expectedBodyBytes) {
+    CallHandle handle = new CallHandle();
+    CompletableFuture<T> result;
+    if (bodyBudget == null || expectedBodyBytes <= 0) {
+      result = sendAsync(method, path, requestBody, queryParams, reader, options, 0, handle);
+    } else {
+      CompletableFuture<Void> reservation = bodyBudget.acquire(expectedBodyBytes);
+      Function<Void, CompletableFuture<T>> send =
+          ignored ->
+              sendAsync(
+                  method,
+                  path,
+                  requestBody,
+                  queryParams,
+                  reader,
+                  options,
+                  expectedBodyBytes,
+                  handle);
+      if (reservation.isDone() && !reservation.isCompletedExceptionally()) {
+        result = send.apply(null);
+      } else {
+        result =
+            callbackExecutor == null
+                ? reservation.thenCompose(send)
+                : reservation.thenComposeAsync(send, callbackExecutor);
+      }
+    }
+    result.whenComplete(
+        (value, error) -> {
+          if (result.isCancelled()) {
+            handle.cancel();
+          }
+        });
+    return result;
   }
 
-  private <T> List<T> executeRequestList(
+  /**
+   * Runs the request through {@link RequestPipeline#executeAsync} and validates/deserializes the
+   * response in a continuation, so no thread is parked while the call is in flight. Serialization
+   * happens on the calling thread; any failure is reported through the returned future rather than
+   * thrown.
+   */
+  private <T> CompletableFuture<T> sendAsync(
       HttpMethod method,
       String path,
       Object requestBody,
       Map<String, String> queryParams,
-      TypeReference<List<T>> typeRef,
-      RequestOptions options) {
+      ResponseReader<T> reader,
+      RequestOptions options,
+      long reservedBodyBytes,
+      CallHandle handle) {
+    CompletableFuture<TransportResponse> inFlight;
+    long reserved = reservedBodyBytes;
     try {
       TransportRequest transportRequest =
-          buildTransportRequest(method, path, requestBody, queryParams, options);
+          admitAndBuild(method, path, requestBody, queryParams, options);
       logRequest(transportRequest);
 
-      TransportResponse response = transport.execute(transportRequest);
-      logResponse(response);
+      long bodyBytes = transportRequest.body().length;
+      reserved = resizeReservation(reserved, bodyBytes);
+      // From here release() gives the reservation back
+      reserved = 0;
+      try {
+        inFlight =
+            pipeline.executeAsync(new Exchange(method, path, transportRequest, options, handle));
+      } catch (RuntimeException e) {
+        release(bodyBytes);
+        throw e;
+      }
+      if (admission != null || bodyBudget != null) {
+        inFlight = inFlight.whenComplete((response, error) -> release(bodyBytes));
+      }
+    } catch (Exception e) {
+      releaseReservation(reserved);
+      return CompletableFuture.failedFuture(toLoopsException(e));
+    }
 
-      validateResponse(response);
+    BiFunction<TransportResponse, Throwable, T> handler =
+        (response, error) -> {
+          if (error != null) {
+            throw toLoopsException(error);
+          }
+          try {
+            return readResponse(response, reader);
+          } catch (LoopsApiException e) {
+            throw e;
+          } catch (Exception e) {
+            throw toLoopsException(e);
+          }
+        };
+    return callbackExecutor == null
+        ? inFlight.handle(handler)
+        : inFlight.handleAsync(handler, callbackExecutor);
+  }
 
-      return objectMapper.readValue(response.response(), typeRef);
-    } catch (LoopsApiException e) {
-      throw e;
-    } catch (Exception e) {
-      throw new LoopsApiException("Request failed: " + e.getMessage());
+  /** Waits for room for an expected large body; returns the bytes reserved. */
+  private long reserveBodyBytes(long expectedBodyBytes) {
+    if (bodyBudget == null || expectedBodyBytes <= 0) {
+      return 0;
     }
+    RequestPipeline.await(
+        bodyBudget.acquire(expectedBodyBytes),
+        () -> bodyBudget.release(expectedBodyBytes),
+        "room in the request body budget");
+    return expectedBodyBytes;
   }
 
-  private <T> CompletableFuture<List<T>> executeRequestListAsync(
+  /** Trues up a reservation to the serialized body; returns the bytes now reserved. */
+  private long resizeReservation(long reserved, long bodyBytes) {
+    if (bodyBudget == null) {
+      return 0;
+    }
+    bodyBudget.adjust(bodyBytes - reserved);
+    return bodyBytes;
+  }
+
+  private void releaseReservation(long reserved) {
+    if (reserved > 0) {
+      bodyBudget.release(reserved);
+    }
+  }
+
+  /**
+   * Serializes a request between the two admission checks: queue depth and expected wait before, so
+   * a saturated client sheds without serializing, and the body's size after.
+   */
+  private TransportRequest admitAndBuild(
       HttpMethod method,
       String path,
       Object requestBody,
       Map<String, String> queryParams,
-      TypeReference<List<T>> typeRef,
-      RequestOptions options) {
-    return CompletableFuture.supplyAsync(
-        () -> executeRequestList(method, path, requestBody, queryParams, typeRef, options));
+      RequestOptions options)
+      throws Exception {
+    if (admission == null) {
+      return buildTransportRequest(method, path, requestBody, queryParams, options);
+    }
+    admission.admit();
+    TransportRequest transportRequest;
+    try {
+      transportRequest = buildTransportRequest(method, path, requestBody, queryParams, options);
+    } catch (Exception e) {
+      admission.abandon();
+      throw e;
+    }
+    admission.admitBody(transportRequest.body().length);
+    return transportRequest;
+  }
+
+  /** Ends a request's admission and its body reservation once the response has arrived. */
+  private void release(long bodyBytes) {
+    if (admission != null) {
+      admission.release(bodyBytes);
+    }
+    if (bodyBudget != null) {
+      bodyBudget.release(bodyBytes);
+    }
+  }
+
+  private <T> T readResponse(TransportResponse response, ResponseReader<T> reader)
+      throws Exception {
+    logResponse(response);
+    validateResponse(response);
+    return reader.read(response.response());
+  }
+
+  private <T> ResponseReader<T> bodyReader(Class<T> responseType) {
+    if (responseType == Void.class) {
+      return body -> null;
+    }
+    return body -> objectMapper.readValue(body, responseType);
+  }
+
+  private <T> ResponseReader<List<T>> listReader(TypeReference<List<T>> typeRef) {
+    return body -> objectMapper.readValue(body, typeRef);
+  }
+
+  /**
+   * Returns the failure behind {@code error} as a {@link LoopsApiException}, looking through the
+   * completion and execution wrappers that futures add.
+   *
+   * @param error a failure of a send or of its future
+   * @return the LoopsApiException itself, or one wrapping the underlying cause
+   */
+  public static LoopsApiException toLoopsException(Throwable error) {
+    Throwable cause = unwrap(error);
+    if (cause instanceof LoopsApiException loopsApiException) {
+      return loopsApiException;
+    }
+    LoopsApiException wrapped = new LoopsApiException("Request failed: " + cause.getMessage());
+    wrapped.initCause(cause);
+    return wrapped;
+  }
+
+  private static Throwable unwrap(Throwable error) {
+    Throwable current = error;
+    while ((current instanceof CompletionException || current instanceof ExecutionException)
+        && current.getCause() != null) {
+      current = current.getCause();
+    }
+    return current;
+  }
+
+  /** Reads a successful response body into the caller's result type. */
+  @FunctionalInterface
+  private interface ResponseReader<T> {
+    T read(byte[] body) throws Exception;
   }
 
   private void validateResponse(TransportResponse response) {
@@ -183,15 +537,7 @@ public class CoreSender {
       String rawBody = new String(response.response(), StandardCharsets.UTF_8);
 
       if (response.status() == 429) {
-        long retryAfter = 0;
-        String retryAfterHeader = response.headers().get("Retry-After");
-        if (retryAfterHeader != null) {
-          try {
-            retryAfter = Long.parseLong(retryAfterHeader);
-          } catch (NumberFormatException e) {
-            // Ignore parse error
-          }
-        }
+        long retryAfter = RetryAfter.parseSeconds(response.header("Retry-After"));
         throw new RateLimitExceededException(response.status(), rawBody, retryAfter);
       }
 
@@ -261,14 +607,6 @@ public class CoreSender {
       body = objectMapper.writeValueAsBytes(requestBody);
     }
 
-    return new TransportRequest(method, url, headers, body);
-  }
-
-  private <T> T deserializeResponse(TransportResponse response, Class<T> responseType)
-      throws Exception {
-    if (responseType == Void.class) {
-      return null;
-    }
-    return objectMapper.readValue(response.response(), responseType);
+    return new TransportRequest(method, url, headers, body, options.deadline());
   }
 }
@@ -0,0 +1,50 @@
+package com.telos.loops.internal;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Records in one word which of a client's components are holding dispatches back, so the fast path
+ * of a dispatch checks all of them with a single volatile read.
+ *
+ * <p>Each component owns one bit and updates it together with its own state, under whatever
+ * serializes that state, so the bit never disagrees with the component for longer than the update
+ * takes.
+ */
+final class DispatchHolds {
+
+  /** Requests are queued in the {@link DispatchScheduler} or a permit is maturing. */
+  static final int SCHEDULER = 1;
+
+  /** The {@link PauseGate} is closed or ramping after a 429. */
+  static final int PAUSE_GATE = 1 << 1;
+
+  /** The {@link RateLimitTracker} is spacing dispatches out. */
+  static final int THROTTLE = 1 << 2;
+
+  private final AtomicInteger holders = new AtomicInteger();
+
+  /**
+   * Sets or clears one holder's bit.
+   *
+   * @param holder the holder's bit
+   * @param holding whether it is holding dispatches
+   */
+  void set(int holder, boolean holding) {
+    while (true) {
+      int current = holders.get();
+      int next = holding ? current | holder : current & ~holder;
+      if (next == current || holders.compareAndSet(current, next)) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Returns whether any component is holding dispatches.
+   *
+   * @return true if at least one bit is set
+   */
+  boolean any() {
+    return holders.get() != 0;
+  }
+}
@@ -0,0 +1,454 @@
+package com.telos.loops.internal;
+
+import com.telos.loops.error.DeadlineExceededException;
+import com.telos.loops.model.RequestPriority;
+import com.telos.loops.resilience.TenantStats;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Orders requests waiting for the client's rate budget: strict priority tiers; within a tier,
+ * weighted fair shares across tenants; within a tenant, earliest deadline first, then arrival
+ * order.
+ *
+ * <p>The budget is a reservation function, such as {@link RequestPipeline}'s combination of rate
+ * limiter, pause gate and header throttle: it returns how long until the permit it just reserved
+ * matures. While nothing is waiting and the budget grants immediately, {@link #acquire} costs one
+ * volatile read plus the reservation. Once a permit has to be waited for, the request joins a
+ * queue, and when the permit matures it goes to whichever request is most urgent at that moment
+ * rather than to the one that reserved it. Only one permit is reserved ahead at a time, so a late
+ * urgent request never waits behind permits already promised to less urgent ones.
+ *
+ * <p>Tenants within a tier are served by deficit round robin: each turn a tenant with waiting
+ * requests may send as many as its weight, so backlogged tenants split the budget in proportion to
+ * their weights, and the share of a tenant with nothing waiting goes to the others.
+ *
+ * <p>A request whose deadline passes while queued is failed with {@link DeadlineExceededException}
+ * and never reserves a permit.
+ */
+final class DispatchScheduler {
+
+  /** Tenant of requests that are not tagged with one. */
+  static final String DEFAULT_TENANT = "default";
+
+  private static final CompletableFuture<Void> GRANTED = CompletableFuture.completedFuture(null);
+
+  private final LongSupplier budget;
+  private final Map<String, Integer> weights;
+
+  // Guarded by this
+  private final Tier[] tiers;
+  private int pendingPermits;
+  private long sequence;
+
+  // True while requests are queued or a permit is maturing; the fast path only reads this.
+  // Written under this, together with the SCHEDULER bit of holds
+  private volatile boolean busy;
+  private final DispatchHolds holds;
+  private final Map<String, Tenant> tenants = new ConcurrentHashMap<>();
+
+  /**
+   * Creates a scheduler over a budget.
+   *
+   * @param budget reserves one permit and returns the nanoseconds until it may be used; may throw
+   *     to refuse the request
+   * @param weights tenant weights; tenants not listed weigh 1
+   */
+  DispatchScheduler(LongSupplier budget, Map<String, Integer> weights) {
+    this(budget, weights, new DispatchHolds());
+  }
+
+  /**
+   * Creates a scheduler over a budget that reports whether it is busy to {@code holds}.
+   *
+   * @param budget reserves one permit and returns the nanoseconds until it may be used; may throw
+   *     to refuse the request
+   * @param weights tenant weights; tenants not listed weigh 1
+   * @param holds where the scheduler records whether it is holding dispatches
+   */
+  DispatchScheduler(LongSupplier budget, Map<String, Integer> weights, DispatchHolds holds) {
+    this.budget = budget;
+    this.holds = holds;
+    this.weights = Map.copyOf(weights);
+    this.tiers = new Tier[RequestPriority.values().length];
+    for (int i = 0; i < tiers.length; i++) {
+      tiers[i] = new Tier();
+    }
+  }
+
+  /**
+   * Waits for a permit to send one request.
+   *
+   * @param priority the request's tier
+   * @param deadlineNanos the {@link System#nanoTime()} after which the request is dropped, or
+   *     {@link Long#MAX_VALUE} for none
+   * @param tenantName the tenant the request is sent for, or null for the default tenant
+   * @return a future completing when the request may be sent; it fails with {@link
+   *     DeadlineExceededException} if the deadline passes first, and cancelling it gives up the
+   *     request's place in the queue
+   */
+  CompletableFuture<Void> acquire(RequestPriority priority, long deadlineNanos, String tenantName) {
+    Tenant tenant = tenant(tenantName);
+    boolean hasDeadline = deadlineNanos != Long.MAX_VALUE;
+    long now = System.nanoTime();
+    if (hasDeadline && deadlineNanos - now <= 0) {
+      tenant.expired.increment();
+      return CompletableFuture.failedFuture(expiredException());
+    }
+    if (!busy) {
+      long delay = budget.getAsLong();
+      if (delay == 0) {
+        tenant.recordDispatch(0);
+        return GRANTED;
+      }
+      // A permit is reserved but not yet usable: queue, so that whoever is most urgent when it
+      // matures gets it
+      Ticket ticket;
+      synchronized (this) {
+        ticket = enqueue(priority, tenant, hasDeadline, deadlineNanos, now);
+        pendingPermits++;
+        setBusy(true);
+      }
+      scheduleRelease(delay);
+      armDeadline(ticket, now);
+      return ticket.future;
+    }
+    Ticket ticket;
+    synchronized (this) {
+      ticket = enqueue(priority, tenant, hasDeadline, deadlineNanos, now);
+      setBusy(true);
+    }
+    armDeadline(ticket, now);
+    pump();
+    return ticket.future;
+  }
+
+  /**
+   * Returns the number of requests dropped because their deadline passed before dispatch.
+   *
+   * @return the expired count across all tenants
+   */
+  long expiredCount() {
+    long expired = 0;
+    for (Tenant tenant : tenants.values()) {
+      expired += tenant.expired.sum();
+    }
+    return expired;
+  }
+
+  /**
+   * Returns the number of requests waiting for a permit, including any that were cancelled or
+   * expired but not yet discarded.
+   *
+   * @return the queue length
+   */
+  synchronized int queued() {
+    int queued = 0;
+    for (Tenant tenant : tenants.values()) {
+      queued += tenant.queuedCount();
+    }
+    return queued;
+  }
+
+  /**
+   * Returns per-tenant queue and throughput figures for every tenant seen so far.
+   *
+   * @return stats by tenant name, sorted by name
+   */
+  synchronized Map<String, TenantStats> tenantStats() {
+    Map<String, TenantStats> stats = new TreeMap<>();
+    for (Tenant tenant : tenants.values()) {
+      stats.put(tenant.name, tenant.stats());
+    }
+    return stats;
+  }
+
+  private Tenant tenant(String name) {
+    return tenants.computeIfAbsent(
+        name == null ? DEFAULT_TENANT : name,
+        key -> new Tenant(key, weights.getOrDefault(key, 1), tiers.length));
+  }
+
+  private void setBusy(boolean busy) {
+    this.busy = busy;
+    holds.set(DispatchHolds.SCHEDULER, busy);
+  }
+
+  private Ticket enqueue(
+      RequestPriority priority, Tenant tenant, boolean hasDeadline, long deadlineNanos, long now) {
+    Ticket ticket = new Ticket(tenant, hasDeadline, deadlineNanos, now, sequence++);
+    tiers[priority.ordinal()].add(tenant.queues[priority.ordinal()], ticket);
+    return ticket;
+  }
+
+  /** Reserves the next permit for the queue head, granting it if it is usable right away. */
+  private void pump() {
+    while (true) {
+      Ticket granted = null;
+      RuntimeException refused = null;
+      long delay = 0;
+      synchronized (this) {
+        boolean waiting = hasLive();
+        if (!waiting || pendingPermits > 0) {
+          setBusy(waiting || pendingPermits > 0);
+          return;
+        }
+        try {
+          delay = budget.getAsLong();
+        } catch (RuntimeException e) {
+          refused = e;
+        }
+        if (refused != null || delay == 0) {
+          granted = pollLive();
+        } else {
+          pendingPermits++;
+        }
+      }
+      if (refused != null) {
+        if (granted != null) {
+          granted.future.completeExceptionally(refused);
+        }
+      } else if (delay == 0) {
+        if (granted != null) {
+          grant(granted);
+        }
+      } else {
+        scheduleRelease(delay);
+        return;
+      }
+    }
+  }
+
+  /** Hands a matured permit to the most urgent live request, then reserves the next one. */
+  private void release() {
+    Ticket granted;
+    synchronized (this) {
+      pendingPermits--;
+      granted = pollLive();
+    }
+    if (granted != null) {
+      grant(granted);
+    }
+    pump();
+  }
+
+  private void grant(Ticket ticket) {
+    // Counted first so the stats include the dispatch by the time the caller resumes
+    long waitedNanos = System.nanoTime() - ticket.enqueuedNanos;
+    ticket.tenant.recordDispatch(waitedNanos);
+    if (!ticket.future.complete(null)) {
+      ticket.tenant.cancelDispatch(waitedNanos);
+    }
+  }
+
+  private boolean hasLive() {
+    long now = System.nanoTime();
+    for (Tier tier : tiers) {
+      if (tier.hasLive(now)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private Ticket pollLive() {
+    long now = System.nanoTime();
+    for (Tier tier : tiers) {
+      Ticket ticket = tier.pollLive(now);
+      if (ticket != null) {
+        return ticket;
+      }
+    }
+    return null;
+  }
+
+  private void scheduleRelease(long delayNanos) {
+    RequestPipeline.delayedExecutor(delayNanos).execute(this::release);
+  }
+
+  private void armDeadline(Ticket ticket, long now) {
+    if (ticket.hasDeadline) {
+      // Fail the caller on time even when no permit comes up; the dead ticket is discarded later
+      RequestPipeline.delayedExecutor(ticket.deadlineNanos - now).execute(() -> expire(ticket));
+    }
+  }
+
+  private static void expire(Ticket ticket) {
+    if (ticket.future.completeExceptionally(expiredException())) {
+      ticket.tenant.expired.increment();
+    }
+  }
+
+  private static DeadlineExceededException expiredException() {
+    return new DeadlineExceededException("Request deadline passed before it could be sent");
+  }
+
+  /** One priority tier: the tenants with waiting requests, served by deficit round robin. */
+  private static final class Tier {
+    private final ArrayDeque<TenantQueue> active = new ArrayDeque<>();
+
+    void add(TenantQueue queue, Ticket ticket) {
+      queue.tickets.add(ticket);
+      if (!queue.active) {
+        queue.active = true;
+        active.addLast(queue);
+      }
+    }
+
+    boolean hasLive(long now) {
+      for (TenantQueue queue : active) {
+        if (queue.peekLive(now) != null) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    Ticket pollLive(long now) {
+      TenantQueue queue;
+      while ((queue = active.peekFirst()) != null) {
+        Ticket head = queue.peekLive(now);
+        if (head == null) {
+          // Nothing left to send: leave the rotation and forfeit unused credit
+          active.pollFirst();
+          queue.active = false;
+          queue.deficit = 0;
+          continue;
+        }
+        if (queue.deficit == 0) {
+          // Start of this tenant's turn
+          queue.deficit = queue.tenant.weight;
+        }
+        queue.tickets.poll();
+        if (--queue.deficit == 0) {
+          active.pollFirst();
+          active.addLast(queue);
+        }
+        return head;
+      }
+      return null;
+    }
+  }
+
+  /** A tenant's waiting requests within one tier. */
+  private static final class TenantQueue {
+    final Tenant tenant;
+    final PriorityQueue<Ticket> tickets = new PriorityQueue<>();
+    boolean active;
+    int deficit;
+
+    TenantQueue(Tenant tenant) {
+      this.tenant = tenant;
+    }
+
+    /** Discards cancelled and expired requests from the head and returns the first live one. */
+    Ticket peekLive(long now) {
+      Ticket head;
+      while ((head = tickets.peek()) != null) {
+        if (head.future.isDone()) {
+          tickets.poll();
+        } else if (head.hasDeadline && head.deadlineNanos - now <= 0) {
+          tickets.poll();
+          expire(head);
+        } else {
+          return head;
+        }
+      }
+      return null;
+    }
+  }
+
+  /** A tenant's weight, per-tier queues and counters. */
+  private static final class Tenant {
+    final String name;
+    final int weight;
+    final TenantQueue[] queues;
+    final LongAdder dispatched = new LongAdder();
+    final LongAdder expired = new LongAdder();
+    final LongAdder waitNanos = new LongAdder();
+    final AtomicLong maxWaitNanos = new AtomicLong();
+
+    Tenant(String name, int weight, int tiers) {
+      this.name = name;
+      this.weight = weight;
+      this.queues = new TenantQueue[tiers];
+      for (int i = 0; i < tiers; i++) {
+        queues[i] = new TenantQueue(this);
+      }
+    }
+
+    void recordDispatch(long waitedNanos) {
+      dispatched.increment();
+      if (waitedNanos > 0) {
+        waitNanos.add(waitedNanos);
+        maxWaitNanos.accumulateAndGet(waitedNanos, Math::max);
+      }
+    }
+
+    /** Reverts {@link #recordDispatch} for a request cancelled as it was granted. */
+    void cancelDispatch(long waitedNanos) {
+      dispatched.decrement();
+      if (waitedNanos > 0) {
+        waitNanos.add(-waitedNanos);
+      }
+    }
+
+    /** Returns the requests waiting in every tier; the caller holds the scheduler's lock. */
+    int queuedCount() {
+      int queued = 0;
+      for (TenantQueue queue : queues) {
+        queued += queue.tickets.size();
+      }
+      return queued;
+    }
+
+    TenantStats stats() {
+      long count = dispatched.sum();
+      double millis = TimeUnit.MILLISECONDS.toNanos(1);
+      return new TenantStats(
+          name,
+          weight,
+          queuedCount(),
+          count,
+          expired.sum(),
+          count == 0 ? 0 : waitNanos.sum() / millis / count,
+          maxWaitNanos.get() / millis);
+    }
+  }
+
+  private static final class Ticket implements Comparable<Ticket> {
+    final Tenant tenant;
+    final boolean hasDeadline;
+    final long deadlineNanos;
+    final long enqueuedNanos;
+    final long sequence;
+    final CompletableFuture<Void> future = new CompletableFuture<>();
+
+    Ticket(Tenant tenant, boolean hasDeadline, long deadlineNanos, long enqueuedNanos, long seq) {
+      this.tenant = tenant;
+      this.hasDeadline = hasDeadline;
+      this.deadlineNanos = deadlineNanos;
+      this.enqueuedNanos = enqueuedNanos;
+      this.sequence = seq;
+    }
+
+    @Override
+    public int compareTo(Ticket other) {
+      if (hasDeadline != other.hasDeadline) {
+        return hasDeadline ? -1 : 1;
+      }
+      if (hasDeadline && deadlineNanos != other.deadlineNanos) {
+        return deadlineNanos - other.deadlineNanos < 0 ? -1 : 1;
+      }
+      return Long.compare(sequence, other.sequence);
+    }
+  }
+}
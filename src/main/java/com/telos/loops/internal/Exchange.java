@@ -0,0 +1,33 @@
+package com.telos.loops.internal;
+
+import com.telos.loops.model.RequestOptions;
+import com.telos.loops.transport.HttpMethod;
+import com.telos.loops.transport.TransportRequest;
+
+/**
+ * A single API call on its way through the {@link RequestPipeline}: the wire request together with
+ * the endpoint and options it was built from.
+ *
+ * @param method the HTTP method
+ * @param path the endpoint path relative to the base URL, without query string
+ * @param request the request as it will be handed to the transport
+ * @param options the caller's request options
+ * @param handle the handle that cancels this call's transport call, or null if it cannot be
+ *     cancelled
+ */
+record Exchange(
+    HttpMethod method,
+    String path,
+    TransportRequest request,
+    RequestOptions options,
+    CallHandle handle) {
+
+  Exchange(HttpMethod method, String path, TransportRequest request, RequestOptions options) {
+    this(method, path, request, options, null);
+  }
+
+  /** Returns a copy of this exchange whose transport call is cancelled through {@code handle}. */
+  Exchange withHandle(CallHandle handle) {
+    return new Exchange(method, path, request, options, handle);
+  }
+}
@@ -0,0 +1,150 @@
+package com.telos.loops.internal;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size concurrent set of 64-bit key hashes that each expire at a time tick.
+ *
+ * <p>Each slot of an open-addressing table packs a 32-bit fingerprint of the hash and the tick the
+ * entry expires at into one {@code long}, so the set takes 8 bytes per slot whatever the keys are
+ * and never grows: 11 to 22 bytes per key once the slot count is rounded up to a power of two, or
+ * 256 MB for 20 million keys. The hash's low bits pick the home slot and the fingerprint holds its
+ * high bits, so two different keys are mistaken for each other only if their fingerprints match and
+ * their slots lie within one probe run, around once in a billion lookups at full load. Expired
+ * entries are not removed but reused by later inserts, and a probe gives up after a fixed distance,
+ * so every operation is bounded whatever the table's state.
+ *
+ * <p>Slots are claimed with compare-and-set. Two threads adding the same absent key at the same
+ * moment can, rarely, both be told it was absent.
+ */
+public final class FingerprintTtlSet {
+
+  /** The result of {@link #addIfAbsent}. */
+  public enum Outcome {
+    /** The key was absent or expired, and now holds the new expiry. */
+    ADDED,
+    /** The key is present and has not expired; its expiry is unchanged. */
+    PRESENT,
+    /** The key is absent and no slot near its home slot is free or expired. */
+    FULL
+  }
+
+  // Longest run of slots searched from a key's home slot
+  private static final int MAX_PROBES = 32;
+
+  private final AtomicLongArray slots;
+  private final int mask;
+
+  /**
+   * Creates a set sized for {@code maxKeys} live keys at three-quarters load.
+   *
+   * @param maxKeys the number of live keys the set must hold
+   * @throws IllegalArgumentException if maxKeys is not positive or too large for one table
+   */
+  public FingerprintTtlSet(int maxKeys) {
+    if (maxKeys < 1 || maxKeys > 1 << 29) {
+      throw new IllegalArgumentException("maxKeys must be between 1 and 2^29, got: " + maxKeys);
+    }
+    long wanted = Math.max(MAX_PROBES, maxKeys + (maxKeys + 2L) / 3);
+    int size =
+        Long.highestOneBit(wanted) == wanted ? (int) wanted : (int) Long.highestOneBit(wanted) << 1;
+    this.slots = new AtomicLongArray(size);
+    this.mask = size - 1;
+  }
+
+  /**
+   * Adds a key unless it is present and unexpired.
+   *
+   * @param hash the key's 64-bit hash, well mixed in all bits
+   * @param expiryTick the tick after which the key expires; ticks must be positive
+   * @param nowTick the current tick
+   * @return whether the key was added, was already present, or could not be stored
+   */
+  public Outcome addIfAbsent(long hash, int expiryTick, int nowTick) {
+    int fingerprint = fingerprint(hash);
+    long added = pack(fingerprint, expiryTick);
+    retry:
+    while (true) {
+      int reusable = -1;
+      long reusableEntry = 0;
+      int index = (int) hash & mask;
+      for (int probe = 0; probe < MAX_PROBES; probe++, index = (index + 1) & mask) {
+        long entry = slots.get(index);
+        if (entry == 0) {
+          if (reusable < 0) {
+            reusable = index;
+            reusableEntry = 0;
+          }
+          break;
+        }
+        if (fingerprintOf(entry) == fingerprint) {
+          if (expiryOf(entry) > nowTick) {
+            return Outcome.PRESENT;
+          }
+          if (slots.compareAndSet(index, entry, added)) {
+            return Outcome.ADDED;
+          }
+          continue retry;
+        }
+        if (reusable < 0 && expiryOf(entry) <= nowTick) {
+          reusable = index;
+          reusableEntry = entry;
+        }
+      }
+      if (reusable < 0) {
+        return Outcome.FULL;
+      }
+      if (slots.compareAndSet(reusable, reusableEntry, added)) {
+        return Outcome.ADDED;
+      }
+    }
+  }
+
+  /**
+   * Expires a key now, so the next {@link #addIfAbsent} for it succeeds.
+   *
+   * @param hash the key's 64-bit hash
+   */
+  public void expire(long hash) {
+    int fingerprint = fingerprint(hash);
+    int index = (int) hash & mask;
+    for (int probe = 0; probe < MAX_PROBES; probe++, index = (index + 1) & mask) {
+      long entry = slots.get(index);
+      if (entry == 0) {
+        return;
+      }
+      if (fingerprintOf(entry) == fingerprint) {
+        // An expiry of zero keeps the slot occupied, so probes for other keys still pass it
+        slots.compareAndSet(index, entry, pack(fingerprint, 0));
+        return;
+      }
+    }
+  }
+
+  /**
+   * Returns the number of slots.
+   *
+   * @return the capacity
+   */
+  public int capacity() {
+    return mask + 1;
+  }
+
+  private static int fingerprint(long hash) {
+    int fingerprint = (int) (hash >>> 32);
+    // Zero marks a free slot
+    return fingerprint == 0 ? 1 : fingerprint;
+  }
+
+  private static long pack(int fingerprint, int expiryTick) {
+    return ((long) fingerprint << 32) | (expiryTick & 0xFFFF_FFFFL);
+  }
+
+  private static int fingerprintOf(long entry) {
+    return (int) (entry >>> 32);
+  }
+
+  private static int expiryOf(long entry) {
+    return (int) entry;
+  }
+}
@@ -0,0 +1,119 @@
+package com.telos.loops.internal;
+
+import com.telos.loops.resilience.HedgePolicy;
+import com.telos.loops.resilience.HedgeStats;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides when a GET is hedged: tracks recent latency per endpoint and the hedge budget.
+ *
+ * <p>Each endpoint keeps its last {@value #WINDOW} response times in a ring; the hedge delay is
+ * their configured percentile, recomputed every {@value #RECOMPUTE_EVERY} samples so that the
+ * request path only reads a volatile. The budget is a credit counter: every eligible GET adds
+ * {@code maxHedgeRatio} of a hedge, a hedge spends a whole one, and at most {@value #MAX_BANKED}
+ * hedges can be banked so a quiet period does not license a burst.
+ */
+final class Hedger {
+
+  private static final int WINDOW = 128;
+  private static final int MIN_SAMPLES = 20;
+  private static final int RECOMPUTE_EVERY = 16;
+  private static final int MAX_BANKED = 10;
+
+  // Credit is kept in millionths of a hedge
+  private static final long HEDGE = 1_000_000;
+
+  private final double percentile;
+  private final long minDelayNanos;
+  private final long creditPerRequest;
+
+  private final AtomicLong credit = new AtomicLong();
+  private final LongAdder requests = new LongAdder();
+  private final LongAdder hedges = new LongAdder();
+  private final LongAdder wins = new LongAdder();
+  private final Map<String, LatencyWindow> windows = new ConcurrentHashMap<>();
+
+  Hedger(HedgePolicy policy) {
+    this.percentile = policy.percentile();
+    this.minDelayNanos = policy.minDelay().toNanos();
+    this.creditPerRequest = Math.round(policy.maxHedgeRatio() * HEDGE);
+  }
+
+  /**
+   * Counts a hedgeable request towards the budget and returns how long to wait before hedging it.
+   *
+   * @param path the endpoint path
+   * @return the hedge delay in nanoseconds, or -1 if the endpoint has too few samples yet
+   */
+  long onRequest(String path) {
+    requests.increment();
+    credit.accumulateAndGet(
+        creditPerRequest, (current, x) -> Math.min(MAX_BANKED * HEDGE, current + x));
+    LatencyWindow window = windows.get(path);
+    long threshold = window != null ? window.threshold : -1;
+    return threshold < 0 ? -1 : Math.max(minDelayNanos, threshold);
+  }
+
+  /**
+   * Spends one hedge from the budget.
+   *
+   * @return true if a hedge may be sent
+   */
+  boolean tryHedge() {
+    while (true) {
+      long current = credit.get();
+      if (current < HEDGE) {
+        return false;
+      }
+      if (credit.compareAndSet(current, current - HEDGE)) {
+        hedges.increment();
+        return true;
+      }
+    }
+  }
+
+  /** Counts a hedge that answered before the original request. */
+  void recordWin() {
+    wins.increment();
+  }
+
+  /**
+   * Records the time an endpoint took to respond.
+   *
+   * @param path the endpoint path
+   * @param nanos the response time
+   */
+  void recordLatency(String path, long nanos) {
+    windows.computeIfAbsent(path, ignored -> new LatencyWindow()).record(nanos, percentile);
+  }
+
+  HedgeStats stats() {
+    return new HedgeStats(requests.sum(), hedges.sum(), wins.sum());
+  }
+
+  /** The most recent response times of one endpoint and their percentile. */
+  private static final class LatencyWindow {
+    private final AtomicLongArray samples = new AtomicLongArray(WINDOW);
+    private final AtomicLong count = new AtomicLong();
+    private volatile long threshold = -1;
+
+    void record(long nanos, double percentile) {
+      long n = count.getAndIncrement() + 1;
+      samples.set((int) ((n - 1) % WINDOW), nanos);
+      if (n == MIN_SAMPLES || (n > MIN_SAMPLES && n % RECOMPUTE_EVERY == 0)) {
+        int size = (int) Math.min(n, WINDOW);
+        long[] sorted = new long[size];
+        for (int i = 0; i < size; i++) {
+          sorted[i] = samples.get(i);
+        }
+        Arrays.sort(sorted);
+        threshold = sorted[Math.max(0, (int) Math.ceil(percentile * size) - 1)];
+      }
+    }
+  }
+}
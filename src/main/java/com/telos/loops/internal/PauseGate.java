@@ -0,0 +1,118 @@
+package com.telos.loops.internal;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Holds every dispatch of a client after the API answers 429, so one rate-limited call does not
+ * turn into a 429 for each of the other calls in flight or queued behind it.
+ *
+ * <p>When tripped, the gate stays closed until the {@code Retry-After} deadline, then reopens
+ * gradually: the release rate climbs linearly from zero to the account's per-second limit over
+ * {@link #RAMP_NANOS}, and any remaining backlog drains at that limit. The gate opens fully once
+ * the backlog is gone.
+ *
+ * <p>While the gate is open, {@link #delayNanos()} is a single volatile read. All bookkeeping for a
+ * closed gate happens under the monitor, which is only taken while a pause is in effect.
+ */
+final class PauseGate {
+
+  /** Pause applied when a 429 carries no usable {@code Retry-After}. */
+  static final long DEFAULT_PAUSE_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+  /**
+   * Longest pause honoured; a longer {@code Retry-After} is clamped so callers are not held
+   * indefinitely. A dispatch released early that meets another 429 simply trips the gate again.
+   */
+  static final long MAX_PAUSE_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+  /** Time over which the release rate climbs back to the full limit. */
+  static final long RAMP_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+  private final LongSupplier clock;
+  private final DispatchHolds holds;
+
+  // 0 while open; otherwise the earliest time at which the gate may open again
+  private volatile long closedUntil;
+
+  private long pausedUntil;
+  private int rampSize;
+  private int released;
+
+  PauseGate(DispatchHolds holds) {
+    this(System::nanoTime, holds);
+  }
+
+  PauseGate(LongSupplier clock) {
+    this(clock, new DispatchHolds());
+  }
+
+  PauseGate(LongSupplier clock, DispatchHolds holds) {
+    this.clock = clock;
+    this.holds = holds;
+  }
+
+  /**
+   * Closes the gate after a 429.
+   *
+   * @param pauseNanos how long the API asked to wait, or a negative value if it did not say
+   * @param limitPerSecond the account's per-second limit, used to size the ramp
+   */
+  synchronized void trip(long pauseNanos, int limitPerSecond) {
+    long now = clock.getAsLong();
+    long until =
+        now + (pauseNanos < 0 ? DEFAULT_PAUSE_NANOS : Math.min(pauseNanos, MAX_PAUSE_NANOS));
+    if (closedUntil == 0 || until - pausedUntil > 0) {
+      pausedUntil = until;
+    }
+    rampSize = Math.max(1, limitPerSecond);
+    released = 0;
+    long rampEnd = pausedUntil + RAMP_NANOS;
+    if (closedUntil == 0 || rampEnd - closedUntil > 0) {
+      closedUntil = rampEnd;
+      holds.set(DispatchHolds.PAUSE_GATE, true);
+    }
+  }
+
+  /**
+   * Reserves a release slot for one dispatch.
+   *
+   * @return the nanoseconds to hold the dispatch, 0 when the gate is open
+   */
+  long delayNanos() {
+    if (closedUntil == 0) {
+      return 0;
+    }
+    return reserveSlot();
+  }
+
+  /**
+   * Returns whether the gate is currently holding dispatches.
+   *
+   * @return true while paused or ramping
+   */
+  boolean isClosed() {
+    return closedUntil != 0;
+  }
+
+  private synchronized long reserveSlot() {
+    long now = clock.getAsLong();
+    if (closedUntil == 0 || now - closedUntil >= 0) {
+      closedUntil = 0;
+      holds.set(DispatchHolds.PAUSE_GATE, false);
+      return 0;
+    }
+    int k = released++;
+    long releaseAt;
+    if (k < rampSize) {
+      // Linear rate ramp: cumulative releases grow with the square of elapsed ramp time
+      releaseAt = pausedUntil + (long) (RAMP_NANOS * Math.sqrt((double) k / rampSize));
+    } else {
+      releaseAt = pausedUntil + RAMP_NANOS + (k - rampSize) * (RAMP_NANOS / rampSize);
+    }
+    if (releaseAt - closedUntil > 0) {
+      closedUntil = releaseAt;
+    }
+    return Math.max(0, releaseAt - now);
+  }
+}
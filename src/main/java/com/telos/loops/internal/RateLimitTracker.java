@@ -0,0 +1,133 @@
+package com.telos.loops.internal;
+
+import com.telos.loops.resilience.RateLimiter;
+import com.telos.loops.transport.TransportResponse;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Follows the {@code x-ratelimit-limit} and {@code x-ratelimit-remaining} headers the Loops API
+ * returns on every response, and spaces out dispatches before the budget runs out.
+ *
+ * <p>While more than {@value #LOW_WATERMARK_PERCENT}% of the budget remains, dispatches are not
+ * delayed and {@link #reserveDelayNanos()} costs a single volatile read. Below that, the remaining
+ * requests are spread evenly over the one-second window; once nothing remains, the next dispatch
+ * waits for the window to roll over. The advertised limit is passed to the client's {@link
+ * RateLimiter}, if any, as an upper bound on its rate.
+ */
+final class RateLimitTracker {
+
+  static final String LIMIT_HEADER = "x-ratelimit-limit";
+  static final String REMAINING_HEADER = "x-ratelimit-remaining";
+
+  private static final int LOW_WATERMARK_PERCENT = 20;
+
+  // Loops limits are per second
+  private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+  private final RateLimiter rateLimiter;
+  private final DispatchHolds holds;
+  private final LongSupplier clock;
+
+  // Gap between dispatches while throttling, 0 when the budget is healthy. Written under this,
+  // together with the THROTTLE bit of holds
+  private volatile long spacingNanos;
+  private volatile int learnedLimit;
+  private final AtomicLong nextSlot;
+
+  RateLimitTracker(RateLimiter rateLimiter) {
+    this(rateLimiter, new DispatchHolds());
+  }
+
+  RateLimitTracker(RateLimiter rateLimiter, DispatchHolds holds) {
+    this(rateLimiter, holds, System::nanoTime);
+  }
+
+  RateLimitTracker(RateLimiter rateLimiter, DispatchHolds holds, LongSupplier clock) {
+    this.rateLimiter = rateLimiter;
+    this.holds = holds;
+    this.clock = clock;
+    this.nextSlot = new AtomicLong(clock.getAsLong());
+  }
+
+  /**
+   * Updates the throttle from a response's rate limit headers; responses without them are ignored.
+   *
+   * @param response the response to read
+   */
+  void observe(TransportResponse response) {
+    int limit = parse(response.header(LIMIT_HEADER));
+    int remaining = parse(response.header(REMAINING_HEADER));
+    if (limit <= 0 || remaining < 0) {
+      return;
+    }
+    if (limit != learnedLimit) {
+      learnedLimit = limit;
+      if (rateLimiter != null) {
+        rateLimiter.updateLimit(limit);
+      }
+    }
+
+    if (remaining * 100L > (long) limit * LOW_WATERMARK_PERCENT) {
+      if (spacingNanos != 0) {
+        setSpacing(0);
+      }
+      return;
+    }
+    long now = clock.getAsLong();
+    if (remaining == 0) {
+      // Budget spent: nothing goes out until the window rolls over, then pace at the limit
+      long windowEnd = now + WINDOW_NANOS;
+      nextSlot.accumulateAndGet(windowEnd, (current, end) -> end - current > 0 ? end : current);
+      setSpacing(WINDOW_NANOS / limit);
+    } else {
+      setSpacing(WINDOW_NANOS / remaining);
+    }
+  }
+
+  /**
+   * Reserves the next dispatch slot.
+   *
+   * @return the nanoseconds to wait before dispatching, 0 when not throttling
+   */
+  long reserveDelayNanos() {
+    long spacing = spacingNanos;
+    if (spacing == 0) {
+      return 0;
+    }
+    long now = clock.getAsLong();
+    while (true) {
+      long slot = nextSlot.get();
+      long start = slot - now > 0 ? slot : now;
+      if (nextSlot.compareAndSet(slot, start + spacing)) {
+        return start - now;
+      }
+    }
+  }
+
+  /**
+   * Returns the limit most recently advertised by the API.
+   *
+   * @return the requests allowed per second, or 0 if no response carried the header yet
+   */
+  int learnedLimit() {
+    return learnedLimit;
+  }
+
+  private synchronized void setSpacing(long spacing) {
+    spacingNanos = spacing;
+    holds.set(DispatchHolds.THROTTLE, spacing != 0);
+  }
+
+  private static int parse(String value) {
+    if (value == null) {
+      return -1;
+    }
+    try {
+      return Integer.parseInt(value.trim());
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+}
@@ -0,0 +1,961 @@
+package com.telos.loops.internal;
+
+import com.telos.loops.error.CircuitOpenException;
+import com.telos.loops.error.DeadlineExceededException;
+import com.telos.loops.error.LoopsApiException;
+import com.telos.loops.error.OverloadedException;
+import com.telos.loops.error.RateLimitExceededException;
+import com.telos.loops.model.RequestOptions;
+import com.telos.loops.model.RequestPriority;
+import com.telos.loops.resilience.AdaptiveConcurrencyLimiter;
+import com.telos.loops.resilience.BulkheadSettings;
+import com.telos.loops.resilience.BulkheadStats;
+import com.telos.loops.resilience.CircuitBreakerListener;
+import com.telos.loops.resilience.CircuitBreakerSettings;
+import com.telos.loops.resilience.CircuitBreakerStats;
+import com.telos.loops.resilience.HedgePolicy;
+import com.telos.loops.resilience.HedgeStats;
+import com.telos.loops.resilience.RateLimiter;
+import com.telos.loops.resilience.RetryPolicy;
+import com.telos.loops.resilience.TenantStats;
+import com.telos.loops.transport.HttpMethod;
+import com.telos.loops.transport.Transport;
+import com.telos.loops.transport.TransportResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The client-side policies every request passes through between {@link CoreSender} and the {@link
+ * Transport}.
+ *
+ * <p>One pipeline is shared by all sub-clients of a {@code LoopsClient}, so its policies (such as
+ * the rate limiter) see the client's whole request stream. Policies apply per attempt, from the
+ * outside in: retry, then hedging of slow GETs, then the endpoint's circuit breaker and bulkhead,
+ * then the adaptive concurrency limit, then the 429 pause gate, rate limiting and header-driven
+ * throttling, then the transport. The circuit breaker is checked on entry, so an open circuit fails
+ * fast instead of queueing, and again just before the transport, where half-open trials are taken
+ * and outcomes recorded. Requests waiting for that budget are released by {@link RequestPriority
+ * priority} and deadline rather than in arrival order.
+ *
+ * <p>Waiting never parks a thread on the async path: a delayed request or retry is handed to the
+ * transport from a timer. On the sync path the calling thread parks, which on a virtual thread
+ * releases its carrier.
+ */
+public final class RequestPipeline {
+  private static final Logger logger = LoggerFactory.getLogger(RequestPipeline.class);
+
+  private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  // Loops' documented default when no response has advertised a limit yet
+  private static final int DEFAULT_LIMIT_PER_SECOND = 10;
+
+  private final Transport transport;
+  private final RateLimiter rateLimiter;
+  private final RetryPolicy retryPolicy;
+  private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+  private final RateLimitTracker rateLimitTracker;
+  private final PauseGate pauseGate;
+  private final DispatchScheduler dispatchScheduler;
+  private final DispatchHolds dispatchHolds = new DispatchHolds();
+  // Whether every dispatch queues, rather than only those sent while something holds dispatches
+  private final boolean alwaysSchedule;
+  private final Bulkheads bulkheads;
+  private final Hedger hedger;
+  private final CircuitBreakers circuitBreakers;
+
+  private RequestPipeline(Builder builder) {
+    this.transport = Objects.requireNonNull(builder.transport);
+    this.rateLimiter = builder.rateLimiter;
+    this.retryPolicy = builder.retryPolicy;
+    this.concurrencyLimiter = builder.concurrencyLimiter;
+    this.rateLimitTracker =
+        builder.proactiveThrottling
+            ? new RateLimitTracker(builder.rateLimiter, dispatchHolds)
+            : null;
+    this.pauseGate = builder.pauseOnRateLimit ? new PauseGate(dispatchHolds) : null;
+    this.dispatchScheduler =
+        rateLimiter != null || rateLimitTracker != null || pauseGate != null
+            ? new DispatchScheduler(this::dispatchDelay, builder.tenantWeights, dispatchHolds)
+            : null;
+    this.alwaysSchedule = rateLimiter != null || !builder.tenantWeights.isEmpty();
+    this.bulkheads =
+        builder.bulkheads.isEmpty() && builder.defaultBulkhead == null
+            ? null
+            : new Bulkheads(builder.bulkheads, builder.defaultBulkhead);
+    this.hedger = builder.hedgePolicy != null ? new Hedger(builder.hedgePolicy) : null;
+    this.circuitBreakers =
+        builder.circuitBreaker != null
+            ? new CircuitBreakers(
+                builder.circuitBreaker,
+                builder.healthProbePath,
+                builder.healthProbe,
+                builder.circuitBreakerListener)
+            : null;
+  }
+
+  /**
+   * Creates a pipeline that passes requests straight to the transport.
+   *
+   * @param transport the transport requests are executed on
+   * @return a new pipeline with no policies
+   */
+  public static RequestPipeline of(Transport transport) {
+    return builder(transport).build();
+  }
+
+  /**
+   * Creates a new builder for a pipeline over the given transport.
+   *
+   * @param transport the transport requests are executed on
+   * @return a new builder
+   */
+  public static Builder builder(Transport transport) {
+    return new Builder(transport);
+  }
+
+  /**
+   * Returns queue wait and throughput per tenant for every tenant that has sent a request.
+   *
+   * <p>Empty when the pipeline has no rate budget to schedule, since requests then never wait.
+   * Without a rate limiter or tenant weights, only requests sent while a 429 pause or the header
+   * throttle holds dispatches are counted.
+   *
+   * @return stats by tenant name, sorted by name
+   */
+  public Map<String, TenantStats> tenantStats() {
+    return dispatchScheduler != null ? dispatchScheduler.tenantStats() : Map.of();
+  }
+
+  /**
+   * Returns the state of every bulkhead that has admitted a request.
+   *
+   * @return stats by bulkhead name, sorted by name; empty when no bulkheads are configured
+   */
+  public Map<String, BulkheadStats> bulkheadStats() {
+    return bulkheads != null ? bulkheads.stats() : Map.of();
+  }
+
+  /**
+   * Returns how many GETs were hedged and how many hedges answered first.
+   *
+   * @return the hedge counters, all zero when hedging is off
+   */
+  public HedgeStats hedgeStats() {
+    return hedger != null ? hedger.stats() : new HedgeStats(0, 0, 0);
+  }
+
+  /**
+   * Returns the state of the circuit breaker of every endpoint called so far.
+   *
+   * @return stats by endpoint path, sorted by path; empty when no circuit breaker is configured
+   */
+  public Map<String, CircuitBreakerStats> circuitBreakerStats() {
+    return circuitBreakers != null ? circuitBreakers.stats() : Map.of();
+  }
+
+  /**
+   * Returns the transport at the end of this pipeline.
+   *
+   * @return the transport
+   */
+  public Transport transport() {
+    return transport;
+  }
+
+  TransportResponse execute(Exchange exchange) {
+    if (isHedged(exchange)) {
+      // Racing two calls needs the async path; the caller just waits for the winner
+      return awaitResponse(executeAsync(exchange));
+    }
+    if (!isRetryable(exchange)) {
+      return attempt(exchange);
+    }
+    RetryBudget budget = new RetryBudget(retryPolicy, System.nanoTime());
+    while (true) {
+      TransportResponse response;
+      try {
+        response = attempt(exchange);
+      } catch (LoopsApiException e) {
+        throw e;
+      } catch (RuntimeException e) {
+        long delay = budget.nextDelayNanos(-1, System.nanoTime());
+        if (delay < 0 || pastDeadline(exchange, delay)) {
+          throw e;
+        }
+        logRetry(exchange, budget, delay, e.getMessage());
+        parkNanos(delay);
+        continue;
+      }
+      long delay = retryDelay(budget, response);
+      if (delay < 0 || pastDeadline(exchange, delay)) {
+        return response;
+      }
+      logRetry(exchange, budget, delay, "HTTP " + response.status());
+      parkNanos(delay);
+    }
+  }
+
+  CompletableFuture<TransportResponse> executeAsync(Exchange exchange) {
+    if (!isRetryable(exchange)) {
+      return attemptOrHedgeAsync(exchange);
+    }
+    RetryBudget budget = new RetryBudget(retryPolicy, System.nanoTime());
+    CompletableFuture<TransportResponse> result = new CompletableFuture<>();
+    attemptWithRetries(exchange, budget, result);
+    return result;
+  }
+
+  private void attemptWithRetries(
+      Exchange exchange, RetryBudget budget, CompletableFuture<TransportResponse> result) {
+    CompletableFuture<TransportResponse> attempt;
+    try {
+      attempt = attemptOrHedgeAsync(exchange);
+    } catch (RuntimeException e) {
+      attempt = CompletableFuture.failedFuture(e);
+    }
+    attempt.whenComplete(
+        (response, error) -> {
+          long delay;
+          String reason;
+          if (error != null) {
+            Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+            delay =
+                cause instanceof LoopsApiException || cause instanceof CancellationException
+                    ? -1
+                    : budget.nextDelayNanos(-1, System.nanoTime());
+            if (delay < 0 || pastDeadline(exchange, delay)) {
+              result.completeExceptionally(cause);
+              return;
+            }
+            reason = cause.getMessage();
+          } else {
+            delay = retryDelay(budget, response);
+            if (delay < 0 || pastDeadline(exchange, delay)) {
+              result.complete(response);
+              return;
+            }
+            reason = "HTTP " + response.status();
+          }
+          logRetry(exchange, budget, delay, reason);
+          delayedExecutor(delay).execute(() -> attemptWithRetries(exchange, budget, result));
+        });
+  }
+
+  /**
+   * One attempt: enter the endpoint's bulkhead, obtain a concurrency slot, wait out any 429 pause,
+   * the rate limit and the header-driven throttle, then hand the request to the transport.
+   */
+  private TransportResponse attempt(Exchange exchange) {
+    CircuitBreaker breaker = circuitBreaker(exchange);
+    if (breaker != null) {
+      breaker.checkPermitted();
+    }
+    Bulkhead bulkhead = bulkheads != null ? bulkheads.forPath(exchange.path()) : null;
+    if (bulkhead == null) {
+      return attemptWithSlot(exchange);
+    }
+    await(bulkhead.acquire(), bulkhead::release, "a bulkhead slot");
+    try {
+      return attemptWithSlot(exchange);
+    } finally {
+      bulkhead.release();
+    }
+  }
+
+  private TransportResponse attemptWithSlot(Exchange exchange) {
+    if (concurrencyLimiter != null) {
+      await(
+          concurrencyLimiter.acquire(),
+          () -> concurrencyLimiter.release(-1, false),
+          "a concurrency slot");
+    }
+    long start = -1;
+    boolean overloaded = true;
+    boolean abandoned = false;
+    try {
+      if (needsPermit()) {
+        awaitPermit(acquirePermit(exchange));
+      }
+      CircuitBreaker breaker = circuitBreaker(exchange);
+      long breakerPermit = breaker != null ? breaker.acquire() : 0;
+      if (isExpired(exchange)) {
+        if (breaker != null) {
+          breaker.onCancelled(breakerPermit);
+        }
+        throw deadlinePassedBeforeSend();
+      }
+      start = System.nanoTime();
+      TransportResponse response;
+      try {
+        response = transport.execute(exchange.request());
+      } catch (RuntimeException e) {
+        boolean expired = isExpired(exchange);
+        // Cut short by the caller's deadline, which says nothing about the API's load
+        abandoned = expired;
+        if (breaker != null) {
+          if (expired) {
+            breaker.onCancelled(breakerPermit);
+          } else {
+            breaker.onResult(breakerPermit, System.nanoTime() - start, true);
+          }
+        }
+        throw expired ? deadlinePassedInFlight() : e;
+      }
+      if (breaker != null) {
+        breaker.onResult(breakerPermit, System.nanoTime() - start, response.status() >= 500);
+      }
+      observe(response);
+      overloaded = isOverloaded(response.status());
+      return response;
+    } finally {
+      if (concurrencyLimiter != null) {
+        concurrencyLimiter.release(
+            start < 0 || abandoned ? -1 : System.nanoTime() - start, overloaded);
+      }
+    }
+  }
+
+  private CompletableFuture<TransportResponse> attemptOrHedgeAsync(Exchange exchange) {
+    if (!isHedged(exchange)) {
+      return attemptAsync(exchange);
+    }
+    long delay = hedger.onRequest(exchange.path());
+    if (delay < 0) {
+      return attemptAsync(exchange);
+    }
+    HedgedCall call = new HedgedCall(exchange);
+    call.start(delay);
+    return call.result;
+  }
+
+  /** Returns whether the request's deadline has passed. */
+  private static boolean isExpired(Exchange exchange) {
+    Instant deadline = exchange.request().deadline();
+    return deadline != null && !Instant.now().isBefore(deadline);
+  }
+
+  /** Returns whether a retry after {@code delayNanos} would start past the request's deadline. */
+  private static boolean pastDeadline(Exchange exchange, long delayNanos) {
+    Instant deadline = exchange.request().deadline();
+    return deadline != null && !Instant.now().plusNanos(delayNanos).isBefore(deadline);
+  }
+
+  private static DeadlineExceededException deadlinePassedBeforeSend() {
+    return new DeadlineExceededException("Request deadline passed before it could be sent");
+  }
+
+  private static DeadlineExceededException deadlinePassedInFlight() {
+    return new DeadlineExceededException(
+        "Request deadline passed while waiting for the response", true);
+  }
+
+  private CircuitBreaker circuitBreaker(Exchange exchange) {
+    return circuitBreakers != null ? circuitBreakers.forPath(exchange.path()) : null;
+  }
+
+  private boolean isHedged(Exchange exchange) {
+    return hedger != null && exchange.method() == HttpMethod.GET;
+  }
+
+  private CompletableFuture<TransportResponse> attemptAsync(Exchange exchange) {
+    CircuitBreaker breaker = circuitBreaker(exchange);
+    if (breaker != null) {
+      try {
+        breaker.checkPermitted();
+      } catch (CircuitOpenException e) {
+        return CompletableFuture.failedFuture(e);
+      }
+    }
+    Bulkhead bulkhead = bulkheads != null ? bulkheads.forPath(exchange.path()) : null;
+    if (bulkhead == null) {
+      return attemptWithSlotAsync(exchange);
+    }
+    CompletableFuture<Void> entry = bulkhead.acquire();
+    if (entry.isDone() && !entry.isCompletedExceptionally()) {
+      return attemptInBulkhead(exchange, bulkhead);
+    }
+    return entry.thenCompose(ignored -> attemptInBulkhead(exchange, bulkhead));
+  }
+
+  private CompletableFuture<TransportResponse> attemptInBulkhead(
+      Exchange exchange, Bulkhead bulkhead) {
+    CompletableFuture<TransportResponse> inFlight;
+    try {
+      inFlight = attemptWithSlotAsync(exchange);
+    } catch (RuntimeException e) {
+      bulkhead.release();
+      throw e;
+    }
+    return inFlight.whenComplete((response, error) -> bulkhead.release());
+  }
+
+  private CompletableFuture<TransportResponse> attemptWithSlotAsync(Exchange exchange) {
+    if (concurrencyLimiter == null) {
+      return dispatchAsync(exchange, false);
+    }
+    CompletableFuture<Void> slot = concurrencyLimiter.acquire();
+    if (slot.isDone() && !slot.isCompletedExceptionally()) {
+      return dispatchAsync(exchange, true);
+    }
+    return slot.thenCompose(ignored -> dispatchAsync(exchange, true));
+  }
+
+  private CompletableFuture<TransportResponse> dispatchAsync(Exchange exchange, boolean holdsSlot) {
+    if (!needsPermit()) {
+      return send(exchange, holdsSlot);
+    }
+    CompletableFuture<Void> permit;
+    try {
+      permit = acquirePermit(exchange);
+    } catch (RuntimeException e) {
+      if (holdsSlot) {
+        concurrencyLimiter.release(-1, false);
+      }
+      throw e;
+    }
+    if (permit.isDone() && !permit.isCompletedExceptionally()) {
+      return send(exchange, holdsSlot);
+    }
+    return permit
+        .whenComplete(
+            (ignored, error) -> {
+              if (error != null && holdsSlot) {
+                concurrencyLimiter.release(-1, false);
+              }
+            })
+        .thenCompose(ignored -> send(exchange, holdsSlot));
+  }
+
+  /**
+   * Returns whether a dispatch has to go through the scheduler. Without a rate limiter or tenant
+   * weights nothing can hold it while the pause gate is open, the header throttle is idle and no
+   * request is queued, so it skips the scheduler's bookkeeping at the cost of a single volatile
+   * read of the {@link DispatchHolds} those components update.
+   */
+  private boolean needsPermit() {
+    return dispatchScheduler != null && (alwaysSchedule || dispatchHolds.any());
+  }
+
+  /** Queues for the rate budget by the request's priority and deadline. */
+  private CompletableFuture<Void> acquirePermit(Exchange exchange) {
+    RequestOptions options = exchange.options();
+    return dispatchScheduler.acquire(
+        options.priority(), deadlineNanos(options.deadline()), options.tenant());
+  }
+
+  /** Converts a wall-clock deadline to {@link System#nanoTime()}, or MAX_VALUE for none. */
+  private static long deadlineNanos(Instant deadline) {
+    if (deadline == null) {
+      return Long.MAX_VALUE;
+    }
+    long remaining;
+    try {
+      remaining = Duration.between(Instant.now(), deadline).toNanos();
+    } catch (ArithmeticException e) {
+      return deadline.isBefore(Instant.now()) ? System.nanoTime() : Long.MAX_VALUE;
+    }
+    long now = System.nanoTime();
+    long deadlineNanos = now + remaining;
+    // Saturate deadlines too far out to represent
+    return remaining > 0 && deadlineNanos - now < 0 ? Long.MAX_VALUE : deadlineNanos;
+  }
+
+  /**
+   * Starts the transport call, feeding the response to the rate limit tracker and its round trip to
+   * the concurrency limiter if a slot is held.
+   */
+  private CompletableFuture<TransportResponse> send(Exchange exchange, boolean holdsSlot) {
+    long start = System.nanoTime();
+    CompletableFuture<TransportResponse> inFlight;
+    CallHandle handle = exchange.handle();
+    CircuitBreaker breaker = null;
+    long breakerPermit = 0;
+    if (handle != null && handle.isCancelled()) {
+      inFlight = CompletableFuture.failedFuture(CallHandle.cancelledException());
+    } else if (isExpired(exchange)) {
+      inFlight = CompletableFuture.failedFuture(deadlinePassedBeforeSend());
+    } else {
+      try {
+        CircuitBreaker candidate = circuitBreaker(exchange);
+        if (candidate != null) {
+          breakerPermit = candidate.acquire();
+          breaker = candidate;
+        }
+        inFlight = transport.executeAsync(exchange.request());
+      } catch (RuntimeException e) {
+        inFlight = CompletableFuture.failedFuture(e);
+      }
+      if (handle != null) {
+        handle.attach(inFlight);
+      }
+      if (exchange.request().deadline() != null) {
+        // A call the transport timed out at the deadline fails as the deadline, not an I/O error
+        inFlight =
+            inFlight.exceptionallyCompose(
+                error ->
+                    CompletableFuture.failedFuture(
+                        isExpired(exchange) && !(unwrap(error) instanceof LoopsApiException)
+                            ? deadlinePassedInFlight()
+                            : unwrap(error)));
+      }
+    }
+    CircuitBreaker guard = breaker;
+    long guardPermit = breakerPermit;
+    boolean timed = isHedged(exchange);
+    if (!holdsSlot && rateLimitTracker == null && pauseGate == null && !timed && guard == null) {
+      return inFlight;
+    }
+    return inFlight.whenComplete(
+        (response, error) -> {
+          long rtt = System.nanoTime() - start;
+          Throwable cause = unwrap(error);
+          if (response != null) {
+            observe(response);
+            if (timed) {
+              hedger.recordLatency(exchange.path(), rtt);
+            }
+          }
+          if (guard != null) {
+            if (cause instanceof CancellationException
+                || cause instanceof DeadlineExceededException
+                || cause instanceof OverloadedException) {
+              // Cut short by the caller or shed before sending, which says nothing about the
+              // endpoint's health
+              guard.onCancelled(guardPermit);
+            } else {
+              guard.onResult(guardPermit, rtt, error != null || response.status() >= 500);
+            }
+          }
+          if (holdsSlot) {
+            if (cause instanceof CancellationException
+                || cause instanceof CircuitOpenException
+                || cause instanceof DeadlineExceededException
+                || cause instanceof OverloadedException) {
+              // Abandoned by the caller or never sent, not a sign of overload
+              concurrencyLimiter.release(-1, false);
+            } else {
+              concurrencyLimiter.release(rtt, error != null || isOverloaded(response.status()));
+            }
+          }
+        });
+  }
+
+  /**
+   * A GET raced against a delayed copy of itself: the first response wins and the other call is
+   * cancelled. A failed call only decides the outcome once no other call is left to answer.
+   */
+  private final class HedgedCall {
+    final CompletableFuture<TransportResponse> result = new CompletableFuture<>();
+    private final Exchange exchange;
+    private final CallHandle primary = new CallHandle();
+    private final AtomicInteger outstanding = new AtomicInteger(1);
+    private volatile CallHandle hedge;
+
+    HedgedCall(Exchange exchange) {
+      this.exchange = exchange;
+    }
+
+    void start(long hedgeDelayNanos) {
+      CallHandle caller = exchange.handle();
+      if (caller != null) {
+        // The caller cancels the race as a whole: both calls are abandoned
+        caller.attach(result);
+        result.whenComplete(
+            (response, error) -> {
+              if (result.isCancelled()) {
+                primary.cancel();
+                CallHandle current = hedge;
+                if (current != null) {
+                  current.cancel();
+                }
+              }
+            });
+      }
+      launch(primary, false);
+      if (!result.isDone()) {
+        delayedExecutor(hedgeDelayNanos).execute(this::hedge);
+      }
+    }
+
+    private void hedge() {
+      if (result.isDone() || !hedger.tryHedge()) {
+        return;
+      }
+      CallHandle handle = new CallHandle();
+      hedge = handle;
+      outstanding.incrementAndGet();
+      logger.debug("Hedging {} {}", exchange.method(), exchange.path());
+      launch(handle, true);
+      if (result.isDone()) {
+        // The original answered while the hedge was being started
+        handle.cancel();
+      }
+    }
+
+    private void launch(CallHandle handle, boolean isHedge) {
+      CompletableFuture<TransportResponse> attempt;
+      try {
+        attempt = attemptAsync(exchange.withHandle(handle));
+      } catch (RuntimeException e) {
+        attempt = CompletableFuture.failedFuture(e);
+      }
+      attempt.whenComplete(
+          (response, error) -> {
+            if (response != null) {
+              if (result.complete(response)) {
+                if (isHedge) {
+                  hedger.recordWin();
+                  primary.cancel();
+                } else if (hedge != null) {
+                  hedge.cancel();
+                }
+              }
+            } else if (outstanding.decrementAndGet() == 0) {
+              result.completeExceptionally(unwrap(error));
+            }
+          });
+    }
+  }
+
+  private static Throwable unwrap(Throwable error) {
+    return error instanceof CompletionException && error.getCause() != null
+        ? error.getCause()
+        : error;
+  }
+
+  /** Waits for an async execution on behalf of a sync caller. */
+  private static TransportResponse awaitResponse(CompletableFuture<TransportResponse> response) {
+    try {
+      return response.get();
+    } catch (ExecutionException e) {
+      throw e.getCause() instanceof RuntimeException runtimeException
+          ? runtimeException
+          : new LoopsApiException("Request failed: " + e.getCause().getMessage());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      response.cancel(true);
+      throw new LoopsApiException("Interrupted while waiting for a response");
+    }
+  }
+
+  private static void awaitPermit(CompletableFuture<Void> permit) {
+    try {
+      permit.get();
+    } catch (ExecutionException e) {
+      throw e.getCause() instanceof LoopsApiException loopsApiException
+          ? loopsApiException
+          : new LoopsApiException("Request failed: " + e.getCause().getMessage());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      permit.cancel(false);
+      throw new LoopsApiException("Interrupted while waiting to send request");
+    }
+  }
+
+  /**
+   * Blocks until a slot is granted, running {@code giveBack} if it is granted while the caller is
+   * being interrupted.
+   */
+  static void await(CompletableFuture<Void> slot, Runnable giveBack, String what) {
+    try {
+      slot.get();
+    } catch (ExecutionException e) {
+      throw e.getCause() instanceof LoopsApiException loopsApiException
+          ? loopsApiException
+          : new LoopsApiException("Request failed: " + e.getCause().getMessage());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      if (!slot.cancel(false)) {
+        giveBack.run();
+      }
+      throw new LoopsApiException("Interrupted while waiting for " + what);
+    }
+  }
+
+  /** Returns whether a status signals that the API is overloaded. */
+  private static boolean isOverloaded(int status) {
+    return status == 429 || status >= 500;
+  }
+
+  /**
+   * Returns whether a request may be retried: retries are configured and repeating the operation
+   * cannot apply it twice.
+   */
+  private boolean isRetryable(Exchange exchange) {
+    if (retryPolicy == null || retryPolicy.maxAttempts() < 2) {
+      return false;
+    }
+    HttpMethod method = exchange.method();
+    String path = exchange.path();
+    return switch (method) {
+      case GET -> true;
+      case PUT -> path.equals("/contacts/update");
+      case POST ->
+          (path.equals("/events/send") || path.equals("/transactional"))
+              && hasHeader(exchange.options().headers(), "Idempotency-Key");
+      case DELETE -> false;
+    };
+  }
+
+  /** Returns the delay before retrying after {@code response}, or -1 to return it as is. */
+  private static long retryDelay(RetryBudget budget, TransportResponse response) {
+    int status = response.status();
+    boolean retryableStatus =
+        status == 429 || status == 500 || status == 502 || status == 503 || status == 504;
+    if (!retryableStatus) {
+      return -1;
+    }
+    long retryAfter = RetryAfter.parseNanos(response.header("Retry-After"), Instant.now());
+    return budget.nextDelayNanos(retryAfter, System.nanoTime());
+  }
+
+  private static boolean hasHeader(Map<String, String> headers, String name) {
+    for (String key : headers.keySet()) {
+      if (key.equalsIgnoreCase(name)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static void logRetry(Exchange exchange, RetryBudget budget, long delay, String reason) {
+    logger.info(
+        "Retrying {} {} in {} ms (attempt {}): {}",
+        exchange.method(),
+        exchange.path(),
+        TimeUnit.NANOSECONDS.toMillis(delay),
+        budget.attempts(),
+        reason);
+  }
+
+  /**
+   * Returns how long to hold the next dispatch: the longest of the 429 pause, the rate limiter's
+   * wait and the throttle learned from rate limit headers.
+   */
+  private long dispatchDelay() {
+    long delay = 0;
+    if (rateLimiter != null) {
+      delay = rateLimiter.reserve();
+      if (delay < 0) {
+        long retryAfterSeconds = (-delay + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND;
+        throw new RateLimitExceededException(
+            "Client-side rate limit reached; no permit available within the limiter's max wait",
+            retryAfterSeconds);
+      }
+    }
+    if (rateLimitTracker != null) {
+      delay = Math.max(delay, rateLimitTracker.reserveDelayNanos());
+    }
+    if (pauseGate != null) {
+      delay = Math.max(delay, pauseGate.delayNanos());
+    }
+    return delay;
+  }
+
+  private void observe(TransportResponse response) {
+    if (rateLimitTracker != null) {
+      rateLimitTracker.observe(response);
+    }
+    if (pauseGate != null && response.status() == 429) {
+      int limit = rateLimitTracker != null ? rateLimitTracker.learnedLimit() : 0;
+      pauseGate.trip(
+          RetryAfter.parseNanos(response.header("Retry-After"), Instant.now()),
+          limit > 0 ? limit : DEFAULT_LIMIT_PER_SECOND);
+    }
+  }
+
+  /**
+   * Returns an executor that runs tasks on the JDK's shared delay scheduler once {@code delayNanos}
+   * have passed. Tasks must be short: they only hand work to the transport.
+   */
+  static Executor delayedExecutor(long delayNanos) {
+    return CompletableFuture.delayedExecutor(delayNanos, TimeUnit.NANOSECONDS, Runnable::run);
+  }
+
+  private static void parkNanos(long delayNanos) {
+    long deadline = System.nanoTime() + delayNanos;
+    for (long remaining = delayNanos; remaining > 0; remaining = deadline - System.nanoTime()) {
+      LockSupport.parkNanos(remaining);
+      if (Thread.currentThread().isInterrupted()) {
+        throw new LoopsApiException("Interrupted while waiting to send request");
+      }
+    }
+  }
+
+  /** Builder for {@link RequestPipeline}. */
+  public static final class Builder {
+    private final Transport transport;
+    private RateLimiter rateLimiter;
+    private RetryPolicy retryPolicy;
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private boolean proactiveThrottling;
+    private boolean pauseOnRateLimit;
+    private Map<String, Integer> tenantWeights = Map.of();
+    private Map<String, BulkheadSettings> bulkheads = Map.of();
+    private BulkheadSettings defaultBulkhead;
+    private HedgePolicy hedgePolicy;
+    private CircuitBreakerSettings circuitBreaker;
+    private CircuitBreakerListener circuitBreakerListener;
+    private String healthProbePath;
+    private Supplier<? extends CompletionStage<?>> healthProbe;
+
+    private Builder(Transport transport) {
+      this.transport = transport;
+    }
+
+    /**
+     * Sets the rate limiter every request must obtain a permit from, or null for none.
+     *
+     * @param rateLimiter the rate limiter
+     * @return this builder
+     */
+    public Builder rateLimiter(RateLimiter rateLimiter) {
+      this.rateLimiter = rateLimiter;
+      return this;
+    }
+
+    /**
+     * Sets the retry policy for idempotent requests, or null to never retry.
+     *
+     * @param retryPolicy the retry policy
+     * @return this builder
+     */
+    public Builder retryPolicy(RetryPolicy retryPolicy) {
+      this.retryPolicy = retryPolicy;
+      return this;
+    }
+
+    /**
+     * Sets the adaptive limit on requests in flight, or null for none.
+     *
+     * @param concurrencyLimiter the concurrency limiter
+     * @return this builder
+     */
+    public Builder concurrencyLimiter(AdaptiveConcurrencyLimiter concurrencyLimiter) {
+      this.concurrencyLimiter = concurrencyLimiter;
+      return this;
+    }
+
+    /**
+     * Sets whether dispatch slows down as the API's rate limit headers report the remaining budget
+     * running out. The learned limit also caps the rate limiter, if one is set.
+     *
+     * @param proactiveThrottling whether to throttle from rate limit headers
+     * @return this builder
+     */
+    public Builder proactiveThrottling(boolean proactiveThrottling) {
+      this.proactiveThrottling = proactiveThrottling;
+      return this;
+    }
+
+    /**
+     * Sets whether a 429 response pauses every dispatch of the pipeline until its {@code
+     * Retry-After} passes, after which dispatch resumes on a one-second ramp.
+     *
+     * @param pauseOnRateLimit whether to pause all dispatches after a 429
+     * @return this builder
+     */
+    public Builder pauseOnRateLimit(boolean pauseOnRateLimit) {
+      this.pauseOnRateLimit = pauseOnRateLimit;
+      return this;
+    }
+
+    /**
+     * Sets each tenant's weight in the fair share of the rate budget; unlisted tenants weigh 1.
+     *
+     * @param tenantWeights weights by tenant name
+     * @return this builder
+     */
+    public Builder tenantWeights(Map<String, Integer> tenantWeights) {
+      this.tenantWeights = tenantWeights;
+      return this;
+    }
+
+    /**
+     * Sets bulkheads by path prefix; all endpoints under one prefix share its pool.
+     *
+     * @param bulkheads bulkhead settings by path prefix
+     * @return this builder
+     */
+    public Builder bulkheads(Map<String, BulkheadSettings> bulkheads) {
+      this.bulkheads = bulkheads;
+      return this;
+    }
+
+    /**
+     * Sets the bulkhead each endpoint not covered by a prefix gets for itself, or null for none.
+     *
+     * @param defaultBulkhead the per-endpoint bulkhead settings
+     * @return this builder
+     */
+    public Builder defaultBulkhead(BulkheadSettings defaultBulkhead) {
+      this.defaultBulkhead = defaultBulkhead;
+      return this;
+    }
+
+    /**
+     * Sets hedging for GETs, or null for none.
+     *
+     * @param hedgePolicy the hedge policy
+     * @return this builder
+     */
+    public Builder hedging(HedgePolicy hedgePolicy) {
+      this.hedgePolicy = hedgePolicy;
+      return this;
+    }
+
+    /**
+     * Gives every endpoint a circuit breaker with these settings, or null for none.
+     *
+     * @param circuitBreaker the circuit breaker settings
+     * @return this builder
+     */
+    public Builder circuitBreaker(CircuitBreakerSettings circuitBreaker) {
+      this.circuitBreaker = circuitBreaker;
+      return this;
+    }
+
+    /**
+     * Sets the listener told of circuit breaker state transitions, or null for none.
+     *
+     * @param listener the listener
+     * @return this builder
+     */
+    public Builder circuitBreakerListener(CircuitBreakerListener listener) {
+      this.circuitBreakerListener = listener;
+      return this;
+    }
+
+    /**
+     * Sets the call an open circuit breaker makes to test the API before letting trial requests
+     * through, used when the breaker settings enable it.
+     *
+     * @param path the endpoint the probe calls, whose own breaker goes without a probe
+     * @param healthProbe starts the probe; the API is healthy if the stage completes normally
+     * @return this builder
+     */
+    public Builder healthProbe(String path, Supplier<? extends CompletionStage<?>> healthProbe) {
+      this.healthProbePath = path;
+      this.healthProbe = healthProbe;
+      return this;
+    }
+
+    public RequestPipeline build() {
+      return new RequestPipeline(this);
+    }
+  }
+}
@@ -0,0 +1,57 @@
+package com.telos.loops.internal;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.TimeUnit;
+
+/** Parses the {@code Retry-After} response header (RFC 9110, section 10.2.3). */
+final class RetryAfter {
+
+  private RetryAfter() {}
+
+  /**
+   * Returns the delay a {@code Retry-After} value asks for.
+   *
+   * @param value the header value, either delta-seconds ({@code 120}) or an HTTP-date ({@code Wed,
+   *     21 Oct 2015 07:28:00 GMT})
+   * @param now the current time, used to turn an HTTP-date into a delay
+   * @return the delay in nanoseconds (0 for a date in the past), or -1 if the value is absent or
+   *     malformed
+   */
+  static long parseNanos(String value, Instant now) {
+    if (value == null || value.isBlank()) {
+      return -1;
+    }
+    String trimmed = value.trim();
+    try {
+      long seconds = Long.parseLong(trimmed);
+      return seconds < 0 ? -1 : TimeUnit.SECONDS.toNanos(seconds);
+    } catch (NumberFormatException e) {
+      // Not delta-seconds; try the HTTP-date form
+    }
+    try {
+      Instant at = ZonedDateTime.parse(trimmed, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+      long millis = at.toEpochMilli() - now.toEpochMilli();
+      return TimeUnit.MILLISECONDS.toNanos(Math.max(0, millis));
+    } catch (DateTimeParseException e) {
+      return -1;
+    }
+  }
+
+  /**
+   * Returns the delay a {@code Retry-After} value asks for, rounded up to whole seconds.
+   *
+   * @param value the header value
+   * @return the delay in seconds, or 0 if the value is absent or malformed
+   */
+  static long parseSeconds(String value) {
+    long nanos = parseNanos(value, Instant.now());
+    if (nanos <= 0) {
+      return 0;
+    }
+    long nanosPerSecond = TimeUnit.SECONDS.toNanos(1);
+    return (nanos + nanosPerSecond - 1) / nanosPerSecond;
+  }
+}
@@ -0,0 +1,69 @@
+package com.telos.loops.internal;
+
+import com.telos.loops.resilience.RetryPolicy;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retry state for a single request: attempts made, when the first one started, and the previous
+ * backoff that decorrelated jitter grows from.
+ *
+ * <p>Not thread-safe; attempts of one request never overlap, so each budget is only touched by one
+ * thread at a time.
+ */
+final class RetryBudget {
+
+  private final int maxAttempts;
+  private final long initialBackoffNanos;
+  private final long maxBackoffNanos;
+  private final long deadline;
+  private int attempts = 1;
+  private long previousBackoffNanos;
+
+  RetryBudget(RetryPolicy policy, long startNanos) {
+    this.maxAttempts = policy.maxAttempts();
+    this.initialBackoffNanos = policy.initialBackoff().toNanos();
+    this.maxBackoffNanos = policy.maxBackoff().toNanos();
+    this.deadline = startNanos + policy.timeBudget().toNanos();
+    this.previousBackoffNanos = initialBackoffNanos;
+  }
+
+  /**
+   * Claims the next attempt and returns how long to wait before it.
+   *
+   * @param retryAfterNanos the delay the server asked for, or -1 if none
+   * @param nowNanos the current {@link System#nanoTime()}
+   * @return the delay in nanoseconds, or -1 if the attempt or time budget is exhausted
+   */
+  long nextDelayNanos(long retryAfterNanos, long nowNanos) {
+    if (attempts >= maxAttempts) {
+      return -1;
+    }
+    // Decorrelated jitter: uniform in [initial, 3 * previous], capped at max
+    long upper = Math.min(maxBackoffNanos, saturatedTimesThree(previousBackoffNanos));
+    long backoff =
+        upper > initialBackoffNanos
+            ? ThreadLocalRandom.current().nextLong(initialBackoffNanos, upper + 1)
+            : initialBackoffNanos;
+    previousBackoffNanos = backoff;
+
+    long delay = Math.max(backoff, retryAfterNanos);
+    if (nowNanos + delay - deadline > 0) {
+      return -1;
+    }
+    attempts++;
+    return delay;
+  }
+
+  /**
+   * Returns the number of attempts claimed so far, including the first.
+   *
+   * @return the attempt count
+   */
+  int attempts() {
+    return attempts;
+  }
+
+  private static long saturatedTimesThree(long value) {
+    return value > Long.MAX_VALUE / 3 ? Long.MAX_VALUE : value * 3;
+  }
+}
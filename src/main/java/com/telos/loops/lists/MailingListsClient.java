@@ -108,16 +108,15 @@ public class MailingListsClient {
    * @see #list(RequestOptions) for the synchronous variant
    */
   public CompletableFuture<List<MailingList>> listAsync(RequestOptions options) {
-    return sender
-        .getListAsync(
+    return CoreSender.map(
+        sender.getListAsync(
             LIST_PATH,
             new HashMap<>(),
             new TypeReference<List<com.telos.loops.internal.openapi.model.MailingList>>() {},
-            options)
-        .thenApply(
-            generatedLists ->
-                generatedLists.stream()
-                    .map(MailingListsMapper::fromGenerated)
-                    .collect(Collectors.toList()));
+            options),
+        generatedLists ->
+            generatedLists.stream()
+                .map(MailingListsMapper::fromGenerated)
+                .collect(Collectors.toList()));
   }
 }
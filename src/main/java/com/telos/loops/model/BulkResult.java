@@ -0,0 +1,28 @@
+package com.telos.loops.model;
+
+import com.telos.loops.error.LoopsApiException;
+
+/**
+ * Outcome of one request of a bulk operation.
+ *
+ * <p>Results are delivered in completion order; {@link #index()} gives the request's position in
+ * the input.
+ *
+ * @param index the request's zero-based position in the input
+ * @param request the request
+ * @param response the API's response, or null if the request failed
+ * @param error why the request failed, or null if it succeeded
+ * @param <T> the request type
+ * @param <R> the response type
+ */
+public record BulkResult<T, R>(long index, T request, R response, LoopsApiException error) {
+
+  /**
+   * Returns whether the request succeeded.
+   *
+   * @return true if the API accepted the request
+   */
+  public boolean isSuccess() {
+    return error == null;
+  }
+}
@@ -0,0 +1,89 @@
+package com.telos.loops.model;
+
+import java.time.Duration;
+
+/**
+ * How a bulk operation runs its requests.
+ *
+ * <p>At most {@link #concurrency()} requests are in flight at once; the next request is only read
+ * from the input when one completes, so a lazily produced input is consumed at the pace the API
+ * accepts it. Every request still passes through the client's rate limits, so the concurrency
+ * bounds the requests queued inside the client rather than the request rate.
+ *
+ * <p>Example usage:
+ *
+ * <pre>{@code
+ * BulkSettings settings = BulkSettings.builder()
+ *     .concurrency(16)
+ *     .timeout(Duration.ofHours(1))
+ *     .build();
+ * }</pre>
+ *
+ * @param concurrency maximum number of requests in flight at once
+ * @param timeout the time the whole operation must finish in, or null for no limit; with a known
+ *     input size each request gets a fair share of the time left through a {@link DeadlineBudget}
+ * @param options the options every request is sent with; by default {@link RequestPriority#LOW low}
+ *     priority, so bulk traffic yields to other requests for the rate budget
+ */
+public record BulkSettings(int concurrency, Duration timeout, RequestOptions options) {
+
+  /** Default number of requests in flight. */
+  public static final int DEFAULT_CONCURRENCY = 8;
+
+  public BulkSettings {
+    if (concurrency < 1) {
+      throw new IllegalArgumentException("concurrency must be positive, got: " + concurrency);
+    }
+    if (timeout != null && (timeout.isNegative() || timeout.isZero())) {
+      throw new IllegalArgumentException("timeout must be positive, got: " + timeout);
+    }
+    options =
+        options == null ? RequestOptions.builder().priority(RequestPriority.LOW).build() : options;
+  }
+
+  /**
+   * Returns the default settings: 8 requests in flight, no timeout, low priority.
+   *
+   * @return the default settings
+   */
+  public static BulkSettings defaults() {
+    return builder().build();
+  }
+
+  /**
+   * Creates a new builder for {@link BulkSettings}.
+   *
+   * @return a new builder
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /** Builder for {@link BulkSettings}. */
+  public static final class Builder {
+    private int concurrency = DEFAULT_CONCURRENCY;
+    private Duration timeout;
+    private RequestOptions options;
+
+    private Builder() {}
+
+    public Builder concurrency(int concurrency) {
+      this.concurrency = concurrency;
+      return this;
+    }
+
+    public Builder timeout(Duration timeout) {
+      this.timeout = timeout;
+      return this;
+    }
+
+    public Builder options(RequestOptions options) {
+      this.options = options;
+      return this;
+    }
+
+    public BulkSettings build() {
+      return new BulkSettings(concurrency, timeout, options);
+    }
+  }
+}
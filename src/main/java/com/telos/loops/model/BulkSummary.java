@@ -0,0 +1,23 @@
+package com.telos.loops.model;
+
+import java.time.Duration;
+
+/**
+ * Totals of a finished bulk operation.
+ *
+ * @param succeeded requests the API accepted
+ * @param failed requests that failed
+ * @param completed whether the whole input was sent; false if the operation's timeout passed first
+ * @param elapsed how long the operation ran
+ */
+public record BulkSummary(long succeeded, long failed, boolean completed, Duration elapsed) {
+
+  /**
+   * Returns the number of requests sent.
+   *
+   * @return succeeded plus failed requests
+   */
+  public long total() {
+    return succeeded + failed;
+  }
+}
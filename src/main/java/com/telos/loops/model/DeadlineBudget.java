@@ -0,0 +1,127 @@
+package com.telos.loops.model;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Splits one overall deadline across the requests of a bulk operation.
+ *
+ * <p>Each request asks for its deadline when it starts and gets a fair share of the time left: the
+ * remaining time divided by the rounds of requests still to start, where a round is as many
+ * requests as run in parallel. A request that finishes early leaves its unused time to those that
+ * follow, and no request is given a deadline past the overall one. A slow request therefore cannot
+ * eat the whole budget and leave nothing for the rest, yet the budget is not split so finely that
+ * ordinary latency fails every request.
+ *
+ * <p>Example usage:
+ *
+ * <pre>{@code
+ * // 200 contact updates, 8 at a time, all done within a minute
+ * DeadlineBudget budget = DeadlineBudget.of(Duration.ofMinutes(1), updates.size(), 8);
+ * for (ContactUpdateRequest update : updates) {
+ *     client.contacts().updateAsync(update, budget.next(RequestOptions.none()));
+ * }
+ * }</pre>
+ */
+public final class DeadlineBudget {
+
+  private final Instant end;
+  private final int parallelism;
+  private final Clock clock;
+  private final AtomicInteger remaining;
+
+  private DeadlineBudget(Instant end, int requests, int parallelism, Clock clock) {
+    this.end = end;
+    this.parallelism = parallelism;
+    this.clock = clock;
+    this.remaining = new AtomicInteger(requests);
+  }
+
+  /**
+   * Creates a budget for requests sent one after another.
+   *
+   * @param total the time all requests must complete in
+   * @param requests the number of requests sharing the budget
+   * @return a new budget, starting now
+   * @throws IllegalArgumentException if total is not positive or requests is negative
+   */
+  public static DeadlineBudget of(Duration total, int requests) {
+    return of(total, requests, 1);
+  }
+
+  /**
+   * Creates a budget for requests sent with up to {@code parallelism} in flight at once.
+   *
+   * @param total the time all requests must complete in
+   * @param requests the number of requests sharing the budget
+   * @param parallelism the number of requests in flight at once
+   * @return a new budget, starting now
+   * @throws IllegalArgumentException if total or parallelism is not positive or requests is
+   *     negative
+   */
+  public static DeadlineBudget of(Duration total, int requests, int parallelism) {
+    return of(total, requests, parallelism, Clock.systemUTC());
+  }
+
+  static DeadlineBudget of(Duration total, int requests, int parallelism, Clock clock) {
+    if (total == null || total.isNegative() || total.isZero()) {
+      throw new IllegalArgumentException("total must be positive, got: " + total);
+    }
+    if (requests < 0) {
+      throw new IllegalArgumentException("requests must not be negative, got: " + requests);
+    }
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("parallelism must be positive, got: " + parallelism);
+    }
+    return new DeadlineBudget(clock.instant().plus(total), requests, parallelism, clock);
+  }
+
+  /**
+   * Takes the deadline for the next request.
+   *
+   * @return the deadline of the request about to start, never after {@link #end()}
+   */
+  public Instant nextDeadline() {
+    int left = Math.max(1, remaining.getAndDecrement());
+    Instant now = clock.instant();
+    Duration timeLeft = Duration.between(now, end);
+    if (timeLeft.isNegative() || timeLeft.isZero()) {
+      return end;
+    }
+    int rounds = (left + parallelism - 1) / parallelism;
+    return now.plus(timeLeft.dividedBy(rounds));
+  }
+
+  /**
+   * Takes the deadline for the next request and applies it to the request's options. An earlier
+   * deadline already in the options is kept.
+   *
+   * @param options the request's options
+   * @return a copy of the options with the request's deadline
+   */
+  public RequestOptions next(RequestOptions options) {
+    Instant deadline = nextDeadline();
+    Instant own = options.deadline();
+    return options.withDeadline(own != null && own.isBefore(deadline) ? own : deadline);
+  }
+
+  /**
+   * Returns the overall deadline.
+   *
+   * @return the time by which every request must complete
+   */
+  public Instant end() {
+    return end;
+  }
+
+  /**
+   * Returns whether the overall deadline has passed.
+   *
+   * @return true if no time is left
+   */
+  public boolean isExpired() {
+    return !clock.instant().isBefore(end);
+  }
+}
@@ -1,18 +1,30 @@
 package com.telos.loops.model;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Collections;
 import java.util.Map;
 
 /**
  * Optional request configuration for API calls.
  *
- * <p>
- * Allows you to customize individual API requests by providing additional HTTP
- * headers. Use
- * {@link #none()} for default behavior with no custom headers.
+ * <p>Allows you to customize individual API requests by providing additional HTTP headers, a
+ * scheduling priority, a deadline and a tenant tag. Use {@link #none()} for default behavior with
+ * no custom headers.
  *
- * <p>
- * Example usage:
+ * <p>Priority and deadline decide the order in which waiting requests are sent when the client's
+ * rate budget is contended; see {@link RequestPriority}. A request whose deadline passes while it
+ * is still waiting is dropped before it uses any budget and fails with a {@link
+ * com.telos.loops.error.DeadlineExceededException}. Once sent, the deadline also bounds the HTTP
+ * call itself: the transport times the call out when the deadline passes, with the same exception
+ * but {@code wasSent()} true, and no retry is started that could not finish in time. Bulk work can
+ * split one overall deadline across its requests with a {@link DeadlineBudget}.
+ *
+ * <p>When several internal tenants share one client, tagging requests with a tenant gives each
+ * tenant a weighted share of the budget within a priority class, so one tenant's backlog cannot
+ * starve the others; see {@code LoopsClient.Builder#tenantWeight}.
+ *
+ * <p>Example usage:
  *
  * <pre>{@code
  * // No custom options
@@ -21,15 +33,51 @@ import java.util.Map;
  * // With custom headers
  * RequestOptions options = new RequestOptions(
  *     Map.of("X-Custom-Header", "value"));
+ *
+ * // A password reset that must go out within five seconds
+ * RequestOptions urgent = RequestOptions.builder()
+ *     .priority(RequestPriority.CRITICAL)
+ *     .deadline(Instant.now().plusSeconds(5))
+ *     .build();
+ *
+ * // A bulk sync on behalf of one product team
+ * RequestOptions bulk = RequestOptions.builder()
+ *     .priority(RequestPriority.LOW)
+ *     .tenant("growth-team")
+ *     .build();
  * }</pre>
  *
- * @param headers additional HTTP headers to include in the request (immutable
- *                copy is created)
+ * @param headers additional HTTP headers to include in the request (immutable copy is created)
+ * @param priority the scheduling class, {@link RequestPriority#NORMAL} if null
+ * @param deadline the time after which the request is no longer worth sending, or null for none
+ * @param tenant the tenant the request is sent on behalf of, or null for the default tenant
  */
-public record RequestOptions(Map<String, String> headers) {
+public record RequestOptions(
+    Map<String, String> headers, RequestPriority priority, Instant deadline, String tenant) {
 
   public RequestOptions {
     headers = headers == null ? Map.of() : Map.copyOf(headers);
+    priority = priority == null ? RequestPriority.NORMAL : priority;
+  }
+
+  /**
+   * Creates a RequestOptions instance with custom headers, normal priority and no deadline.
+   *
+   * @param headers additional HTTP headers to include in the request
+   */
+  public RequestOptions(Map<String, String> headers) {
+    this(headers, RequestPriority.NORMAL, null, null);
+  }
+
+  /**
+   * Creates a RequestOptions instance for the default tenant.
+   *
+   * @param headers additional HTTP headers to include in the request
+   * @param priority the scheduling class
+   * @param deadline the time after which the request is no longer worth sending, or null for none
+   */
+  public RequestOptions(Map<String, String> headers, RequestPriority priority, Instant deadline) {
+    this(headers, priority, deadline, null);
   }
 
   /**
@@ -41,6 +89,28 @@ public record RequestOptions(Map<String, String> headers) {
     return new RequestOptions(Collections.emptyMap());
   }
 
+  /**
+   * Returns a copy of these options with the headers replaced, keeping the priority, deadline and
+   * tenant.
+   *
+   * @param headers the headers of the copy
+   * @return a new RequestOptions
+   */
+  public RequestOptions withHeaders(Map<String, String> headers) {
+    return new RequestOptions(headers, priority, deadline, tenant);
+  }
+
+  /**
+   * Returns a copy of these options with the deadline replaced, keeping the headers, priority and
+   * tenant.
+   *
+   * @param deadline the deadline of the copy, or null for none
+   * @return a new RequestOptions
+   */
+  public RequestOptions withDeadline(Instant deadline) {
+    return new RequestOptions(headers, priority, deadline, tenant);
+  }
+
   /**
    * Creates a new builder for {@link RequestOptions}.
    *
@@ -53,6 +123,9 @@ public record RequestOptions(Map<String, String> headers) {
   /** Builder for {@link RequestOptions}. */
   public static final class Builder {
     private java.util.Map<String, String> headers;
+    private RequestPriority priority;
+    private Instant deadline;
+    private String tenant;
 
     private Builder() {
     }
@@ -70,8 +143,53 @@ public record RequestOptions(Map<String, String> headers) {
       return this;
     }
 
+    /**
+     * Sets the scheduling class. Defaults to {@link RequestPriority#NORMAL}.
+     *
+     * @param priority the priority
+     * @return this builder
+     */
+    public Builder priority(RequestPriority priority) {
+      this.priority = priority;
+      return this;
+    }
+
+    /**
+     * Sets the time after which the request is no longer worth sending.
+     *
+     * @param deadline the deadline, or null for none
+     * @return this builder
+     */
+    public Builder deadline(Instant deadline) {
+      this.deadline = deadline;
+      return this;
+    }
+
+    /**
+     * Sets the deadline to the given time from now, bounding how long the request may wait to be
+     * sent and then take to answer.
+     *
+     * @param timeout the time from now
+     * @return this builder
+     */
+    public Builder timeout(Duration timeout) {
+      this.deadline = Instant.now().plus(timeout);
+      return this;
+    }
+
+    /**
+     * Sets the tenant the request is sent on behalf of.
+     *
+     * @param tenant the tenant, or null for the default tenant
+     * @return this builder
+     */
+    public Builder tenant(String tenant) {
+      this.tenant = tenant;
+      return this;
+    }
+
     public RequestOptions build() {
-      return new RequestOptions(headers);
+      return new RequestOptions(headers, priority, deadline, tenant);
     }
   }
 }
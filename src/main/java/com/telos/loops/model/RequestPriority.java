@@ -0,0 +1,23 @@
+package com.telos.loops.model;
+
+/**
+ * Scheduling class of a request.
+ *
+ * <p>When the client's rate budget is contended, requests waiting to be sent are released in strict
+ * priority order: a waiting request of a higher class always goes before any request of a lower
+ * class. Within a class, the request with the earliest {@link RequestOptions#deadline() deadline}
+ * goes first, then requests without a deadline in arrival order.
+ *
+ * <p>Priorities only reorder requests that are waiting; while the budget is not contended every
+ * request is sent immediately.
+ */
+public enum RequestPriority {
+  /** User-facing sends that must not wait behind other traffic, such as password resets. */
+  CRITICAL,
+  /** Time-sensitive traffic. */
+  HIGH,
+  /** The default class. */
+  NORMAL,
+  /** Background and bulk traffic, sent when nothing more urgent is waiting. */
+  LOW
+}
@@ -9,6 +9,16 @@
  * <ul>
  *   <li>{@link com.telos.loops.model.RequestOptions} - Optional parameters for API requests (e.g.,
  *       custom headers, timeouts)
+ *   <li>{@link com.telos.loops.model.RequestPriority} - Scheduling class of a request while the
+ *       rate budget is contended
+ *   <li>{@link com.telos.loops.model.DeadlineBudget} - Splits one deadline across the requests of a
+ *       bulk operation
+ *   <li>{@link com.telos.loops.model.BulkSettings}, {@link com.telos.loops.model.BulkResult} and
+ *       {@link com.telos.loops.model.BulkSummary} - Concurrency, per-request outcomes and totals of
+ *       a bulk operation
+ *   <li>{@link com.telos.loops.model.BulkSettings}, {@link com.telos.loops.model.BulkResult} and
+ *       {@link com.telos.loops.model.BulkSummary} - Concurrency, per-request outcomes and totals of
+ *       a bulk operation
  * </ul>
  *
  * <h2>Example Usage</h2>
@@ -39,7 +49,8 @@
  *
  * <ul>
  *   <li>Custom HTTP headers
- *   <li>Request timeouts
+ *   <li>A priority and deadline that decide which waiting request is sent first
+ *   <li>A deadline that also times out the HTTP call
  *   <li>Other request-specific configuration
  * </ul>
  *
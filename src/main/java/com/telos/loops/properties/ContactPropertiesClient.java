@@ -126,13 +126,13 @@ public class ContactPropertiesClient {
   public CompletableFuture<ContactPropertyResponse> createAsync(
       ContactPropertyCreateRequest request, RequestOptions options) {
     var generatedRequest = ContactPropertiesMapper.toGenerated(request);
-    return sender
-        .postJsonAsync(
+    return CoreSender.map(
+        sender.postJsonAsync(
             PROPERTIES_PATH,
             generatedRequest,
             com.telos.loops.internal.openapi.model.ContactPropertySuccessResponse.class,
-            options)
-        .thenApply(ContactPropertiesMapper::fromGenerated);
+            options),
+        ContactPropertiesMapper::fromGenerated);
   }
 
   // ============================================================
@@ -155,8 +155,7 @@ public class ContactPropertiesClient {
   /**
    * Lists custom contact properties filtered by type.
    *
-   * @param listType optional filter for property type (e.g., "string", "number", "boolean",
-   *     "date")
+   * @param listType optional filter for property type (e.g., "string", "number", "boolean", "date")
    * @return a list of custom contact properties matching the filter
    * @throws com.telos.loops.error.LoopsApiException if the API returns an error
    * @see #listAsync(String) for the asynchronous variant
@@ -168,8 +167,7 @@ public class ContactPropertiesClient {
   /**
    * Lists custom contact properties filtered by type with custom request options.
    *
-   * @param listType optional filter for property type (e.g., "string", "number", "boolean",
-   *     "date")
+   * @param listType optional filter for property type (e.g., "string", "number", "boolean", "date")
    * @param options additional request options such as custom headers
    * @return a list of custom contact properties matching the filter
    * @throws com.telos.loops.error.LoopsApiException if the API returns an error
@@ -207,8 +205,7 @@ public class ContactPropertiesClient {
   /**
    * Asynchronously lists custom contact properties filtered by type.
    *
-   * @param listType optional filter for property type (e.g., "string", "number", "boolean",
-   *     "date")
+   * @param listType optional filter for property type (e.g., "string", "number", "boolean", "date")
    * @return a CompletableFuture containing a list of custom contact properties matching the filter
    * @see #list(String) for the synchronous variant
    */
@@ -219,8 +216,7 @@ public class ContactPropertiesClient {
   /**
    * Asynchronously lists custom contact properties filtered by type with custom request options.
    *
-   * @param listType optional filter for property type (e.g., "string", "number", "boolean",
-   *     "date")
+   * @param listType optional filter for property type (e.g., "string", "number", "boolean", "date")
    * @param options additional request options such as custom headers
    * @return a CompletableFuture containing a list of custom contact properties matching the filter
    * @see #list(String, RequestOptions) for the synchronous variant
@@ -232,16 +228,15 @@ public class ContactPropertiesClient {
       queryParams.put("list", listType);
     }
 
-    return sender
-        .getListAsync(
+    return CoreSender.map(
+        sender.getListAsync(
             PROPERTIES_PATH,
             queryParams,
             new TypeReference<List<com.telos.loops.internal.openapi.model.ContactProperty>>() {},
-            options)
-        .thenApply(
-            generatedProperties ->
-                generatedProperties.stream()
-                    .map(ContactPropertiesMapper::fromGenerated)
-                    .collect(Collectors.toList()));
+            options),
+        generatedProperties ->
+            generatedProperties.stream()
+                .map(ContactPropertiesMapper::fromGenerated)
+                .collect(Collectors.toList()));
   }
 }
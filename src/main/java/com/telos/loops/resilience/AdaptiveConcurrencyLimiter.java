@@ -0,0 +1,359 @@
+package com.telos.loops.resilience;
+
+import com.telos.loops.error.OverloadedException;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-flight request limit that adapts to the capacity the Loops API currently offers.
+ *
+ * <p>The limit follows additive-increase / multiplicative-decrease, in the style of Netflix's
+ * concurrency-limits library:
+ *
+ * <ul>
+ *   <li>Each successful response while the limit is in use raises it by one.
+ *   <li>A 429, a 5xx or a transport failure cuts it by {@link Builder#backoffRatio(double)}.
+ *   <li>So does a latency gradient: when the short-term RTT average rises above {@link
+ *       Builder#rttTolerance(double)} times the long-term baseline, the API is queueing work and
+ *       the limit is cut before 429s appear.
+ * </ul>
+ *
+ * <p>Decreases are applied at most once per round trip, so a burst of failures from one overload
+ * episode shrinks the limit once rather than collapsing it.
+ *
+ * <p>Requests beyond the limit wait in a FIFO queue of up to {@link Builder#maxQueued(int)} callers
+ * for at most {@link Builder#maxQueueWait(Duration)}. Waiting is future-based, so queued async
+ * callers hold no thread. Requests that find the queue full, or time out in it, are rejected with
+ * an {@link OverloadedException}. Set {@code maxQueued} to 0 to reject immediately.
+ *
+ * <p>Example usage:
+ *
+ * <pre>{@code
+ * AdaptiveConcurrencyLimiter limiter = AdaptiveConcurrencyLimiter.builder()
+ *     .initialLimit(10)
+ *     .maxLimit(100)
+ *     .build();
+ *
+ * LoopsClient client = LoopsClient.builder()
+ *     .apiKey("your-api-key")
+ *     .concurrencyLimiter(limiter)
+ *     .build();
+ *
+ * // Watch the limit converge under load
+ * ConcurrencyLimitStats stats = limiter.stats();
+ * }</pre>
+ */
+public final class AdaptiveConcurrencyLimiter {
+
+  /** Default starting limit. */
+  public static final int DEFAULT_INITIAL_LIMIT = 20;
+
+  /** Default upper bound for the limit. */
+  public static final int DEFAULT_MAX_LIMIT = 200;
+
+  /** Default factor the limit is multiplied by on overload. */
+  public static final double DEFAULT_BACKOFF_RATIO = 0.9;
+
+  /** Default ratio of short-term to baseline RTT treated as congestion. */
+  public static final double DEFAULT_RTT_TOLERANCE = 2.0;
+
+  /** Default number of callers that may wait for a slot. */
+  public static final int DEFAULT_MAX_QUEUED = 1_000;
+
+  /** Default longest wait for a slot. */
+  public static final Duration DEFAULT_MAX_QUEUE_WAIT = Duration.ofSeconds(30);
+
+  private static final CompletableFuture<Void> GRANTED = CompletableFuture.completedFuture(null);
+
+  // Weights of the short-term and baseline RTT moving averages
+  private static final double SHORT_RTT_WEIGHT = 0.2;
+  private static final double LONG_RTT_WEIGHT = 0.01;
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final double backoffRatio;
+  private final double rttTolerance;
+  private final int maxQueued;
+  private final Duration maxQueueWait;
+
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger queued = new AtomicInteger();
+  private final Queue<CompletableFuture<Void>> waiters = new ConcurrentLinkedQueue<>();
+  private final LongAdder rejected = new LongAdder();
+
+  // Read lock-free on admission; estimator state below is only touched under the monitor
+  private volatile int limit;
+  private double exactLimit;
+  private double shortRttNanos;
+  private double longRttNanos;
+  private long lastDecreaseNanos;
+
+  private AdaptiveConcurrencyLimiter(Builder builder) {
+    if (builder.minLimit < 1 || builder.maxLimit < builder.minLimit) {
+      throw new IllegalArgumentException(
+          "limits must satisfy 1 <= minLimit <= maxLimit, got: "
+              + builder.minLimit
+              + ", "
+              + builder.maxLimit);
+    }
+    if (builder.initialLimit < builder.minLimit || builder.initialLimit > builder.maxLimit) {
+      throw new IllegalArgumentException(
+          "initialLimit must be between minLimit and maxLimit, got: " + builder.initialLimit);
+    }
+    if (!(builder.backoffRatio > 0 && builder.backoffRatio < 1)) {
+      throw new IllegalArgumentException(
+          "backoffRatio must be between 0 and 1, got: " + builder.backoffRatio);
+    }
+    if (!(builder.rttTolerance > 1)) {
+      throw new IllegalArgumentException(
+          "rttTolerance must be greater than 1, got: " + builder.rttTolerance);
+    }
+    if (builder.maxQueued < 0) {
+      throw new IllegalArgumentException(
+          "maxQueued must not be negative, got: " + builder.maxQueued);
+    }
+    if (builder.maxQueueWait == null || builder.maxQueueWait.isNegative()) {
+      throw new IllegalArgumentException(
+          "maxQueueWait must not be negative, got: " + builder.maxQueueWait);
+    }
+    this.minLimit = builder.minLimit;
+    this.maxLimit = builder.maxLimit;
+    this.backoffRatio = builder.backoffRatio;
+    this.rttTolerance = builder.rttTolerance;
+    this.maxQueued = builder.maxQueued;
+    this.maxQueueWait = builder.maxQueueWait;
+    this.limit = builder.initialLimit;
+    this.exactLimit = builder.initialLimit;
+  }
+
+  /**
+   * Creates a new builder for {@link AdaptiveConcurrencyLimiter}.
+   *
+   * @return a new builder
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Requests a slot for one in-flight request.
+   *
+   * <p>The returned future completes when the slot is granted; the caller must then call {@link
+   * #release} exactly once. It completes exceptionally with an {@link OverloadedException} if the
+   * request is rejected. Cancelling a pending future gives up the place in the queue.
+   *
+   * @return a future that completes when the caller may send
+   */
+  public CompletableFuture<Void> acquire() {
+    // Only take the fast path when nobody is queued, so waiters are served in order
+    if (waiters.isEmpty() && tryAcquire()) {
+      return GRANTED;
+    }
+    if (queued.incrementAndGet() > maxQueued) {
+      queued.decrementAndGet();
+      rejected.increment();
+      return CompletableFuture.failedFuture(
+          new OverloadedException(
+              "Concurrency limit of " + limit + " reached and " + maxQueued + " requests queued"));
+    }
+
+    CompletableFuture<Void> waiter = new CompletableFuture<>();
+    waiter.whenComplete(
+        (ignored, error) -> {
+          if (error != null) {
+            // Timed out or cancelled; a granted waiter is accounted for in drain()
+            waiters.remove(waiter);
+            queued.decrementAndGet();
+          }
+        });
+    waiters.add(waiter);
+    if (!maxQueueWait.isZero()) {
+      CompletableFuture.delayedExecutor(maxQueueWait.toNanos(), TimeUnit.NANOSECONDS, Runnable::run)
+          .execute(
+              () -> {
+                // Counted first so the rejection is visible by the time the caller sees it
+                rejected.increment();
+                if (!waiter.completeExceptionally(
+                    new OverloadedException(
+                        "Timed out after " + maxQueueWait + " waiting for a concurrency slot"))) {
+                  rejected.decrement();
+                }
+              });
+    }
+    drain();
+    return waiter;
+  }
+
+  /**
+   * Returns a slot and, when {@code rttNanos} is not negative, feeds the request's outcome into the
+   * limit.
+   *
+   * @param rttNanos the round-trip time of the request, or a negative value if it was never sent
+   * @param overloaded whether the request ended in a 429, a 5xx or a transport failure
+   */
+  public void release(long rttNanos, boolean overloaded) {
+    int inFlightBefore = inFlight.getAndDecrement();
+    if (rttNanos >= 0) {
+      onSample(rttNanos, overloaded, inFlightBefore);
+    }
+    drain();
+  }
+
+  /**
+   * Returns a snapshot of the current limit, load and RTT estimates.
+   *
+   * @return the current statistics
+   */
+  public ConcurrencyLimitStats stats() {
+    double shortRtt;
+    double longRtt;
+    synchronized (this) {
+      shortRtt = shortRttNanos;
+      longRtt = longRttNanos;
+    }
+    return new ConcurrencyLimitStats(
+        limit, inFlight.get(), queued.get(), shortRtt / 1e6, longRtt / 1e6, rejected.sum());
+  }
+
+  /**
+   * Returns the current limit.
+   *
+   * @return the number of requests allowed in flight
+   */
+  public int limit() {
+    return limit;
+  }
+
+  private boolean tryAcquire() {
+    while (true) {
+      int current = inFlight.get();
+      if (current >= limit) {
+        return false;
+      }
+      if (inFlight.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  /** Hands free slots to queued callers. Runs after every change that may free a slot. */
+  private void drain() {
+    while (!waiters.isEmpty() && tryAcquire()) {
+      CompletableFuture<Void> waiter = waiters.poll();
+      if (waiter != null && waiter.complete(null)) {
+        queued.decrementAndGet();
+      } else {
+        // Queue emptied concurrently or the waiter gave up: return the slot and look again
+        inFlight.decrementAndGet();
+      }
+    }
+  }
+
+  private synchronized void onSample(long rttNanos, boolean overloaded, int inFlightAtSample) {
+    long now = System.nanoTime();
+    boolean congested = overloaded;
+    if (!overloaded) {
+      if (longRttNanos == 0) {
+        shortRttNanos = rttNanos;
+        longRttNanos = rttNanos;
+      } else {
+        shortRttNanos += SHORT_RTT_WEIGHT * (rttNanos - shortRttNanos);
+        longRttNanos += LONG_RTT_WEIGHT * (rttNanos - longRttNanos);
+      }
+      congested = shortRttNanos > longRttNanos * rttTolerance;
+    }
+
+    if (congested) {
+      // One decrease per round trip, so a single overload episode counts once
+      if (lastDecreaseNanos == 0 || now - lastDecreaseNanos >= (long) shortRttNanos) {
+        exactLimit = Math.max(minLimit, exactLimit * backoffRatio);
+        lastDecreaseNanos = now;
+      }
+    } else if (inFlightAtSample * 2 >= limit) {
+      // Only grow while the limit is actually being used
+      exactLimit = Math.min(maxLimit, exactLimit + 1);
+    }
+    limit = (int) exactLimit;
+  }
+
+  /** Builder for {@link AdaptiveConcurrencyLimiter}. */
+  public static final class Builder {
+    private int initialLimit = DEFAULT_INITIAL_LIMIT;
+    private int minLimit = 1;
+    private int maxLimit = DEFAULT_MAX_LIMIT;
+    private double backoffRatio = DEFAULT_BACKOFF_RATIO;
+    private double rttTolerance = DEFAULT_RTT_TOLERANCE;
+    private int maxQueued = DEFAULT_MAX_QUEUED;
+    private Duration maxQueueWait = DEFAULT_MAX_QUEUE_WAIT;
+
+    private Builder() {}
+
+    public Builder initialLimit(int initialLimit) {
+      this.initialLimit = initialLimit;
+      return this;
+    }
+
+    public Builder minLimit(int minLimit) {
+      this.minLimit = minLimit;
+      return this;
+    }
+
+    public Builder maxLimit(int maxLimit) {
+      this.maxLimit = maxLimit;
+      return this;
+    }
+
+    /**
+     * Sets the factor the limit is multiplied by on overload, between 0 and 1 exclusive.
+     *
+     * @param backoffRatio the decrease factor
+     * @return this builder
+     */
+    public Builder backoffRatio(double backoffRatio) {
+      this.backoffRatio = backoffRatio;
+      return this;
+    }
+
+    /**
+     * Sets how far the short-term RTT may rise above the baseline before the limit is cut.
+     *
+     * @param rttTolerance the ratio, greater than 1
+     * @return this builder
+     */
+    public Builder rttTolerance(double rttTolerance) {
+      this.rttTolerance = rttTolerance;
+      return this;
+    }
+
+    /**
+     * Sets how many callers may wait for a slot; 0 rejects as soon as the limit is reached.
+     *
+     * @param maxQueued the queue bound
+     * @return this builder
+     */
+    public Builder maxQueued(int maxQueued) {
+      this.maxQueued = maxQueued;
+      return this;
+    }
+
+    /**
+     * Sets the longest a caller waits for a slot; {@link Duration#ZERO} waits without limit.
+     *
+     * @param maxQueueWait the maximum wait
+     * @return this builder
+     */
+    public Builder maxQueueWait(Duration maxQueueWait) {
+      this.maxQueueWait = maxQueueWait;
+      return this;
+    }
+
+    public AdaptiveConcurrencyLimiter build() {
+      return new AdaptiveConcurrencyLimiter(this);
+    }
+  }
+}
@@ -0,0 +1,102 @@
+package com.telos.loops.resilience;
+
+import java.time.Duration;
+
+/**
+ * Limits on the work a {@link com.telos.loops.LoopsClient} accepts before it sheds load.
+ *
+ * <p>Every request counts as pending from the moment it is submitted until its response is handled,
+ * whether it is waiting for the rate budget, a concurrency slot or its response. A request that
+ * would take the client past any limit fails at once with {@link
+ * com.telos.loops.error.OverloadedException} instead of joining the backlog, so an overloaded
+ * client stops growing its heap and the caller can shed the work upstream:
+ *
+ * <ul>
+ *   <li>{@link #maxQueueDepth()} caps the number of pending requests
+ *   <li>{@link #maxQueueWait()} caps how long a new request is expected to take to get through the
+ *       backlog, estimated from the pending count and recent throughput
+ *   <li>{@link #maxPendingBytes()} caps the total size of pending request bodies
+ * </ul>
+ *
+ * <p>Example usage:
+ *
+ * <pre>{@code
+ * LoopsClient client = LoopsClient.builder()
+ *     .apiKey("your-api-key")
+ *     .admission(AdmissionSettings.builder()
+ *         .maxQueueDepth(500)
+ *         .maxQueueWait(Duration.ofSeconds(5))
+ *         .maxPendingBytes(16 * 1024 * 1024)
+ *         .build())
+ *     .build();
+ * }</pre>
+ *
+ * @param maxQueueDepth maximum number of pending requests
+ * @param maxQueueWait longest expected time to drain the backlog; {@link Duration#ZERO} for no
+ *     limit
+ * @param maxPendingBytes maximum total size of pending request bodies; 0 for no limit
+ */
+public record AdmissionSettings(int maxQueueDepth, Duration maxQueueWait, long maxPendingBytes) {
+
+  /** Default maximum number of pending requests. */
+  public static final int DEFAULT_MAX_QUEUE_DEPTH = 1_000;
+
+  public AdmissionSettings {
+    if (maxQueueDepth < 1) {
+      throw new IllegalArgumentException("maxQueueDepth must be positive, got: " + maxQueueDepth);
+    }
+    if (maxQueueWait == null || maxQueueWait.isNegative()) {
+      throw new IllegalArgumentException("maxQueueWait must not be negative, got: " + maxQueueWait);
+    }
+    if (maxPendingBytes < 0) {
+      throw new IllegalArgumentException(
+          "maxPendingBytes must not be negative, got: " + maxPendingBytes);
+    }
+  }
+
+  /**
+   * Returns the default settings: up to 1000 pending requests, with no wait or byte limit.
+   *
+   * @return the default settings
+   */
+  public static AdmissionSettings defaults() {
+    return builder().build();
+  }
+
+  /**
+   * Creates a new builder for {@link AdmissionSettings}.
+   *
+   * @return a new builder
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /** Builder for {@link AdmissionSettings}. */
+  public static final class Builder {
+    private int maxQueueDepth = DEFAULT_MAX_QUEUE_DEPTH;
+    private Duration maxQueueWait = Duration.ZERO;
+    private long maxPendingBytes;
+
+    private Builder() {}
+
+    public Builder maxQueueDepth(int maxQueueDepth) {
+      this.maxQueueDepth = maxQueueDepth;
+      return this;
+    }
+
+    public Builder maxQueueWait(Duration maxQueueWait) {
+      this.maxQueueWait = maxQueueWait;
+      return this;
+    }
+
+    public Builder maxPendingBytes(long maxPendingBytes) {
+      this.maxPendingBytes = maxPendingBytes;
+      return this;
+    }
+
+    public AdmissionSettings build() {
+      return new AdmissionSettings(maxQueueDepth, maxQueueWait, maxPendingBytes);
+    }
+  }
+}
@@ -0,0 +1,100 @@
+package com.telos.loops.resilience;
+
+import java.time.Duration;
+
+/**
+ * Size of a bulkhead: the requests one endpoint, or group of endpoints, may have in flight and
+ * waiting.
+ *
+ * <p>Bulkheads keep a latency incident on one endpoint from spreading to the others. Each bulkhead
+ * admits at most {@link #maxConcurrent()} requests at once; further requests wait in a queue of up
+ * to {@link #maxQueued()} for at most {@link #maxQueueWait()}, and are rejected beyond that. A
+ * storm of slow {@code /contacts/find} calls then fills only its own bulkhead, while {@code
+ * /transactional} sends keep their capacity.
+ *
+ * <p>Example usage:
+ *
+ * <pre>{@code
+ * LoopsClient client = LoopsClient.builder()
+ *     .apiKey("your-api-key")
+ *     // Every endpoint gets its own pool of 8 with room for 50 waiting requests
+ *     .bulkheads(BulkheadSettings.builder().maxConcurrent(8).maxQueued(50).build())
+ *     // All contacts endpoints share a smaller pool
+ *     .bulkhead("/contacts", BulkheadSettings.builder().maxConcurrent(4).build())
+ *     .build();
+ * }</pre>
+ *
+ * @param maxConcurrent maximum number of requests in flight at once
+ * @param maxQueued maximum number of requests waiting for a slot; 0 rejects as soon as the bulkhead
+ *     is full
+ * @param maxQueueWait longest a request waits for a slot; {@link Duration#ZERO} waits without limit
+ */
+public record BulkheadSettings(int maxConcurrent, int maxQueued, Duration maxQueueWait) {
+
+  /** Default number of requests in flight per bulkhead. */
+  public static final int DEFAULT_MAX_CONCURRENT = 16;
+
+  /** Default number of requests waiting per bulkhead. */
+  public static final int DEFAULT_MAX_QUEUED = 100;
+
+  /** Default longest wait for a slot. */
+  public static final Duration DEFAULT_MAX_QUEUE_WAIT = Duration.ofSeconds(10);
+
+  public BulkheadSettings {
+    if (maxConcurrent < 1) {
+      throw new IllegalArgumentException("maxConcurrent must be positive, got: " + maxConcurrent);
+    }
+    if (maxQueued < 0) {
+      throw new IllegalArgumentException("maxQueued must not be negative, got: " + maxQueued);
+    }
+    if (maxQueueWait == null || maxQueueWait.isNegative()) {
+      throw new IllegalArgumentException("maxQueueWait must not be negative, got: " + maxQueueWait);
+    }
+  }
+
+  /**
+   * Returns the default settings: 16 in flight, 100 waiting for up to 10 seconds.
+   *
+   * @return the default settings
+   */
+  public static BulkheadSettings defaults() {
+    return builder().build();
+  }
+
+  /**
+   * Creates a new builder for {@link BulkheadSettings}.
+   *
+   * @return a new builder
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /** Builder for {@link BulkheadSettings}. */
+  public static final class Builder {
+    private int maxConcurrent = DEFAULT_MAX_CONCURRENT;
+    private int maxQueued = DEFAULT_MAX_QUEUED;
+    private Duration maxQueueWait = DEFAULT_MAX_QUEUE_WAIT;
+
+    private Builder() {}
+
+    public Builder maxConcurrent(int maxConcurrent) {
+      this.maxConcurrent = maxConcurrent;
+      return this;
+    }
+
+    public Builder maxQueued(int maxQueued) {
+      this.maxQueued = maxQueued;
+      return this;
+    }
+
+    public Builder maxQueueWait(Duration maxQueueWait) {
+      this.maxQueueWait = maxQueueWait;
+      return this;
+    }
+
+    public BulkheadSettings build() {
+      return new BulkheadSettings(maxConcurrent, maxQueued, maxQueueWait);
+    }
+  }
+}
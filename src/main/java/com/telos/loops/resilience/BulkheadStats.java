@@ -0,0 +1,28 @@
+package com.telos.loops.resilience;
+
+/**
+ * Point-in-time view of one bulkhead.
+ *
+ * <p>A bulkhead whose {@link #saturation()} sits at 1 while {@link #queued()} grows is the one
+ * absorbing a slow endpoint; a rising {@link #rejected()} count means its queue bound is what
+ * callers are hitting.
+ *
+ * @param name the endpoint path or configured path prefix the bulkhead guards
+ * @param maxConcurrent maximum number of requests in flight at once
+ * @param inFlight requests currently holding a slot
+ * @param maxQueued maximum number of requests waiting for a slot
+ * @param queued requests currently waiting for a slot
+ * @param rejected requests rejected because the queue was full or their wait timed out
+ */
+public record BulkheadStats(
+    String name, int maxConcurrent, int inFlight, int maxQueued, int queued, long rejected) {
+
+  /**
+   * Returns the share of the bulkhead's slots in use.
+   *
+   * @return in-flight requests divided by the limit, between 0 and 1
+   */
+  public double saturation() {
+    return (double) inFlight / maxConcurrent;
+  }
+}
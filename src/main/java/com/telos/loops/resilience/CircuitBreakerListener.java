@@ -0,0 +1,32 @@
+package com.telos.loops.resilience;
+
+/**
+ * Receives the state transitions of a client's circuit breakers.
+ *
+ * <p>Called on the thread whose request caused the transition, so implementations should return
+ * quickly, for example by logging or updating a metric. An exception thrown by the listener is
+ * logged and does not affect the request.
+ *
+ * <p>Example usage:
+ *
+ * <pre>{@code
+ * LoopsClient client = LoopsClient.builder()
+ *     .apiKey("your-api-key")
+ *     .circuitBreaker(CircuitBreakerSettings.defaults())
+ *     .circuitBreakerListener((endpoint, from, to) ->
+ *         log.warn("Loops circuit {} moved from {} to {}", endpoint, from, to))
+ *     .build();
+ * }</pre>
+ */
+@FunctionalInterface
+public interface CircuitBreakerListener {
+
+  /**
+   * Called after a circuit breaker changes state.
+   *
+   * @param endpoint the endpoint path the breaker guards
+   * @param from the previous state
+   * @param to the new state
+   */
+  void onStateTransition(String endpoint, CircuitState from, CircuitState to);
+}
@@ -0,0 +1,192 @@
+package com.telos.loops.resilience;
+
+import java.time.Duration;
+
+/**
+ * Circuit breaker settings, applied to each endpoint separately.
+ *
+ * <p>A breaker records the outcome of the last {@link #windowSize()} calls to its endpoint. A call
+ * fails if the transport throws or the API answers with a 5xx status, and is slow if it takes at
+ * least {@link #slowCallDuration()}. Once the window holds {@link #minimumCalls()} calls and the
+ * failure rate reaches {@link #failureRateThreshold()}, or the slow-call rate reaches {@link
+ * #slowCallRateThreshold()}, the breaker opens: requests to that endpoint fail at once with {@link
+ * com.telos.loops.error.CircuitOpenException} instead of waiting out connect and read timeouts.
+ *
+ * <p>After {@link #openDuration()} the breaker lets {@link #halfOpenCalls()} trial requests
+ * through. If all of them succeed it closes; any failure reopens it. With {@link #healthProbe()}
+ * set, the breaker first calls {@code ApiKeyClient.test()} and only lets trial requests through
+ * once the API answers it, so no real request is spent on an API that is still down.
+ *
+ * <p>Example usage:
+ *
+ * <pre>{@code
+ * LoopsClient client = LoopsClient.builder()
+ *     .apiKey("your-api-key")
+ *     .circuitBreaker(CircuitBreakerSettings.builder()
+ *         .failureRateThreshold(0.5)
+ *         .slowCallDuration(Duration.ofSeconds(5))
+ *         .slowCallRateThreshold(0.8)
+ *         .openDuration(Duration.ofSeconds(30))
+ *         .healthProbe(true)
+ *         .build())
+ *     .build();
+ * }</pre>
+ *
+ * @param failureRateThreshold the failure rate at which the breaker opens, between 0 exclusive and
+ *     1
+ * @param slowCallRateThreshold the slow-call rate at which the breaker opens, between 0 exclusive
+ *     and 1
+ * @param slowCallDuration the response time from which a call counts as slow
+ * @param windowSize the number of recent calls the rates are computed over
+ * @param minimumCalls the number of calls the window must hold before the breaker can open
+ * @param openDuration how long the breaker stays open before trying requests again
+ * @param halfOpenCalls the number of trial requests let through when half-open
+ * @param healthProbe whether to test the API key before letting trial requests through
+ */
+public record CircuitBreakerSettings(
+    double failureRateThreshold,
+    double slowCallRateThreshold,
+    Duration slowCallDuration,
+    int windowSize,
+    int minimumCalls,
+    Duration openDuration,
+    int halfOpenCalls,
+    boolean healthProbe) {
+
+  /** Default failure rate at which the breaker opens. */
+  public static final double DEFAULT_FAILURE_RATE_THRESHOLD = 0.5;
+
+  /** Default slow-call rate at which the breaker opens: only when every call is slow. */
+  public static final double DEFAULT_SLOW_CALL_RATE_THRESHOLD = 1.0;
+
+  /** Default response time from which a call counts as slow. */
+  public static final Duration DEFAULT_SLOW_CALL_DURATION = Duration.ofSeconds(10);
+
+  /** Default number of recent calls in the window. */
+  public static final int DEFAULT_WINDOW_SIZE = 50;
+
+  /** Default number of calls needed before the breaker can open. */
+  public static final int DEFAULT_MINIMUM_CALLS = 20;
+
+  /** Default time the breaker stays open. */
+  public static final Duration DEFAULT_OPEN_DURATION = Duration.ofSeconds(30);
+
+  /** Default number of trial requests when half-open. */
+  public static final int DEFAULT_HALF_OPEN_CALLS = 3;
+
+  public CircuitBreakerSettings {
+    if (!(failureRateThreshold > 0 && failureRateThreshold <= 1)) {
+      throw new IllegalArgumentException(
+          "failureRateThreshold must be between 0 exclusive and 1, got: " + failureRateThreshold);
+    }
+    if (!(slowCallRateThreshold > 0 && slowCallRateThreshold <= 1)) {
+      throw new IllegalArgumentException(
+          "slowCallRateThreshold must be between 0 exclusive and 1, got: " + slowCallRateThreshold);
+    }
+    if (slowCallDuration == null || slowCallDuration.isNegative() || slowCallDuration.isZero()) {
+      throw new IllegalArgumentException(
+          "slowCallDuration must be positive, got: " + slowCallDuration);
+    }
+    if (windowSize < 1) {
+      throw new IllegalArgumentException("windowSize must be positive, got: " + windowSize);
+    }
+    if (minimumCalls < 1 || minimumCalls > windowSize) {
+      throw new IllegalArgumentException(
+          "minimumCalls must be between 1 and windowSize ("
+              + windowSize
+              + "), got: "
+              + minimumCalls);
+    }
+    if (openDuration == null || openDuration.isNegative()) {
+      throw new IllegalArgumentException("openDuration must not be negative, got: " + openDuration);
+    }
+    if (halfOpenCalls < 1) {
+      throw new IllegalArgumentException("halfOpenCalls must be positive, got: " + halfOpenCalls);
+    }
+  }
+
+  /**
+   * Returns the default settings: open at 50% failures or when every call takes 10 seconds or more,
+   * over the last 50 calls once 20 are recorded; stay open for 30 seconds, then try 3 requests.
+   *
+   * @return the default settings
+   */
+  public static CircuitBreakerSettings defaults() {
+    return builder().build();
+  }
+
+  /**
+   * Creates a new builder for {@link CircuitBreakerSettings}.
+   *
+   * @return a new builder
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /** Builder for {@link CircuitBreakerSettings}. */
+  public static final class Builder {
+    private double failureRateThreshold = DEFAULT_FAILURE_RATE_THRESHOLD;
+    private double slowCallRateThreshold = DEFAULT_SLOW_CALL_RATE_THRESHOLD;
+    private Duration slowCallDuration = DEFAULT_SLOW_CALL_DURATION;
+    private int windowSize = DEFAULT_WINDOW_SIZE;
+    private int minimumCalls = DEFAULT_MINIMUM_CALLS;
+    private Duration openDuration = DEFAULT_OPEN_DURATION;
+    private int halfOpenCalls = DEFAULT_HALF_OPEN_CALLS;
+    private boolean healthProbe;
+
+    private Builder() {}
+
+    public Builder failureRateThreshold(double failureRateThreshold) {
+      this.failureRateThreshold = failureRateThreshold;
+      return this;
+    }
+
+    public Builder slowCallRateThreshold(double slowCallRateThreshold) {
+      this.slowCallRateThreshold = slowCallRateThreshold;
+      return this;
+    }
+
+    public Builder slowCallDuration(Duration slowCallDuration) {
+      this.slowCallDuration = slowCallDuration;
+      return this;
+    }
+
+    public Builder windowSize(int windowSize) {
+      this.windowSize = windowSize;
+      return this;
+    }
+
+    public Builder minimumCalls(int minimumCalls) {
+      this.minimumCalls = minimumCalls;
+      return this;
+    }
+
+    public Builder openDuration(Duration openDuration) {
+      this.openDuration = openDuration;
+      return this;
+    }
+
+    public Builder halfOpenCalls(int halfOpenCalls) {
+      this.halfOpenCalls = halfOpenCalls;
+      return this;
+    }
+
+    public Builder healthProbe(boolean healthProbe) {
+      this.healthProbe = healthProbe;
+      return this;
+    }
+
+    public CircuitBreakerSettings build() {
+      return new CircuitBreakerSettings(
+          failureRateThreshold,
+          slowCallRateThreshold,
+          slowCallDuration,
+          windowSize,
+          minimumCalls,
+          openDuration,
+          halfOpenCalls,
+          healthProbe);
+    }
+  }
+}
@@ -0,0 +1,23 @@
+package com.telos.loops.resilience;
+
+/**
+ * Point-in-time view of one endpoint's circuit breaker.
+ *
+ * <p>The rates are over the calls currently in the sliding window; they only trip the breaker once
+ * the window holds {@link CircuitBreakerSettings#minimumCalls()} calls. {@link #notPermitted()} is
+ * cumulative and counts the requests failed fast while the breaker was open.
+ *
+ * @param endpoint the endpoint path the breaker guards
+ * @param state the current state
+ * @param bufferedCalls calls in the sliding window
+ * @param failureRate share of buffered calls that failed, between 0 and 1
+ * @param slowCallRate share of buffered calls that were slow, between 0 and 1
+ * @param notPermitted requests rejected without being sent
+ */
+public record CircuitBreakerStats(
+    String endpoint,
+    CircuitState state,
+    int bufferedCalls,
+    double failureRate,
+    double slowCallRate,
+    long notPermitted) {}
@@ -0,0 +1,11 @@
+package com.telos.loops.resilience;
+
+/** The state of a circuit breaker. */
+public enum CircuitState {
+  /** Requests flow normally while their outcomes are recorded. */
+  CLOSED,
+  /** Requests fail fast without reaching the API. */
+  OPEN,
+  /** A limited number of trial requests decide whether to close or reopen. */
+  HALF_OPEN
+}
@@ -0,0 +1,24 @@
+package com.telos.loops.resilience;
+
+/**
+ * Point-in-time view of an {@link AdaptiveConcurrencyLimiter}.
+ *
+ * <p>Under steady load the limit settles where {@link #rttMillis()} stays close to {@link
+ * #baselineRttMillis()}; a limit that keeps falling while {@link #queued()} grows means the API is
+ * giving this key less capacity than it is asking for.
+ *
+ * @param limit the current in-flight limit
+ * @param inFlight requests currently holding a slot
+ * @param queued callers waiting for a slot
+ * @param rttMillis short-term moving average of successful round trips, or 0 before the first
+ * @param baselineRttMillis long-term moving average of successful round trips, the no-load estimate
+ *     the short-term average is compared against
+ * @param rejected requests rejected because the queue was full or their wait timed out
+ */
+public record ConcurrencyLimitStats(
+    int limit,
+    int inFlight,
+    int queued,
+    double rttMillis,
+    double baselineRttMillis,
+    long rejected) {}
@@ -0,0 +1,106 @@
+package com.telos.loops.resilience;
+
+import java.time.Duration;
+
+/**
+ * Hedged request settings for GET endpoints.
+ *
+ * <p>When a GET has not answered within the {@link #percentile()} of its endpoint's recent latency,
+ * the SDK sends a second copy and returns whichever response arrives first, cancelling the other
+ * call. Rare slow responses then cost about one extra percentile of latency instead of their full
+ * duration. Hedges are only sent for GETs, which are safe to repeat.
+ *
+ * <p>The hedge copy passes through the same bulkheads, concurrency limit and rate limiter as any
+ * other request, so it cannot exceed the client-side budget. On top of that, hedges are capped at
+ * {@link #maxHedgeRatio()} of GET traffic: each GET earns that fraction of a hedge, and a hedge is
+ * only sent when a whole one has been earned. An endpoint is not hedged until enough of its
+ * latencies have been observed to estimate the percentile.
+ *
+ * <p>Example usage:
+ *
+ * <pre>{@code
+ * LoopsClient client = LoopsClient.builder()
+ *     .apiKey("your-api-key")
+ *     .hedging(HedgePolicy.builder()
+ *         .percentile(0.95)
+ *         .maxHedgeRatio(0.05) // at most 5% extra GETs
+ *         .build())
+ *     .build();
+ * }</pre>
+ *
+ * @param percentile the latency percentile after which a hedge is sent, between 0 and 1 exclusive
+ * @param minDelay the shortest wait before hedging, whatever the percentile
+ * @param maxHedgeRatio the largest fraction of GETs that may be hedged, between 0 and 1
+ */
+public record HedgePolicy(double percentile, Duration minDelay, double maxHedgeRatio) {
+
+  /** Default latency percentile after which a hedge is sent. */
+  public static final double DEFAULT_PERCENTILE = 0.95;
+
+  /** Default shortest wait before hedging. */
+  public static final Duration DEFAULT_MIN_DELAY = Duration.ofMillis(10);
+
+  /** Default largest fraction of GETs that may be hedged. */
+  public static final double DEFAULT_MAX_HEDGE_RATIO = 0.05;
+
+  public HedgePolicy {
+    if (!(percentile > 0 && percentile < 1)) {
+      throw new IllegalArgumentException(
+          "percentile must be between 0 and 1 exclusive, got: " + percentile);
+    }
+    if (minDelay == null || minDelay.isNegative()) {
+      throw new IllegalArgumentException("minDelay must not be negative, got: " + minDelay);
+    }
+    if (!(maxHedgeRatio >= 0 && maxHedgeRatio <= 1)) {
+      throw new IllegalArgumentException(
+          "maxHedgeRatio must be between 0 and 1, got: " + maxHedgeRatio);
+    }
+  }
+
+  /**
+   * Returns the default policy: hedge at the 95th percentile, after at least 10 ms, for at most 5%
+   * of GETs.
+   *
+   * @return the default policy
+   */
+  public static HedgePolicy defaults() {
+    return builder().build();
+  }
+
+  /**
+   * Creates a new builder for {@link HedgePolicy}.
+   *
+   * @return a new builder
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /** Builder for {@link HedgePolicy}. */
+  public static final class Builder {
+    private double percentile = DEFAULT_PERCENTILE;
+    private Duration minDelay = DEFAULT_MIN_DELAY;
+    private double maxHedgeRatio = DEFAULT_MAX_HEDGE_RATIO;
+
+    private Builder() {}
+
+    public Builder percentile(double percentile) {
+      this.percentile = percentile;
+      return this;
+    }
+
+    public Builder minDelay(Duration minDelay) {
+      this.minDelay = minDelay;
+      return this;
+    }
+
+    public Builder maxHedgeRatio(double maxHedgeRatio) {
+      this.maxHedgeRatio = maxHedgeRatio;
+      return this;
+    }
+
+    public HedgePolicy build() {
+      return new HedgePolicy(percentile, minDelay, maxHedgeRatio);
+    }
+  }
+}
@@ -0,0 +1,14 @@
+package com.telos.loops.resilience;
+
+/**
+ * Counters for a client's hedged requests, cumulative since the client was built.
+ *
+ * <p>{@link #hedges()} divided by {@link #requests()} is the extra GET traffic hedging costs; it
+ * stays at or below {@link HedgePolicy#maxHedgeRatio()}. {@link #wins()} counts the hedges that
+ * answered before the original and so cut a slow response short.
+ *
+ * @param requests GETs eligible for hedging
+ * @param hedges hedge copies sent
+ * @param wins hedge copies that answered first
+ */
+public record HedgeStats(long requests, long hedges, long wins) {}
@@ -0,0 +1,36 @@
+package com.telos.loops.resilience;
+
+/**
+ * Client-side limit on how fast requests are sent to the Loops API.
+ *
+ * <p>A limiter hands out permits by reservation: {@link #reserve()} claims the next permit and
+ * returns how long the caller must wait before using it. Waiting is left to the caller, so the SDK
+ * can park a synchronous caller and schedule an asynchronous one on a timer without holding a
+ * thread.
+ *
+ * <p>Implementations must be thread-safe. One limiter is shared by every sub-client of a {@link
+ * com.telos.loops.LoopsClient}, and may be shared across clients that use the same API key.
+ *
+ * @see TokenBucketRateLimiter
+ */
+public interface RateLimiter {
+
+  /**
+   * Reserves a permit for one request.
+   *
+   * @return the number of nanoseconds the caller must wait before sending, or 0 to send now; a
+   *     negative value means no permit was reserved because the wait would exceed the limiter's
+   *     maximum wait, and its magnitude is the wait that would have been required
+   */
+  long reserve();
+
+  /**
+   * Informs the limiter of the rate limit the Loops API advertises for this key.
+   *
+   * <p>Called when the {@code x-ratelimit-limit} response header changes. Implementations should
+   * not exceed the advertised rate. The default implementation ignores it.
+   *
+   * @param permitsPerSecond the advertised limit in requests per second
+   */
+  default void updateLimit(double permitsPerSecond) {}
+}
@@ -0,0 +1,131 @@
+package com.telos.loops.resilience;
+
+import java.time.Duration;
+
+/**
+ * Automatic retry settings for idempotent requests.
+ *
+ * <p>A request is retried when the API answers 429 or a 5xx status (500, 502, 503, 504), or when
+ * the transport fails before a response is received. Only operations that are safe to repeat are
+ * retried:
+ *
+ * <ul>
+ *   <li>every GET
+ *   <li>PUT {@code /contacts/update}, which sets the same fields on each attempt
+ *   <li>POST {@code /events/send} and {@code /transactional} when the request carries an {@code
+ *       Idempotency-Key}, which lets the API discard duplicates
+ * </ul>
+ *
+ * <p>Delays grow exponentially with decorrelated jitter: each delay is drawn uniformly between
+ * {@link #initialBackoff()} and three times the previous delay, capped at {@link #maxBackoff()}.
+ * When the response carries a {@code Retry-After} header, in either delta-seconds or HTTP-date
+ * form, the SDK waits at least that long.
+ *
+ * <p>Each request has its own budget: at most {@link #maxAttempts()} attempts, all started within
+ * {@link #timeBudget()} of the first one. A retry whose delay would overrun the time budget is not
+ * attempted; the last failure is reported instead.
+ *
+ * <p>Example usage:
+ *
+ * <pre>{@code
+ * LoopsClient client = LoopsClient.builder()
+ *     .apiKey("your-api-key")
+ *     .retryPolicy(RetryPolicy.builder()
+ *         .maxAttempts(5)
+ *         .initialBackoff(Duration.ofMillis(200))
+ *         .timeBudget(Duration.ofMinutes(1))
+ *         .build())
+ *     .build();
+ * }</pre>
+ *
+ * @param maxAttempts total attempts per request, including the first; 1 disables retries
+ * @param initialBackoff the smallest delay before a retry
+ * @param maxBackoff the largest computed delay before a retry ({@code Retry-After} may exceed it)
+ * @param timeBudget the time from the first attempt within which retries may start
+ */
+public record RetryPolicy(
+    int maxAttempts, Duration initialBackoff, Duration maxBackoff, Duration timeBudget) {
+
+  /** Default total attempts per request. */
+  public static final int DEFAULT_MAX_ATTEMPTS = 3;
+
+  /** Default smallest delay before a retry. */
+  public static final Duration DEFAULT_INITIAL_BACKOFF = Duration.ofMillis(100);
+
+  /** Default largest computed delay before a retry. */
+  public static final Duration DEFAULT_MAX_BACKOFF = Duration.ofSeconds(10);
+
+  /** Default time budget per request. */
+  public static final Duration DEFAULT_TIME_BUDGET = Duration.ofSeconds(30);
+
+  public RetryPolicy {
+    if (maxAttempts < 1) {
+      throw new IllegalArgumentException("maxAttempts must be positive, got: " + maxAttempts);
+    }
+    initialBackoff = initialBackoff == null ? DEFAULT_INITIAL_BACKOFF : initialBackoff;
+    maxBackoff = maxBackoff == null ? DEFAULT_MAX_BACKOFF : maxBackoff;
+    timeBudget = timeBudget == null ? DEFAULT_TIME_BUDGET : timeBudget;
+    if (initialBackoff.isNegative() || maxBackoff.compareTo(initialBackoff) < 0) {
+      throw new IllegalArgumentException(
+          "backoff must satisfy 0 <= initialBackoff <= maxBackoff, got: "
+              + initialBackoff
+              + ", "
+              + maxBackoff);
+    }
+    if (timeBudget.isNegative()) {
+      throw new IllegalArgumentException("timeBudget must not be negative, got: " + timeBudget);
+    }
+  }
+
+  /**
+   * Returns the default policy: 3 attempts, 100 ms to 10 s backoff, 30 second budget.
+   *
+   * @return the default policy
+   */
+  public static RetryPolicy defaults() {
+    return builder().build();
+  }
+
+  /**
+   * Creates a new builder for {@link RetryPolicy}.
+   *
+   * @return a new builder
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /** Builder for {@link RetryPolicy}. */
+  public static final class Builder {
+    private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+    private Duration initialBackoff = DEFAULT_INITIAL_BACKOFF;
+    private Duration maxBackoff = DEFAULT_MAX_BACKOFF;
+    private Duration timeBudget = DEFAULT_TIME_BUDGET;
+
+    private Builder() {}
+
+    public Builder maxAttempts(int maxAttempts) {
+      this.maxAttempts = maxAttempts;
+      return this;
+    }
+
+    public Builder initialBackoff(Duration initialBackoff) {
+      this.initialBackoff = initialBackoff;
+      return this;
+    }
+
+    public Builder maxBackoff(Duration maxBackoff) {
+      this.maxBackoff = maxBackoff;
+      return this;
+    }
+
+    public Builder timeBudget(Duration timeBudget) {
+      this.timeBudget = timeBudget;
+      return this;
+    }
+
+    public RetryPolicy build() {
+      return new RetryPolicy(maxAttempts, initialBackoff, maxBackoff, timeBudget);
+    }
+  }
+}
@@ -0,0 +1,330 @@
+package com.telos.loops.resilience;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket whose state lives in a memory-mapped file, so several processes on one host can
+ * share a single rate budget for the same API key without an external service.
+ *
+ * <p>The bucket uses the same algorithm as {@link TokenBucketRateLimiter}: a single timestamp, the
+ * time at which the bucket will next be empty, advanced by compare-and-set. Here the timestamp is a
+ * long in a shared file mapping, updated with an atomic compare-and-set on the mapped memory, so
+ * reservations from every process that maps the file are serialized without locks. Timestamps are
+ * wall-clock nanoseconds because {@link System#nanoTime()} is not comparable across processes. A
+ * forward step in the system clock refills the bucket early. A backward step leaves the timestamp
+ * further ahead than any reservation could have pushed it; the next reservation takes that as a
+ * clock step and restarts the bucket full from the current time.
+ *
+ * <p>Every process sharing a file must configure the same rate, burst and maximum wait. Next to the
+ * bucket timestamp the file records how far ahead of the current time any process may push it: the
+ * largest burst window plus maximum wait among them. A process that learns a lower rate through
+ * {@link #updateLimit(double)} raises that bound, so the others do not take its reservations for a
+ * clock step. A file that does not exist is created, and the first reservation finds the bucket
+ * full.
+ *
+ * <p>Example usage:
+ *
+ * <pre>{@code
+ * // Each JVM on the host points at the same file and gets a share of one 10 req/s budget
+ * RateLimiter limiter = SharedFileRateLimiter.builder()
+ *     .path(Path.of("/var/run/myapp/loops-ratelimit"))
+ *     .permitsPerSecond(10)
+ *     .build();
+ *
+ * LoopsClient client = LoopsClient.builder()
+ *     .apiKey("your-api-key")
+ *     .rateLimiter(limiter)
+ *     .build();
+ * }</pre>
+ */
+public final class SharedFileRateLimiter implements RateLimiter {
+
+  private static final VarHandle LONGS =
+      MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+  // "LOOPSRL1": marks a file as limiter state so an unrelated file is never overwritten
+  private static final long MAGIC = 0x4C4F4F5053524C31L;
+  private static final int MAGIC_OFFSET = 0;
+  private static final int EMPTY_AT_OFFSET = 8;
+  private static final int HORIZON_OFFSET = 16;
+  private static final int FILE_SIZE = 64;
+
+  private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+  private final Path path;
+  private final double configuredPermitsPerSecond;
+  private final int burst;
+  private final Duration maxWait;
+  private final long maxWaitNanos;
+
+  // Effective rate: the configured rate, capped by any limit the API advertises
+  private volatile double permitsPerSecond;
+  private volatile long intervalNanos;
+  private volatile long burstNanos;
+  private final LongSupplier clock;
+
+  // Shared state; the long at EMPTY_AT_OFFSET is the time at which the bucket is empty, the long at
+  // HORIZON_OFFSET the furthest ahead of now any process sharing the file may push it
+  private final MappedByteBuffer state;
+  private final LongAdder rejected = new LongAdder();
+
+  private SharedFileRateLimiter(Builder builder, LongSupplier clock) {
+    if (builder.path == null) {
+      throw new IllegalArgumentException("path is required");
+    }
+    if (!(builder.permitsPerSecond > 0)) {
+      throw new IllegalArgumentException(
+          "permitsPerSecond must be positive, got: " + builder.permitsPerSecond);
+    }
+    int resolvedBurst =
+        builder.burst != null
+            ? builder.burst
+            : (int) Math.max(1, Math.ceil(builder.permitsPerSecond));
+    if (resolvedBurst < 1) {
+      throw new IllegalArgumentException("burst must be positive, got: " + resolvedBurst);
+    }
+    if (builder.maxWait == null || builder.maxWait.isNegative()) {
+      throw new IllegalArgumentException("maxWait must not be negative, got: " + builder.maxWait);
+    }
+    this.path = builder.path;
+    this.configuredPermitsPerSecond = builder.permitsPerSecond;
+    this.burst = resolvedBurst;
+    this.maxWait = builder.maxWait;
+    this.maxWaitNanos = maxWait.toNanos();
+    this.clock = clock;
+    this.state = map(path);
+    setRate(builder.permitsPerSecond);
+  }
+
+  /**
+   * Creates a new builder for {@link SharedFileRateLimiter}.
+   *
+   * @return a new builder
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  @Override
+  public long reserve() {
+    long now = clock.getAsLong();
+    long intervalNanos = this.intervalNanos;
+    long burstNanos = this.burstNanos;
+    while (true) {
+      long current = (long) LONGS.getVolatile(state, EMPTY_AT_OFFSET);
+      if (current - now > burstNanos + maxWaitNanos
+          && current - now > (long) LONGS.getVolatile(state, HORIZON_OFFSET)) {
+        // No reservation reaches this far ahead, so the wall clock stepped back: restart from now
+        LONGS.compareAndSet(state, EMPTY_AT_OFFSET, current, now);
+        continue;
+      }
+      long next = (current - now > 0 ? current : now) + intervalNanos;
+      long wait = next - burstNanos - now;
+      if (wait > maxWaitNanos) {
+        rejected.increment();
+        return -wait;
+      }
+      if (LONGS.compareAndSet(state, EMPTY_AT_OFFSET, current, next)) {
+        return Math.max(0, wait);
+      }
+    }
+  }
+
+  /**
+   * Returns the number of permits that could be reserved right now without waiting, across all
+   * processes sharing the file.
+   *
+   * @return the available permits, between 0 and {@link #burst()}
+   */
+  public int availablePermits() {
+    long now = clock.getAsLong();
+    long intervalNanos = this.intervalNanos;
+    long current = emptyAt();
+    long headroom = now + burst * intervalNanos - (current - now > 0 ? current : now);
+    return (int) Math.max(0, Math.min(burst, headroom / intervalNanos));
+  }
+
+  /**
+   * Returns how many reservations this process has had refused because they would exceed {@link
+   * #maxWait()}.
+   *
+   * @return the number of refused reservations
+   */
+  public long rejectedCount() {
+    return rejected.sum();
+  }
+
+  /**
+   * Caps this process's rate at the limit the API advertises; the configured rate stays the upper
+   * bound.
+   *
+   * @param permitsPerSecond the advertised limit in requests per second
+   */
+  @Override
+  public void updateLimit(double permitsPerSecond) {
+    if (permitsPerSecond > 0) {
+      setRate(Math.min(configuredPermitsPerSecond, permitsPerSecond));
+    }
+  }
+
+  /**
+   * Returns the file holding the shared bucket.
+   *
+   * @return the state file
+   */
+  public Path path() {
+    return path;
+  }
+
+  /**
+   * Returns the sustained rate currently in effect.
+   *
+   * @return the permits issued per second
+   */
+  public double permitsPerSecond() {
+    return permitsPerSecond;
+  }
+
+  /**
+   * Returns the bucket size.
+   *
+   * @return the number of permits that can be taken back to back after an idle period
+   */
+  public int burst() {
+    return burst;
+  }
+
+  /**
+   * Returns the longest a caller waits for a permit before the request is refused.
+   *
+   * @return the maximum wait, {@link Duration#ZERO} for fail-fast
+   */
+  public Duration maxWait() {
+    return maxWait;
+  }
+
+  long emptyAt() {
+    return (long) LONGS.getVolatile(state, EMPTY_AT_OFFSET);
+  }
+
+  private synchronized void setRate(double rate) {
+    long interval = Math.max(1, Math.round(NANOS_PER_SECOND / rate));
+    this.burstNanos = interval * burst;
+    this.intervalNanos = interval;
+    this.permitsPerSecond = rate;
+    long horizon = burstNanos + maxWaitNanos;
+    long shared = (long) LONGS.getVolatile(state, HORIZON_OFFSET);
+    while (shared < horizon) {
+      shared = (long) LONGS.compareAndExchange(state, HORIZON_OFFSET, shared, horizon);
+    }
+  }
+
+  private static MappedByteBuffer map(Path path) {
+    MappedByteBuffer buffer;
+    try (FileChannel channel =
+        FileChannel.open(
+            path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      if (channel.size() != 0 && channel.size() != FILE_SIZE) {
+        throw new IllegalArgumentException("Not a rate limiter state file: " + path);
+      }
+      // Mapping past the end grows a new file to FILE_SIZE zero bytes; the mapping outlives the
+      // channel
+      buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_SIZE);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to map rate limiter state file " + path, e);
+    }
+    long magic = (long) LONGS.compareAndExchange(buffer, MAGIC_OFFSET, 0L, MAGIC);
+    if (magic != 0 && magic != MAGIC) {
+      throw new IllegalArgumentException("Not a rate limiter state file: " + path);
+    }
+    return buffer;
+  }
+
+  private static long epochNanos() {
+    Instant now = Instant.now();
+    return now.getEpochSecond() * NANOS_PER_SECOND + now.getNano();
+  }
+
+  /** Builder for {@link SharedFileRateLimiter}. */
+  public static final class Builder {
+    private Path path;
+    private double permitsPerSecond = TokenBucketRateLimiter.DEFAULT_PERMITS_PER_SECOND;
+    private Integer burst;
+    private Duration maxWait = TokenBucketRateLimiter.DEFAULT_MAX_WAIT;
+
+    private Builder() {}
+
+    /**
+     * Sets the file holding the shared bucket (required). Every process sharing the budget must use
+     * the same file.
+     *
+     * @param path the state file, created if it does not exist
+     * @return this builder
+     */
+    public Builder path(Path path) {
+      this.path = path;
+      return this;
+    }
+
+    /**
+     * Sets the sustained rate shared by all processes. Defaults to {@link
+     * TokenBucketRateLimiter#DEFAULT_PERMITS_PER_SECOND}.
+     *
+     * @param permitsPerSecond permits issued per second
+     * @return this builder
+     */
+    public Builder permitsPerSecond(double permitsPerSecond) {
+      this.permitsPerSecond = permitsPerSecond;
+      return this;
+    }
+
+    /**
+     * Sets the bucket size. Defaults to one second's worth of permits.
+     *
+     * @param burst permits that can be taken back to back after an idle period
+     * @return this builder
+     */
+    public Builder burst(int burst) {
+      this.burst = burst;
+      return this;
+    }
+
+    /**
+     * Sets the longest a caller waits for a permit. Use {@link Duration#ZERO} to fail fast.
+     *
+     * @param maxWait the maximum wait
+     * @return this builder
+     */
+    public Builder maxWait(Duration maxWait) {
+      this.maxWait = maxWait;
+      return this;
+    }
+
+    /**
+     * Maps the state file and builds the limiter.
+     *
+     * @return a new limiter
+     * @throws IllegalArgumentException if a setting is invalid or the file is not limiter state
+     * @throws UncheckedIOException if the file cannot be opened or mapped
+     */
+    public SharedFileRateLimiter build() {
+      return new SharedFileRateLimiter(this, SharedFileRateLimiter::epochNanos);
+    }
+
+    SharedFileRateLimiter build(LongSupplier clock) {
+      return new SharedFileRateLimiter(this, clock);
+    }
+  }
+}
@@ -0,0 +1,25 @@
+package com.telos.loops.resilience;
+
+/**
+ * Point-in-time view of one tenant's share of a {@link com.telos.loops.LoopsClient}'s rate budget.
+ *
+ * <p>Counters are cumulative since the client was built; sample {@link #dispatched()} twice to get
+ * a tenant's throughput. A tenant whose {@link #meanQueueWaitMillis()} climbs while its {@link
+ * #queued()} grows is offering more than its weighted share of the budget.
+ *
+ * @param tenant the tenant tag, {@code "default"} for untagged requests
+ * @param weight the tenant's configured weight
+ * @param queued requests currently waiting for the budget
+ * @param dispatched requests released to the transport
+ * @param expired requests dropped because their deadline passed while queued
+ * @param meanQueueWaitMillis mean time dispatched requests spent waiting for the budget
+ * @param maxQueueWaitMillis longest time a dispatched request spent waiting for the budget
+ */
+public record TenantStats(
+    String tenant,
+    int weight,
+    int queued,
+    long dispatched,
+    long expired,
+    double meanQueueWaitMillis,
+    double maxQueueWaitMillis) {}
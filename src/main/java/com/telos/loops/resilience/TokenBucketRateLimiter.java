@@ -0,0 +1,232 @@
+package com.telos.loops.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free token bucket that paces requests to a fixed rate with a bounded burst.
+ *
+ * <p>The bucket is tracked as a single timestamp, the time at which the bucket will next be empty
+ * (the generic cell rate algorithm). Reserving a permit is one compare-and-set on that timestamp,
+ * so contending callers never block each other.
+ *
+ * <p>When the bucket is empty a caller waits for the next permit, up to {@link #maxWait()}. A
+ * request that would have to wait longer is refused instead; with a max wait of {@link
+ * Duration#ZERO} the limiter fails fast whenever no permit is immediately available.
+ *
+ * <p>Example usage:
+ *
+ * <pre>{@code
+ * // Loops' default budget: 10 requests per second, waiting up to 30 seconds for a permit
+ * RateLimiter limiter = TokenBucketRateLimiter.builder().build();
+ *
+ * // 5 requests per second with bursts of 20, failing fast when exhausted
+ * RateLimiter failFast = TokenBucketRateLimiter.builder()
+ *     .permitsPerSecond(5)
+ *     .burst(20)
+ *     .maxWait(Duration.ZERO)
+ *     .build();
+ *
+ * LoopsClient client = LoopsClient.builder()
+ *     .apiKey("your-api-key")
+ *     .rateLimiter(limiter)
+ *     .build();
+ * }</pre>
+ */
+public final class TokenBucketRateLimiter implements RateLimiter {
+
+  /** Default rate, matching the Loops API's per-team limit of 10 requests per second. */
+  public static final double DEFAULT_PERMITS_PER_SECOND = 10.0;
+
+  /** Default longest wait for a permit before the request is refused. */
+  public static final Duration DEFAULT_MAX_WAIT = Duration.ofSeconds(30);
+
+  private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+  private final double configuredPermitsPerSecond;
+  private final int burst;
+  private final Duration maxWait;
+  private final long maxWaitNanos;
+
+  // Effective rate: the configured rate, capped by any limit the API advertises
+  private volatile double permitsPerSecond;
+  private volatile long intervalNanos;
+  private volatile long burstNanos;
+  private final LongSupplier clock;
+
+  // Time at which the bucket is empty; permits are available while it lies within burstNanos of now
+  private final AtomicLong emptyAt;
+  private final LongAdder rejected = new LongAdder();
+
+  private TokenBucketRateLimiter(Builder builder, LongSupplier clock) {
+    if (!(builder.permitsPerSecond > 0)) {
+      throw new IllegalArgumentException(
+          "permitsPerSecond must be positive, got: " + builder.permitsPerSecond);
+    }
+    int resolvedBurst =
+        builder.burst != null
+            ? builder.burst
+            : (int) Math.max(1, Math.ceil(builder.permitsPerSecond));
+    if (resolvedBurst < 1) {
+      throw new IllegalArgumentException("burst must be positive, got: " + resolvedBurst);
+    }
+    if (builder.maxWait == null || builder.maxWait.isNegative()) {
+      throw new IllegalArgumentException("maxWait must not be negative, got: " + builder.maxWait);
+    }
+    this.configuredPermitsPerSecond = builder.permitsPerSecond;
+    this.burst = resolvedBurst;
+    this.maxWait = builder.maxWait;
+    setRate(builder.permitsPerSecond);
+    this.maxWaitNanos = maxWait.toNanos();
+    this.clock = clock;
+    this.emptyAt = new AtomicLong(clock.getAsLong());
+  }
+
+  /**
+   * Creates a new builder for {@link TokenBucketRateLimiter}.
+   *
+   * @return a new builder
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  @Override
+  public long reserve() {
+    long now = clock.getAsLong();
+    long intervalNanos = this.intervalNanos;
+    long burstNanos = this.burstNanos;
+    while (true) {
+      long current = emptyAt.get();
+      long next = (current - now > 0 ? current : now) + intervalNanos;
+      long wait = next - burstNanos - now;
+      if (wait > maxWaitNanos) {
+        rejected.increment();
+        return -wait;
+      }
+      if (emptyAt.compareAndSet(current, next)) {
+        return Math.max(0, wait);
+      }
+    }
+  }
+
+  /**
+   * Returns the number of permits that could be reserved right now without waiting.
+   *
+   * @return the available permits, between 0 and {@link #burst()}
+   */
+  public int availablePermits() {
+    long now = clock.getAsLong();
+    long intervalNanos = this.intervalNanos;
+    long current = emptyAt.get();
+    long headroom = now + burst * intervalNanos - (current - now > 0 ? current : now);
+    return (int) Math.max(0, Math.min(burst, headroom / intervalNanos));
+  }
+
+  /**
+   * Returns how many reservations have been refused because they would exceed {@link #maxWait()}.
+   *
+   * @return the number of refused reservations
+   */
+  public long rejectedCount() {
+    return rejected.sum();
+  }
+
+  /**
+   * Caps the rate at the limit the API advertises; the configured rate stays the upper bound.
+   *
+   * @param permitsPerSecond the advertised limit in requests per second
+   */
+  @Override
+  public void updateLimit(double permitsPerSecond) {
+    if (permitsPerSecond > 0) {
+      setRate(Math.min(configuredPermitsPerSecond, permitsPerSecond));
+    }
+  }
+
+  /**
+   * Returns the sustained rate currently in effect.
+   *
+   * @return the permits issued per second
+   */
+  public double permitsPerSecond() {
+    return permitsPerSecond;
+  }
+
+  /**
+   * Returns the bucket size.
+   *
+   * @return the number of permits that can be taken back to back after an idle period
+   */
+  public int burst() {
+    return burst;
+  }
+
+  /**
+   * Returns the longest a caller waits for a permit before the request is refused.
+   *
+   * @return the maximum wait, {@link Duration#ZERO} for fail-fast
+   */
+  public Duration maxWait() {
+    return maxWait;
+  }
+
+  private synchronized void setRate(double rate) {
+    long interval = Math.max(1, Math.round(NANOS_PER_SECOND / rate));
+    this.burstNanos = interval * burst;
+    this.intervalNanos = interval;
+    this.permitsPerSecond = rate;
+  }
+
+  /** Builder for {@link TokenBucketRateLimiter}. */
+  public static final class Builder {
+    private double permitsPerSecond = DEFAULT_PERMITS_PER_SECOND;
+    private Integer burst;
+    private Duration maxWait = DEFAULT_MAX_WAIT;
+
+    private Builder() {}
+
+    /**
+     * Sets the sustained rate. Defaults to {@link #DEFAULT_PERMITS_PER_SECOND}.
+     *
+     * @param permitsPerSecond permits issued per second
+     * @return this builder
+     */
+    public Builder permitsPerSecond(double permitsPerSecond) {
+      this.permitsPerSecond = permitsPerSecond;
+      return this;
+    }
+
+    /**
+     * Sets the bucket size. Defaults to one second's worth of permits.
+     *
+     * @param burst permits that can be taken back to back after an idle period
+     * @return this builder
+     */
+    public Builder burst(int burst) {
+      this.burst = burst;
+      return this;
+    }
+
+    /**
+     * Sets the longest a caller waits for a permit. Use {@link Duration#ZERO} to fail fast.
+     *
+     * @param maxWait the maximum wait
+     * @return this builder
+     */
+    public Builder maxWait(Duration maxWait) {
+      this.maxWait = maxWait;
+      return this;
+    }
+
+    public TokenBucketRateLimiter build() {
+      return new TokenBucketRateLimiter(this, System::nanoTime);
+    }
+
+    TokenBucketRateLimiter build(LongSupplier clock) {
+      return new TokenBucketRateLimiter(this, clock);
+    }
+  }
+}
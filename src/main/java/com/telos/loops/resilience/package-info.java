@@ -0,0 +1,55 @@
+/**
+ * Client-side policies that protect the Loops API and the caller from overload.
+ *
+ * <p>Policies in this package are configured on {@link com.telos.loops.LoopsClient.Builder} and
+ * apply to every request the client sends, across all of its sub-clients.
+ *
+ * <h2>Key Classes</h2>
+ *
+ * <ul>
+ *   <li>{@link com.telos.loops.resilience.RateLimiter} - Paces requests to the account's rate limit
+ *   <li>{@link com.telos.loops.resilience.TokenBucketRateLimiter} - Lock-free token bucket with
+ *       configurable rate, burst and wait-or-fail-fast behaviour
+ *   <li>{@link com.telos.loops.resilience.SharedFileRateLimiter} - Token bucket in a memory-mapped
+ *       file, shared by processes on one host
+ *   <li>{@link com.telos.loops.resilience.AdaptiveConcurrencyLimiter} - In-flight limit that adapts
+ *       to latency and overload responses
+ *   <li>{@link com.telos.loops.resilience.AdmissionSettings} - Backlog limits beyond which the
+ *       client sheds requests
+ *   <li>{@link com.telos.loops.resilience.BulkheadSettings} - Size of a per-endpoint pool of
+ *       in-flight requests and its wait queue
+ *   <li>{@link com.telos.loops.resilience.BulkheadStats} - Saturation and rejections of one
+ *       bulkhead
+ *   <li>{@link com.telos.loops.resilience.CircuitBreakerSettings} - When an endpoint's circuit
+ *       breaker opens and how it recovers
+ *   <li>{@link com.telos.loops.resilience.CircuitBreakerListener} - Notified of circuit breaker
+ *       state transitions
+ *   <li>{@link com.telos.loops.resilience.CircuitBreakerStats} - State and failure rates of one
+ *       endpoint's circuit breaker
+ *   <li>{@link com.telos.loops.resilience.HedgePolicy} - When slow GETs are sent a second time, and
+ *       how many
+ *   <li>{@link com.telos.loops.resilience.HedgeStats} - Hedges sent and how many answered first
+ *   <li>{@link com.telos.loops.resilience.TenantStats} - Queue wait and throughput of one tenant
+ *       sharing a client
+ *   <li>{@link com.telos.loops.resilience.RetryPolicy} - Backoff and budget for retrying idempotent
+ *       requests
+ * </ul>
+ *
+ * <h2>Example Usage</h2>
+ *
+ * <pre>{@code
+ * LoopsClient client = LoopsClient.builder()
+ *         .apiKey("your-api-key")
+ *         .rateLimiter(TokenBucketRateLimiter.builder()
+ *                 .permitsPerSecond(10)
+ *                 .burst(10)
+ *                 .maxWait(Duration.ofSeconds(5))
+ *                 .build())
+ *         .retryPolicy(RetryPolicy.defaults())
+ *         .build();
+ *
+ * // Waits for a permit instead of being rejected with HTTP 429
+ * client.events().send(event);
+ * }</pre>
+ */
+package com.telos.loops.resilience;
@@ -132,7 +132,8 @@ public class TransactionalClient {
             TRANSACTIONAL_PATH,
             generatedRequest,
             com.telos.loops.internal.openapi.model.TransactionalSuccessResponse.class,
-            optionsWithIdempotency);
+            optionsWithIdempotency,
+            attachmentBytes(request));
     return TransactionalMapper.fromGenerated(generatedResponse);
   }
 
@@ -181,13 +182,14 @@ public class TransactionalClient {
     var generatedRequest = TransactionalMapper.toGenerated(request);
     var optionsWithIdempotency = addIdempotencyKey(options, idempotencyKey);
 
-    return sender
-        .postJsonAsync(
+    return CoreSender.map(
+        sender.postJsonAsync(
             TRANSACTIONAL_PATH,
             generatedRequest,
             com.telos.loops.internal.openapi.model.TransactionalSuccessResponse.class,
-            optionsWithIdempotency)
-        .thenApply(TransactionalMapper::fromGenerated);
+            optionsWithIdempotency,
+            attachmentBytes(request)),
+        TransactionalMapper::fromGenerated);
   }
 
   // ============================================================
@@ -301,19 +303,33 @@ public class TransactionalClient {
       queryParams.put("cursor", cursor);
     }
 
-    return sender
-        .getAsync(
+    return CoreSender.map(
+        sender.getAsync(
             TRANSACTIONAL_PATH,
             queryParams,
             com.telos.loops.internal.openapi.model.ListTransactionalsResponse.class,
-            options)
-        .thenApply(TransactionalMapper::fromGenerated);
+            options),
+        TransactionalMapper::fromGenerated);
   }
 
   // ============================================================
   // Helper Methods
   // ============================================================
 
+  /**
+   * Estimates the bytes the request's attachments add to its body: base64 data serializes to one
+   * byte per character.
+   */
+  private static long attachmentBytes(TransactionalSendRequest request) {
+    long bytes = 0;
+    for (TransactionalSendRequest.Attachment attachment : request.attachments()) {
+      if (attachment.data() != null) {
+        bytes += attachment.data().length();
+      }
+    }
+    return bytes;
+  }
+
   private void validateIdempotencyKey(String idempotencyKey) {
     if (idempotencyKey != null && idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
       throw new LoopsValidationException(
@@ -338,6 +354,6 @@ public class TransactionalClient {
 
     Map<String, String> headers = new HashMap<>(options.headers());
     headers.put("Idempotency-Key", idempotencyKey);
-    return new RequestOptions(headers);
+    return options.withHeaders(headers);
   }
 }
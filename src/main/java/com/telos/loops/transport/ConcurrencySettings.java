@@ -0,0 +1,156 @@
+package com.telos.loops.transport;
+
+import java.time.Duration;
+
+/**
+ * Concurrency limits for the asynchronous request path of {@link OkHttpTransport}.
+ *
+ * <p>OkHttp's own defaults (64 requests overall, 5 per host) are tuned for browsers talking to many
+ * hosts. Every Loops call goes to a single host, so these settings raise the per-host ceiling and
+ * bound the queue of calls waiting for a slot.
+ *
+ * <p>With {@link #autoTune()} enabled, the per-host limit and queue depth are resized from the
+ * observed latency and the account's rate limit using Little's law: the concurrency needed to
+ * sustain a rate is {@code rate * latency}. The rate is the limit the API advertises in its {@code
+ * x-ratelimit-limit} header, or {@code rateLimitPerSecond} until a response has carried it. The
+ * configured {@link #maxRequests()} stays the upper bound.
+ *
+ * <p>Example usage:
+ *
+ * <pre>{@code
+ * ConcurrencySettings settings = ConcurrencySettings.builder()
+ *     .maxRequests(128)
+ *     .maxRequestsPerHost(32)
+ *     .maxQueuedRequests(1_000)
+ *     .build();
+ *
+ * // Size limits from observed latency for a 10 requests/second budget
+ * ConcurrencySettings tuned = ConcurrencySettings.builder()
+ *     .autoTune(true)
+ *     .rateLimitPerSecond(10)
+ *     .build();
+ * }</pre>
+ *
+ * @param maxRequests maximum number of requests executing at once across all hosts
+ * @param maxRequestsPerHost maximum number of requests executing at once to one host; the builder
+ *     defaults it to {@value #DEFAULT_MAX_REQUESTS_PER_HOST} or {@code maxRequests}, whichever is
+ *     lower
+ * @param maxQueuedRequests maximum number of calls waiting for a slot; further calls are rejected
+ * @param autoTune whether to resize the per-host limit and queue depth from observed latency
+ * @param rateLimitPerSecond the account's request budget used by auto-tuning until the API
+ *     advertises its limit
+ * @param maxQueueDelay the longest a call should wait in the queue; with auto-tuning the queue
+ *     depth is sized to what can be drained within this delay at the rate limit
+ */
+public record ConcurrencySettings(
+    int maxRequests,
+    int maxRequestsPerHost,
+    int maxQueuedRequests,
+    boolean autoTune,
+    double rateLimitPerSecond,
+    Duration maxQueueDelay) {
+
+  /** Default overall limit, matching OkHttp's dispatcher default. */
+  public static final int DEFAULT_MAX_REQUESTS = 64;
+
+  /** Default per-host limit; all Loops calls share one host, so it matches the overall limit. */
+  public static final int DEFAULT_MAX_REQUESTS_PER_HOST = 64;
+
+  /** Default Loops API rate limit in requests per second. */
+  public static final double DEFAULT_RATE_LIMIT_PER_SECOND = 10.0;
+
+  /** Default maximum queueing delay used to size the queue when auto-tuning. */
+  public static final Duration DEFAULT_MAX_QUEUE_DELAY = Duration.ofSeconds(10);
+
+  public ConcurrencySettings {
+    if (maxRequests < 1) {
+      throw new IllegalArgumentException("maxRequests must be positive, got: " + maxRequests);
+    }
+    if (maxRequestsPerHost < 1 || maxRequestsPerHost > maxRequests) {
+      throw new IllegalArgumentException(
+          "maxRequestsPerHost must be between 1 and maxRequests, got: " + maxRequestsPerHost);
+    }
+    if (maxQueuedRequests < 0) {
+      throw new IllegalArgumentException(
+          "maxQueuedRequests must not be negative, got: " + maxQueuedRequests);
+    }
+    if (!(rateLimitPerSecond > 0)) {
+      throw new IllegalArgumentException(
+          "rateLimitPerSecond must be positive, got: " + rateLimitPerSecond);
+    }
+    maxQueueDelay = maxQueueDelay == null ? DEFAULT_MAX_QUEUE_DELAY : maxQueueDelay;
+  }
+
+  /**
+   * Returns the default settings: 64 requests overall and per host, unbounded queue, no
+   * auto-tuning.
+   *
+   * @return the default settings
+   */
+  public static ConcurrencySettings defaults() {
+    return builder().build();
+  }
+
+  /**
+   * Creates a new builder for {@link ConcurrencySettings}.
+   *
+   * @return a new builder
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /** Builder for {@link ConcurrencySettings}. */
+  public static final class Builder {
+    private int maxRequests = DEFAULT_MAX_REQUESTS;
+    private Integer maxRequestsPerHost;
+    private int maxQueuedRequests = Integer.MAX_VALUE;
+    private boolean autoTune;
+    private double rateLimitPerSecond = DEFAULT_RATE_LIMIT_PER_SECOND;
+    private Duration maxQueueDelay = DEFAULT_MAX_QUEUE_DELAY;
+
+    private Builder() {}
+
+    public Builder maxRequests(int maxRequests) {
+      this.maxRequests = maxRequests;
+      return this;
+    }
+
+    public Builder maxRequestsPerHost(int maxRequestsPerHost) {
+      this.maxRequestsPerHost = maxRequestsPerHost;
+      return this;
+    }
+
+    public Builder maxQueuedRequests(int maxQueuedRequests) {
+      this.maxQueuedRequests = maxQueuedRequests;
+      return this;
+    }
+
+    public Builder autoTune(boolean autoTune) {
+      this.autoTune = autoTune;
+      return this;
+    }
+
+    public Builder rateLimitPerSecond(double rateLimitPerSecond) {
+      this.rateLimitPerSecond = rateLimitPerSecond;
+      return this;
+    }
+
+    public Builder maxQueueDelay(Duration maxQueueDelay) {
+      this.maxQueueDelay = maxQueueDelay;
+      return this;
+    }
+
+    public ConcurrencySettings build() {
+      return new ConcurrencySettings(
+          maxRequests,
+          maxRequestsPerHost != null
+              ? maxRequestsPerHost
+              : Math.min(DEFAULT_MAX_REQUESTS_PER_HOST, maxRequests),
+          maxQueuedRequests,
+          autoTune,
+          rateLimitPerSecond,
+          maxQueueDelay);
+    }
+  }
+}
@@ -0,0 +1,23 @@
+package com.telos.loops.transport;
+
+/**
+ * Point-in-time view of an {@link OkHttpTransport}'s asynchronous dispatcher.
+ *
+ * <p>Comparing {@link #queuedCalls()} against {@link #runningCalls()} shows whether the concurrency
+ * ceiling, rather than the API, is what limits throughput.
+ *
+ * @param runningCalls calls currently executing, including synchronous calls
+ * @param queuedCalls asynchronous calls waiting for a free slot
+ * @param maxRequests current overall limit
+ * @param maxRequestsPerHost current per-host limit (changes over time when auto-tuning)
+ * @param maxQueuedRequests current queue bound (changes over time when auto-tuning)
+ * @param latencyMillis exponentially weighted moving average of request latency, or 0 before the
+ *     first response
+ */
+public record ConcurrencyStats(
+    int runningCalls,
+    int queuedCalls,
+    int maxRequests,
+    int maxRequestsPerHost,
+    int maxQueuedRequests,
+    double latencyMillis) {}
@@ -0,0 +1,84 @@
+package com.telos.loops.transport;
+
+import java.time.Duration;
+
+/**
+ * Connection pool sizing for {@link OkHttpTransport}.
+ *
+ * <p>OkHttp's default pool keeps at most 5 idle connections for 5 minutes. A client that bursts
+ * dozens of concurrent calls at the single Loops host pays for a TCP and TLS handshake on every
+ * connection beyond those 5 after each quiet spell. Raising {@link #maxIdleConnections()} to the
+ * expected concurrency keeps those connections, including the ones opened by a {@link
+ * WarmUpSettings warm-up}, ready for reuse.
+ *
+ * <p>Example usage:
+ *
+ * <pre>{@code
+ * ConnectionPoolSettings pool = ConnectionPoolSettings.builder()
+ *     .maxIdleConnections(32)
+ *     .keepAlive(Duration.ofMinutes(10))
+ *     .build();
+ * }</pre>
+ *
+ * @param maxIdleConnections maximum number of idle connections kept for reuse
+ * @param keepAlive how long an idle connection is kept before it is closed
+ */
+public record ConnectionPoolSettings(int maxIdleConnections, Duration keepAlive) {
+
+  /** Default number of idle connections kept. */
+  public static final int DEFAULT_MAX_IDLE_CONNECTIONS = 16;
+
+  /** Default time an idle connection is kept, matching OkHttp's default. */
+  public static final Duration DEFAULT_KEEP_ALIVE = Duration.ofMinutes(5);
+
+  public ConnectionPoolSettings {
+    if (maxIdleConnections < 0) {
+      throw new IllegalArgumentException(
+          "maxIdleConnections must not be negative, got: " + maxIdleConnections);
+    }
+    keepAlive = keepAlive == null ? DEFAULT_KEEP_ALIVE : keepAlive;
+    if (keepAlive.isNegative() || keepAlive.isZero()) {
+      throw new IllegalArgumentException("keepAlive must be positive, got: " + keepAlive);
+    }
+  }
+
+  /**
+   * Returns the default settings: 16 idle connections kept for 5 minutes.
+   *
+   * @return the default settings
+   */
+  public static ConnectionPoolSettings defaults() {
+    return builder().build();
+  }
+
+  /**
+   * Creates a new builder for {@link ConnectionPoolSettings}.
+   *
+   * @return a new builder
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /** Builder for {@link ConnectionPoolSettings}. */
+  public static final class Builder {
+    private int maxIdleConnections = DEFAULT_MAX_IDLE_CONNECTIONS;
+    private Duration keepAlive = DEFAULT_KEEP_ALIVE;
+
+    private Builder() {}
+
+    public Builder maxIdleConnections(int maxIdleConnections) {
+      this.maxIdleConnections = maxIdleConnections;
+      return this;
+    }
+
+    public Builder keepAlive(Duration keepAlive) {
+      this.keepAlive = keepAlive;
+      return this;
+    }
+
+    public ConnectionPoolSettings build() {
+      return new ConnectionPoolSettings(maxIdleConnections, keepAlive);
+    }
+  }
+}
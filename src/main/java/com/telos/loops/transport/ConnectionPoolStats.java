@@ -0,0 +1,13 @@
+package com.telos.loops.transport;
+
+/**
+ * Point-in-time view of an {@link OkHttpTransport}'s connection pool.
+ *
+ * <p>Idle connections are ready for the next call without a handshake. A pool that keeps falling to
+ * zero idle connections between bursts is too small for the traffic; see {@link
+ * ConnectionPoolSettings#maxIdleConnections()}.
+ *
+ * @param connections open connections, in use or idle
+ * @param idleConnections open connections not carrying a call
+ */
+public record ConnectionPoolStats(int connections, int idleConnections) {}
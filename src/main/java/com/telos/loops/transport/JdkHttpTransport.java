@@ -0,0 +1,238 @@
+package com.telos.loops.transport;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublisher;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+
+/**
+ * HTTP transport implementation built on the JDK's {@link HttpClient}.
+ *
+ * <p>This transport has no third-party dependencies. It negotiates HTTP/2 by default, so many
+ * concurrent calls to the Loops API are multiplexed over a handful of connections, and its async
+ * path is fully non-blocking: no thread is held while a request is in flight.
+ *
+ * <h2>Features</h2>
+ *
+ * <ul>
+ *   <li>HTTP/2 with multiplexing (falls back to HTTP/1.1 when the server does not support it)
+ *   <li>Non-blocking {@link #executeAsync} backed by {@link HttpClient#sendAsync}
+ *   <li>Optional virtual-thread executor for response handling
+ *   <li>Request and response bodies passed as byte arrays without intermediate copies
+ * </ul>
+ *
+ * <h2>Usage</h2>
+ *
+ * <pre>{@code
+ * // HTTP/2 client with default settings
+ * JdkHttpTransport transport = new JdkHttpTransport();
+ *
+ * // HTTP/2 client that runs response handling on virtual threads
+ * JdkHttpTransport virtual = JdkHttpTransport.withVirtualThreads();
+ *
+ * // Fully custom client
+ * HttpClient httpClient = JdkHttpTransport.defaultClientBuilder()
+ *     .connectTimeout(Duration.ofSeconds(5))
+ *     .build();
+ * JdkHttpTransport custom = new JdkHttpTransport(httpClient, Duration.ofSeconds(20));
+ * }</pre>
+ *
+ * <h2>Thread Safety</h2>
+ *
+ * <p>This class is thread-safe and can be shared across clients. The underlying {@link HttpClient}
+ * manages its connection pool internally.
+ *
+ * @see Transport
+ * @see OkHttpTransport
+ */
+public class JdkHttpTransport implements Transport {
+
+  /** Default connect timeout for clients created by {@link #defaultClientBuilder()}. */
+  public static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(10);
+
+  /** Default per-request timeout, covering the time until response headers are received. */
+  public static final Duration DEFAULT_REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+  // Shortest timeout given to a request whose deadline has already passed
+  private static final Duration MIN_TIMEOUT = Duration.ofNanos(1);
+
+  // Headers the JDK client manages itself and rejects when set explicitly
+  private static final Set<String> RESTRICTED_HEADERS =
+      Set.of("connection", "content-length", "expect", "host", "upgrade");
+
+  private final HttpClient client;
+  private final Duration requestTimeout;
+
+  /**
+   * Creates a new JdkHttpTransport with an HTTP/2 client and default timeouts.
+   *
+   * @see #defaultClientBuilder()
+   */
+  public JdkHttpTransport() {
+    this(defaultClientBuilder().build());
+  }
+
+  /**
+   * Creates a new JdkHttpTransport with a custom HttpClient and the default request timeout.
+   *
+   * @param client the HttpClient to use for HTTP communication
+   */
+  public JdkHttpTransport(HttpClient client) {
+    this(client, DEFAULT_REQUEST_TIMEOUT);
+  }
+
+  /**
+   * Creates a new JdkHttpTransport with a custom HttpClient and request timeout.
+   *
+   * @param client the HttpClient to use for HTTP communication
+   * @param requestTimeout the per-request timeout, or null for no timeout
+   */
+  public JdkHttpTransport(HttpClient client, Duration requestTimeout) {
+    this.client = client;
+    this.requestTimeout = requestTimeout;
+  }
+
+  /**
+   * Creates a JdkHttpTransport whose client runs its internal tasks and response handling on
+   * virtual threads.
+   *
+   * @return a new JdkHttpTransport backed by a virtual-thread executor
+   */
+  public static JdkHttpTransport withVirtualThreads() {
+    return new JdkHttpTransport(
+        defaultClientBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build());
+  }
+
+  /**
+   * Returns an {@link HttpClient.Builder} preconfigured the way this transport uses it by default:
+   * HTTP/2 preferred, normal redirect handling, and a {@link #DEFAULT_CONNECT_TIMEOUT} connect
+   * timeout.
+   *
+   * @return a new preconfigured builder
+   */
+  public static HttpClient.Builder defaultClientBuilder() {
+    return HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_2)
+        .followRedirects(HttpClient.Redirect.NORMAL)
+        .connectTimeout(DEFAULT_CONNECT_TIMEOUT);
+  }
+
+  /**
+   * Executes an HTTP request synchronously using the JDK HttpClient.
+   *
+   * @param request the HTTP request to execute
+   * @return the HTTP response containing status code, headers, and body
+   * @throws RuntimeException if the request fails due to network error, timeout, or interruption
+   */
+  @Override
+  public TransportResponse execute(TransportRequest request) {
+    try {
+      return buildResponse(client.send(buildRequest(request), BodyHandlers.ofByteArray()));
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to execute request", e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while executing request", e);
+    }
+  }
+
+  /**
+   * Executes an HTTP request asynchronously using the JDK HttpClient.
+   *
+   * <p>The returned future is completed by the client's executor once the full response body has
+   * been received. No thread is blocked while the request is in flight.
+   *
+   * @param request the HTTP request to execute
+   * @return a CompletableFuture that will complete with the HTTP response, or complete
+   *     exceptionally if the request fails
+   */
+  @Override
+  public CompletableFuture<TransportResponse> executeAsync(TransportRequest request) {
+    CompletableFuture<HttpResponse<byte[]>> exchange =
+        client.sendAsync(buildRequest(request), BodyHandlers.ofByteArray());
+    CompletableFuture<TransportResponse> response =
+        exchange.thenApply(JdkHttpTransport::buildResponse);
+    // Cancelling the returned stage must reach the HttpClient's own future to abort the exchange
+    response.whenComplete(
+        (ignored, error) -> {
+          if (response.isCancelled()) {
+            exchange.cancel(true);
+          }
+        });
+    return response;
+  }
+
+  private HttpRequest buildRequest(TransportRequest request) {
+    HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(request.url()));
+    Duration timeout = requestTimeout;
+    Duration remaining = request.remainingTime();
+    if (remaining != null) {
+      // HttpRequest rejects a zero timeout; an expired deadline times out at once
+      Duration bounded = remaining.compareTo(MIN_TIMEOUT) < 0 ? MIN_TIMEOUT : remaining;
+      timeout = timeout == null || bounded.compareTo(timeout) < 0 ? bounded : timeout;
+    }
+    if (timeout != null) {
+      builder.timeout(timeout);
+    }
+
+    request
+        .headers()
+        .forEach(
+            (name, value) -> {
+              if (!RESTRICTED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                builder.header(name, value);
+              }
+            });
+
+    byte[] body = request.body();
+    BodyPublisher publisher =
+        body.length == 0 ? BodyPublishers.noBody() : BodyPublishers.ofByteArray(body);
+    if (body.length > 0 && !request.headers().containsKey("Content-Type")) {
+      builder.header("Content-Type", "application/json; charset=utf-8");
+    }
+
+    switch (request.httpMethod()) {
+      case GET -> builder.GET();
+      case POST -> builder.POST(publisher);
+      case PUT -> builder.PUT(publisher);
+      case DELETE -> {
+        if (body.length > 0) {
+          builder.method("DELETE", publisher);
+        } else {
+          builder.DELETE();
+        }
+      }
+    }
+
+    return builder.build();
+  }
+
+  private static TransportResponse buildResponse(HttpResponse<byte[]> response) {
+    return new TransportResponse(
+        response.statusCode(), firstValues(response.headers()), response.body());
+  }
+
+  private static Map<String, String> firstValues(HttpHeaders headers) {
+    Map<String, String> values = new HashMap<>();
+    for (Map.Entry<String, List<String>> entry : headers.map().entrySet()) {
+      // HTTP/2 pseudo-headers such as ":status" are not exposed as regular headers
+      if (!entry.getValue().isEmpty() && !entry.getKey().startsWith(":")) {
+        values.put(entry.getKey(), entry.getValue().get(0));
+      }
+    }
+    return values;
+  }
+}
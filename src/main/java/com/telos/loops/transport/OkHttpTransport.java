@@ -1,11 +1,17 @@
 package com.telos.loops.transport;
 
+import com.telos.loops.error.OverloadedException;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import okhttp3.Call;
 import okhttp3.Callback;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
@@ -54,10 +60,49 @@ import okhttp3.ResponseBody;
  *     .writeTimeout(60, TimeUnit.SECONDS)
  *     .build();
  *
- * OkHttpTransport transport = new OkHttpTransport(customClient);
- * // Note: Custom transport injection not yet available in LoopsClient
+ * LoopsClient client = LoopsClient.builder()
+ *         .apiKey("your-api-key")
+ *         .okHttpClient(customClient)
+ *         .build();
+ * }</pre>
+ *
+ * <h2>Concurrency Limits</h2>
+ *
+ * <p>Asynchronous calls go through OkHttp's {@link Dispatcher}. Because every Loops call targets
+ * the same host, the default transport raises the per-host limit to {@value
+ * ConcurrencySettings#DEFAULT_MAX_REQUESTS_PER_HOST} (OkHttp's own default is 5). Use {@link
+ * ConcurrencySettings} to set the limits and queue depth explicitly, or to let the transport size
+ * them from observed latency:
+ *
+ * <pre>{@code
+ * OkHttpTransport transport = new OkHttpTransport(
+ *     new OkHttpClient(),
+ *     ConcurrencySettings.builder().autoTune(true).rateLimitPerSecond(10).build());
+ *
+ * ConcurrencyStats stats = transport.concurrencyStats();
+ * System.out.println(stats.queuedCalls() + " queued, " + stats.runningCalls() + " running");
  * }</pre>
  *
+ * <h2>Connection Pool</h2>
+ *
+ * <p>OkHttp keeps 5 idle connections by default. Use {@link ConnectionPoolSettings} to keep more of
+ * the connections a burst of calls opens, and {@link #connectionPoolStats()} to see how many are
+ * open and idle:
+ *
+ * <pre>{@code
+ * OkHttpTransport transport = new OkHttpTransport(
+ *     new OkHttpClient(),
+ *     ConcurrencySettings.defaults(),
+ *     ConnectionPoolSettings.builder().maxIdleConnections(32).build());
+ * }</pre>
+ *
+ * <h2>Deadlines and Cancellation</h2>
+ *
+ * <p>A request with a {@link TransportRequest#deadline() deadline} gets an OkHttp call timeout of
+ * the time left, or the client's own call timeout if that is shorter, so the whole call (connect,
+ * write and read) is abandoned once the deadline passes. Cancelling the future returned by {@link
+ * #executeAsync} cancels the {@link Call}, which frees its connection and dispatcher slot.
+ *
  * <h2>Proxy Configuration</h2>
  *
  * <pre>{@code
@@ -97,28 +142,117 @@ import okhttp3.ResponseBody;
  */
 public class OkHttpTransport implements Transport {
 
+  // Re-evaluate auto-tuned limits after this many completed calls
+  private static final int RETUNE_INTERVAL = 16;
+  // Concurrency headroom over the Little's-law estimate, to absorb bursts and latency jitter
+  private static final double AUTO_TUNE_HEADROOM = 2.0;
+  private static final int MIN_AUTO_TUNED_PER_HOST = 2;
+  private static final double LATENCY_EWMA_WEIGHT = 0.2;
+  // Per-second limit the Loops API advertises on every response
+  private static final String RATE_LIMIT_HEADER = "x-ratelimit-limit";
+
   private final OkHttpClient client;
+  private final ConcurrencySettings settings;
+  private final AtomicLong latencyEwmaBits = new AtomicLong(Double.doubleToLongBits(0.0));
+  private final AtomicLong completions = new AtomicLong();
+  private volatile int maxQueuedRequests;
+  // Limit learned from response headers, 0 until one carries it; preferred when auto-tuning
+  private volatile int learnedRateLimit;
 
   /**
    * Creates a new OkHttpTransport with a default OkHttpClient.
    *
-   * <p>The default client uses OkHttp's default configuration with sensible timeouts and
-   * connection pooling.
+   * <p>The default client uses OkHttp's default timeouts and connection pooling, with the
+   * dispatcher limits from {@link ConcurrencySettings#defaults()}.
    */
   public OkHttpTransport() {
-    this(new OkHttpClient());
+    this(new OkHttpClient(), ConcurrencySettings.defaults());
   }
 
   /**
    * Creates a new OkHttpTransport with a custom OkHttpClient.
    *
    * <p>Use this constructor to provide a customized OkHttpClient with specific timeouts, proxy
-   * settings, interceptors, or other configuration.
+   * settings, interceptors, or other configuration. The client's dispatcher is used as-is.
    *
    * @param client the OkHttpClient to use for HTTP communication
    */
   public OkHttpTransport(OkHttpClient client) {
     this.client = client;
+    this.settings = null;
+    this.maxQueuedRequests = Integer.MAX_VALUE;
+  }
+
+  /**
+   * Creates a new OkHttpTransport with a custom OkHttpClient and concurrency limits.
+   *
+   * <p>The transport derives a client with its own {@link Dispatcher} configured from {@code
+   * settings}. The derived client shares the given client's connection pool, so several transports
+   * built from one client still share connections.
+   *
+   * @param client the OkHttpClient to derive from
+   * @param settings the concurrency limits to apply
+   */
+  public OkHttpTransport(OkHttpClient client, ConcurrencySettings settings) {
+    this(client, settings, null);
+  }
+
+  /**
+   * Creates a new OkHttpTransport with a custom OkHttpClient, concurrency limits and connection
+   * pool.
+   *
+   * <p>The transport derives a client with its own {@link Dispatcher} configured from {@code
+   * settings}, or keeps the given client's dispatcher if {@code settings} is null. With {@code
+   * pool} set, the derived client gets a {@link ConnectionPool} of its own sized from it; otherwise
+   * it shares the given client's pool.
+   *
+   * @param client the OkHttpClient to derive from
+   * @param settings the concurrency limits to apply, or null to keep the client's dispatcher
+   * @param pool the connection pool sizing, or null to share the client's pool
+   */
+  public OkHttpTransport(
+      OkHttpClient client, ConcurrencySettings settings, ConnectionPoolSettings pool) {
+    OkHttpClient.Builder builder = client.newBuilder();
+    if (settings != null) {
+      Dispatcher dispatcher = new Dispatcher();
+      dispatcher.setMaxRequests(settings.maxRequests());
+      dispatcher.setMaxRequestsPerHost(settings.maxRequestsPerHost());
+      builder.dispatcher(dispatcher);
+    }
+    if (pool != null) {
+      builder.connectionPool(
+          new ConnectionPool(
+              pool.maxIdleConnections(), pool.keepAlive().toNanos(), TimeUnit.NANOSECONDS));
+    }
+    this.client = builder.build();
+    this.settings = settings;
+    this.maxQueuedRequests = settings != null ? settings.maxQueuedRequests() : Integer.MAX_VALUE;
+  }
+
+  /**
+   * Returns the current state of the asynchronous dispatcher.
+   *
+   * @return running and queued call counts, current limits and the latency estimate
+   */
+  public ConcurrencyStats concurrencyStats() {
+    Dispatcher dispatcher = client.dispatcher();
+    return new ConcurrencyStats(
+        dispatcher.runningCallsCount(),
+        dispatcher.queuedCallsCount(),
+        dispatcher.getMaxRequests(),
+        dispatcher.getMaxRequestsPerHost(),
+        maxQueuedRequests,
+        latencyEwmaNanos() / 1_000_000.0);
+  }
+
+  /**
+   * Returns the current state of the connection pool.
+   *
+   * @return open and idle connection counts
+   */
+  public ConnectionPoolStats connectionPoolStats() {
+    ConnectionPool pool = client.connectionPool();
+    return new ConnectionPoolStats(pool.connectionCount(), pool.idleConnectionCount());
   }
 
   /**
@@ -134,7 +268,7 @@ public class OkHttpTransport implements Transport {
   @Override
   public TransportResponse execute(TransportRequest request) {
     Request okHttpRequest = buildRequest(request);
-    try (Response response = client.newCall(okHttpRequest).execute()) {
+    try (Response response = newCall(okHttpRequest, request).execute()) {
       return buildResponse(response);
     } catch (IOException e) {
       throw new RuntimeException("Failed into execute request", e);
@@ -150,39 +284,118 @@ public class OkHttpTransport implements Transport {
    * <p>The request is executed on OkHttp's internal thread pool. The CompletableFuture is
    * completed on the same thread that receives the response.
    *
+   * <p>If the dispatcher queue already holds the configured maximum number of waiting calls, the
+   * returned future fails immediately with an {@link OverloadedException}: the request was not
+   * sent.
+   *
    * @param request the HTTP request to execute
    * @return a CompletableFuture that will complete with the HTTP response, or complete
    *     exceptionally if the request fails
    */
   @Override
   public CompletableFuture<TransportResponse> executeAsync(TransportRequest request) {
+    int queued = client.dispatcher().queuedCallsCount();
+    if (queued >= maxQueuedRequests) {
+      return CompletableFuture.failedFuture(
+          new OverloadedException(
+              "OkHttp dispatcher queue is full (" + queued + " calls waiting)"));
+    }
+
     CompletableFuture<TransportResponse> future = new CompletableFuture<>();
     Request okHttpRequest = buildRequest(request);
 
-    client
-        .newCall(okHttpRequest)
-        .enqueue(
-            new Callback() {
-              @Override
-              public void onFailure(Call call, IOException e) {
-                future.completeExceptionally(e);
-              }
-
-              @Override
-              public void onResponse(Call call, Response response) throws IOException {
-                try {
-                  future.complete(buildResponse(response));
-                } catch (Exception e) {
-                  future.completeExceptionally(e);
-                } finally {
-                  response.close();
-                }
-              }
-            });
+    Call call = newCall(okHttpRequest, request);
+    call.enqueue(
+        new Callback() {
+          @Override
+          public void onFailure(Call call, IOException e) {
+            future.completeExceptionally(e);
+          }
+
+          @Override
+          public void onResponse(Call call, Response response) throws IOException {
+            try {
+              future.complete(buildResponse(response));
+            } catch (Exception e) {
+              future.completeExceptionally(e);
+            } finally {
+              response.close();
+            }
+          }
+        });
+    // Cancelling the future abandons the call and frees its connection
+    future.whenComplete(
+        (response, error) -> {
+          if (future.isCancelled()) {
+            call.cancel();
+          }
+        });
 
     return future;
   }
 
+  /** Creates the call, bounding its whole duration by the request's deadline. */
+  private Call newCall(Request okHttpRequest, TransportRequest request) {
+    Call call = client.newCall(okHttpRequest);
+    Duration remaining = request.remainingTime();
+    if (remaining != null) {
+      long nanos = Math.max(1, remaining.toNanos());
+      long configured = call.timeout().timeoutNanos();
+      call.timeout()
+          .timeout(configured > 0 ? Math.min(configured, nanos) : nanos, TimeUnit.NANOSECONDS);
+    }
+    return call;
+  }
+
+  private void recordLatency(long nanos) {
+    if (nanos < 0) {
+      return;
+    }
+    long current;
+    long next;
+    do {
+      current = latencyEwmaBits.get();
+      double ewma = Double.longBitsToDouble(current);
+      double updated = ewma == 0.0 ? nanos : ewma + LATENCY_EWMA_WEIGHT * (nanos - ewma);
+      next = Double.doubleToLongBits(updated);
+    } while (!latencyEwmaBits.compareAndSet(current, next));
+
+    if (settings != null
+        && settings.autoTune()
+        && completions.incrementAndGet() % RETUNE_INTERVAL == 0) {
+      retune();
+    }
+  }
+
+  private double latencyEwmaNanos() {
+    return Double.longBitsToDouble(latencyEwmaBits.get());
+  }
+
+  /**
+   * Resizes the per-host limit to the concurrency needed to sustain the rate limit at the current
+   * latency (Little's law, with headroom), using the limit the API advertises once a response has
+   * carried it, and the queue to what the resulting throughput drains within the configured maximum
+   * queueing delay.
+   */
+  private void retune() {
+    double latencySeconds = latencyEwmaNanos() / 1e9;
+    if (latencySeconds <= 0) {
+      return;
+    }
+    int learned = learnedRateLimit;
+    double rate = learned > 0 ? learned : settings.rateLimitPerSecond();
+    double needed = rate * latencySeconds * AUTO_TUNE_HEADROOM;
+    int perHost =
+        (int)
+            Math.max(MIN_AUTO_TUNED_PER_HOST, Math.min(settings.maxRequests(), Math.ceil(needed)));
+    client.dispatcher().setMaxRequestsPerHost(perHost);
+
+    double drainPerSecond = perHost / latencySeconds;
+    double queueDelaySeconds = settings.maxQueueDelay().toNanos() / 1e9;
+    maxQueuedRequests =
+        (int) Math.max(perHost, Math.min(Integer.MAX_VALUE, drainPerSecond * queueDelaySeconds));
+  }
+
   private Request buildRequest(TransportRequest request) {
     Request.Builder builder = new Request.Builder().url(request.url());
 
@@ -216,10 +429,18 @@ public class OkHttpTransport implements Transport {
   }
 
   private TransportResponse buildResponse(Response response) throws IOException {
+    // Time on the wire, excluding any wait in the dispatcher queue
+    recordLatency(
+        TimeUnit.MILLISECONDS.toNanos(
+            response.receivedResponseAtMillis() - response.sentRequestAtMillis()));
+
     Map<String, String> headers = new HashMap<>();
     for (String name : response.headers().names()) {
       headers.put(name, response.header(name));
     }
+    if (settings != null && settings.autoTune()) {
+      learnRateLimit(response.header(RATE_LIMIT_HEADER));
+    }
 
     byte[] responseBody = new byte[0];
     ResponseBody body = response.body();
@@ -229,4 +450,18 @@ public class OkHttpTransport implements Transport {
 
     return new TransportResponse(response.code(), headers, responseBody);
   }
+
+  private void learnRateLimit(String value) {
+    if (value == null) {
+      return;
+    }
+    try {
+      int limit = Integer.parseInt(value.trim());
+      if (limit > 0) {
+        learnedRateLimit = limit;
+      }
+    } catch (NumberFormatException e) {
+      // Ignore a malformed header and keep the last known limit
+    }
+  }
 }
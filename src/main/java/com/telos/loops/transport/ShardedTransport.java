@@ -0,0 +1,197 @@
+package com.telos.loops.transport;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import okhttp3.OkHttpClient;
+
+/**
+ * Transport that spreads requests over several independent transports, each with connections of its
+ * own.
+ *
+ * <p>Over HTTP/2 every call to the Loops host shares a single connection. At high concurrency that
+ * connection's flow-control window caps throughput, and one lost packet stalls every stream on it.
+ * Sharding over {@code N} connection pools gives {@code N} connections, and with them {@code N}
+ * windows and independent TCP streams.
+ *
+ * <p>Each request goes to the shard with the fewest requests in flight, so a shard whose connection
+ * has stalled stops receiving new work while its calls drain. Ties go to the shards in turn.
+ * Cancelling the future returned by {@link #executeAsync} cancels the shard's call.
+ *
+ * <p>Shards built by {@link #okHttp} get a dispatcher of their own with the SDK's {@link
+ * ConcurrencySettings} defaults, not OkHttp's limit of 5 calls per host, which would otherwise cap
+ * every shard together at 5 calls in flight.
+ *
+ * <pre>{@code
+ * OkHttpClient h2 = new OkHttpClient.Builder()
+ *     .protocols(List.of(Protocol.HTTP_2, Protocol.HTTP_1_1))
+ *     .build();
+ *
+ * LoopsClient client = LoopsClient.builder()
+ *     .apiKey("your-api-key")
+ *     .transport(ShardedTransport.okHttp(h2, 4))
+ *     .build();
+ * }</pre>
+ *
+ * <p>Sharding only pays off at concurrency high enough to saturate one connection. Over HTTP/1.1,
+ * where every in-flight call already has a connection of its own, it changes nothing.
+ */
+public final class ShardedTransport implements Transport {
+
+  // Idle connections OkHttp's default ConnectionPool keeps, for shards built without pool settings
+  private static final int OKHTTP_DEFAULT_IDLE_CONNECTIONS = 5;
+
+  private final Transport[] shards;
+  private final AtomicIntegerArray inFlight;
+  private final AtomicInteger nextStart = new AtomicInteger();
+
+  /**
+   * Creates a transport that spreads requests over the given transports.
+   *
+   * <p>The transports should not share connections, or sharding has no effect; for example, OkHttp
+   * transports should be built on clients with separate connection pools.
+   *
+   * @param shards the transports to spread requests over
+   * @throws IllegalArgumentException if shards is empty
+   */
+  public ShardedTransport(List<? extends Transport> shards) {
+    if (shards == null || shards.isEmpty()) {
+      throw new IllegalArgumentException("At least one shard is required");
+    }
+    this.shards = shards.toArray(Transport[]::new);
+    this.inFlight = new AtomicIntegerArray(this.shards.length);
+  }
+
+  /**
+   * Creates a transport over {@code shards} OkHttp transports derived from one client.
+   *
+   * <p>Every shard gets a connection pool of its own, sized like OkHttp's default pool, and a
+   * dispatcher of its own with {@link ConcurrencySettings#defaults()}.
+   *
+   * @param client the OkHttpClient to derive the shards from
+   * @param shards the number of shards
+   * @return the sharded transport
+   * @throws IllegalArgumentException if shards is less than 1
+   */
+  public static ShardedTransport okHttp(OkHttpClient client, int shards) {
+    return okHttp(client, shards, ConcurrencySettings.defaults(), null);
+  }
+
+  /**
+   * Creates a transport over {@code shards} OkHttp transports derived from one client, each with a
+   * connection pool of the given size and a dispatcher with {@link ConcurrencySettings#defaults()}.
+   *
+   * @param client the OkHttpClient to derive the shards from
+   * @param shards the number of shards
+   * @param pool the sizing of each shard's connection pool, or null for OkHttp's default
+   * @return the sharded transport
+   * @throws IllegalArgumentException if shards is less than 1
+   */
+  public static ShardedTransport okHttp(
+      OkHttpClient client, int shards, ConnectionPoolSettings pool) {
+    return okHttp(client, shards, ConcurrencySettings.defaults(), pool);
+  }
+
+  /**
+   * Creates a transport over {@code shards} OkHttp transports derived from one client, each with a
+   * connection pool of the given size and a dispatcher with the given limits.
+   *
+   * <p>The limits apply to each shard, so {@code shards} shards together run up to {@code shards}
+   * times {@link ConcurrencySettings#maxRequestsPerHost()} calls. With {@code concurrency} null the
+   * shards share the client's own dispatcher, whose limits then cap the calls across all shards.
+   *
+   * @param client the OkHttpClient to derive the shards from
+   * @param shards the number of shards
+   * @param concurrency the dispatcher limits of each shard, or null to share the client's
+   *     dispatcher
+   * @param pool the sizing of each shard's connection pool, or null for OkHttp's default
+   * @return the sharded transport
+   * @throws IllegalArgumentException if shards is less than 1
+   */
+  public static ShardedTransport okHttp(
+      OkHttpClient client,
+      int shards,
+      ConcurrencySettings concurrency,
+      ConnectionPoolSettings pool) {
+    if (shards < 1) {
+      throw new IllegalArgumentException("shards must be positive, got: " + shards);
+    }
+    ConnectionPoolSettings shardPool =
+        pool != null
+            ? pool
+            : ConnectionPoolSettings.builder()
+                .maxIdleConnections(OKHTTP_DEFAULT_IDLE_CONNECTIONS)
+                .build();
+    Transport[] transports = new Transport[shards];
+    for (int i = 0; i < shards; i++) {
+      transports[i] = new OkHttpTransport(client, concurrency, shardPool);
+    }
+    return new ShardedTransport(List.of(transports));
+  }
+
+  /**
+   * Returns the number of requests in flight on each shard.
+   *
+   * @return in-flight counts, indexed like the shards
+   */
+  public int[] inFlight() {
+    int[] counts = new int[shards.length];
+    for (int i = 0; i < counts.length; i++) {
+      counts[i] = inFlight.get(i);
+    }
+    return counts;
+  }
+
+  /**
+   * Returns the transports requests are spread over.
+   *
+   * @return the shards
+   */
+  public List<Transport> shards() {
+    return List.of(shards);
+  }
+
+  @Override
+  public TransportResponse execute(TransportRequest request) {
+    int shard = acquire();
+    try {
+      return shards[shard].execute(request);
+    } finally {
+      inFlight.decrementAndGet(shard);
+    }
+  }
+
+  @Override
+  public CompletableFuture<TransportResponse> executeAsync(TransportRequest request) {
+    int shard = acquire();
+    CompletableFuture<TransportResponse> response;
+    try {
+      response = shards[shard].executeAsync(request);
+    } catch (RuntimeException e) {
+      inFlight.decrementAndGet(shard);
+      throw e;
+    }
+    // The shard's own future is returned so that cancelling it reaches the shard's call
+    response.whenComplete((ignored, error) -> inFlight.decrementAndGet(shard));
+    return response;
+  }
+
+  /** Picks the shard with the fewest requests in flight and counts the request against it. */
+  private int acquire() {
+    int count = shards.length;
+    int start = Math.floorMod(nextStart.getAndIncrement(), count);
+    int best = start;
+    int fewest = inFlight.get(start);
+    for (int i = 1; i < count && fewest > 0; i++) {
+      int shard = (start + i) % count;
+      int load = inFlight.get(shard);
+      if (load < fewest) {
+        best = shard;
+        fewest = load;
+      }
+    }
+    inFlight.incrementAndGet(best);
+    return best;
+  }
+}
@@ -116,8 +116,8 @@ import java.util.concurrent.CompletableFuture;
  *   <li>Thread safety is maintained for concurrent requests
  * </ul>
  *
- * <p><b>Note:</b> Currently, the SDK does not expose a way to inject custom transports via the
- * public API. This is planned for a future release.
+ * <p>Custom transports are plugged in with {@code LoopsClient.Builder#transport(Transport)}. One
+ * transport instance can back many clients.
  *
  * @see OkHttpTransport
  * @see TransportRequest
@@ -138,8 +138,10 @@ public interface Transport {
   /**
    * Executes an HTTP request asynchronously.
    *
-   * <p>This method returns immediately with a {@link CompletableFuture} that will be completed
-   * when the HTTP request finishes.
+   * <p>This method returns immediately with a {@link CompletableFuture} that will be completed when
+   * the HTTP request finishes. Cancelling the returned future should abort the request where the
+   * underlying client allows it; the pipeline cancels calls whose result is no longer wanted, such
+   * as the slower copy of a hedged request.
    *
    * @param request the HTTP request to execute
    * @return a CompletableFuture that will complete with the HTTP response
@@ -1,6 +1,8 @@
 package com.telos.loops.transport;
 
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.Map;
 
@@ -14,19 +16,44 @@ import java.util.Map;
  * construct these directly.
  *
  * @param httpMethod the HTTP method (GET, POST, PUT, DELETE, PATCH)
- * @param url        the complete URL to send the request to
- * @param headers    HTTP headers to include in the request (immutable copy is
- *                   created)
- * @param body       the request body as bytes (immutable copy is created)
+ * @param url the complete URL to send the request to
+ * @param headers HTTP headers to include in the request (immutable copy is created)
+ * @param body the request body as bytes (immutable copy is created)
+ * @param deadline the time by which the whole call must complete, or null for the transport's own
+ *     timeouts only
  */
 public record TransportRequest(
-    HttpMethod httpMethod, String url, Map<String, String> headers, byte[] body) {
+    HttpMethod httpMethod, String url, Map<String, String> headers, byte[] body, Instant deadline) {
 
   public TransportRequest {
     headers = headers == null ? Map.of() : Map.copyOf(headers);
     body = body == null ? new byte[0] : Arrays.copyOf(body, body.length);
   }
 
+  /**
+   * Creates a request without a deadline.
+   *
+   * @param httpMethod the HTTP method
+   * @param url the complete URL to send the request to
+   * @param headers HTTP headers to include in the request
+   * @param body the request body as bytes
+   */
+  public TransportRequest(
+      HttpMethod httpMethod, String url, Map<String, String> headers, byte[] body) {
+    this(httpMethod, url, headers, body, null);
+  }
+
+  /**
+   * Returns the time left until the deadline, which transports apply as a timeout on the whole
+   * call.
+   *
+   * @return the time left, zero or negative once the deadline has passed, or null if the request
+   *     has no deadline
+   */
+  public Duration remainingTime() {
+    return deadline == null ? null : Duration.between(Instant.now(), deadline);
+  }
+
   @Override
   public String toString() {
     return "TransportRequest{"
@@ -39,6 +66,7 @@ public record TransportRequest(
         + headers
         + ", body="
         + new String(body, StandardCharsets.UTF_8)
+        + (deadline != null ? ", deadline=" + deadline : "")
         + '}';
   }
 
@@ -57,6 +85,7 @@ public record TransportRequest(
     private String url;
     private java.util.Map<String, String> headers;
     private byte[] body;
+    private Instant deadline;
 
     private Builder() {
     }
@@ -89,8 +118,13 @@ public record TransportRequest(
       return this;
     }
 
+    public Builder deadline(Instant deadline) {
+      this.deadline = deadline;
+      return this;
+    }
+
     public TransportRequest build() {
-      return new TransportRequest(httpMethod, url, headers, body);
+      return new TransportRequest(httpMethod, url, headers, body, deadline);
     }
   }
 }
@@ -24,6 +24,28 @@ public record TransportResponse(int status, Map<String, String> headers, byte[]
     response = response == null ? new byte[0] : Arrays.copyOf(response, response.length);
   }
 
+  /**
+   * Returns the value of a response header, matching the name case-insensitively.
+   *
+   * <p>HTTP/2 transports report header names in lower case, so lookups should go through this
+   * method rather than {@link #headers()} directly.
+   *
+   * @param name the header name
+   * @return the header value, or null if the header is absent
+   */
+  public String header(String name) {
+    String value = headers.get(name);
+    if (value != null) {
+      return value;
+    }
+    for (Map.Entry<String, String> entry : headers.entrySet()) {
+      if (entry.getKey().equalsIgnoreCase(name)) {
+        return entry.getValue();
+      }
+    }
+    return null;
+  }
+
   @Override
   public String toString() {
     return "TransportResponse{"
@@ -0,0 +1,26 @@
+package com.telos.loops.transport;
+
+import java.time.Duration;
+
+/**
+ * Outcome of a client's connection warm-up.
+ *
+ * <p>A warm-up never fails as a whole: connections that could not be opened in time are counted out
+ * of {@link #connectionsOpened()}, and a failed key test leaves {@link #apiKeyVerified()} false.
+ *
+ * @param connectionsRequested connections the warm-up tried to open
+ * @param connectionsOpened connections the warm-up added to an {@link OkHttpTransport}'s pool, at
+ *     most {@code connectionsRequested}; over HTTP/2 the concurrent requests share one connection,
+ *     so at most one is opened. For other transports, the warm-up requests that got any HTTP
+ *     response, which may have shared connections
+ * @param apiKeyVerified whether the API key test passed; false if it was not requested
+ * @param elapsed how long the warm-up took
+ * @param connectionPool the transport's connection pool after the warm-up, or null when the
+ *     transport is not an {@link OkHttpTransport}
+ */
+public record WarmUpResult(
+    int connectionsRequested,
+    int connectionsOpened,
+    boolean apiKeyVerified,
+    Duration elapsed,
+    ConnectionPoolStats connectionPool) {}
@@ -0,0 +1,91 @@
+package com.telos.loops.transport;
+
+import java.time.Duration;
+
+/**
+ * What a client's connection warm-up does before the first real request.
+ *
+ * <p>The warm-up sends {@link #connections()} concurrent unauthenticated requests to the base URL,
+ * so the DNS lookup and the TCP and TLS handshakes of that many pooled connections are paid up
+ * front; later connections resume the cached TLS session. With {@link #verifyApiKey()} set, it then
+ * tests the API key over one of the warm connections. Nothing in the warm-up counts against the
+ * account's rate limit except the key test.
+ *
+ * <p>Example usage:
+ *
+ * <pre>{@code
+ * WarmUpSettings warmUp = WarmUpSettings.builder()
+ *     .connections(8)
+ *     .verifyApiKey(true)
+ *     .timeout(Duration.ofSeconds(5))
+ *     .build();
+ * }</pre>
+ *
+ * @param connections number of connections to open
+ * @param verifyApiKey whether to test the API key once the connections are open
+ * @param timeout the longest the whole warm-up may take
+ */
+public record WarmUpSettings(int connections, boolean verifyApiKey, Duration timeout) {
+
+  /** Default number of connections opened. */
+  public static final int DEFAULT_CONNECTIONS = 4;
+
+  /** Default limit on the duration of the whole warm-up. */
+  public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(10);
+
+  public WarmUpSettings {
+    if (connections < 1) {
+      throw new IllegalArgumentException("connections must be positive, got: " + connections);
+    }
+    timeout = timeout == null ? DEFAULT_TIMEOUT : timeout;
+    if (timeout.isNegative() || timeout.isZero()) {
+      throw new IllegalArgumentException("timeout must be positive, got: " + timeout);
+    }
+  }
+
+  /**
+   * Returns the default settings: 4 connections, no API key test, 10 second timeout.
+   *
+   * @return the default settings
+   */
+  public static WarmUpSettings defaults() {
+    return builder().build();
+  }
+
+  /**
+   * Creates a new builder for {@link WarmUpSettings}.
+   *
+   * @return a new builder
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /** Builder for {@link WarmUpSettings}. */
+  public static final class Builder {
+    private int connections = DEFAULT_CONNECTIONS;
+    private boolean verifyApiKey;
+    private Duration timeout = DEFAULT_TIMEOUT;
+
+    private Builder() {}
+
+    public Builder connections(int connections) {
+      this.connections = connections;
+      return this;
+    }
+
+    public Builder verifyApiKey(boolean verifyApiKey) {
+      this.verifyApiKey = verifyApiKey;
+      return this;
+    }
+
+    public Builder timeout(Duration timeout) {
+      this.timeout = timeout;
+      return this;
+    }
+
+    public WarmUpSettings build() {
+      return new WarmUpSettings(connections, verifyApiKey, timeout);
+    }
+  }
+}
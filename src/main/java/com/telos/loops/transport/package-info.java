@@ -10,9 +10,15 @@
  * <ul>
  *   <li>{@link com.telos.loops.transport.Transport} - Interface for HTTP transport implementations
  *   <li>{@link com.telos.loops.transport.OkHttpTransport} - Default OkHttp-based transport
+ *   <li>{@link com.telos.loops.transport.JdkHttpTransport} - Dependency-free transport built on
+ *       {@code java.net.http.HttpClient} with HTTP/2 multiplexing
+ *   <li>{@link com.telos.loops.transport.ShardedTransport} - Spreads requests over several
+ *       connection pools by fewest requests in flight
  *   <li>{@link com.telos.loops.transport.TransportRequest} - Represents an HTTP request
  *   <li>{@link com.telos.loops.transport.TransportResponse} - Represents an HTTP response
  *   <li>{@link com.telos.loops.transport.HttpMethod} - HTTP methods (GET, POST, PUT, DELETE)
+ *   <li>{@link com.telos.loops.transport.ConnectionPoolSettings} and {@link
+ *       com.telos.loops.transport.WarmUpSettings} - Connection pool sizing and startup warm-up
  * </ul>
  *
  * <h2>Default Transport</h2>
@@ -66,12 +72,12 @@
  * // Use custom transport
  * Transport baseTransport = new OkHttpTransport();
  * Transport loggingTransport = new LoggingTransport(baseTransport, myLogger);
- * // Note: Custom transport configuration would need to be added to LoopsClient.Builder
+ * LoopsClient client = LoopsClient.builder()
+ *         .apiKey("your-api-key")
+ *         .transport(loggingTransport)
+ *         .build();
  * }</pre>
  *
- * <p><b>Note:</b> Currently, the SDK does not expose a way to inject custom transports via the
- * public API. This is an internal abstraction that may be exposed in future versions.
- *
  * @see com.telos.loops.transport.Transport
  * @see com.telos.loops.transport.OkHttpTransport
  */
@@ -6,6 +6,7 @@ import com.telos.loops.events.EventResponse;
 import com.telos.loops.events.EventSendRequest;
 import com.telos.loops.lists.MailingList;
 import com.telos.loops.model.RequestOptions;
+import com.telos.loops.model.RequestPriority;
 import com.telos.loops.properties.ContactProperty;
 import com.telos.loops.properties.ContactPropertyCreateRequest;
 import com.telos.loops.properties.ContactPropertyResponse;
@@ -16,6 +17,7 @@ import com.telos.loops.transport.TransportResponse;
 import org.junit.jupiter.api.Test;
 
 import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 
@@ -246,6 +248,25 @@ class BuilderTest {
                 .addHeader("H-Key", "H-Val")
                 .build();
         assertThat(options.headers()).containsEntry("H-Key", "H-Val");
+        assertThat(options.priority()).isEqualTo(RequestPriority.NORMAL);
+        assertThat(options.deadline()).isNull();
+    }
+
+    @Test
+    void testRequestOptionsWithHeadersKeepsSchedulingFields() {
+        Instant deadline = Instant.parse("2026-01-01T00:00:00Z");
+        RequestOptions options = RequestOptions.builder()
+                .priority(RequestPriority.CRITICAL)
+                .deadline(deadline)
+                .tenant("growth")
+                .build();
+
+        RequestOptions copy = options.withHeaders(Map.of("Idempotency-Key", "key"));
+
+        assertThat(copy.headers()).containsEntry("Idempotency-Key", "key");
+        assertThat(copy.priority()).isEqualTo(RequestPriority.CRITICAL);
+        assertThat(copy.deadline()).isEqualTo(deadline);
+        assertThat(copy.tenant()).isEqualTo("growth");
     }
 
     @Test
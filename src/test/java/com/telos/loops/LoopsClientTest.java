@@ -0,0 +1,796 @@
+package com.telos.loops;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.assertj.core.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.telos.loops.contacts.ContactResponse;
+import com.telos.loops.error.CircuitOpenException;
+import com.telos.loops.error.DeadlineExceededException;
+import com.telos.loops.error.OverloadedException;
+import com.telos.loops.error.RateLimitExceededException;
+import com.telos.loops.events.EventResponse;
+import com.telos.loops.lists.MailingList;
+import com.telos.loops.model.RequestOptions;
+import com.telos.loops.model.RequestPriority;
+import com.telos.loops.resilience.AdaptiveConcurrencyLimiter;
+import com.telos.loops.resilience.AdmissionSettings;
+import com.telos.loops.resilience.BulkheadSettings;
+import com.telos.loops.resilience.BulkheadStats;
+import com.telos.loops.resilience.CircuitBreakerSettings;
+import com.telos.loops.resilience.CircuitState;
+import com.telos.loops.resilience.HedgePolicy;
+import com.telos.loops.resilience.HedgeStats;
+import com.telos.loops.resilience.TokenBucketRateLimiter;
+import com.telos.loops.transactional.TransactionalResponse;
+import com.telos.loops.transactional.TransactionalSendRequest;
+import com.telos.loops.transactional.TransactionalSendRequest.Attachment;
+import com.telos.loops.transport.ConcurrencySettings;
+import com.telos.loops.transport.ConcurrencyStats;
+import com.telos.loops.transport.ConnectionPoolSettings;
+import com.telos.loops.transport.NoopTransport;
+import com.telos.loops.transport.OkHttpTransport;
+import com.telos.loops.transport.Transport;
+import com.telos.loops.transport.TransportRequest;
+import com.telos.loops.transport.TransportResponse;
+import com.telos.loops.transport.WarmUpResult;
+import com.telos.loops.transport.WarmUpSettings;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LoopsClientTest {
+
+  private WireMockSetup wireMock;
+
+  @BeforeEach
+  void setUp() {
+    wireMock = new WireMockSetup();
+  }
+
+  @AfterEach
+  void tearDown() {
+    wireMock.stop();
+  }
+
+  @Test
+  void shouldRequireApiKey() {
+    assertThatThrownBy(() -> LoopsClient.builder().build())
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("API key");
+  }
+
+  @Test
+  void shouldRejectTransportCombinedWithOkHttpClient() {
+    assertThatThrownBy(
+            () ->
+                LoopsClient.builder()
+                    .apiKey(TestFixtures.TEST_API_KEY)
+                    .transport(new NoopTransport())
+                    .okHttpClient(new OkHttpClient())
+                    .build())
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void shouldRouteRequestsFromSeveralClientsThroughSharedTransport() {
+    // Given
+    RecordingTransport shared = new RecordingTransport(new OkHttpTransport());
+    wireMock.stubPostSuccess("/events/send", TestFixtures.eventSendSuccessResponse());
+
+    LoopsClient tenantA =
+        LoopsClient.builder()
+            .apiKey("key-a")
+            .baseUrl(wireMock.getBaseUrl())
+            .transport(shared)
+            .build();
+    LoopsClient tenantB =
+        LoopsClient.builder()
+            .apiKey("key-b")
+            .baseUrl(wireMock.getBaseUrl())
+            .transport(shared)
+            .build();
+
+    // When
+    tenantA.events().send(TestFixtures.minimalEventSendRequest());
+    tenantB.events().sendAsync(TestFixtures.minimalEventSendRequest()).join();
+
+    // Then
+    assertThat(shared.requests)
+        .extracting(request -> request.headers().get("Authorization"))
+        .containsExactly("Bearer key-a", "Bearer key-b");
+  }
+
+  @Test
+  void shouldUseSuppliedOkHttpClient() {
+    // Given
+    AtomicReference<String> intercepted = new AtomicReference<>();
+    OkHttpClient okHttpClient =
+        new OkHttpClient.Builder()
+            .addInterceptor(
+                chain -> {
+                  intercepted.set(chain.request().url().encodedPath());
+                  return chain.proceed(chain.request());
+                })
+            .build();
+    wireMock.stubPostSuccess("/events/send", TestFixtures.eventSendSuccessResponse());
+    LoopsClient client =
+        LoopsClient.builder()
+            .apiKey(TestFixtures.TEST_API_KEY)
+            .baseUrl(wireMock.getBaseUrl())
+            .okHttpClient(okHttpClient)
+            .build();
+
+    // When
+    client.events().send(TestFixtures.minimalEventSendRequest());
+
+    // Then
+    assertThat(intercepted.get()).isEqualTo("/events/send");
+  }
+
+  @Test
+  void shouldRunAsyncContinuationsOnCallbackExecutor() {
+    // Given
+    ExecutorService executor =
+        Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "loops-callback"));
+    // Held until the continuation is attached, so the response cannot complete on this thread
+    CountDownLatch attached = new CountDownLatch(1);
+    LoopsClient client =
+        LoopsClient.builder()
+            .apiKey(TestFixtures.TEST_API_KEY)
+            .transport(new NoopTransport(200, TestFixtures.eventSendSuccessResponse()))
+            .callbackExecutor(
+                task ->
+                    executor.execute(
+                        () -> {
+                          try {
+                            attached.await();
+                          } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                          }
+                          task.run();
+                        }))
+            .build();
+
+    // When
+    CompletableFuture<String> threadName =
+        client
+            .events()
+            .sendAsync(TestFixtures.minimalEventSendRequest())
+            .thenApply(response -> Thread.currentThread().getName());
+    attached.countDown();
+
+    // Then
+    assertThat(threadName.join()).isEqualTo("loops-callback");
+    executor.shutdown();
+  }
+
+  @Test
+  void shouldUseSuppliedObjectMapper() {
+    // Given
+    ObjectMapper strictMapper =
+        new ObjectMapper().enable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    LoopsClient client =
+        LoopsClient.builder()
+            .apiKey(TestFixtures.TEST_API_KEY)
+            .transport(new NoopTransport(200, "{\"success\": true, \"unexpected\": 1}"))
+            .objectMapper(strictMapper)
+            .build();
+
+    // When/Then
+    assertThatThrownBy(() -> client.events().send(TestFixtures.minimalEventSendRequest()))
+        .hasMessageContaining("unexpected");
+  }
+
+  @Test
+  void shouldDefaultToLenientObjectMapper() {
+    // Given
+    LoopsClient client =
+        LoopsClient.builder()
+            .apiKey(TestFixtures.TEST_API_KEY)
+            .transport(new NoopTransport(200, "{\"success\": true}"))
+            .build();
+
+    // When
+    EventResponse response = client.events().send(TestFixtures.minimalEventSendRequest());
+
+    // Then
+    assertThat(response.success()).isTrue();
+  }
+
+  @Test
+  void shouldApplyConcurrencySettingsToDefaultTransport() {
+    // Given
+    LoopsClient client =
+        LoopsClient.builder()
+            .apiKey(TestFixtures.TEST_API_KEY)
+            .concurrency(ConcurrencySettings.builder().maxRequestsPerHost(12).build())
+            .build();
+
+    // When
+    ConcurrencyStats stats = ((OkHttpTransport) client.transport()).concurrencyStats();
+
+    // Then
+    assertThat(stats.maxRequestsPerHost()).isEqualTo(12);
+  }
+
+  @Test
+  void shouldRejectConcurrencySettingsWithCustomTransport() {
+    assertThatThrownBy(
+            () ->
+                LoopsClient.builder()
+                    .apiKey(TestFixtures.TEST_API_KEY)
+                    .transport(new NoopTransport())
+                    .concurrency(ConcurrencySettings.defaults())
+                    .build())
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void shouldShareRateLimiterAcrossSubClients() {
+    // Given
+    LoopsClient client =
+        LoopsClient.builder()
+            .apiKey(TestFixtures.TEST_API_KEY)
+            .transport(new NoopTransport(200, TestFixtures.eventSendSuccessResponse()))
+            .rateLimiter(
+                TokenBucketRateLimiter.builder()
+                    .permitsPerSecond(1)
+                    .burst(1)
+                    .maxWait(Duration.ZERO)
+                    .build())
+            .build();
+    client.events().send(TestFixtures.minimalEventSendRequest());
+
+    // When/Then
+    assertThatThrownBy(() -> client.contacts().create(TestFixtures.minimalContactCreateRequest()))
+        .isInstanceOfSatisfying(
+            RateLimitExceededException.class,
+            e -> {
+              assertThat(e.statusCode()).isZero();
+              assertThat(e.retryAfterSeconds()).isEqualTo(1);
+            });
+  }
+
+  @Test
+  void shouldFailAsyncCallRefusedByRateLimiterThroughFuture() {
+    // Given
+    LoopsClient client =
+        LoopsClient.builder()
+            .apiKey(TestFixtures.TEST_API_KEY)
+            .transport(new NoopTransport(200, TestFixtures.eventSendSuccessResponse()))
+            .rateLimiter(
+                TokenBucketRateLimiter.builder()
+                    .permitsPerSecond(1)
+                    .burst(1)
+                    .maxWait(Duration.ZERO)
+                    .build())
+            .build();
+    client.events().sendAsync(TestFixtures.minimalEventSendRequest()).join();
+
+    // When
+    CompletableFuture<EventResponse> refused =
+        client.events().sendAsync(TestFixtures.minimalEventSendRequest());
+
+    // Then
+    assertThat(refused)
+        .failsWithin(Duration.ofSeconds(1))
+        .withThrowableOfType(ExecutionException.class)
+        .withCauseInstanceOf(RateLimitExceededException.class);
+  }
+
+  @Test
+  void shouldPaceWaitingCallersToConfiguredRate() {
+    // Given
+    wireMock.stubPostSuccess("/events/send", TestFixtures.eventSendSuccessResponse());
+    LoopsClient client =
+        LoopsClient.builder()
+            .apiKey(TestFixtures.TEST_API_KEY)
+            .baseUrl(wireMock.getBaseUrl())
+            .rateLimiter(TokenBucketRateLimiter.builder().permitsPerSecond(20).burst(1).build())
+            .build();
+
+    // When: a synchronous call takes the burst permit, and warms the client up
+    long start = System.nanoTime();
+    client.events().send(TestFixtures.minimalEventSendRequest());
+    long submitStart = System.nanoTime();
+    List<CompletableFuture<EventResponse>> futures = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      futures.add(client.events().sendAsync(TestFixtures.minimalEventSendRequest()));
+    }
+    long submitMillis = (System.nanoTime() - submitStart) / 1_000_000;
+    CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+    long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+    // Then: async submission does not wait; four permits at 20/s span at least 150 ms
+    assertThat(submitMillis).isLessThan(100);
+    assertThat(elapsedMillis).isGreaterThanOrEqualTo(150);
+    wireMock.getServer().verify(4, postRequestedFor(urlEqualTo("/events/send")));
+  }
+
+  @Test
+  void shouldQueueRequestsBeyondConcurrencyLimit() {
+    // Given
+    PendingTransport transport = new PendingTransport();
+    AdaptiveConcurrencyLimiter limiter =
+        AdaptiveConcurrencyLimiter.builder().initialLimit(2).maxLimit(2).build();
+    LoopsClient client =
+        LoopsClient.builder()
+            .apiKey(TestFixtures.TEST_API_KEY)
+            .transport(transport)
+            .concurrencyLimiter(limiter)
+            .build();
+
+    // When
+    List<CompletableFuture<EventResponse>> futures = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      futures.add(client.events().sendAsync(TestFixtures.minimalEventSendRequest()));
+    }
+
+    // Then
+    assertThat(transport.pending).hasSize(2);
+    assertThat(limiter.stats().queued()).isEqualTo(3);
+    while (!transport.pending.isEmpty()) {
+      transport
+          .pending
+          .remove(0)
+          .complete(new TransportResponse(200, Map.of(), "{\"success\": true}".getBytes()));
+    }
+    assertThat(futures).allSatisfy(future -> assertThat(future).isCompleted());
+    assertThat(limiter.stats().inFlight()).isZero();
+  }
+
+  @Test
+  void shouldSendCriticalRequestAheadOfQueuedBulkRequests() {
+    // Given
+    RecordingTransport transport =
+        new RecordingTransport(new NoopTransport(200, TestFixtures.eventSendSuccessResponse()));
+    LoopsClient client =
+        LoopsClient.builder()
+            .apiKey(TestFixtures.TEST_API_KEY)
+            .transport(transport)
+            .rateLimiter(TokenBucketRateLimiter.builder().permitsPerSecond(20).burst(1).build())
+            .build();
+    RequestOptions bulk = RequestOptions.builder().priority(RequestPriority.LOW).build();
+    RequestOptions critical =
+        RequestOptions.builder()
+            .priority(RequestPriority.CRITICAL)
+            .deadline(Instant.now().plusSeconds(5))
+            .build();
+
+    // When
+    List<CompletableFuture<EventResponse>> futures = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      futures.add(
+          client.events().sendAsync(TestFixtures.minimalEventSendRequest(), "bulk-" + i, bulk));
+    }
+    futures.add(
+        client.events().sendAsync(TestFixtures.minimalEventSendRequest(), "critical", critical));
+    CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+    // Then: the first bulk request had the budget to itself; the critical one goes next
+    assertThat(transport.requests)
+        .extracting(request -> request.headers().get("Idempotency-Key"))
+        .containsExactly("bulk-0", "critical", "bulk-1", "bulk-2", "bulk-3");
+  }
+
+  @Test
+  void shouldDropQueuedRequestWhoseDeadlinePasses() {
+    // Given
+    RecordingTransport transport =
+        new RecordingTransport(new NoopTransport(200, TestFixtures.eventSendSuccessResponse()));
+    LoopsClient client =
+        LoopsClient.builder()
+            .apiKey(TestFixtures.TEST_API_KEY)
+            .transport(transport)
+            .rateLimiter(TokenBucketRateLimiter.builder().permitsPerSecond(2).burst(1).build())
+            .build();
+    client.events().send(TestFixtures.minimalEventSendRequest());
+
+    // When
+    CompletableFuture<EventResponse> late =
+        client
+            .events()
+            .sendAsync(
+                TestFixtures.minimalEventSendRequest(),
+                null,
+                RequestOptions.builder().deadline(Instant.now().plusMillis(100)).build());
+
+    // Then
+    assertThat(late)
+        .failsWithin(Duration.ofSeconds(1))
+        .withThrowableOfType(ExecutionException.class)
+        .withCauseInstanceOf(DeadlineExceededException.class)
+        .satisfies(e -> assertThat(((DeadlineExceededException) e.getCause()).wasSent()).isFalse());
+    assertThat(transport.requests).hasSize(1);
+  }
+
+  @Test
+  void shouldSkipSchedulerWhileNothingHoldsDispatches() {
+    // Given: the default 429 pause and header throttle, both idle
+    LoopsClient client =
+        LoopsClient.builder()
+            .apiKey(TestFixtures.TEST_API_KEY)
+            .transport(new NoopTransport(200, TestFixtures.eventSendSuccessResponse()))
+            .build();
+
+    // When
+    client.events().send(TestFixtures.minimalEventSendRequest());
+
+    // Then
+    assertThat(client.tenantStats()).isEmpty();
+  }
+
+  @Test
+  void shouldReportStatsPerTenant() {
+    // Given
+    LoopsClient client =
+        LoopsClient.builder()
+            .apiKey(TestFixtures.TEST_API_KEY)
+            .transport(new NoopTransport(200, TestFixtures.eventSendSuccessResponse()))
+            .tenantWeight("growth", 4)
+            .build();
+
+    // When
+    client
+        .events()
+        .send(
+            TestFixtures.minimalEventSendRequest(),
+            "key",
+            RequestOptions.builder().tenant("growth").build());
+    client.events().send(TestFixtures.minimalEventSendRequest());
+
+    // Then
+    assertThat(client.tenantStats()).containsOnlyKeys("default", "growth");
+    assertThat(client.tenantStats().get("growth").weight()).isEqualTo(4);
+    assertThat(client.tenantStats().get("growth").dispatched()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldRejectNonPositiveTenantWeight() {
+    assertThatThrownBy(() -> LoopsClient.builder().tenantWeight("growth", 0))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("weight must be positive, got: 0");
+  }
+
+  @Test
+  void shouldIsolateSaturatedEndpointInItsBulkhead() {
+    // Given
+    PendingTransport transport = new PendingTransport();
+    LoopsClient client =
+        LoopsClient.builder()
+            .apiKey(TestFixtures.TEST_API_KEY)
+            .transport(transport)
+            .bulkheads(BulkheadSettings.builder().maxConcurrent(2).maxQueued(0).build())
+            .build();
+    client.contacts().createAsync(TestFixtures.minimalContactCreateRequest());
+    client.contacts().createAsync(TestFixtures.minimalContactCreateRequest());
+
+    // When
+    CompletableFuture<ContactResponse> rejected =
+        client.contacts().createAsync(TestFixtures.minimalContactCreateRequest());
+    CompletableFuture<EventResponse> event =
+        client.events().sendAsync(TestFixtures.minimalEventSendRequest());
+
+    // Then: the full contacts pool fails fast while events still reach the transport
+    assertThat(rejected)
+        .failsWithin(Duration.ZERO)
+        .withThrowableOfType(ExecutionException.class)
+        .withMessageContaining("Bulkhead /contacts/create is full");
+    assertThat(transport.pending).hasSize(3);
+    transport
+        .pending
+        .get(2)
+        .complete(new TransportResponse(200, Map.of(), "{\"success\": true}".getBytes()));
+    assertThat(event).isCompleted();
+    Map<String, BulkheadStats> stats = client.bulkheadStats();
+    assertThat(stats.get("/contacts/create").saturation()).isEqualTo(1.0);
+    assertThat(stats.get("/contacts/create").rejected()).isEqualTo(1);
+    assertThat(stats.get("/events/send").inFlight()).isZero();
+  }
+
+  @Test
+  void shouldShedRequestsOnceSaturated() {
+    // Given
+    PendingTransport transport = new PendingTransport();
+    LoopsClient client =
+        LoopsClient.builder()
+            .apiKey(TestFixtures.TEST_API_KEY)
+            .transport(transport)
+            .admission(AdmissionSettings.builder().maxQueueDepth(2).build())
+            .build();
+    assertThat(client.capacity()).isEqualTo(2);
+    client.events().sendAsync(TestFixtures.minimalEventSendRequest());
+    client.events().sendAsync(TestFixtures.minimalEventSendRequest());
+
+    // When
+    CompletableFuture<EventResponse> shed =
+        client.events().sendAsync(TestFixtures.minimalEventSendRequest());
+
+    // Then
+    assertThat(client.isSaturated()).isTrue();
+    assertThat(client.capacity()).isZero();
+    assertThat(shed)
+        .failsWithin(Duration.ZERO)
+        .withThrowableOfType(ExecutionException.class)
+        .withCauseInstanceOf(OverloadedException.class);
+    assertThat(transport.pending).hasSize(2);
+    transport
+        .pending
+        .get(0)
+        .complete(new TransportResponse(200, Map.of(), "{\"success\": true}".getBytes()));
+    assertThat(client.isSaturated()).isFalse();
+    assertThat(client.capacity()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldHoldBackLargeSendsBeyondByteBudget() {
+    // Given
+    PendingTransport transport = new PendingTransport();
+    LoopsClient client =
+        LoopsClient.builder()
+            .apiKey(TestFixtures.TEST_API_KEY)
+            .transport(transport)
+            .maxBytesInFlightMb(1)
+            .build();
+    TransactionalSendRequest withPdf =
+        TransactionalSendRequest.builder()
+            .transactionalId("transactional-id")
+            .email(TestFixtures.TEST_EMAIL)
+            .addAttachment(new Attachment("invoice.pdf", "application/pdf", "A".repeat(600_000)))
+            .build();
+
+    // When
+    CompletableFuture<TransactionalResponse> first = client.transactional().sendAsync(withPdf);
+    CompletableFuture<TransactionalResponse> second = client.transactional().sendAsync(withPdf);
+
+    // Then: the second body is not even serialized until the first completes
+    assertThat(transport.pending).hasSize(1);
+    assertThat(client.bytesInFlight()).isBetween(600_000L, 601_000L);
+    transport
+        .pending
+        .get(0)
+        .complete(new TransportResponse(200, Map.of(), "{\"success\": true}".getBytes()));
+    assertThat(first).isCompleted();
+    assertThat(transport.pending).hasSize(2);
+    assertThat(client.bytesInFlight()).isBetween(600_000L, 601_000L);
+    transport
+        .pending
+        .get(1)
+        .complete(new TransportResponse(200, Map.of(), "{\"success\": true}".getBytes()));
+    assertThat(second).isCompleted();
+    assertThat(client.bytesInFlight()).isZero();
+  }
+
+  @Test
+  void shouldHedgeSlowGetAndCancelTheLoser() {
+    // Given: twenty fast responses give /lists a latency percentile to hedge at
+    PendingTransport transport = new PendingTransport();
+    LoopsClient client =
+        LoopsClient.builder()
+            .apiKey(TestFixtures.TEST_API_KEY)
+            .transport(transport)
+            .hedging(HedgePolicy.builder().minDelay(Duration.ofMillis(20)).maxHedgeRatio(1).build())
+            .build();
+    for (int i = 0; i < 20; i++) {
+      client.mailingLists().listAsync();
+      transport.pending.get(i).complete(new TransportResponse(200, Map.of(), "[]".getBytes()));
+    }
+
+    // When
+    CompletableFuture<List<MailingList>> lists = client.mailingLists().listAsync();
+    AsyncTestUtils.waitUntil(() -> assertThat(transport.pending).hasSize(22));
+    transport.pending.get(21).complete(new TransportResponse(200, Map.of(), "[]".getBytes()));
+
+    // Then: the hedge answered first and the original call was abandoned
+    assertThat(AsyncTestUtils.awaitCompletion(lists)).isEmpty();
+    assertThat(transport.pending.get(20)).isCancelled();
+    assertThat(client.hedgeStats()).isEqualTo(new HedgeStats(21, 1, 1));
+  }
+
+  @Test
+  void shouldFailFastOnceEndpointCircuitOpens() {
+    // Given: two 503s from /events/send fill a window of two
+    PendingTransport transport = new PendingTransport();
+    List<String> transitions = new ArrayList<>();
+    LoopsClient client =
+        LoopsClient.builder()
+            .apiKey(TestFixtures.TEST_API_KEY)
+            .transport(transport)
+            .circuitBreaker(CircuitBreakerSettings.builder().windowSize(2).minimumCalls(2).build())
+            .circuitBreakerListener(
+                (endpoint, from, to) -> transitions.add(endpoint + " " + from + "->" + to))
+            .build();
+    for (int i = 0; i < 2; i++) {
+      client.events().sendAsync(TestFixtures.minimalEventSendRequest());
+      transport.pending.get(i).complete(new TransportResponse(503, Map.of(), new byte[0]));
+    }
+
+    // When
+    CompletableFuture<EventResponse> rejected =
+        client.events().sendAsync(TestFixtures.minimalEventSendRequest());
+    client.contacts().createAsync(TestFixtures.minimalContactCreateRequest());
+
+    // Then: events fail without reaching the transport while contacts still get through
+    assertThat(rejected)
+        .failsWithin(Duration.ZERO)
+        .withThrowableOfType(ExecutionException.class)
+        .withCauseInstanceOf(CircuitOpenException.class);
+    assertThat(transport.pending).hasSize(3);
+    assertThat(transitions).containsExactly("/events/send CLOSED->OPEN");
+    assertThat(client.circuitBreakerStats().get("/events/send").state())
+        .isEqualTo(CircuitState.OPEN);
+    assertThat(client.circuitBreakerStats().get("/events/send").notPermitted()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldCancelTransportCallWhenCallerCancels() {
+    // Given
+    PendingTransport transport = new PendingTransport();
+    LoopsClient client =
+        LoopsClient.builder().apiKey(TestFixtures.TEST_API_KEY).transport(transport).build();
+    CompletableFuture<EventResponse> response =
+        client.events().sendAsync(TestFixtures.minimalEventSendRequest());
+
+    // When
+    response.cancel(true);
+
+    // Then
+    assertThat(transport.pending).hasSize(1);
+    assertThat(transport.pending.get(0)).isCancelled();
+  }
+
+  @Test
+  void shouldFailWithDeadlineExceededWhenResponseIsLate() {
+    // Given
+    wireMock
+        .getServer()
+        .stubFor(
+            post(urlEqualTo("/events/send"))
+                .willReturn(okJson(TestFixtures.eventSendSuccessResponse()).withFixedDelay(5_000)));
+    LoopsClient client = wireMock.createClient(TestFixtures.TEST_API_KEY);
+    RequestOptions options = RequestOptions.builder().timeout(Duration.ofMillis(200)).build();
+
+    // When/Then
+    assertThatThrownBy(
+            () -> client.events().send(TestFixtures.minimalEventSendRequest(), null, options))
+        .isInstanceOf(DeadlineExceededException.class)
+        .hasMessageContaining("while waiting for the response")
+        .satisfies(e -> assertThat(((DeadlineExceededException) e).wasSent()).isTrue());
+    RequestOptions asyncOptions = RequestOptions.builder().timeout(Duration.ofMillis(200)).build();
+    assertThat(
+            client.events().sendAsync(TestFixtures.minimalEventSendRequest(), null, asyncOptions))
+        .failsWithin(Duration.ofSeconds(3))
+        .withThrowableOfType(ExecutionException.class)
+        .withCauseInstanceOf(DeadlineExceededException.class)
+        .satisfies(e -> assertThat(((DeadlineExceededException) e.getCause()).wasSent()).isTrue());
+  }
+
+  @Test
+  void shouldWarmUpPooledConnectionsAndVerifyApiKey() {
+    // Given: slow responses, so each warm-up request holds a connection of its own
+    wireMock.getServer().stubFor(get(urlEqualTo("/")).willReturn(notFound().withFixedDelay(200)));
+    wireMock.stubGetSuccess("/api-key", TestFixtures.apiKeyTestSuccessResponse());
+    LoopsClient client =
+        LoopsClient.builder()
+            .apiKey(TestFixtures.TEST_API_KEY)
+            .baseUrl(wireMock.getBaseUrl())
+            .connectionPool(ConnectionPoolSettings.builder().maxIdleConnections(8).build())
+            .build();
+
+    // When
+    WarmUpResult result =
+        client.warmUp(WarmUpSettings.builder().connections(4).verifyApiKey(true).build());
+
+    // Then
+    assertThat(result.connectionsOpened()).isEqualTo(4);
+    assertThat(result.apiKeyVerified()).isTrue();
+    assertThat(result.elapsed()).isGreaterThanOrEqualTo(Duration.ofMillis(200));
+    assertThat(result.connectionPool().idleConnections()).isEqualTo(4);
+    wireMock.getServer().verify(4, getRequestedFor(urlEqualTo("/")).withoutHeader("Authorization"));
+    wireMock.getServer().verify(1, getRequestedFor(urlEqualTo("/api-key")));
+  }
+
+  @Test
+  void shouldCountOnlyConnectionsTheWarmUpAddedToThePool() {
+    // Given: a first warm-up has already filled the pool
+    wireMock.getServer().stubFor(get(urlEqualTo("/")).willReturn(notFound().withFixedDelay(200)));
+    LoopsClient client =
+        LoopsClient.builder()
+            .apiKey(TestFixtures.TEST_API_KEY)
+            .baseUrl(wireMock.getBaseUrl())
+            .connectionPool(ConnectionPoolSettings.builder().maxIdleConnections(8).build())
+            .build();
+    client.warmUp(WarmUpSettings.builder().connections(2).build());
+
+    // When: the second warm-up reuses both and needs one more
+    WarmUpResult result = client.warmUp(WarmUpSettings.builder().connections(3).build());
+
+    // Then
+    assertThat(result.connectionsOpened()).isEqualTo(1);
+    assertThat(result.connectionPool().connections()).isEqualTo(3);
+    wireMock.getServer().verify(5, getRequestedFor(urlEqualTo("/")));
+  }
+
+  @Test
+  void shouldReportFailedApiKeyTestWithoutFailingWarmUp() {
+    // Given
+    wireMock.getServer().stubFor(get(urlEqualTo("/")).willReturn(notFound().withFixedDelay(200)));
+    wireMock.getServer().stubFor(get(urlEqualTo("/api-key")).willReturn(unauthorized()));
+    LoopsClient client = wireMock.createClient(TestFixtures.TEST_API_KEY);
+
+    // When
+    WarmUpResult result =
+        client.warmUp(WarmUpSettings.builder().connections(2).verifyApiKey(true).build());
+
+    // Then
+    assertThat(result.connectionsOpened()).isEqualTo(2);
+    assertThat(result.apiKeyVerified()).isFalse();
+  }
+
+  @Test
+  void shouldRejectConnectionPoolSettingsWithCustomTransport() {
+    assertThatThrownBy(
+            () ->
+                LoopsClient.builder()
+                    .apiKey(TestFixtures.TEST_API_KEY)
+                    .transport(new NoopTransport())
+                    .connectionPool(ConnectionPoolSettings.defaults())
+                    .build())
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  /** Transport whose async calls stay in flight until the test completes them. */
+  private static final class PendingTransport implements Transport {
+    private final List<CompletableFuture<TransportResponse>> pending = new CopyOnWriteArrayList<>();
+
+    @Override
+    public TransportResponse execute(TransportRequest request) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public CompletableFuture<TransportResponse> executeAsync(TransportRequest request) {
+      CompletableFuture<TransportResponse> future = new CompletableFuture<>();
+      pending.add(future);
+      return future;
+    }
+  }
+
+  /** Transport decorator that records every request it sees. */
+  private static final class RecordingTransport implements Transport {
+    private final Transport delegate;
+    private final List<TransportRequest> requests = new ArrayList<>();
+
+    RecordingTransport(Transport delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public synchronized TransportResponse execute(TransportRequest request) {
+      requests.add(request);
+      return delegate.execute(request);
+    }
+
+    @Override
+    public synchronized CompletableFuture<TransportResponse> executeAsync(
+        TransportRequest request) {
+      requests.add(request);
+      return delegate.executeAsync(request);
+    }
+  }
+}
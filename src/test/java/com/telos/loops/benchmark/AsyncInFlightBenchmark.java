@@ -0,0 +1,180 @@
+package com.telos.loops.benchmark;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.telos.loops.TestFixtures;
+import com.telos.loops.events.EventResponse;
+import com.telos.loops.events.EventsClient;
+import com.telos.loops.internal.CoreSender;
+import com.telos.loops.transport.OkHttpTransport;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares in-flight requests against threads used for the async send path.
+ *
+ * <p>Fires {@value #CONCURRENT_SENDS} concurrent {@link EventsClient#sendAsync} calls against a
+ * stub that answers after {@value #RESPONSE_DELAY_MS} ms, and samples how many caller-side threads
+ * (the {@code supplyAsync} pool) and transport threads are parked inside the SDK while the requests
+ * are in flight. The "blocking" row reproduces the previous behaviour (blocking send wrapped in
+ * {@code supplyAsync}) for comparison.
+ *
+ * <p>Run with {@code mvn test -Pbenchmark -Dtest=AsyncInFlightBenchmark}.
+ */
+class AsyncInFlightBenchmark {
+
+  private static final int CONCURRENT_SENDS = 200;
+  private static final int RESPONSE_DELAY_MS = 1000;
+
+  private WireMockServer wireMockServer;
+  private EventsClient eventsClient;
+
+  @BeforeEach
+  void setUp() {
+    wireMockServer =
+        new WireMockServer(
+            WireMockConfiguration.wireMockConfig()
+                .dynamicPort()
+                .containerThreads(CONCURRENT_SENDS * 2));
+    wireMockServer.start();
+    configureFor("localhost", wireMockServer.port());
+    stubFor(
+        post(urlEqualTo("/events/send"))
+            .willReturn(
+                okJson(TestFixtures.eventSendSuccessResponse()).withFixedDelay(RESPONSE_DELAY_MS)));
+
+    Dispatcher dispatcher = new Dispatcher();
+    dispatcher.setMaxRequests(CONCURRENT_SENDS);
+    dispatcher.setMaxRequestsPerHost(CONCURRENT_SENDS);
+    OkHttpClient okHttpClient = new OkHttpClient.Builder().dispatcher(dispatcher).build();
+    CoreSender sender =
+        new CoreSender(
+            new OkHttpTransport(okHttpClient),
+            "http://localhost:" + wireMockServer.port(),
+            TestFixtures.TEST_API_KEY);
+    eventsClient = new EventsClient(sender);
+  }
+
+  @AfterEach
+  void tearDown() {
+    wireMockServer.stop();
+  }
+
+  @Test
+  void measureThreadsPerInFlightRequest() throws Exception {
+    // Warm up connections and JIT before measuring
+    run(() -> eventsClient.sendAsync(TestFixtures.minimalEventSendRequest()));
+
+    Sample nonBlocking = run(() -> eventsClient.sendAsync(TestFixtures.minimalEventSendRequest()));
+    Sample blocking =
+        run(
+            () ->
+                CompletableFuture.supplyAsync(
+                    () -> eventsClient.send(TestFixtures.minimalEventSendRequest())));
+
+    System.out.printf(
+        "%-14s %10s %12s %12s %12s%n",
+        "mode", "in-flight", "caller-pool", "transport", "elapsed-ms");
+    print("non-blocking", nonBlocking);
+    print("blocking", blocking);
+
+    assertThat(nonBlocking.peakCallerThreads()).isZero();
+  }
+
+  private Sample run(Supplier<CompletableFuture<EventResponse>> call) throws Exception {
+    AtomicInteger inFlight = new AtomicInteger();
+    AtomicInteger peakInFlight = new AtomicInteger();
+    AtomicInteger peakCaller = new AtomicInteger();
+    AtomicInteger peakTransport = new AtomicInteger();
+    Thread submitter = Thread.currentThread();
+
+    Thread sampler =
+        Thread.ofPlatform()
+            .daemon()
+            .start(
+                () -> {
+                  while (!Thread.currentThread().isInterrupted()) {
+                    peakInFlight.accumulateAndGet(inFlight.get(), Math::max);
+                    ThreadCounts counts = countBusyThreads(submitter);
+                    peakCaller.accumulateAndGet(counts.caller(), Math::max);
+                    peakTransport.accumulateAndGet(counts.transport(), Math::max);
+                    try {
+                      Thread.sleep(5);
+                    } catch (InterruptedException e) {
+                      return;
+                    }
+                  }
+                });
+
+    long start = System.nanoTime();
+    List<CompletableFuture<EventResponse>> futures = new ArrayList<>(CONCURRENT_SENDS);
+    for (int i = 0; i < CONCURRENT_SENDS; i++) {
+      inFlight.incrementAndGet();
+      futures.add(call.get().whenComplete((response, error) -> inFlight.decrementAndGet()));
+    }
+    CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+    long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+    sampler.interrupt();
+    sampler.join();
+    return new Sample(peakInFlight.get(), peakCaller.get(), peakTransport.get(), elapsedMs);
+  }
+
+  /**
+   * Counts threads currently executing SDK or OkHttp code, split into transport threads (OkHttp's
+   * dispatcher) and everything else except the submitting and sampling threads.
+   */
+  private static ThreadCounts countBusyThreads(Thread submitter) {
+    int caller = 0;
+    int transport = 0;
+    for (Map.Entry<Thread, StackTraceElement[]> entry : Thread.getAllStackTraces().entrySet()) {
+      Thread thread = entry.getKey();
+      if (thread == submitter || thread == Thread.currentThread() || !isInSdk(entry.getValue())) {
+        continue;
+      }
+      if (thread.getName().startsWith("OkHttp")) {
+        transport++;
+      } else {
+        caller++;
+      }
+    }
+    return new ThreadCounts(caller, transport);
+  }
+
+  private static boolean isInSdk(StackTraceElement[] stack) {
+    for (StackTraceElement frame : stack) {
+      String className = frame.getClassName();
+      if (className.startsWith("com.telos.loops.") || className.startsWith("okhttp3.")) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static void print(String mode, Sample sample) {
+    System.out.printf(
+        "%-14s %10d %12d %12d %12d%n",
+        mode,
+        sample.peakInFlight(),
+        sample.peakCallerThreads(),
+        sample.peakTransportThreads(),
+        sample.elapsedMs());
+  }
+
+  private record ThreadCounts(int caller, int transport) {}
+
+  private record Sample(
+      int peakInFlight, int peakCallerThreads, int peakTransportThreads, long elapsedMs) {}
+}
@@ -0,0 +1,143 @@
+package com.telos.loops.benchmark;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.telos.loops.transport.ConcurrencySettings;
+import com.telos.loops.transport.HttpMethod;
+import com.telos.loops.transport.OkHttpTransport;
+import com.telos.loops.transport.ShardedTransport;
+import com.telos.loops.transport.Transport;
+import com.telos.loops.transport.TransportRequest;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares throughput of one HTTP/2 connection against {@link ShardedTransport} over several.
+ *
+ * <p>Each transport sends {@value #REQUESTS} GETs with at most {@value #CONCURRENCY} in flight to a
+ * local cleartext HTTP/2 (h2c) stub that answers after {@value #RESPONSE_DELAY_MS} ms with a
+ * {@value #RESPONSE_BYTES}-byte body, large enough for the streams to compete for one connection's
+ * flow-control window.
+ *
+ * <p>Run with {@code mvn test -Pbenchmark -Dtest=ShardedTransportBenchmark}.
+ */
+class ShardedTransportBenchmark {
+
+  private static final int REQUESTS = 1_000;
+  private static final int CONCURRENCY = 200;
+  private static final int RESPONSE_DELAY_MS = 5;
+  private static final int RESPONSE_BYTES = 32 * 1024;
+
+  private WireMockServer wireMockServer;
+  private String url;
+
+  @BeforeEach
+  void setUp() {
+    wireMockServer =
+        new WireMockServer(
+            WireMockConfiguration.wireMockConfig().dynamicPort().containerThreads(CONCURRENCY * 2));
+    wireMockServer.start();
+    configureFor("localhost", wireMockServer.port());
+    byte[] body = new byte[RESPONSE_BYTES];
+    Arrays.fill(body, (byte) 'x');
+    stubFor(
+        get(urlEqualTo("/contacts/find"))
+            .willReturn(ok().withBody(body).withFixedDelay(RESPONSE_DELAY_MS)));
+    url = "http://localhost:" + wireMockServer.port() + "/contacts/find";
+  }
+
+  @AfterEach
+  void tearDown() {
+    wireMockServer.stop();
+  }
+
+  @Test
+  void compareSingleAndShardedConnections() throws Exception {
+    List<Map.Entry<String, Transport>> transports =
+        List.of(
+            Map.entry("single h2c", new OkHttpTransport(okHttpClient(), concurrency())),
+            Map.entry("2 shards h2c", sharded(2)),
+            Map.entry("4 shards h2c", sharded(4)),
+            Map.entry("8 shards h2c", sharded(8)));
+
+    System.out.printf(
+        "%-16s %12s %10s %10s %10s%n", "transport", "req/s", "p50-ms", "p99-ms", "errors");
+    for (Map.Entry<String, Transport> entry : transports) {
+      run(entry.getValue()); // warm-up
+      Result result = run(entry.getValue());
+      System.out.printf(
+          "%-16s %12.0f %10.2f %10.2f %10d%n",
+          entry.getKey(),
+          result.throughput(),
+          result.p50Millis(),
+          result.p99Millis(),
+          result.errors());
+      assertThat(result.errors()).isZero();
+    }
+  }
+
+  private Result run(Transport transport) throws Exception {
+    TransportRequest request = new TransportRequest(HttpMethod.GET, url, Map.of(), null);
+    Semaphore window = new Semaphore(CONCURRENCY);
+    long[] latencies = new long[REQUESTS];
+    AtomicInteger errors = new AtomicInteger();
+    CompletableFuture<?>[] futures = new CompletableFuture<?>[REQUESTS];
+
+    long start = System.nanoTime();
+    for (int i = 0; i < REQUESTS; i++) {
+      window.acquire();
+      int index = i;
+      long sent = System.nanoTime();
+      futures[i] =
+          transport
+              .executeAsync(request)
+              .whenComplete(
+                  (response, error) -> {
+                    latencies[index] = System.nanoTime() - sent;
+                    if (error != null || response.status() != 200) {
+                      errors.incrementAndGet();
+                    }
+                    window.release();
+                  });
+    }
+    CompletableFuture.allOf(futures).handle((ignored, error) -> null).join();
+    long elapsed = System.nanoTime() - start;
+
+    Arrays.sort(latencies);
+    return new Result(
+        REQUESTS / (elapsed / 1e9),
+        latencies[REQUESTS / 2] / 1e6,
+        latencies[(int) (REQUESTS * 0.99)] / 1e6,
+        errors.get());
+  }
+
+  private static OkHttpClient okHttpClient() {
+    return new OkHttpClient.Builder().protocols(List.of(Protocol.H2_PRIOR_KNOWLEDGE)).build();
+  }
+
+  /** Same per-transport limits for every contender, so only the number of connections differs. */
+  private static ConcurrencySettings concurrency() {
+    return ConcurrencySettings.builder()
+        .maxRequests(CONCURRENCY)
+        .maxRequestsPerHost(CONCURRENCY)
+        .build();
+  }
+
+  private static ShardedTransport sharded(int shards) {
+    return ShardedTransport.okHttp(okHttpClient(), shards, concurrency(), null);
+  }
+
+  private record Result(double throughput, double p50Millis, double p99Millis, int errors) {}
+}
@@ -0,0 +1,142 @@
+package com.telos.loops.benchmark;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.telos.loops.TestFixtures;
+import com.telos.loops.transport.HttpMethod;
+import com.telos.loops.transport.JdkHttpTransport;
+import com.telos.loops.transport.OkHttpTransport;
+import com.telos.loops.transport.Transport;
+import com.telos.loops.transport.TransportRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares throughput and latency of {@link OkHttpTransport} and {@link JdkHttpTransport}.
+ *
+ * <p>Each transport sends {@value #REQUESTS} POSTs with at most {@value #CONCURRENCY} in flight to
+ * a local stub that answers after {@value #RESPONSE_DELAY_MS} ms. The stub speaks HTTP/1.1 and
+ * cleartext HTTP/2 (h2c), so the OkHttp prior-knowledge row and the JDK row both exercise HTTP/2
+ * multiplexing.
+ *
+ * <p>Run with {@code mvn test -Pbenchmark -Dtest=TransportComparisonBenchmark}.
+ */
+class TransportComparisonBenchmark {
+
+  private static final int REQUESTS = 2_000;
+  private static final int CONCURRENCY = 100;
+  private static final int RESPONSE_DELAY_MS = 10;
+  private static final byte[] BODY =
+      "{\"eventName\":\"Signup\",\"email\":\"user@example.com\"}".getBytes(StandardCharsets.UTF_8);
+
+  private WireMockServer wireMockServer;
+  private String url;
+
+  @BeforeEach
+  void setUp() {
+    wireMockServer =
+        new WireMockServer(
+            WireMockConfiguration.wireMockConfig().dynamicPort().containerThreads(CONCURRENCY * 2));
+    wireMockServer.start();
+    configureFor("localhost", wireMockServer.port());
+    stubFor(
+        post(urlEqualTo("/events/send"))
+            .willReturn(
+                okJson(TestFixtures.eventSendSuccessResponse()).withFixedDelay(RESPONSE_DELAY_MS)));
+    url = "http://localhost:" + wireMockServer.port() + "/events/send";
+  }
+
+  @AfterEach
+  void tearDown() {
+    wireMockServer.stop();
+  }
+
+  @Test
+  void compareTransports() throws Exception {
+    List<Map.Entry<String, Transport>> transports =
+        List.of(
+            Map.entry("okhttp http/1.1", new OkHttpTransport(okHttpClient(false))),
+            Map.entry("okhttp h2c", new OkHttpTransport(okHttpClient(true))),
+            Map.entry("jdk http/2", new JdkHttpTransport()),
+            Map.entry("jdk http/2 vthreads", JdkHttpTransport.withVirtualThreads()));
+
+    System.out.printf(
+        "%-22s %12s %10s %10s %10s%n", "transport", "req/s", "p50-ms", "p99-ms", "errors");
+    for (Map.Entry<String, Transport> entry : transports) {
+      run(entry.getValue()); // warm-up
+      Result result = run(entry.getValue());
+      System.out.printf(
+          "%-22s %12.0f %10.2f %10.2f %10d%n",
+          entry.getKey(),
+          result.throughput(),
+          result.p50Millis(),
+          result.p99Millis(),
+          result.errors());
+      assertThat(result.errors()).isZero();
+    }
+  }
+
+  private Result run(Transport transport) throws Exception {
+    TransportRequest request =
+        new TransportRequest(
+            HttpMethod.POST, url, Map.of("Content-Type", "application/json"), BODY);
+    Semaphore window = new Semaphore(CONCURRENCY);
+    long[] latencies = new long[REQUESTS];
+    AtomicInteger errors = new AtomicInteger();
+    CompletableFuture<?>[] futures = new CompletableFuture<?>[REQUESTS];
+
+    long start = System.nanoTime();
+    for (int i = 0; i < REQUESTS; i++) {
+      window.acquire();
+      int index = i;
+      long sent = System.nanoTime();
+      futures[i] =
+          transport
+              .executeAsync(request)
+              .whenComplete(
+                  (response, error) -> {
+                    latencies[index] = System.nanoTime() - sent;
+                    if (error != null || response.status() != 200) {
+                      errors.incrementAndGet();
+                    }
+                    window.release();
+                  });
+    }
+    CompletableFuture.allOf(futures).handle((ignored, error) -> null).join();
+    long elapsed = System.nanoTime() - start;
+
+    Arrays.sort(latencies);
+    return new Result(
+        REQUESTS / (elapsed / 1e9),
+        latencies[REQUESTS / 2] / 1e6,
+        latencies[(int) (REQUESTS * 0.99)] / 1e6,
+        errors.get());
+  }
+
+  private static OkHttpClient okHttpClient(boolean h2PriorKnowledge) {
+    Dispatcher dispatcher = new Dispatcher();
+    dispatcher.setMaxRequests(CONCURRENCY);
+    dispatcher.setMaxRequestsPerHost(CONCURRENCY);
+    OkHttpClient.Builder builder = new OkHttpClient.Builder().dispatcher(dispatcher);
+    if (h2PriorKnowledge) {
+      builder.protocols(List.of(Protocol.H2_PRIOR_KNOWLEDGE));
+    }
+    return builder.build();
+  }
+
+  private record Result(double throughput, double p50Millis, double p99Millis, int errors) {}
+}
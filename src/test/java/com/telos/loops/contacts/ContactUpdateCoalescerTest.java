@@ -0,0 +1,214 @@
+package com.telos.loops.contacts;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.assertj.core.api.Assertions.*;
+import static org.awaitility.Awaitility.await;
+
+import com.telos.loops.AsyncTestUtils;
+import com.telos.loops.LoopsClient;
+import com.telos.loops.TestFixtures;
+import com.telos.loops.WireMockSetup;
+import com.telos.loops.error.LoopsApiException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ContactUpdateCoalescerTest {
+
+  private static final CoalescingSettings SHORT_WINDOW =
+      CoalescingSettings.builder().window(Duration.ofMillis(200)).build();
+
+  private WireMockSetup wireMock;
+  private LoopsClient client;
+
+  @BeforeEach
+  void setUp() {
+    wireMock = new WireMockSetup();
+    client = wireMock.createClient(TestFixtures.TEST_API_KEY);
+    stubFor(
+        put(urlEqualTo("/contacts/update"))
+            .willReturn(okJson(TestFixtures.contactCreateSuccessResponse())));
+  }
+
+  @AfterEach
+  void tearDown() {
+    wireMock.stop();
+  }
+
+  @Test
+  void shouldMergeFieldsLastWriteWins() {
+    // Given
+    ContactUpdateRequest earlier =
+        ContactUpdateRequest.builder()
+            .email("a@example.com")
+            .firstName("Neil")
+            .lastName("Armstrong")
+            .putMailingList("list-1", true)
+            .putAdditionalProperty("plan", "free")
+            .putAdditionalProperty("seats", 1)
+            .build();
+    ContactUpdateRequest later =
+        ContactUpdateRequest.builder()
+            .email("a@example.com")
+            .firstName("Buzz")
+            .putMailingList("list-2", false)
+            .putAdditionalProperty("plan", "pro")
+            .build();
+
+    // When
+    ContactUpdateRequest merged = ContactUpdateCoalescer.merge(earlier, later);
+
+    // Then
+    assertThat(merged.firstName()).isEqualTo("Buzz");
+    assertThat(merged.lastName()).isEqualTo("Armstrong");
+    assertThat(merged.mailingLists()).isEqualTo(Map.of("list-1", true, "list-2", false));
+    assertThat(merged.additionalProperties()).isEqualTo(Map.of("plan", "pro", "seats", 1));
+  }
+
+  @Test
+  void shouldSendOneMergedUpdatePerContactPerWindow() {
+    // Given
+    ContactUpdateCoalescer coalescer = client.contacts().coalescing(SHORT_WINDOW);
+
+    // When
+    CompletableFuture<ContactResponse> first =
+        coalescer.updateAsync(
+            ContactUpdateRequest.builder()
+                .email(TestFixtures.TEST_EMAIL)
+                .firstName("Jane")
+                .build());
+    CompletableFuture<ContactResponse> second =
+        coalescer.updateAsync(
+            ContactUpdateRequest.builder()
+                .email(TestFixtures.TEST_EMAIL)
+                .lastName("Smith")
+                .build());
+    CompletableFuture<ContactResponse> third =
+        coalescer.updateAsync(
+            ContactUpdateRequest.builder()
+                .email(TestFixtures.TEST_EMAIL)
+                .putMailingList("list-1", true)
+                .build());
+
+    // Then
+    assertThat(AsyncTestUtils.awaitCompletion(first).id()).isEqualTo("contact-123");
+    assertThat(AsyncTestUtils.awaitCompletion(second).id()).isEqualTo("contact-123");
+    assertThat(AsyncTestUtils.awaitCompletion(third).id()).isEqualTo("contact-123");
+    verify(
+        1,
+        putRequestedFor(urlEqualTo("/contacts/update"))
+            .withRequestBody(matchingJsonPath("$.firstName", equalTo("Jane")))
+            .withRequestBody(matchingJsonPath("$.lastName", equalTo("Smith")))
+            .withRequestBody(matchingJsonPath("$.mailingLists.list-1", equalTo("true"))));
+    assertThat(coalescer.stats()).isEqualTo(new CoalescingStats(0, 3, 1));
+    coalescer.close();
+  }
+
+  @Test
+  void shouldKeepContactsApart() {
+    // Given
+    ContactUpdateCoalescer coalescer = client.contacts().coalescing(SHORT_WINDOW);
+
+    // When
+    CompletableFuture<ContactResponse> byEmail =
+        coalescer.updateAsync(
+            ContactUpdateRequest.builder().email("a@example.com").firstName("A").build());
+    CompletableFuture<ContactResponse> byUserId =
+        coalescer.updateAsync(
+            ContactUpdateRequest.builder().userId("user-b").firstName("B").build());
+    CompletableFuture.allOf(byEmail, byUserId).join();
+
+    // Then
+    verify(2, putRequestedFor(urlEqualTo("/contacts/update")));
+    coalescer.close();
+  }
+
+  @Test
+  void shouldSendAtOnceWhenTooManyContactsArePending() {
+    // Given
+    ContactUpdateCoalescer coalescer =
+        client
+            .contacts()
+            .coalescing(
+                CoalescingSettings.builder()
+                    .window(Duration.ofHours(1))
+                    .maxPendingContacts(1)
+                    .build());
+    coalescer.updateAsync(ContactUpdateRequest.builder().email("a@example.com").build());
+
+    // When
+    CompletableFuture<ContactResponse> overflow =
+        coalescer.updateAsync(ContactUpdateRequest.builder().email("b@example.com").build());
+
+    // Then
+    AsyncTestUtils.awaitCompletion(overflow);
+    verify(
+        1,
+        putRequestedFor(urlEqualTo("/contacts/update"))
+            .withRequestBody(matchingJsonPath("$.email", equalTo("b@example.com"))));
+    assertThat(coalescer.stats().pendingContacts()).isEqualTo(1);
+    coalescer.close();
+  }
+
+  @Test
+  void shouldSendPendingUpdatesOnClose() {
+    // Given
+    ContactUpdateCoalescer coalescer =
+        client
+            .contacts()
+            .coalescing(CoalescingSettings.builder().window(Duration.ofHours(1)).build());
+    CompletableFuture<ContactResponse> pending =
+        coalescer.updateAsync(
+            ContactUpdateRequest.builder()
+                .email(TestFixtures.TEST_EMAIL)
+                .firstName("Jane")
+                .build());
+
+    // When
+    coalescer.close();
+
+    // Then
+    assertThat(AsyncTestUtils.awaitCompletion(pending).id()).isEqualTo("contact-123");
+    verify(1, putRequestedFor(urlEqualTo("/contacts/update")));
+  }
+
+  @Test
+  void shouldFailEveryCallerWhenMergedUpdateFails() {
+    // Given
+    stubFor(
+        put(urlEqualTo("/contacts/update"))
+            .willReturn(
+                aResponse()
+                    .withStatus(400)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody(TestFixtures.validationErrorResponse())));
+    ContactUpdateCoalescer coalescer = client.contacts().coalescing(SHORT_WINDOW);
+
+    // When
+    CompletableFuture<ContactResponse> first =
+        coalescer.updateAsync(
+            ContactUpdateRequest.builder()
+                .email(TestFixtures.TEST_EMAIL)
+                .firstName("Jane")
+                .build());
+    CompletableFuture<ContactResponse> second =
+        coalescer.updateAsync(
+            ContactUpdateRequest.builder()
+                .email(TestFixtures.TEST_EMAIL)
+                .lastName("Smith")
+                .build());
+
+    // Then
+    await().atMost(Duration.ofSeconds(5)).until(() -> first.isDone() && second.isDone());
+    assertThatThrownBy(first::join)
+        .isInstanceOf(CompletionException.class)
+        .hasCauseInstanceOf(LoopsApiException.class);
+    assertThatThrownBy(second::join).hasCauseInstanceOf(LoopsApiException.class);
+    verify(1, putRequestedFor(urlEqualTo("/contacts/update")));
+    coalescer.close();
+  }
+}
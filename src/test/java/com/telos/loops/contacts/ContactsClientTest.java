@@ -9,10 +9,15 @@ import com.telos.loops.TestFixtures;
 import com.telos.loops.WireMockSetup;
 import com.telos.loops.error.LoopsApiException;
 import com.telos.loops.error.RateLimitExceededException;
+import com.telos.loops.model.BulkResult;
+import com.telos.loops.model.BulkSettings;
+import com.telos.loops.model.BulkSummary;
 import com.telos.loops.model.RequestOptions;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -422,4 +427,55 @@ class ContactsClientTest {
     assertThat(exception.statusCode()).isEqualTo(429);
     assertThat(exception.retryAfterSeconds()).isEqualTo(30);
   }
+
+  // ============================================================
+  // Bulk Operation Tests
+  // ============================================================
+
+  @Test
+  void shouldRunMixedBulkWritesAndReportEachOutcome() {
+    // Given
+    wireMock.stubPostSuccess("/contacts/create", TestFixtures.contactCreateSuccessResponse());
+    stubFor(
+        put(urlEqualTo("/contacts/update"))
+            .willReturn(
+                aResponse()
+                    .withStatus(400)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody(TestFixtures.validationErrorResponse())));
+    stubFor(
+        delete(urlEqualTo("/contacts/delete"))
+            .willReturn(
+                okJson(
+                    """
+                    {"success": true, "message": "Contact deleted."}
+                    """)));
+    Stream<ContactWriteRequest> requests =
+        Stream.of(
+            TestFixtures.minimalContactCreateRequest(),
+            ContactUpdateRequest.builder().email(TestFixtures.TEST_EMAIL).firstName("Jane").build(),
+            new ContactDeleteRequest(TestFixtures.TEST_EMAIL, null));
+    List<BulkResult<ContactWriteRequest, ContactResponse>> results = new CopyOnWriteArrayList<>();
+
+    // When
+    BulkSummary summary =
+        client
+            .contacts()
+            .bulk(requests, BulkSettings.builder().concurrency(2).build(), results::add);
+
+    // Then
+    assertThat(summary.succeeded()).isEqualTo(2);
+    assertThat(summary.failed()).isEqualTo(1);
+    assertThat(summary.completed()).isTrue();
+    assertThat(results)
+        .filteredOn(result -> !result.isSuccess())
+        .singleElement()
+        .satisfies(
+            result -> {
+              assertThat(result.index()).isEqualTo(1);
+              assertThat(result.error().statusCode()).isEqualTo(400);
+            });
+    verify(1, postRequestedFor(urlEqualTo("/contacts/create")));
+    verify(1, deleteRequestedFor(urlEqualTo("/contacts/delete")));
+  }
 }
@@ -0,0 +1,198 @@
+package com.telos.loops.events;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.assertj.core.api.Assertions.*;
+import static org.awaitility.Awaitility.await;
+
+import com.telos.loops.LoopsClient;
+import com.telos.loops.TestFixtures;
+import com.telos.loops.WireMockSetup;
+import com.telos.loops.error.LoopsApiException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BufferedEventSinkTest {
+
+  private static final Duration NEVER = Duration.ofHours(1);
+
+  private WireMockSetup wireMock;
+  private LoopsClient client;
+
+  @BeforeEach
+  void setUp() {
+    wireMock = new WireMockSetup();
+    client = wireMock.createClient(TestFixtures.TEST_API_KEY);
+  }
+
+  @AfterEach
+  void tearDown() {
+    wireMock.stop();
+  }
+
+  @Test
+  void shouldSendBufferedEventsOnFlush() throws Exception {
+    // Given
+    wireMock.stubPostSuccess("/events/send", TestFixtures.eventSendSuccessResponse());
+    BufferedEventSink sink =
+        client.events().buffered(EventSinkSettings.builder().flushInterval(NEVER).build());
+
+    // When
+    for (int i = 0; i < 10; i++) {
+      assertThat(sink.offer(TestFixtures.minimalEventSendRequest())).isTrue();
+    }
+    sink.flush(Duration.ofSeconds(5));
+
+    // Then
+    verify(10, postRequestedFor(urlEqualTo("/events/send")));
+    assertThat(sink.stats()).isEqualTo(new EventSinkStats(0, 0, 10, 10, 0, 0));
+    sink.close();
+  }
+
+  @Test
+  void shouldFlushOnceFlushSizeEventsAreBuffered() {
+    // Given
+    wireMock.stubPostSuccess("/events/send", TestFixtures.eventSendSuccessResponse());
+    BufferedEventSink sink =
+        client
+            .events()
+            .buffered(EventSinkSettings.builder().flushSize(5).flushInterval(NEVER).build());
+
+    // When
+    for (int i = 0; i < 5; i++) {
+      sink.offer(TestFixtures.minimalEventSendRequest());
+    }
+
+    // Then
+    await().atMost(Duration.ofSeconds(5)).until(() -> sink.stats().sent() == 5);
+    sink.close();
+  }
+
+  @Test
+  void shouldFlushWhenIntervalPasses() {
+    // Given
+    wireMock.stubPostSuccess("/events/send", TestFixtures.eventSendSuccessResponse());
+    BufferedEventSink sink =
+        client
+            .events()
+            .buffered(EventSinkSettings.builder().flushInterval(Duration.ofMillis(50)).build());
+
+    // When
+    sink.offer(TestFixtures.minimalEventSendRequest());
+
+    // Then
+    await().atMost(Duration.ofSeconds(5)).until(() -> sink.stats().sent() == 1);
+    sink.close();
+  }
+
+  @Test
+  void shouldDropNewEventsWhileBufferIsFull() {
+    // Given
+    BufferedEventSink sink =
+        client
+            .events()
+            .buffered(
+                EventSinkSettings.builder()
+                    .capacity(4)
+                    .flushSize(4)
+                    .flushInterval(NEVER)
+                    .closeTimeout(Duration.ZERO)
+                    .build());
+    stubFor(
+        post(urlEqualTo("/events/send"))
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody(TestFixtures.eventSendSuccessResponse())
+                    .withFixedDelay(2_000)));
+
+    // When
+    int acceptedCount = 0;
+    for (int i = 0; i < 20; i++) {
+      if (sink.offer(TestFixtures.minimalEventSendRequest())) {
+        acceptedCount++;
+      }
+    }
+
+    // Then
+    EventSinkStats stats = sink.stats();
+    assertThat(acceptedCount).isLessThan(20);
+    assertThat(stats.accepted()).isEqualTo(acceptedCount);
+    assertThat(stats.dropped()).isEqualTo(20 - acceptedCount);
+    sink.close();
+  }
+
+  @Test
+  void shouldEvictOldestEventsWhileBufferIsFull() throws Exception {
+    // Given
+    wireMock.stubPostSuccess("/events/send", TestFixtures.eventSendSuccessResponse());
+    BufferedEventSink sink =
+        client
+            .events()
+            .buffered(
+                EventSinkSettings.builder()
+                    .capacity(4)
+                    .flushSize(4)
+                    .flushInterval(NEVER)
+                    .overflowPolicy(OverflowPolicy.DROP_OLDEST)
+                    .build());
+
+    // When
+    for (int i = 0; i < 20; i++) {
+      assertThat(sink.offer(TestFixtures.minimalEventSendRequest())).isTrue();
+    }
+    sink.flush(Duration.ofSeconds(5));
+
+    // Then
+    EventSinkStats stats = sink.stats();
+    assertThat(stats.accepted()).isEqualTo(20);
+    assertThat(stats.sent() + stats.dropped()).isEqualTo(20);
+    sink.close();
+  }
+
+  @Test
+  void shouldReportFailedSendsToHandler() throws Exception {
+    // Given
+    wireMock.stubValidationError("/events/send");
+    List<LoopsApiException> failures = new CopyOnWriteArrayList<>();
+    BufferedEventSink sink =
+        client
+            .events()
+            .buffered(
+                EventSinkSettings.builder().flushInterval(NEVER).build(),
+                (event, error) -> failures.add(error));
+
+    // When
+    for (int i = 0; i < 3; i++) {
+      sink.offer(TestFixtures.minimalEventSendRequest());
+    }
+    sink.flush(Duration.ofSeconds(5));
+
+    // Then
+    assertThat(failures).hasSize(3).allSatisfy(e -> assertThat(e.statusCode()).isEqualTo(400));
+    assertThat(sink.stats().failed()).isEqualTo(3);
+    sink.close();
+  }
+
+  @Test
+  void shouldSendBufferedEventsOnCloseAndRejectLaterOffers() {
+    // Given
+    wireMock.stubPostSuccess("/events/send", TestFixtures.eventSendSuccessResponse());
+    BufferedEventSink sink =
+        client.events().buffered(EventSinkSettings.builder().flushInterval(NEVER).build());
+    sink.offer(TestFixtures.minimalEventSendRequest());
+    sink.offer(TestFixtures.minimalEventSendRequest());
+
+    // When
+    sink.close();
+
+    // Then
+    verify(2, postRequestedFor(urlEqualTo("/events/send")));
+    assertThat(sink.offer(TestFixtures.minimalEventSendRequest())).isFalse();
+    assertThat(sink.stats().dropped()).isEqualTo(1);
+  }
+}
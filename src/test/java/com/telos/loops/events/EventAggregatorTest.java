@@ -0,0 +1,199 @@
+package com.telos.loops.events;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class EventAggregatorTest {
+
+  private static final Duration NEVER = Duration.ofHours(1);
+
+  private final List<EventSendRequest> emitted = new CopyOnWriteArrayList<>();
+
+  private EventAggregator aggregator(AggregationSettings.Builder settings) {
+    return new EventAggregator(settings.window(NEVER).build(), emitted::add);
+  }
+
+  private static EventSendRequest usage(String email, Object seconds) {
+    return EventSendRequest.builder()
+        .email(email)
+        .eventName("featureUsed")
+        .putEventProperty("seconds", seconds)
+        .putEventProperty("feature", "export-" + seconds)
+        .build();
+  }
+
+  @Test
+  void shouldReduceGroupPropertiesIntoOneEvent() {
+    // Given
+    EventAggregator aggregator =
+        aggregator(
+            AggregationSettings.builder()
+                .reducer("uses", PropertyReducer.COUNT)
+                .reducer("seconds", PropertyReducer.SUM)
+                .reducer("peak", PropertyReducer.MAX)
+                .reducer("plan", PropertyReducer.LAST));
+
+    // When
+    aggregator.record(usage("a@example.com", 3));
+    aggregator.record(
+        EventSendRequest.builder()
+            .email("a@example.com")
+            .eventName("featureUsed")
+            .putEventProperty("seconds", 4)
+            .putEventProperty("peak", 7)
+            .putEventProperty("plan", "pro")
+            .build());
+    aggregator.record(usage("a@example.com", 5));
+    aggregator.flush();
+
+    // Then
+    assertThat(emitted).hasSize(1);
+    EventSendRequest event = emitted.get(0);
+    assertThat(event.email()).isEqualTo("a@example.com");
+    assertThat(event.eventName()).isEqualTo("featureUsed");
+    assertThat(event.eventProperties())
+        .containsEntry("uses", 3L)
+        .containsEntry("seconds", 12L)
+        .containsEntry("peak", 7L)
+        .containsEntry("plan", "pro")
+        .containsEntry("feature", "export-5");
+    assertThat(aggregator.stats()).isEqualTo(new AggregationStats(0, 3, 1, 0));
+    aggregator.close();
+  }
+
+  @Test
+  void shouldKeepFractionalSumsAndOmitUnseenProperties() {
+    // Given
+    EventAggregator aggregator =
+        aggregator(
+            AggregationSettings.builder()
+                .reducer("seconds", PropertyReducer.SUM)
+                .reducer("peak", PropertyReducer.MAX));
+
+    // When
+    aggregator.record(usage("a@example.com", 1));
+    aggregator.record(usage("a@example.com", 0.5));
+    aggregator.flush();
+
+    // Then
+    assertThat(emitted.get(0).eventProperties())
+        .containsEntry("seconds", 1.5)
+        .doesNotContainKey("peak");
+  }
+
+  @Test
+  void shouldEmitOneEventPerContactAndEventName() {
+    // Given
+    EventAggregator aggregator =
+        aggregator(AggregationSettings.builder().reducer("uses", PropertyReducer.COUNT));
+
+    // When
+    aggregator.record(usage("a@example.com", 1));
+    aggregator.record(usage("b@example.com", 1));
+    aggregator.record(
+        EventSendRequest.builder().email("a@example.com").eventName("exported").build());
+    aggregator.record(EventSendRequest.builder().userId("user-a").eventName("featureUsed").build());
+    aggregator.record(usage("a@example.com", 1));
+    aggregator.flush();
+
+    // Then
+    assertThat(emitted).hasSize(4);
+    assertThat(emitted)
+        .filteredOn(e -> "a@example.com".equals(e.email()) && e.eventName().equals("featureUsed"))
+        .singleElement()
+        .satisfies(e -> assertThat(e.eventProperties()).containsEntry("uses", 2L));
+  }
+
+  @Test
+  void shouldStartNewWindowAfterEmitting() {
+    // Given
+    EventAggregator aggregator =
+        aggregator(AggregationSettings.builder().reducer("uses", PropertyReducer.COUNT));
+    aggregator.record(usage("a@example.com", 1));
+    aggregator.flush();
+
+    // When
+    aggregator.record(usage("a@example.com", 1));
+    aggregator.flush();
+
+    // Then
+    assertThat(emitted)
+        .hasSize(2)
+        .allSatisfy(e -> assertThat(e.eventProperties()).containsEntry("uses", 1L));
+  }
+
+  @Test
+  void shouldPassEventsThroughOnceMaxGroupsIsReached() {
+    // Given: one group per stripe
+    EventAggregator aggregator =
+        aggregator(
+            AggregationSettings.builder().maxGroups(16).reducer("uses", PropertyReducer.COUNT));
+
+    // When
+    IntStream.range(0, 1_000)
+        .forEach(i -> aggregator.record(usage("user" + i + "@example.com", 1)));
+
+    // Then
+    AggregationStats stats = aggregator.stats();
+    assertThat(stats.groups()).isLessThanOrEqualTo(16);
+    assertThat(stats.passedThrough()).isEqualTo(1_000 - stats.groups());
+    assertThat(emitted).hasSize(1_000 - stats.groups());
+    aggregator.close();
+    assertThat(emitted).hasSize(1_000);
+  }
+
+  @Test
+  void shouldAggregateConcurrentRecordsAcrossManyGroups() {
+    // Given
+    EventAggregator aggregator =
+        aggregator(
+            AggregationSettings.builder()
+                .reducer("uses", PropertyReducer.COUNT)
+                .reducer("seconds", PropertyReducer.SUM));
+
+    // When
+    CompletableFuture<?>[] writers =
+        IntStream.range(0, 4)
+            .mapToObj(
+                writer ->
+                    CompletableFuture.runAsync(
+                        () -> {
+                          for (int i = 0; i < 10_000; i++) {
+                            aggregator.record(usage("user" + (i % 500) + "@example.com", 2));
+                          }
+                        }))
+            .toArray(CompletableFuture[]::new);
+    CompletableFuture.allOf(writers).join();
+    aggregator.close();
+
+    // Then
+    assertThat(emitted).hasSize(500);
+    assertThat(emitted)
+        .allSatisfy(
+            e ->
+                assertThat(e.eventProperties())
+                    .containsEntry("uses", 80L)
+                    .containsEntry("seconds", 160L));
+    assertThat(emitted).extracting(EventSendRequest::email).doesNotHaveDuplicates();
+  }
+
+  @Test
+  void shouldPassEventsThroughAfterClose() {
+    // Given
+    EventAggregator aggregator = aggregator(AggregationSettings.builder());
+    aggregator.close();
+
+    // When
+    aggregator.record(usage("a@example.com", 1));
+
+    // Then
+    assertThat(emitted).hasSize(1);
+    assertThat(aggregator.stats().passedThrough()).isEqualTo(1);
+  }
+}
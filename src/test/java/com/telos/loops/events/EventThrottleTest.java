@@ -0,0 +1,85 @@
+package com.telos.loops.events;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.telos.loops.error.EventThrottledException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class EventThrottleTest {
+
+  private final AtomicLong nanos = new AtomicLong();
+  private final EventThrottle throttle =
+      new EventThrottle(
+          EventThrottleSettings.builder().limit("cartAbandoned", Duration.ofHours(6)).build(),
+          nanos::get);
+
+  private static EventSendRequest event(String eventName, String email) {
+    return EventSendRequest.builder().email(email).eventName(eventName).build();
+  }
+
+  @Test
+  void shouldSuppressRepeatWithinInterval() {
+    // Given
+    throttle.acquire(event("cartAbandoned", "a@example.com"));
+
+    // When
+    nanos.addAndGet(TimeUnit.HOURS.toNanos(5));
+
+    // Then
+    assertThatThrownBy(() -> throttle.acquire(event("cartAbandoned", "a@example.com")))
+        .isInstanceOf(EventThrottledException.class)
+        .hasMessageContaining("cartAbandoned");
+    assertThat(throttle.stats()).isEqualTo(new EventThrottleStats(1, 1, 0));
+  }
+
+  @Test
+  void shouldAllowAgainOnceIntervalHasPassed() {
+    // Given
+    throttle.acquire(event("cartAbandoned", "a@example.com"));
+
+    // When
+    nanos.addAndGet(TimeUnit.HOURS.toNanos(6));
+
+    // Then
+    assertThat(throttle.acquire(event("cartAbandoned", "a@example.com"))).isNotZero();
+  }
+
+  @Test
+  void shouldThrottleEachContactAndEventSeparately() {
+    // Given
+    throttle.acquire(event("cartAbandoned", "a@example.com"));
+
+    // When/Then
+    assertThat(throttle.acquire(event("cartAbandoned", "b@example.com"))).isNotZero();
+    assertThat(
+            throttle.acquire(
+                EventSendRequest.builder()
+                    .userId("a@example.com")
+                    .eventName("cartAbandoned")
+                    .build()))
+        .isNotZero();
+    assertThat(throttle.acquire(event("pageViewed", "a@example.com"))).isZero();
+    assertThat(throttle.acquire(event("pageViewed", "a@example.com"))).isZero();
+  }
+
+  @Test
+  void shouldAllowRetryAfterRelease() {
+    // Given
+    long key = throttle.acquire(event("cartAbandoned", "a@example.com"));
+
+    // When
+    throttle.release(key);
+
+    // Then
+    assertThat(throttle.acquire(event("cartAbandoned", "a@example.com"))).isEqualTo(key);
+  }
+
+  @Test
+  void shouldHashFieldBoundariesApart() {
+    assertThat(EventThrottle.hash("ab", 'e', "c")).isNotEqualTo(EventThrottle.hash("a", 'e', "bc"));
+    assertThat(EventThrottle.hash("xe", 'u', "y")).isNotEqualTo(EventThrottle.hash("x", 'e', "uy"));
+  }
+}
@@ -7,9 +7,11 @@ import com.telos.loops.AsyncTestUtils;
 import com.telos.loops.LoopsClient;
 import com.telos.loops.TestFixtures;
 import com.telos.loops.WireMockSetup;
+import com.telos.loops.error.EventThrottledException;
 import com.telos.loops.error.LoopsApiException;
 import com.telos.loops.error.LoopsValidationException;
 import com.telos.loops.error.RateLimitExceededException;
+import java.time.Duration;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import org.junit.jupiter.api.AfterEach;
@@ -301,4 +303,53 @@ class EventsClientTest {
         .isInstanceOf(LoopsValidationException.class)
         .hasMessageContaining("eventName is required");
   }
+
+  // ============================================================
+  // Throttling Tests
+  // ============================================================
+
+  @Test
+  void shouldSuppressThrottledEventWithoutCallingApi() {
+    // Given
+    wireMock.stubPostSuccess("/events/send", TestFixtures.eventSendSuccessResponse());
+    EventsClient throttled =
+        client
+            .events()
+            .throttled(
+                EventThrottleSettings.builder().limit("Signup", Duration.ofHours(6)).build());
+    throttled.send(TestFixtures.minimalEventSendRequest());
+
+    // When
+    CompletableFuture<EventResponse> repeat =
+        throttled.sendAsync(TestFixtures.minimalEventSendRequest());
+
+    // Then
+    AsyncTestUtils.awaitException(repeat, EventThrottledException.class);
+    assertThatThrownBy(() -> throttled.send(TestFixtures.minimalEventSendRequest()))
+        .isInstanceOf(EventThrottledException.class);
+    verify(1, postRequestedFor(urlEqualTo("/events/send")));
+    assertThat(throttled.throttleStats()).isEqualTo(new EventThrottleStats(1, 2, 0));
+    assertThat(client.events().throttleStats()).isEqualTo(new EventThrottleStats(0, 0, 0));
+  }
+
+  @Test
+  void shouldNotCountFailedSendAgainstThrottle() {
+    // Given
+    wireMock.stubValidationError("/events/send");
+    EventsClient throttled =
+        client
+            .events()
+            .throttled(
+                EventThrottleSettings.builder().limit("Signup", Duration.ofHours(6)).build());
+    assertThatThrownBy(() -> throttled.send(TestFixtures.minimalEventSendRequest()))
+        .isInstanceOf(LoopsApiException.class)
+        .isNotInstanceOf(EventThrottledException.class);
+
+    // When
+    wireMock.stubPostSuccess("/events/send", TestFixtures.eventSendSuccessResponse());
+    EventResponse response = throttled.send(TestFixtures.minimalEventSendRequest());
+
+    // Then
+    assertThat(response.success()).isTrue();
+  }
 }
@@ -0,0 +1,139 @@
+package com.telos.loops.internal;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.telos.loops.error.OverloadedException;
+import com.telos.loops.resilience.AdmissionSettings;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class AdmissionControllerTest {
+
+  private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+  @Test
+  void shouldShedBeyondMaxQueueDepth() {
+    // Given
+    AdmissionController admission =
+        new AdmissionController(AdmissionSettings.builder().maxQueueDepth(2).build(), clock::get);
+    admission.admit(0);
+    admission.admit(0);
+
+    // When/Then
+    assertThat(admission.isSaturated()).isTrue();
+    assertThat(admission.capacity()).isZero();
+    assertThatThrownBy(() -> admission.admit(0))
+        .isInstanceOf(OverloadedException.class)
+        .hasMessageContaining("2 requests already pending");
+    assertThat(admission.pending()).isEqualTo(2);
+    assertThat(admission.rejectedCount()).isEqualTo(1);
+
+    admission.release(0);
+    assertThat(admission.capacity()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldShedBeyondPendingByteBudget() {
+    // Given
+    AdmissionController admission =
+        new AdmissionController(
+            AdmissionSettings.builder().maxPendingBytes(1_000).build(), clock::get);
+
+    // When/Then: an oversized body is admitted alone, but nothing joins it
+    admission.admit(1_500);
+    assertThatThrownBy(() -> admission.admit(10)).isInstanceOf(OverloadedException.class);
+    admission.release(1_500);
+    admission.admit(600);
+    assertThatThrownBy(() -> admission.admit(600)).isInstanceOf(OverloadedException.class);
+    admission.admit(400);
+    assertThat(admission.isSaturated()).isTrue();
+  }
+
+  @Test
+  void shouldShedWhenBacklogWouldTakeLongerThanMaxQueueWait() {
+    // Given: 10 requests complete per 250 ms window, 40 per second
+    AdmissionController admission =
+        new AdmissionController(
+            AdmissionSettings.builder().maxQueueWait(Duration.ofSeconds(1)).build(), clock::get);
+    for (int i = 0; i < 50; i++) {
+      admission.admit(0);
+    }
+    clock.addAndGet(250 * MILLIS);
+    admission.admit(0);
+    for (int i = 0; i < 10; i++) {
+      clock.addAndGet(25 * MILLIS);
+      admission.release(0);
+    }
+    assertThat(admission.pending()).isEqualTo(41);
+
+    // When/Then: the 41 pending requests need about a second to drain
+    assertThatThrownBy(() -> admission.admit(0))
+        .isInstanceOf(OverloadedException.class)
+        .hasMessageContaining("would take longer than 1000 ms");
+    assertThat(admission.isSaturated()).isTrue();
+    for (int i = 0; i < 5; i++) {
+      admission.release(0);
+    }
+    assertThat(admission.isSaturated()).isFalse();
+  }
+
+  @Test
+  void shouldNotCountIdleTimeAgainstThroughput() {
+    // Given: one of three pending requests completes in a 250 ms window, 4 per second
+    AdmissionController admission =
+        new AdmissionController(
+            AdmissionSettings.builder().maxQueueWait(Duration.ofSeconds(1)).build(), clock::get);
+    admission.admit(0);
+    admission.admit(0);
+    clock.addAndGet(250 * MILLIS);
+    admission.admit(0);
+    clock.addAndGet(250 * MILLIS);
+    for (int i = 0; i < 3; i++) {
+      admission.release(0);
+    }
+
+    // When
+    clock.addAndGet(TimeUnit.HOURS.toNanos(1));
+
+    // Then: a burst the old rate drains within a second is still admitted
+    for (int i = 0; i < 4; i++) {
+      admission.admit(0);
+    }
+    assertThat(admission.isSaturated()).isTrue();
+  }
+
+  @Test
+  void shouldGiveBackAdmissionWhenBodyIsShed() {
+    // Given
+    AdmissionController admission =
+        new AdmissionController(
+            AdmissionSettings.builder().maxQueueDepth(2).maxPendingBytes(1_000).build(),
+            clock::get);
+    admission.admit(800);
+
+    // When: the depth check passes before the body is known, the byte check fails after
+    admission.admit();
+
+    // Then
+    assertThatThrownBy(() -> admission.admitBody(600)).isInstanceOf(OverloadedException.class);
+    assertThat(admission.pending()).isEqualTo(1);
+    admission.admit();
+    admission.abandon();
+    assertThat(admission.pending()).isEqualTo(1);
+    assertThat(admission.capacity()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldRejectWithoutStackTrace() {
+    AdmissionController admission =
+        new AdmissionController(AdmissionSettings.builder().maxQueueDepth(1).build(), clock::get);
+    admission.admit(0);
+
+    assertThatThrownBy(() -> admission.admit(0))
+        .satisfies(e -> assertThat(e.getStackTrace()).isEmpty());
+  }
+}
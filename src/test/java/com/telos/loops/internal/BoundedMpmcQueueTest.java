@@ -0,0 +1,95 @@
+package com.telos.loops.internal;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class BoundedMpmcQueueTest {
+
+  @Test
+  void shouldRoundCapacityUpToPowerOfTwo() {
+    assertThat(new BoundedMpmcQueue<>(1).capacity()).isEqualTo(1);
+    assertThat(new BoundedMpmcQueue<>(8).capacity()).isEqualTo(8);
+    assertThat(new BoundedMpmcQueue<>(9).capacity()).isEqualTo(16);
+    assertThatThrownBy(() -> new BoundedMpmcQueue<>(0))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void shouldPollInOfferOrderAndRejectWhenFull() {
+    // Given
+    BoundedMpmcQueue<Integer> queue = new BoundedMpmcQueue<>(4);
+
+    // When
+    for (int i = 0; i < 4; i++) {
+      assertThat(queue.offer(i)).isTrue();
+    }
+
+    // Then
+    assertThat(queue.offer(4)).isFalse();
+    assertThat(queue.size()).isEqualTo(4);
+    assertThat(queue.poll()).isZero();
+    assertThat(queue.offer(4)).isTrue();
+    List<Integer> rest = new ArrayList<>();
+    for (Integer value; (value = queue.poll()) != null; ) {
+      rest.add(value);
+    }
+    assertThat(rest).containsExactly(1, 2, 3, 4);
+    assertThat(queue.isEmpty()).isTrue();
+  }
+
+  @Test
+  void shouldDeliverEveryElementExactlyOnceUnderContention() {
+    // Given
+    int producers = 4;
+    int perProducer = 10_000;
+    int total = producers * perProducer;
+    BoundedMpmcQueue<Integer> queue = new BoundedMpmcQueue<>(256);
+    AtomicInteger consumed = new AtomicInteger();
+    ConcurrentLinkedQueue<Integer> seen = new ConcurrentLinkedQueue<>();
+
+    // When
+    List<CompletableFuture<Void>> workers = new ArrayList<>();
+    for (int p = 0; p < producers; p++) {
+      int base = p * perProducer;
+      workers.add(
+          CompletableFuture.runAsync(
+              () -> {
+                for (int i = 0; i < perProducer; i++) {
+                  while (!queue.offer(base + i)) {
+                    Thread.yield();
+                  }
+                }
+              }));
+    }
+    for (int c = 0; c < 2; c++) {
+      workers.add(
+          CompletableFuture.runAsync(
+              () -> {
+                while (consumed.get() < total) {
+                  Integer value = queue.poll();
+                  if (value != null) {
+                    seen.add(value);
+                    consumed.incrementAndGet();
+                  } else {
+                    Thread.yield();
+                  }
+                }
+              }));
+    }
+    CompletableFuture.allOf(workers.toArray(CompletableFuture[]::new)).join();
+
+    // Then
+    BitSet distinct = new BitSet(total);
+    seen.forEach(distinct::set);
+    assertThat(seen).hasSize(total);
+    assertThat(distinct.cardinality()).isEqualTo(total);
+    assertThat(queue.isEmpty()).isTrue();
+  }
+}
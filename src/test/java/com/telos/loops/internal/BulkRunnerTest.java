@@ -0,0 +1,181 @@
+package com.telos.loops.internal;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.telos.loops.error.LoopsApiException;
+import com.telos.loops.model.BulkResult;
+import com.telos.loops.model.BulkSettings;
+import com.telos.loops.model.BulkSummary;
+import com.telos.loops.model.RequestOptions;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class BulkRunnerTest {
+
+  private final List<CompletableFuture<String>> calls = new CopyOnWriteArrayList<>();
+  private final List<RequestOptions> sentOptions = new CopyOnWriteArrayList<>();
+  private final List<BulkResult<Integer, String>> results = new CopyOnWriteArrayList<>();
+
+  @Test
+  void shouldReadInputOnlyAsSlotsFreeUp() {
+    // Given
+    AtomicInteger read = new AtomicInteger();
+    Iterator<Integer> input = IntStream.range(0, 100).peek(i -> read.incrementAndGet()).iterator();
+
+    // When
+    CompletableFuture<BulkSummary> summary = run(input, -1, concurrency(3));
+
+    // Then: three in flight, nothing read ahead of them
+    assertThat(calls).hasSize(3);
+    assertThat(read).hasValue(3);
+
+    // When
+    calls.get(1).complete("ok");
+
+    // Then
+    assertThat(calls).hasSize(4);
+    assertThat(read).hasValue(4);
+    assertThat(summary).isNotDone();
+  }
+
+  @Test
+  void shouldReportEachOutcomeInCompletionOrderAndSummarize() {
+    // Given
+    CompletableFuture<BulkSummary> summary = run(List.of(0, 1, 2).iterator(), 3, concurrency(3));
+
+    // When
+    calls.get(2).complete("two");
+    calls.get(0).completeExceptionally(new LoopsApiException(400, "{\"message\":\"bad email\"}"));
+    calls.get(1).complete("one");
+
+    // Then
+    assertThat(results).extracting(BulkResult::index).containsExactly(2L, 0L, 1L);
+    assertThat(results.get(0).response()).isEqualTo("two");
+    assertThat(results.get(1).isSuccess()).isFalse();
+    assertThat(results.get(1).error().statusCode()).isEqualTo(400);
+    assertThat(summary.join())
+        .satisfies(
+            s -> {
+              assertThat(s.succeeded()).isEqualTo(2);
+              assertThat(s.failed()).isEqualTo(1);
+              assertThat(s.completed()).isTrue();
+            });
+  }
+
+  @Test
+  void shouldReportRequestThatThrowsWhenSentAndCarryOn() {
+    // When
+    BulkSummary summary =
+        BulkRunner.<Integer, String>run(
+                List.of(0, 1).iterator(),
+                2,
+                concurrency(1),
+                (request, options) -> {
+                  if (request == 0) {
+                    throw new IllegalArgumentException("email or userId is required");
+                  }
+                  return CompletableFuture.completedFuture("ok");
+                },
+                results::add)
+            .join();
+
+    // Then
+    assertThat(summary.succeeded()).isEqualTo(1);
+    assertThat(summary.failed()).isEqualTo(1);
+    assertThat(results.get(0).error()).hasMessageContaining("email or userId is required");
+  }
+
+  @Test
+  void shouldSplitTimeoutAcrossRequestsOfKnownCount() {
+    // Given
+    BulkSettings settings =
+        BulkSettings.builder().concurrency(1).timeout(Duration.ofSeconds(100)).build();
+
+    // When
+    run(List.of(0, 1, 2, 3).iterator(), 4, settings);
+
+    // Then: the first of four requests gets about a quarter of the time
+    assertThat(sentOptions.get(0).deadline())
+        .isBetween(Instant.now().plusSeconds(20), Instant.now().plusSeconds(26));
+  }
+
+  @Test
+  void shouldStopReadingOnceTimeoutPasses() throws Exception {
+    // Given
+    BulkSettings settings =
+        BulkSettings.builder().concurrency(1).timeout(Duration.ofMillis(50)).build();
+    CompletableFuture<BulkSummary> summary = run(IntStream.range(0, 10).iterator(), -1, settings);
+    Thread.sleep(100);
+
+    // When
+    calls.get(0).complete("late");
+
+    // Then
+    assertThat(calls).hasSize(1);
+    assertThat(summary.join().completed()).isFalse();
+    assertThat(summary.join().succeeded()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldCancelRequestsInFlightWhenRunIsCancelled() {
+    // Given
+    CompletableFuture<BulkSummary> summary =
+        run(IntStream.range(0, 10).iterator(), -1, concurrency(2));
+
+    // When
+    summary.cancel(true);
+
+    // Then
+    assertThat(calls).hasSize(2).allSatisfy(call -> assertThat(call).isCancelled());
+  }
+
+  @Test
+  void shouldFailRunWhenInputThrows() {
+    // Given
+    Iterator<Integer> input =
+        IntStream.range(0, 3)
+            .peek(
+                i -> {
+                  if (i == 1) {
+                    throw new IllegalStateException("cursor closed");
+                  }
+                })
+            .iterator();
+
+    // When
+    CompletableFuture<BulkSummary> summary = run(input, -1, concurrency(4));
+    calls.get(0).complete("ok");
+
+    // Then
+    assertThat(summary)
+        .failsWithin(Duration.ofSeconds(1))
+        .withThrowableThat()
+        .withCauseInstanceOf(IllegalStateException.class);
+  }
+
+  private CompletableFuture<BulkSummary> run(
+      Iterator<Integer> input, long size, BulkSettings settings) {
+    return BulkRunner.run(
+        input,
+        size,
+        settings,
+        (request, options) -> {
+          sentOptions.add(options);
+          CompletableFuture<String> call = new CompletableFuture<>();
+          calls.add(call);
+          return call;
+        },
+        results::add);
+  }
+
+  private static BulkSettings concurrency(int concurrency) {
+    return BulkSettings.builder().concurrency(concurrency).build();
+  }
+}
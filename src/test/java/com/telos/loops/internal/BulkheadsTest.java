@@ -0,0 +1,98 @@
+package com.telos.loops.internal;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.telos.loops.error.LoopsApiException;
+import com.telos.loops.resilience.BulkheadSettings;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import org.junit.jupiter.api.Test;
+
+class BulkheadsTest {
+
+  private static final BulkheadSettings ONE_SLOT =
+      BulkheadSettings.builder().maxConcurrent(1).maxQueued(1).build();
+
+  @Test
+  void shouldShareLongestMatchingPrefixPool() {
+    // Given
+    Bulkheads bulkheads =
+        new Bulkheads(
+            Map.of("/contacts", ONE_SLOT, "/contacts/properties", BulkheadSettings.defaults()),
+            null);
+
+    // When/Then
+    assertThat(bulkheads.forPath("/contacts/find")).isSameAs(bulkheads.forPath("/contacts/create"));
+    assertThat(bulkheads.forPath("/contacts/properties"))
+        .isNotSameAs(bulkheads.forPath("/contacts/find"));
+    assertThat(bulkheads.forPath("/contactsx")).isNull();
+    assertThat(bulkheads.forPath("/events/send")).isNull();
+    assertThat(bulkheads.stats()).containsOnlyKeys("/contacts", "/contacts/properties");
+  }
+
+  @Test
+  void shouldGiveEachUncoveredPathItsOwnDefaultPool() {
+    // Given
+    Bulkheads bulkheads = new Bulkheads(Map.of("/contacts", ONE_SLOT), ONE_SLOT);
+
+    // When
+    Bulkhead events = bulkheads.forPath("/events/send");
+    Bulkhead transactional = bulkheads.forPath("/transactional");
+
+    // Then
+    assertThat(events).isNotNull().isNotSameAs(transactional);
+    assertThat(bulkheads.stats()).containsOnlyKeys("/events/send", "/transactional");
+  }
+
+  @Test
+  void shouldQueueThenRejectWhenFull() {
+    // Given
+    Bulkhead bulkhead = new Bulkhead("/events/send", ONE_SLOT);
+    assertThat(bulkhead.acquire()).isCompleted();
+
+    // When
+    CompletableFuture<Void> queued = bulkhead.acquire();
+    CompletableFuture<Void> rejected = bulkhead.acquire();
+
+    // Then
+    assertThat(queued).isNotDone();
+    assertThat(rejected)
+        .failsWithin(Duration.ZERO)
+        .withThrowableOfType(ExecutionException.class)
+        .withCauseInstanceOf(LoopsApiException.class)
+        .withMessageContaining("Bulkhead /events/send is full");
+    assertThat(bulkhead.stats().saturation()).isEqualTo(1.0);
+    assertThat(bulkhead.stats().rejected()).isEqualTo(1);
+
+    bulkhead.release();
+    assertThat(queued).isCompleted();
+    assertThat(bulkhead.stats().inFlight()).isEqualTo(1);
+    assertThat(bulkhead.stats().queued()).isZero();
+  }
+
+  @Test
+  void shouldTimeOutQueuedRequest() {
+    // Given
+    Bulkhead bulkhead =
+        new Bulkhead(
+            "/transactional",
+            BulkheadSettings.builder()
+                .maxConcurrent(1)
+                .maxQueued(1)
+                .maxQueueWait(Duration.ofMillis(50))
+                .build());
+    bulkhead.acquire();
+
+    // When
+    CompletableFuture<Void> queued = bulkhead.acquire();
+
+    // Then
+    assertThat(queued)
+        .failsWithin(Duration.ofSeconds(1))
+        .withThrowableOfType(ExecutionException.class)
+        .withMessageContaining("waiting for bulkhead /transactional");
+    assertThat(bulkhead.stats().rejected()).isEqualTo(1);
+  }
+}
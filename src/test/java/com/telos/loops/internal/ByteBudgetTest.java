@@ -0,0 +1,83 @@
+package com.telos.loops.internal;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.Test;
+
+class ByteBudgetTest {
+
+  private final ByteBudget budget = new ByteBudget(1_000);
+
+  @Test
+  void shouldHoldBackBodiesThatDoNotFitUntilBytesAreReleased() {
+    // Given
+    assertThat(budget.acquire(600)).isCompleted();
+
+    // When
+    CompletableFuture<Void> large = budget.acquire(600);
+    CompletableFuture<Void> small = budget.acquire(100);
+
+    // Then: the small body queues behind the large one rather than overtaking it
+    assertThat(large).isNotDone();
+    assertThat(small).isNotDone();
+    assertThat(budget.waiting()).isEqualTo(2);
+    budget.release(600);
+    assertThat(large).isCompleted();
+    assertThat(small).isCompleted();
+    assertThat(budget.bytesInFlight()).isEqualTo(700);
+  }
+
+  @Test
+  void shouldLetOversizedBodyThroughAlone() {
+    // Given
+    budget.acquire(100);
+    CompletableFuture<Void> oversized = budget.acquire(5_000);
+    assertThat(oversized).isNotDone();
+
+    // When
+    budget.release(100);
+
+    // Then
+    assertThat(oversized).isCompleted();
+    assertThat(budget.bytesInFlight()).isEqualTo(5_000);
+  }
+
+  @Test
+  void shouldNeverHoldBackZeroByteReservations() {
+    budget.acquire(1_000);
+    budget.acquire(500);
+
+    assertThat(budget.acquire(0)).isCompleted();
+  }
+
+  @Test
+  void shouldAdjustToActualSizeAndWakeWaitersWhenItShrinks() {
+    // Given
+    budget.acquire(900);
+    CompletableFuture<Void> waiting = budget.acquire(300);
+
+    // When
+    budget.adjust(-300);
+
+    // Then
+    assertThat(waiting).isCompleted();
+    assertThat(budget.bytesInFlight()).isEqualTo(900);
+  }
+
+  @Test
+  void shouldGiveUpPlaceWhenCancelled() {
+    // Given
+    budget.acquire(900);
+    CompletableFuture<Void> cancelled = budget.acquire(500);
+    CompletableFuture<Void> next = budget.acquire(50);
+
+    // When
+    cancelled.cancel(false);
+
+    // Then
+    assertThat(next).isCompleted();
+    assertThat(budget.waiting()).isZero();
+    assertThat(budget.bytesInFlight()).isEqualTo(950);
+  }
+}
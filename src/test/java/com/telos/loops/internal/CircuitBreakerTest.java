@@ -0,0 +1,244 @@
+package com.telos.loops.internal;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.telos.loops.error.CircuitOpenException;
+import com.telos.loops.resilience.CircuitBreakerSettings;
+import com.telos.loops.resilience.CircuitState;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+
+class CircuitBreakerTest {
+
+  private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private static final CircuitBreakerSettings SETTINGS =
+      CircuitBreakerSettings.builder()
+          .windowSize(10)
+          .minimumCalls(4)
+          .failureRateThreshold(0.5)
+          .slowCallDuration(Duration.ofMillis(500))
+          .slowCallRateThreshold(0.75)
+          .openDuration(Duration.ofSeconds(30))
+          .halfOpenCalls(2)
+          .build();
+
+  private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+  private final List<String> transitions = new ArrayList<>();
+
+  @Test
+  void shouldOpenOnFailureRateAndFailFast() {
+    // Given
+    CircuitBreaker breaker = breaker(SETTINGS, null);
+    call(breaker, 10, false);
+    call(breaker, 10, true);
+    call(breaker, 10, false);
+
+    // When: the fourth call brings failures to half of the window
+    call(breaker, 10, true);
+
+    // Then
+    assertThat(breaker.state()).isEqualTo(CircuitState.OPEN);
+    assertThatThrownBy(breaker::checkPermitted)
+        .isInstanceOf(CircuitOpenException.class)
+        .hasMessage("Circuit breaker for /contacts/find is open");
+    assertThatThrownBy(breaker::acquire).isInstanceOf(CircuitOpenException.class);
+    assertThat(breaker.stats().notPermitted()).isEqualTo(2);
+    assertThat(breaker.stats().bufferedCalls()).isZero();
+    assertThat(transitions).containsExactly("CLOSED->OPEN");
+  }
+
+  @Test
+  void shouldNotOpenBeforeMinimumCalls() {
+    // Given
+    CircuitBreaker breaker = breaker(SETTINGS, null);
+
+    // When
+    call(breaker, 10, true);
+    call(breaker, 10, true);
+    call(breaker, 10, true);
+
+    // Then
+    assertThat(breaker.state()).isEqualTo(CircuitState.CLOSED);
+    assertThat(breaker.stats().failureRate()).isEqualTo(1.0);
+  }
+
+  @Test
+  void shouldOpenOnSlowCallRate() {
+    // Given
+    CircuitBreaker breaker = breaker(SETTINGS, null);
+    call(breaker, 10, false);
+
+    // When: three of four calls take longer than the slow-call duration
+    call(breaker, 600, false);
+    call(breaker, 600, false);
+    call(breaker, 600, false);
+
+    // Then
+    assertThat(breaker.state()).isEqualTo(CircuitState.OPEN);
+  }
+
+  @Test
+  void shouldForgetOutcomesThatLeaveTheWindow() {
+    // Given: four failures among ten calls
+    CircuitBreaker breaker =
+        breaker(CircuitBreakerSettings.builder().windowSize(10).minimumCalls(10).build(), null);
+    for (int i = 0; i < 4; i++) {
+      call(breaker, 10, true);
+    }
+    for (int i = 0; i < 6; i++) {
+      call(breaker, 10, false);
+    }
+
+    // When: successes push the failures out of the window
+    for (int i = 0; i < 4; i++) {
+      call(breaker, 10, false);
+    }
+
+    // Then
+    assertThat(breaker.stats().bufferedCalls()).isEqualTo(10);
+    assertThat(breaker.stats().failureRate()).isZero();
+    assertThat(breaker.state()).isEqualTo(CircuitState.CLOSED);
+  }
+
+  @Test
+  void shouldCloseAfterSuccessfulTrials() {
+    // Given
+    CircuitBreaker breaker = openBreaker(null);
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+
+    // When: two trials are let through and a third is refused
+    long first = breaker.acquire();
+    long second = breaker.acquire();
+    assertThatThrownBy(breaker::acquire).isInstanceOf(CircuitOpenException.class);
+    breaker.onResult(first, 10 * MILLIS, false);
+    breaker.onResult(second, 10 * MILLIS, false);
+
+    // Then
+    assertThat(breaker.state()).isEqualTo(CircuitState.CLOSED);
+    assertThat(transitions).containsExactly("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->CLOSED");
+  }
+
+  @Test
+  void shouldReopenWhenTrialFails() {
+    // Given
+    CircuitBreaker breaker = openBreaker(null);
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+    long trial = breaker.acquire();
+
+    // When
+    breaker.onResult(trial, 10 * MILLIS, true);
+
+    // Then: the open period starts over
+    assertThat(breaker.state()).isEqualTo(CircuitState.OPEN);
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(29));
+    assertThatThrownBy(breaker::checkPermitted).isInstanceOf(CircuitOpenException.class);
+  }
+
+  @Test
+  void shouldGiveBackTrialOfCancelledCall() {
+    // Given
+    CircuitBreaker breaker = openBreaker(null);
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+    breaker.acquire();
+    long trial = breaker.acquire();
+
+    // When
+    breaker.onCancelled(trial);
+
+    // Then
+    assertThatCode(breaker::acquire).doesNotThrowAnyException();
+  }
+
+  @Test
+  void shouldIgnoreCallsSentBeforeBreakerOpened() {
+    // Given: two calls are in flight when the breaker opens
+    CircuitBreaker breaker = breaker(SETTINGS, null);
+    long slow = breaker.acquire();
+    long cancelled = breaker.acquire();
+    for (int i = 0; i < 4; i++) {
+      call(breaker, 10, true);
+    }
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+    long trial = breaker.acquire();
+    breaker.acquire();
+
+    // When: they complete while the trials are out
+    breaker.onResult(slow, 10 * MILLIS, true);
+    breaker.onCancelled(cancelled);
+
+    // Then: the failure does not reopen the breaker, and no trial slot is handed back
+    assertThat(breaker.state()).isEqualTo(CircuitState.HALF_OPEN);
+    assertThatThrownBy(breaker::acquire).isInstanceOf(CircuitOpenException.class);
+    breaker.onResult(trial, 10 * MILLIS, false);
+    assertThat(breaker.state()).isEqualTo(CircuitState.HALF_OPEN);
+  }
+
+  @Test
+  void shouldWaitForHealthProbeBeforeTrials() {
+    // Given
+    CompletableFuture<String> probe = new CompletableFuture<>();
+    AtomicLong probes = new AtomicLong();
+    CircuitBreaker breaker =
+        openBreaker(
+            () -> {
+              probes.incrementAndGet();
+              return probe;
+            });
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+
+    // When: requests arrive while the probe is in flight
+    assertThatThrownBy(breaker::checkPermitted).isInstanceOf(CircuitOpenException.class);
+    assertThatThrownBy(breaker::acquire).isInstanceOf(CircuitOpenException.class);
+    probe.complete("ok");
+
+    // Then: one probe was sent and its success lets trials through
+    assertThat(probes).hasValue(1);
+    assertThat(breaker.state()).isEqualTo(CircuitState.HALF_OPEN);
+    assertThatCode(breaker::acquire).doesNotThrowAnyException();
+  }
+
+  @Test
+  void shouldStayOpenWhenHealthProbeFails() {
+    // Given
+    CircuitBreaker breaker =
+        openBreaker(() -> CompletableFuture.failedFuture(new IllegalStateException("down")));
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+
+    // When
+    assertThatThrownBy(breaker::acquire).isInstanceOf(CircuitOpenException.class);
+
+    // Then
+    assertThat(breaker.state()).isEqualTo(CircuitState.OPEN);
+    assertThat(transitions).containsExactly("CLOSED->OPEN");
+  }
+
+  private CircuitBreaker openBreaker(Supplier<CompletableFuture<?>> healthProbe) {
+    CircuitBreaker breaker = breaker(SETTINGS, healthProbe);
+    for (int i = 0; i < 4; i++) {
+      call(breaker, 10, true);
+    }
+    assertThat(breaker.state()).isEqualTo(CircuitState.OPEN);
+    return breaker;
+  }
+
+  private CircuitBreaker breaker(
+      CircuitBreakerSettings settings, Supplier<CompletableFuture<?>> healthProbe) {
+    return new CircuitBreaker(
+        "/contacts/find",
+        settings,
+        healthProbe,
+        (endpoint, from, to) -> transitions.add(from + "->" + to),
+        clock::get);
+  }
+
+  private static void call(CircuitBreaker breaker, long millis, boolean failed) {
+    breaker.onResult(breaker.acquire(), millis * MILLIS, failed);
+  }
+}
@@ -2,7 +2,12 @@ package com.telos.loops.internal;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.when;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.github.tomakehurst.wiremock.WireMockServer;
 import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
 import com.telos.loops.TestFixtures;
@@ -12,11 +17,16 @@ import com.telos.loops.error.RateLimitExceededException;
 import com.telos.loops.model.RequestOptions;
 import com.telos.loops.transport.OkHttpTransport;
 import com.telos.loops.transport.Transport;
+import com.telos.loops.transport.TransportResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
 
 class CoreSenderTest {
 
@@ -372,4 +382,79 @@ class CoreSenderTest {
         deleteRequestedFor(urlEqualTo("/contacts/delete"))
             .withHeader("Authorization", equalTo("Bearer " + TestFixtures.TEST_API_KEY)));
   }
+
+  @Test
+  void shouldRunAsyncRequestsOnTransportExecuteAsync() {
+    // Given
+    Transport transport = mock(Transport.class);
+    when(transport.executeAsync(any()))
+        .thenReturn(
+            CompletableFuture.completedFuture(
+                new TransportResponse(
+                    200,
+                    Map.of(),
+                    "{\"id\": \"contact-123\", \"message\": \"Success\"}"
+                        .getBytes(StandardCharsets.UTF_8))));
+    CoreSender sender = new CoreSender(transport, baseUrl, TestFixtures.TEST_API_KEY);
+
+    // When
+    ContactResponse response =
+        sender
+            .postJsonAsync(
+                "/contacts/create",
+                TestFixtures.minimalContactCreateRequest(),
+                ContactResponse.class,
+                RequestOptions.none())
+            .join();
+
+    // Then
+    assertThat(response.id()).isEqualTo("contact-123");
+    Mockito.verify(transport).executeAsync(any());
+    Mockito.verify(transport, never()).execute(any());
+  }
+
+  @Test
+  void shouldWrapAsyncTransportFailureInLoopsApiException() {
+    // Given
+    Transport transport = mock(Transport.class);
+    when(transport.executeAsync(any()))
+        .thenReturn(CompletableFuture.failedFuture(new IOException("connection reset")));
+    CoreSender sender = new CoreSender(transport, baseUrl, TestFixtures.TEST_API_KEY);
+
+    // When
+    CompletableFuture<ContactResponse> future =
+        sender.getAsync("/contacts/find", Map.of(), ContactResponse.class, RequestOptions.none());
+
+    // Then
+    assertThatThrownBy(future::join)
+        .hasCauseInstanceOf(LoopsApiException.class)
+        .cause()
+        .hasMessageContaining("connection reset");
+  }
+
+  @Test
+  void shouldCompleteAsyncListRequestFromTransportCallback() {
+    // Given
+    stubFor(
+        get(urlPathEqualTo("/lists"))
+            .willReturn(
+                okJson(
+                    """
+                    [{"id": "list-1", "name": "Newsletter", "isPublic": true}]
+                    """)));
+
+    // When
+    List<Map<String, Object>> lists =
+        coreSender
+            .getListAsync(
+                "/lists",
+                Map.of(),
+                new TypeReference<List<Map<String, Object>>>() {},
+                RequestOptions.none())
+            .join();
+
+    // Then
+    assertThat(lists).hasSize(1);
+    assertThat(lists.get(0)).containsEntry("id", "list-1");
+  }
 }
@@ -0,0 +1,183 @@
+package com.telos.loops.internal;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.telos.loops.error.DeadlineExceededException;
+import com.telos.loops.error.RateLimitExceededException;
+import com.telos.loops.model.RequestPriority;
+import com.telos.loops.resilience.TenantStats;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import org.junit.jupiter.api.Test;
+
+class DispatchSchedulerTest {
+
+  private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+  private static final long NO_DEADLINE = Long.MAX_VALUE;
+
+  private final AtomicInteger reservations = new AtomicInteger();
+
+  @Test
+  void shouldGrantImmediatelyWhileBudgetIsAvailable() {
+    DispatchScheduler scheduler = new DispatchScheduler(this::free, Map.of());
+
+    CompletableFuture<Void> permit = scheduler.acquire(RequestPriority.NORMAL, NO_DEADLINE, null);
+
+    assertThat(permit).isCompleted();
+    assertThat(scheduler.queued()).isZero();
+  }
+
+  @Test
+  void shouldReleaseByPriorityThenDeadlineThenArrival() {
+    // Given
+    DispatchScheduler scheduler = new DispatchScheduler(() -> paced(20), Map.of());
+    List<String> order = new CopyOnWriteArrayList<>();
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+
+    // When
+    CompletableFuture<?>[] permits = {
+      track(scheduler.acquire(RequestPriority.NORMAL, NO_DEADLINE, null), order, "normal-1"),
+      track(scheduler.acquire(RequestPriority.LOW, NO_DEADLINE, null), order, "low"),
+      track(scheduler.acquire(RequestPriority.NORMAL, NO_DEADLINE, null), order, "normal-2"),
+      track(scheduler.acquire(RequestPriority.NORMAL, deadline, null), order, "normal-deadline"),
+      track(scheduler.acquire(RequestPriority.CRITICAL, NO_DEADLINE, null), order, "critical")
+    };
+    CompletableFuture.allOf(permits).join();
+
+    // Then: the permit reserved by the first request goes to the most urgent one
+    assertThat(order).containsExactly("critical", "normal-deadline", "normal-1", "normal-2", "low");
+    assertThat(reservations).hasValue(5);
+  }
+
+  @Test
+  void shouldDropExpiredRequestWithoutReservingBudget() {
+    // Given
+    DispatchScheduler scheduler = new DispatchScheduler(() -> paced(200), Map.of());
+    CompletableFuture<Void> first = scheduler.acquire(RequestPriority.NORMAL, NO_DEADLINE, null);
+
+    // When
+    CompletableFuture<Void> late =
+        scheduler.acquire(RequestPriority.CRITICAL, System.nanoTime() + 50 * MILLIS, null);
+
+    // Then
+    assertThat(late)
+        .failsWithin(Duration.ofSeconds(1))
+        .withThrowableOfType(ExecutionException.class)
+        .withCauseInstanceOf(DeadlineExceededException.class);
+    assertThat(first).succeedsWithin(Duration.ofSeconds(1));
+    assertThat(reservations).hasValue(1);
+    assertThat(scheduler.expiredCount()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldFailRequestWhoseDeadlineHasAlreadyPassed() {
+    DispatchScheduler scheduler = new DispatchScheduler(this::free, Map.of());
+
+    CompletableFuture<Void> permit =
+        scheduler.acquire(RequestPriority.HIGH, System.nanoTime() - MILLIS, null);
+
+    assertThat(permit).isCompletedExceptionally();
+    assertThat(reservations).hasValue(0);
+  }
+
+  @Test
+  void shouldFailQueuedRequestRefusedByBudget() {
+    // Given: the first reservation waits, the next one is refused
+    DispatchScheduler scheduler =
+        new DispatchScheduler(
+            () -> {
+              if (reservations.incrementAndGet() > 1) {
+                throw new RateLimitExceededException("refused", 1);
+              }
+              return 50 * MILLIS;
+            },
+            Map.of());
+    CompletableFuture<Void> first = scheduler.acquire(RequestPriority.NORMAL, NO_DEADLINE, null);
+
+    // When
+    CompletableFuture<Void> second = scheduler.acquire(RequestPriority.NORMAL, NO_DEADLINE, null);
+
+    // Then
+    assertThat(first).succeedsWithin(Duration.ofSeconds(1));
+    assertThat(second)
+        .failsWithin(Duration.ofSeconds(1))
+        .withThrowableOfType(ExecutionException.class)
+        .withCauseInstanceOf(RateLimitExceededException.class);
+  }
+
+  @Test
+  void shouldShareBudgetBetweenTenantsByWeight() {
+    // Given
+    DispatchScheduler scheduler = new DispatchScheduler(stalledOnce(300), Map.of("a", 2, "b", 1));
+    List<String> order = new CopyOnWriteArrayList<>();
+    List<CompletableFuture<Void>> permits = new ArrayList<>();
+
+    // When: tenant a floods the queue before b shows up, all while the first permit matures
+    for (int i = 0; i < 6; i++) {
+      permits.add(track(scheduler.acquire(RequestPriority.NORMAL, NO_DEADLINE, "a"), order, "a"));
+    }
+    for (int i = 0; i < 3; i++) {
+      permits.add(track(scheduler.acquire(RequestPriority.NORMAL, NO_DEADLINE, "b"), order, "b"));
+    }
+    CompletableFuture.allOf(permits.toArray(CompletableFuture[]::new)).join();
+
+    // Then: two of a's requests for each of b's, and b is not stuck behind a's backlog
+    assertThat(String.join("", order)).isEqualTo("aabaabaab");
+  }
+
+  @Test
+  void shouldReportQueueWaitAndThroughputPerTenant() {
+    // Given
+    DispatchScheduler scheduler = new DispatchScheduler(() -> paced(10), Map.of("bulk", 3));
+
+    // When
+    CompletableFuture.allOf(
+            scheduler.acquire(RequestPriority.LOW, NO_DEADLINE, "bulk"),
+            scheduler.acquire(RequestPriority.LOW, NO_DEADLINE, "bulk"),
+            scheduler.acquire(RequestPriority.NORMAL, NO_DEADLINE, null))
+        .join();
+    Map<String, TenantStats> stats = scheduler.tenantStats();
+
+    // Then
+    assertThat(stats).containsOnlyKeys("bulk", DispatchScheduler.DEFAULT_TENANT);
+    TenantStats bulk = stats.get("bulk");
+    assertThat(bulk.weight()).isEqualTo(3);
+    assertThat(bulk.dispatched()).isEqualTo(2);
+    assertThat(bulk.queued()).isZero();
+    assertThat(bulk.maxQueueWaitMillis()).isGreaterThanOrEqualTo(15);
+    assertThat(bulk.meanQueueWaitMillis()).isPositive();
+    assertThat(stats.get(DispatchScheduler.DEFAULT_TENANT).dispatched()).isEqualTo(1);
+  }
+
+  private long free() {
+    reservations.incrementAndGet();
+    return 0;
+  }
+
+  /** Every reservation waits {@code millis}, like a limiter whose burst is spent. */
+  private long paced(long millis) {
+    reservations.incrementAndGet();
+    return millis * MILLIS;
+  }
+
+  /**
+   * The first reservation waits {@code millis}, far longer than queueing a test's requests takes;
+   * later ones are free, so every queued request is released in one pass in scheduling order.
+   */
+  private LongSupplier stalledOnce(long millis) {
+    return () -> reservations.getAndIncrement() == 0 ? millis * MILLIS : 0;
+  }
+
+  private static CompletableFuture<Void> track(
+      CompletableFuture<Void> permit, List<String> order, String name) {
+    return permit.thenRun(() -> order.add(name));
+  }
+}
@@ -0,0 +1,83 @@
+package com.telos.loops.internal;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.telos.loops.internal.FingerprintTtlSet.Outcome;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class FingerprintTtlSetTest {
+
+  @Test
+  void shouldReportKeyPresentUntilItExpires() {
+    // Given
+    FingerprintTtlSet set = new FingerprintTtlSet(100);
+    long key = 0x1234_5678_9abc_def0L;
+
+    // When
+    Outcome first = set.addIfAbsent(key, 11, 1);
+
+    // Then
+    assertThat(first).isEqualTo(Outcome.ADDED);
+    assertThat(set.addIfAbsent(key, 15, 5)).isEqualTo(Outcome.PRESENT);
+    assertThat(set.addIfAbsent(key, 20, 10)).isEqualTo(Outcome.PRESENT);
+    assertThat(set.addIfAbsent(key, 21, 11)).isEqualTo(Outcome.ADDED);
+    assertThat(set.addIfAbsent(key, 22, 12)).isEqualTo(Outcome.PRESENT);
+  }
+
+  @Test
+  void shouldForgetExpiredKeyAtOnce() {
+    // Given
+    FingerprintTtlSet set = new FingerprintTtlSet(100);
+    long key = 42L << 40 | 7;
+    set.addIfAbsent(key, 100, 1);
+
+    // When
+    set.expire(key);
+
+    // Then
+    assertThat(set.addIfAbsent(key, 100, 2)).isEqualTo(Outcome.ADDED);
+  }
+
+  @Test
+  void shouldTrackManyKeysWithoutGrowing() {
+    // Given
+    int keys = 100_000;
+    FingerprintTtlSet set = new FingerprintTtlSet(keys);
+    SplittableRandom random = new SplittableRandom(1);
+    long[] hashes = random.longs(keys).toArray();
+
+    // When
+    int full = 0;
+    for (long hash : hashes) {
+      if (set.addIfAbsent(hash, 100, 1) == Outcome.FULL) {
+        full++;
+      }
+    }
+
+    // Then
+    assertThat(set.capacity()).isEqualTo(1 << 18);
+    assertThat(full).isZero();
+    for (long hash : hashes) {
+      assertThat(set.addIfAbsent(hash, 100, 2)).isEqualTo(Outcome.PRESENT);
+    }
+  }
+
+  @Test
+  void shouldReuseExpiredSlotsOnceFull() {
+    // Given: more keys than slots, in two generations
+    FingerprintTtlSet set = new FingerprintTtlSet(32);
+    SplittableRandom random = new SplittableRandom(2);
+    Outcome outcome = Outcome.ADDED;
+    for (int i = 0; i < 10 * set.capacity() && outcome != Outcome.FULL; i++) {
+      outcome = set.addIfAbsent(random.nextLong(), 10, 1);
+    }
+    assertThat(outcome).isEqualTo(Outcome.FULL);
+
+    // When
+    Outcome later = set.addIfAbsent(random.nextLong(), 20, 10);
+
+    // Then
+    assertThat(later).isEqualTo(Outcome.ADDED);
+  }
+}
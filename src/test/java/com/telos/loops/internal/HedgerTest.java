@@ -0,0 +1,98 @@
+package com.telos.loops.internal;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.telos.loops.resilience.HedgePolicy;
+import com.telos.loops.resilience.HedgeStats;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class HedgerTest {
+
+  private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  @Test
+  void shouldNotHedgeUntilEnoughLatenciesAreKnown() {
+    // Given
+    Hedger hedger = new Hedger(HedgePolicy.defaults());
+    for (int i = 0; i < 19; i++) {
+      hedger.recordLatency("/contacts/find", 50 * MILLIS);
+    }
+
+    // When/Then
+    assertThat(hedger.onRequest("/contacts/find")).isEqualTo(-1);
+    hedger.recordLatency("/contacts/find", 50 * MILLIS);
+    assertThat(hedger.onRequest("/contacts/find")).isEqualTo(50 * MILLIS);
+    assertThat(hedger.onRequest("/lists")).isEqualTo(-1);
+  }
+
+  @Test
+  void shouldHedgeAtConfiguredPercentile() {
+    // Given: latencies of 1..100 ms
+    Hedger hedger =
+        new Hedger(HedgePolicy.builder().percentile(0.9).minDelay(Duration.ZERO).build());
+    for (int i = 1; i <= 100; i++) {
+      hedger.recordLatency("/contacts/find", i * MILLIS);
+    }
+    for (int i = 0; i < 12; i++) {
+      hedger.recordLatency("/contacts/find", 1 * MILLIS);
+    }
+
+    // When
+    long delay = hedger.onRequest("/contacts/find");
+
+    // Then: the 90th percentile of the last 112 samples, recomputed at sample 112
+    assertThat(delay).isEqualTo(89 * MILLIS);
+  }
+
+  @Test
+  void shouldNeverHedgeFasterThanMinDelay() {
+    // Given
+    Hedger hedger = new Hedger(HedgePolicy.builder().minDelay(Duration.ofMillis(30)).build());
+    for (int i = 0; i < 20; i++) {
+      hedger.recordLatency("/contacts/find", MILLIS);
+    }
+
+    // When/Then
+    assertThat(hedger.onRequest("/contacts/find")).isEqualTo(30 * MILLIS);
+  }
+
+  @Test
+  void shouldCapHedgesAtBudgetRatio() {
+    // Given
+    Hedger hedger = new Hedger(HedgePolicy.builder().maxHedgeRatio(0.05).build());
+
+    // When: every one of 100 GETs asks for a hedge
+    int sent = 0;
+    for (int i = 0; i < 100; i++) {
+      hedger.onRequest("/contacts/find");
+      if (hedger.tryHedge()) {
+        sent++;
+        hedger.recordWin();
+      }
+    }
+
+    // Then
+    assertThat(sent).isEqualTo(5);
+    assertThat(hedger.stats()).isEqualTo(new HedgeStats(100, 5, 5));
+  }
+
+  @Test
+  void shouldNotBankUnlimitedHedgesWhileQuiet() {
+    // Given: a long run of GETs that never needed a hedge
+    Hedger hedger = new Hedger(HedgePolicy.builder().maxHedgeRatio(0.5).build());
+    for (int i = 0; i < 1_000; i++) {
+      hedger.onRequest("/contacts/find");
+    }
+
+    // When
+    int burst = 0;
+    while (hedger.tryHedge()) {
+      burst++;
+    }
+
+    // Then
+    assertThat(burst).isEqualTo(10);
+  }
+}
@@ -0,0 +1,96 @@
+package com.telos.loops.internal;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class PauseGateTest {
+
+  private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+  private final PauseGate gate = new PauseGate(clock::get);
+
+  @Test
+  void shouldNotDelayWhileOpen() {
+    assertThat(gate.isClosed()).isFalse();
+    assertThat(gate.delayNanos()).isZero();
+  }
+
+  @Test
+  void shouldHoldDispatchesUntilRetryAfterThenRampUp() {
+    // Given
+    gate.trip(500 * MILLIS, 4);
+
+    // When
+    long first = gate.delayNanos();
+    long second = gate.delayNanos();
+    long third = gate.delayNanos();
+    long fourth = gate.delayNanos();
+    long fifth = gate.delayNanos();
+
+    // Then: releases follow a linear rate ramp over one second, then the limit's pace
+    assertThat(first).isEqualTo(500 * MILLIS);
+    assertThat(second).isEqualTo(1_000 * MILLIS);
+    assertThat(third).isBetween(1_207 * MILLIS, 1_208 * MILLIS);
+    assertThat(fourth).isBetween(1_366 * MILLIS, 1_367 * MILLIS);
+    assertThat(fifth).isEqualTo(1_500 * MILLIS);
+  }
+
+  @Test
+  void shouldDefaultPauseWhenRetryAfterIsMissing() {
+    gate.trip(-1, 10);
+
+    assertThat(gate.delayNanos()).isEqualTo(PauseGate.DEFAULT_PAUSE_NANOS);
+  }
+
+  @Test
+  void shouldClampLongPauses() {
+    gate.trip(TimeUnit.HOURS.toNanos(1), 10);
+
+    assertThat(gate.delayNanos()).isEqualTo(PauseGate.MAX_PAUSE_NANOS);
+  }
+
+  @Test
+  void shouldExtendPauseWhenTrippedAgain() {
+    // Given
+    gate.trip(200 * MILLIS, 10);
+
+    // When
+    clock.addAndGet(100 * MILLIS);
+    gate.trip(500 * MILLIS, 10);
+
+    // Then
+    assertThat(gate.delayNanos()).isEqualTo(500 * MILLIS);
+  }
+
+  @Test
+  void shouldReopenOnceRampAndBacklogHaveDrained() {
+    // Given
+    gate.trip(100 * MILLIS, 10);
+    gate.delayNanos();
+
+    // When
+    clock.addAndGet(100 * MILLIS + PauseGate.RAMP_NANOS);
+
+    // Then
+    assertThat(gate.delayNanos()).isZero();
+    assertThat(gate.isClosed()).isFalse();
+  }
+
+  @Test
+  void shouldHoldDispatchesThroughSharedWordWhileClosed() {
+    // Given
+    DispatchHolds holds = new DispatchHolds();
+    PauseGate shared = new PauseGate(clock::get, holds);
+
+    // When/Then
+    shared.trip(100 * MILLIS, 10);
+    assertThat(holds.any()).isTrue();
+    clock.addAndGet(100 * MILLIS + PauseGate.RAMP_NANOS);
+    assertThat(shared.delayNanos()).isZero();
+    assertThat(holds.any()).isFalse();
+  }
+}
@@ -0,0 +1,103 @@
+package com.telos.loops.internal;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.telos.loops.resilience.TokenBucketRateLimiter;
+import com.telos.loops.transport.TransportResponse;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class RateLimitTrackerTest {
+
+  private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  // Fixed clock, so the expected delays are exact however slowly the test runs
+  private final RateLimitTracker tracker =
+      new RateLimitTracker(null, new DispatchHolds(), () -> 0L);
+
+  @Test
+  void shouldNotDelayWithoutHeaders() {
+    tracker.observe(new TransportResponse(200, Map.of(), new byte[0]));
+
+    assertThat(tracker.reserveDelayNanos()).isZero();
+    assertThat(tracker.learnedLimit()).isZero();
+  }
+
+  @Test
+  void shouldNotDelayWhileBudgetIsHealthy() {
+    tracker.observe(response(10, 5));
+
+    assertThat(tracker.reserveDelayNanos()).isZero();
+    assertThat(tracker.reserveDelayNanos()).isZero();
+    assertThat(tracker.learnedLimit()).isEqualTo(10);
+  }
+
+  @Test
+  void shouldSpreadRemainingBudgetOverWindow() {
+    // Given
+    tracker.observe(response(10, 2));
+
+    // When
+    long first = tracker.reserveDelayNanos();
+    long second = tracker.reserveDelayNanos();
+
+    // Then: two requests left in a one second window are 500 ms apart
+    assertThat(first).isZero();
+    assertThat(second).isEqualTo(500 * MILLIS);
+  }
+
+  @Test
+  void shouldHoldDispatchUntilWindowRollsOverWhenBudgetIsSpent() {
+    // Given
+    tracker.observe(response(10, 0));
+
+    // When
+    long first = tracker.reserveDelayNanos();
+    long second = tracker.reserveDelayNanos();
+
+    // Then
+    assertThat(first).isEqualTo(1_000 * MILLIS);
+    assertThat(second - first).isEqualTo(100 * MILLIS);
+  }
+
+  @Test
+  void shouldStopThrottlingOnceBudgetRecovers() {
+    tracker.observe(response(10, 0));
+    tracker.observe(response(10, 9));
+
+    assertThat(tracker.reserveDelayNanos()).isZero();
+  }
+
+  @Test
+  void shouldCapRateLimiterAtAdvertisedLimit() {
+    // Given
+    TokenBucketRateLimiter limiter =
+        TokenBucketRateLimiter.builder().permitsPerSecond(50).burst(1).build();
+    RateLimitTracker limited = new RateLimitTracker(limiter);
+
+    // When
+    limited.observe(response(10, 10));
+
+    // Then
+    assertThat(limiter.permitsPerSecond()).isEqualTo(10);
+  }
+
+  @Test
+  void shouldIgnoreMalformedHeaders() {
+    tracker.observe(
+        new TransportResponse(
+            200, Map.of("x-ratelimit-limit", "ten", "x-ratelimit-remaining", "0"), new byte[0]));
+
+    assertThat(tracker.reserveDelayNanos()).isZero();
+  }
+
+  private static TransportResponse response(int limit, int remaining) {
+    return new TransportResponse(
+        200,
+        Map.of(
+            "X-RateLimit-Limit", String.valueOf(limit),
+            "X-RateLimit-Remaining", String.valueOf(remaining)),
+        new byte[0]);
+  }
+}
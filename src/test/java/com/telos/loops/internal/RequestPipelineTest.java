@@ -0,0 +1,361 @@
+package com.telos.loops.internal;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.assertj.core.api.Assertions.*;
+
+import com.github.tomakehurst.wiremock.client.MappingBuilder;
+import com.github.tomakehurst.wiremock.http.Fault;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+import com.telos.loops.LoopsClient;
+import com.telos.loops.TestFixtures;
+import com.telos.loops.WireMockSetup;
+import com.telos.loops.apikey.ApiKeyTestResponse;
+import com.telos.loops.contacts.ContactUpdateRequest;
+import com.telos.loops.error.LoopsApiException;
+import com.telos.loops.error.RateLimitExceededException;
+import com.telos.loops.events.EventResponse;
+import com.telos.loops.resilience.RetryPolicy;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RequestPipelineTest {
+
+  private static final RetryPolicy FAST_RETRIES =
+      RetryPolicy.builder()
+          .maxAttempts(3)
+          .initialBackoff(Duration.ofMillis(1))
+          .maxBackoff(Duration.ofMillis(5))
+          .build();
+
+  private WireMockSetup wireMock;
+  private LoopsClient client;
+
+  @BeforeEach
+  void setUp() {
+    wireMock = new WireMockSetup();
+    client =
+        LoopsClient.builder()
+            .apiKey(TestFixtures.TEST_API_KEY)
+            .baseUrl(wireMock.getBaseUrl())
+            .retryPolicy(FAST_RETRIES)
+            .build();
+  }
+
+  @AfterEach
+  void tearDown() {
+    wireMock.stop();
+  }
+
+  @Test
+  void shouldRetryGetAfterServerError() {
+    // Given
+    stubFailuresThenSuccess(
+        () -> get(urlEqualTo("/api-key")), 1, 503, TestFixtures.apiKeyTestSuccessResponse());
+
+    // When
+    ApiKeyTestResponse response = client.apiKey().test();
+
+    // Then
+    assertThat(response.success()).isTrue();
+    verify(2, getRequestedFor(urlEqualTo("/api-key")));
+  }
+
+  @Test
+  void shouldRetryContactUpdate() {
+    // Given
+    stubFailuresThenSuccess(
+        () -> put(urlEqualTo("/contacts/update")),
+        2,
+        502,
+        TestFixtures.contactCreateSuccessResponse());
+
+    // When
+    client.contacts().update(ContactUpdateRequest.builder().email(TestFixtures.TEST_EMAIL).build());
+
+    // Then
+    verify(3, putRequestedFor(urlEqualTo("/contacts/update")));
+  }
+
+  @Test
+  void shouldRetryEventSendWithIdempotencyKeyHonoringRetryAfter() {
+    // Given
+    stubFor(
+        post(urlEqualTo("/events/send"))
+            .inScenario("retry")
+            .whenScenarioStateIs(Scenario.STARTED)
+            .willReturn(
+                aResponse()
+                    .withStatus(429)
+                    .withHeader("Retry-After", "1")
+                    .withBody(TestFixtures.rateLimitErrorResponse()))
+            .willSetStateTo("recovered"));
+    stubFor(
+        post(urlEqualTo("/events/send"))
+            .inScenario("retry")
+            .whenScenarioStateIs("recovered")
+            .willReturn(okJson(TestFixtures.eventSendSuccessResponse())));
+
+    // When
+    long start = System.nanoTime();
+    EventResponse response = client.events().send(TestFixtures.minimalEventSendRequest(), "key-1");
+    long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+    // Then
+    assertThat(response.success()).isTrue();
+    assertThat(elapsedMillis).isGreaterThanOrEqualTo(1_000);
+    verify(
+        2,
+        postRequestedFor(urlEqualTo("/events/send"))
+            .withHeader("Idempotency-Key", equalTo("key-1")));
+  }
+
+  @Test
+  void shouldNotRetryEventSendWithoutIdempotencyKey() {
+    // Given
+    wireMock.stubServerError("/events/send");
+
+    // When/Then
+    assertThatThrownBy(() -> client.events().send(TestFixtures.minimalEventSendRequest()))
+        .isInstanceOf(LoopsApiException.class);
+    verify(1, postRequestedFor(urlEqualTo("/events/send")));
+  }
+
+  @Test
+  void shouldNotRetryContactCreate() {
+    // Given
+    wireMock.stubServerError("/contacts/create");
+
+    // When/Then
+    assertThatThrownBy(() -> client.contacts().create(TestFixtures.minimalContactCreateRequest()))
+        .isInstanceOf(LoopsApiException.class);
+    verify(1, postRequestedFor(urlEqualTo("/contacts/create")));
+  }
+
+  @Test
+  void shouldNotRetryClientErrors() {
+    // Given
+    stubFor(get(urlEqualTo("/api-key")).willReturn(aResponse().withStatus(401)));
+
+    // When/Then
+    assertThatThrownBy(() -> client.apiKey().test()).isInstanceOf(LoopsApiException.class);
+    verify(1, getRequestedFor(urlEqualTo("/api-key")));
+  }
+
+  @Test
+  void shouldReportLastFailureWhenAttemptsAreExhausted() {
+    // Given
+    stubFor(
+        get(urlEqualTo("/api-key"))
+            .willReturn(
+                aResponse()
+                    .withStatus(429)
+                    .withHeader("Retry-After", "0")
+                    .withBody(TestFixtures.rateLimitErrorResponse())));
+
+    // When/Then
+    assertThatThrownBy(() -> client.apiKey().test()).isInstanceOf(RateLimitExceededException.class);
+    verify(3, getRequestedFor(urlEqualTo("/api-key")));
+  }
+
+  @Test
+  void shouldNotRetryWhenRetryAfterExceedsTimeBudget() {
+    // Given
+    LoopsClient budgeted =
+        LoopsClient.builder()
+            .apiKey(TestFixtures.TEST_API_KEY)
+            .baseUrl(wireMock.getBaseUrl())
+            .retryPolicy(RetryPolicy.builder().timeBudget(Duration.ofSeconds(5)).build())
+            .build();
+    stubFor(
+        get(urlEqualTo("/api-key"))
+            .willReturn(
+                aResponse()
+                    .withStatus(429)
+                    .withHeader("Retry-After", "60")
+                    .withBody(TestFixtures.rateLimitErrorResponse())));
+
+    // When/Then
+    assertThatThrownBy(() -> budgeted.apiKey().test())
+        .isInstanceOfSatisfying(
+            RateLimitExceededException.class, e -> assertThat(e.retryAfterSeconds()).isEqualTo(60));
+    verify(1, getRequestedFor(urlEqualTo("/api-key")));
+  }
+
+  @Test
+  void shouldRetryAsyncRequestOnTimer() throws Exception {
+    // Given
+    stubFailuresThenSuccess(
+        () -> post(urlEqualTo("/transactional")), 2, 500, TestFixtures.eventSendSuccessResponse());
+
+    // When
+    CompletableFuture<?> future =
+        client
+            .transactional()
+            .sendAsync(TestFixtures.minimalTransactionalSendRequest(), "idem-async");
+
+    // Then
+    future.get();
+    verify(3, postRequestedFor(urlEqualTo("/transactional")));
+  }
+
+  @Test
+  void shouldFailAsyncRequestWhenAttemptsAreExhausted() {
+    // Given
+    stubFor(get(urlEqualTo("/api-key")).willReturn(aResponse().withStatus(503)));
+
+    // When
+    CompletableFuture<ApiKeyTestResponse> future = client.apiKey().testAsync();
+
+    // Then
+    assertThat(future)
+        .failsWithin(Duration.ofSeconds(5))
+        .withThrowableOfType(ExecutionException.class)
+        .withCauseInstanceOf(LoopsApiException.class);
+    verify(3, getRequestedFor(urlEqualTo("/api-key")));
+  }
+
+  @Test
+  void shouldRetryNetworkFailures() {
+    // Given
+    stubFor(
+        get(urlEqualTo("/api-key"))
+            .inScenario("network")
+            .whenScenarioStateIs(Scenario.STARTED)
+            .willReturn(aResponse().withFault(Fault.CONNECTION_RESET_BY_PEER))
+            .willSetStateTo("recovered"));
+    stubFor(
+        get(urlEqualTo("/api-key"))
+            .inScenario("network")
+            .whenScenarioStateIs("recovered")
+            .willReturn(okJson(TestFixtures.apiKeyTestSuccessResponse())));
+
+    // When
+    ApiKeyTestResponse response = client.apiKey().test();
+
+    // Then
+    assertThat(response.success()).isTrue();
+  }
+
+  @Test
+  void shouldHoldNextRequestWhenRateLimitHeadersReportNoBudgetLeft() {
+    // Given
+    stubFor(
+        get(urlEqualTo("/api-key"))
+            .willReturn(
+                okJson(TestFixtures.apiKeyTestSuccessResponse())
+                    .withHeader("x-ratelimit-limit", "10")
+                    .withHeader("x-ratelimit-remaining", "0")));
+    client.apiKey().test();
+
+    // When
+    long start = System.nanoTime();
+    client.apiKey().testAsync().join();
+    long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+    // Then
+    assertThat(elapsedMillis).isGreaterThanOrEqualTo(800);
+  }
+
+  @Test
+  void shouldIgnoreRateLimitHeadersWhenProactiveThrottlingIsDisabled() {
+    // Given
+    LoopsClient unthrottled =
+        LoopsClient.builder()
+            .apiKey(TestFixtures.TEST_API_KEY)
+            .baseUrl(wireMock.getBaseUrl())
+            .proactiveThrottling(false)
+            .build();
+    stubFor(
+        get(urlEqualTo("/api-key"))
+            .willReturn(
+                okJson(TestFixtures.apiKeyTestSuccessResponse())
+                    .withHeader("x-ratelimit-limit", "10")
+                    .withHeader("x-ratelimit-remaining", "0")));
+    unthrottled.apiKey().test();
+
+    // When
+    long start = System.nanoTime();
+    unthrottled.apiKey().test();
+    long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+    // Then
+    assertThat(elapsedMillis).isLessThan(800);
+  }
+
+  @Test
+  void shouldPauseOtherRequestsAfterRateLimitResponse() {
+    // Given
+    stubFor(
+        post(urlEqualTo("/contacts/create"))
+            .willReturn(
+                aResponse()
+                    .withStatus(429)
+                    .withHeader("Retry-After", "1")
+                    .withBody(TestFixtures.rateLimitErrorResponse())));
+    stubFor(
+        get(urlEqualTo("/api-key")).willReturn(okJson(TestFixtures.apiKeyTestSuccessResponse())));
+    assertThatThrownBy(() -> client.contacts().create(TestFixtures.minimalContactCreateRequest()))
+        .isInstanceOf(RateLimitExceededException.class);
+
+    // When
+    long start = System.nanoTime();
+    client.apiKey().testAsync().join();
+    long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+    // Then
+    assertThat(elapsedMillis).isGreaterThanOrEqualTo(800);
+  }
+
+  @Test
+  void shouldNotPauseAfterRateLimitResponseWhenDisabled() {
+    // Given
+    LoopsClient unpaused =
+        LoopsClient.builder()
+            .apiKey(TestFixtures.TEST_API_KEY)
+            .baseUrl(wireMock.getBaseUrl())
+            .pauseOnRateLimit(false)
+            .build();
+    stubFor(
+        post(urlEqualTo("/contacts/create"))
+            .willReturn(aResponse().withStatus(429).withHeader("Retry-After", "1")));
+    stubFor(
+        get(urlEqualTo("/api-key")).willReturn(okJson(TestFixtures.apiKeyTestSuccessResponse())));
+    assertThatThrownBy(() -> unpaused.contacts().create(TestFixtures.minimalContactCreateRequest()))
+        .isInstanceOf(RateLimitExceededException.class);
+
+    // When
+    long start = System.nanoTime();
+    unpaused.apiKey().test();
+    long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+    // Then
+    assertThat(elapsedMillis).isLessThan(800);
+  }
+
+  private static void stubFailuresThenSuccess(
+      Supplier<MappingBuilder> request, int failures, int status, String successBody) {
+    String state = Scenario.STARTED;
+    for (int i = 1; i <= failures; i++) {
+      String next = "failure-" + i;
+      stubFor(
+          request
+              .get()
+              .inScenario("failures")
+              .whenScenarioStateIs(state)
+              .willReturn(aResponse().withStatus(status))
+              .willSetStateTo(next));
+      state = next;
+    }
+    stubFor(
+        request
+            .get()
+            .inScenario("failures")
+            .whenScenarioStateIs(state)
+            .willReturn(okJson(successBody)));
+  }
+}
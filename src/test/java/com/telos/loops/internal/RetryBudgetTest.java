@@ -0,0 +1,94 @@
+package com.telos.loops.internal;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.telos.loops.resilience.RetryPolicy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class RetryBudgetTest {
+
+  private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  @Test
+  void shouldStopAfterMaxAttempts() {
+    // Given
+    RetryBudget budget = new RetryBudget(RetryPolicy.builder().maxAttempts(3).build(), 0);
+
+    // When/Then
+    assertThat(budget.nextDelayNanos(-1, 0)).isPositive();
+    assertThat(budget.nextDelayNanos(-1, 0)).isPositive();
+    assertThat(budget.nextDelayNanos(-1, 0)).isEqualTo(-1);
+    assertThat(budget.attempts()).isEqualTo(3);
+  }
+
+  @Test
+  void shouldKeepJitteredDelaysWithinBounds() {
+    // Given
+    RetryPolicy policy =
+        RetryPolicy.builder()
+            .maxAttempts(1_000)
+            .initialBackoff(Duration.ofMillis(100))
+            .maxBackoff(Duration.ofSeconds(2))
+            .timeBudget(Duration.ofDays(1))
+            .build();
+    RetryBudget budget = new RetryBudget(policy, 0);
+
+    // When/Then
+    long previous = 100 * MILLIS;
+    for (int i = 0; i < 500; i++) {
+      long delay = budget.nextDelayNanos(-1, 0);
+      assertThat(delay).isBetween(100 * MILLIS, Math.min(2_000 * MILLIS, previous * 3));
+      previous = delay;
+    }
+  }
+
+  @Test
+  void shouldWaitAtLeastRetryAfter() {
+    // Given
+    RetryBudget budget = new RetryBudget(RetryPolicy.defaults(), 0);
+
+    // When
+    long delay = budget.nextDelayNanos(20_000 * MILLIS, 0);
+
+    // Then
+    assertThat(delay).isEqualTo(20_000 * MILLIS);
+  }
+
+  @Test
+  void shouldStopWhenDelayOverrunsTimeBudget() {
+    // Given
+    RetryBudget budget =
+        new RetryBudget(RetryPolicy.builder().timeBudget(Duration.ofSeconds(1)).build(), 0);
+
+    // When/Then
+    assertThat(budget.nextDelayNanos(2_000 * MILLIS, 0)).isEqualTo(-1);
+    assertThat(budget.nextDelayNanos(-1, 999 * MILLIS)).isEqualTo(-1);
+    assertThat(budget.attempts()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldParseRetryAfterDeltaSeconds() {
+    assertThat(RetryAfter.parseNanos("120", Instant.EPOCH)).isEqualTo(120_000 * MILLIS);
+    assertThat(RetryAfter.parseSeconds(" 7 ")).isEqualTo(7);
+  }
+
+  @Test
+  void shouldParseRetryAfterHttpDate() {
+    Instant now = Instant.parse("2015-10-21T07:27:30Z");
+
+    assertThat(RetryAfter.parseNanos("Wed, 21 Oct 2015 07:28:00 GMT", now))
+        .isEqualTo(30_000 * MILLIS);
+    assertThat(RetryAfter.parseNanos("Wed, 21 Oct 2015 07:00:00 GMT", now)).isZero();
+  }
+
+  @Test
+  void shouldIgnoreMalformedRetryAfter() {
+    assertThat(RetryAfter.parseNanos(null, Instant.EPOCH)).isEqualTo(-1);
+    assertThat(RetryAfter.parseNanos("soon", Instant.EPOCH)).isEqualTo(-1);
+    assertThat(RetryAfter.parseNanos("-5", Instant.EPOCH)).isEqualTo(-1);
+    assertThat(RetryAfter.parseSeconds("soon")).isZero();
+  }
+}
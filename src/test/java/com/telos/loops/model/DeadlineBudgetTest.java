@@ -0,0 +1,120 @@
+package com.telos.loops.model;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.Test;
+
+class DeadlineBudgetTest {
+
+  private static final Instant START = Instant.parse("2026-01-01T00:00:00Z");
+
+  @Test
+  void shouldSplitTimeLeftAcrossRemainingRequests() {
+    // Given
+    DeadlineBudget budget = DeadlineBudget.of(Duration.ofSeconds(60), 4, 1, clockAt(START));
+
+    // When/Then: a quarter of the budget for the first request
+    assertThat(budget.nextDeadline()).isEqualTo(START.plusSeconds(15));
+  }
+
+  @Test
+  void shouldGiveUnusedTimeToLaterRequests() {
+    // Given: the first of four requests finished after 3 of its 15 seconds
+    MutableClock clock = new MutableClock(START);
+    DeadlineBudget budget = DeadlineBudget.of(Duration.ofSeconds(60), 4, 1, clock);
+    budget.nextDeadline();
+    clock.now = START.plusSeconds(3);
+
+    // When
+    Instant second = budget.nextDeadline();
+
+    // Then: 57 seconds left for three requests
+    assertThat(second).isEqualTo(START.plusSeconds(3 + 19));
+  }
+
+  @Test
+  void shouldShareByRoundsWhenRequestsRunInParallel() {
+    // Given: ten requests, five at a time, make two rounds
+    DeadlineBudget budget = DeadlineBudget.of(Duration.ofSeconds(60), 10, 5, clockAt(START));
+
+    // When/Then
+    assertThat(budget.nextDeadline()).isEqualTo(START.plusSeconds(30));
+  }
+
+  @Test
+  void shouldNeverExceedOverallDeadline() {
+    // Given: more requests than the budget was sized for
+    MutableClock clock = new MutableClock(START);
+    DeadlineBudget budget = DeadlineBudget.of(Duration.ofSeconds(10), 1, 1, clock);
+    budget.nextDeadline();
+
+    // When
+    Instant extra = budget.nextDeadline();
+    clock.now = START.plusSeconds(11);
+
+    // Then
+    assertThat(extra).isEqualTo(budget.end());
+    assertThat(budget.nextDeadline()).isEqualTo(budget.end());
+    assertThat(budget.isExpired()).isTrue();
+  }
+
+  @Test
+  void shouldKeepEarlierDeadlineFromOptions() {
+    // Given
+    DeadlineBudget budget = DeadlineBudget.of(Duration.ofSeconds(60), 1, 1, clockAt(START));
+    RequestOptions options =
+        RequestOptions.builder()
+            .priority(RequestPriority.LOW)
+            .deadline(START.plusSeconds(5))
+            .build();
+
+    // When
+    RequestOptions next = budget.next(options);
+
+    // Then
+    assertThat(next.deadline()).isEqualTo(START.plusSeconds(5));
+    assertThat(next.priority()).isEqualTo(RequestPriority.LOW);
+  }
+
+  @Test
+  void shouldRejectInvalidBudget() {
+    assertThatThrownBy(() -> DeadlineBudget.of(Duration.ZERO, 1))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("total must be positive, got: PT0S");
+    assertThatThrownBy(() -> DeadlineBudget.of(Duration.ofSeconds(1), 1, 0))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private static Clock clockAt(Instant instant) {
+    return Clock.fixed(instant, ZoneOffset.UTC);
+  }
+
+  /** Clock the test moves by hand. */
+  private static final class MutableClock extends Clock {
+    private Instant now;
+
+    MutableClock(Instant now) {
+      this.now = now;
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
+}
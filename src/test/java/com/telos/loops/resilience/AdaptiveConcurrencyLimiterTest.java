@@ -0,0 +1,182 @@
+package com.telos.loops.resilience;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.telos.loops.error.LoopsApiException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimiterTest {
+
+  private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  @Test
+  void shouldGrowAdditivelyWhileLimitIsInUse() {
+    // Given
+    AdaptiveConcurrencyLimiter limiter =
+        AdaptiveConcurrencyLimiter.builder().initialLimit(4).build();
+    for (int i = 0; i < 4; i++) {
+      assertThat(limiter.acquire()).isCompleted();
+    }
+
+    // When
+    limiter.release(10 * MILLIS, false);
+
+    // Then
+    assertThat(limiter.limit()).isEqualTo(5);
+  }
+
+  @Test
+  void shouldNotGrowWhileMostlyIdle() {
+    // Given
+    AdaptiveConcurrencyLimiter limiter =
+        AdaptiveConcurrencyLimiter.builder().initialLimit(10).build();
+    limiter.acquire();
+
+    // When
+    limiter.release(10 * MILLIS, false);
+
+    // Then
+    assertThat(limiter.limit()).isEqualTo(10);
+  }
+
+  @Test
+  void shouldShrinkMultiplicativelyOnOverload() {
+    // Given
+    AdaptiveConcurrencyLimiter limiter =
+        AdaptiveConcurrencyLimiter.builder().initialLimit(20).backoffRatio(0.5).build();
+    limiter.acquire();
+
+    // When
+    limiter.release(10 * MILLIS, true);
+
+    // Then
+    assertThat(limiter.limit()).isEqualTo(10);
+  }
+
+  @Test
+  void shouldShrinkOnLatencyGradient() {
+    // Given: a baseline of 10 ms round trips
+    AdaptiveConcurrencyLimiter limiter =
+        AdaptiveConcurrencyLimiter.builder().initialLimit(50).maxLimit(50).build();
+    for (int i = 0; i < 50; i++) {
+      limiter.acquire();
+      limiter.release(10 * MILLIS, false);
+    }
+    assertThat(limiter.limit()).isEqualTo(50);
+
+    // When: latency jumps to 100 ms
+    for (int i = 0; i < 20; i++) {
+      limiter.acquire();
+      limiter.release(100 * MILLIS, false);
+    }
+
+    // Then
+    ConcurrencyLimitStats stats = limiter.stats();
+    assertThat(stats.limit()).isLessThan(50);
+    assertThat(stats.rttMillis()).isGreaterThan(stats.baselineRttMillis() * 2);
+  }
+
+  @Test
+  void shouldNeverShrinkBelowMinLimit() {
+    AdaptiveConcurrencyLimiter limiter =
+        AdaptiveConcurrencyLimiter.builder().initialLimit(2).minLimit(2).build();
+
+    limiter.acquire();
+    limiter.release(0, true);
+
+    assertThat(limiter.limit()).isEqualTo(2);
+  }
+
+  @Test
+  void shouldHandFreedSlotToQueuedCaller() {
+    // Given
+    AdaptiveConcurrencyLimiter limiter =
+        AdaptiveConcurrencyLimiter.builder().initialLimit(1).maxLimit(1).build();
+    assertThat(limiter.acquire()).isCompleted();
+
+    // When
+    CompletableFuture<Void> waiting = limiter.acquire();
+
+    // Then
+    assertThat(waiting).isNotDone();
+    assertThat(limiter.stats().queued()).isEqualTo(1);
+    limiter.release(MILLIS, false);
+    assertThat(waiting).isCompleted();
+    assertThat(limiter.stats().inFlight()).isEqualTo(1);
+    assertThat(limiter.stats().queued()).isZero();
+  }
+
+  @Test
+  void shouldRejectWhenQueueIsFull() {
+    // Given
+    AdaptiveConcurrencyLimiter limiter =
+        AdaptiveConcurrencyLimiter.builder().initialLimit(1).maxLimit(1).maxQueued(0).build();
+    limiter.acquire();
+
+    // When
+    CompletableFuture<Void> rejected = limiter.acquire();
+
+    // Then
+    assertThat(rejected)
+        .failsWithin(Duration.ZERO)
+        .withThrowableOfType(ExecutionException.class)
+        .withCauseInstanceOf(LoopsApiException.class);
+    assertThat(limiter.stats().rejected()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldRejectCallerThatWaitsTooLong() {
+    // Given
+    AdaptiveConcurrencyLimiter limiter =
+        AdaptiveConcurrencyLimiter.builder()
+            .initialLimit(1)
+            .maxLimit(1)
+            .maxQueueWait(Duration.ofMillis(50))
+            .build();
+    limiter.acquire();
+
+    // When
+    CompletableFuture<Void> waiting = limiter.acquire();
+
+    // Then
+    assertThat(waiting)
+        .failsWithin(Duration.ofSeconds(2))
+        .withThrowableOfType(ExecutionException.class)
+        .withMessageContaining("Timed out");
+    assertThat(limiter.stats().queued()).isZero();
+    assertThat(limiter.stats().rejected()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldSkipCancelledWaiters() {
+    // Given
+    AdaptiveConcurrencyLimiter limiter =
+        AdaptiveConcurrencyLimiter.builder().initialLimit(1).maxLimit(1).build();
+    limiter.acquire();
+    CompletableFuture<Void> cancelled = limiter.acquire();
+    CompletableFuture<Void> next = limiter.acquire();
+
+    // When
+    cancelled.cancel(false);
+    limiter.release(MILLIS, false);
+
+    // Then
+    assertThat(next).isCompleted();
+    assertThat(limiter.stats().inFlight()).isEqualTo(1);
+    assertThat(limiter.stats().queued()).isZero();
+  }
+
+  @Test
+  void shouldRejectInvalidSettings() {
+    assertThatThrownBy(() -> AdaptiveConcurrencyLimiter.builder().initialLimit(0).build())
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> AdaptiveConcurrencyLimiter.builder().backoffRatio(1).build())
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> AdaptiveConcurrencyLimiter.builder().rttTolerance(1).build())
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
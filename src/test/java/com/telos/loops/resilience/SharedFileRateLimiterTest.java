@@ -0,0 +1,222 @@
+package com.telos.loops.resilience;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SharedFileRateLimiterTest {
+
+  private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  @TempDir Path tempDir;
+
+  private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+  @Test
+  void shouldShareOneBudgetBetweenLimitersOnTheSameFile() {
+    // Given
+    Path file = tempDir.resolve("bucket");
+    SharedFileRateLimiter first =
+        SharedFileRateLimiter.builder().path(file).permitsPerSecond(10).burst(2).build(clock::get);
+    SharedFileRateLimiter second =
+        SharedFileRateLimiter.builder().path(file).permitsPerSecond(10).burst(2).build(clock::get);
+
+    // When/Then
+    assertThat(first.reserve()).isZero();
+    assertThat(second.reserve()).isZero();
+    assertThat(first.availablePermits()).isZero();
+    assertThat(second.reserve()).isEqualTo(100 * MILLIS);
+    assertThat(first.reserve()).isEqualTo(200 * MILLIS);
+  }
+
+  @Test
+  void shouldRefuseWhenWaitExceedsMaxWait() {
+    // Given
+    SharedFileRateLimiter limiter =
+        SharedFileRateLimiter.builder()
+            .path(tempDir.resolve("bucket"))
+            .permitsPerSecond(10)
+            .burst(1)
+            .maxWait(Duration.ZERO)
+            .build(clock::get);
+    limiter.reserve();
+
+    // When
+    long refused = limiter.reserve();
+
+    // Then
+    assertThat(refused).isEqualTo(-100 * MILLIS);
+    assertThat(limiter.rejectedCount()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldRestartBucketWhenWallClockStepsBack() {
+    // Given: the bucket is spent
+    SharedFileRateLimiter limiter =
+        SharedFileRateLimiter.builder()
+            .path(tempDir.resolve("bucket"))
+            .permitsPerSecond(10)
+            .burst(2)
+            .maxWait(Duration.ofSeconds(1))
+            .build(clock::get);
+    limiter.reserve();
+    limiter.reserve();
+
+    // When: the system clock is set back ten seconds
+    clock.addAndGet(-TimeUnit.SECONDS.toNanos(10));
+
+    // Then: requests are paced from the new time instead of refused for ten seconds
+    assertThat(limiter.reserve()).isZero();
+    assertThat(limiter.reserve()).isZero();
+    assertThat(limiter.reserve()).isEqualTo(100 * MILLIS);
+    assertThat(limiter.rejectedCount()).isZero();
+  }
+
+  @Test
+  void shouldNotTakeSlowerProcessReservationsForClockStep() {
+    // Given: one process has learned a limit of 1 req/s, the other still runs at 10 req/s
+    Path file = tempDir.resolve("bucket");
+    SharedFileRateLimiter fast =
+        SharedFileRateLimiter.builder()
+            .path(file)
+            .permitsPerSecond(10)
+            .burst(2)
+            .maxWait(Duration.ofSeconds(1))
+            .build(clock::get);
+    SharedFileRateLimiter slow =
+        SharedFileRateLimiter.builder()
+            .path(file)
+            .permitsPerSecond(10)
+            .burst(2)
+            .maxWait(Duration.ofSeconds(1))
+            .build(clock::get);
+    slow.updateLimit(1);
+
+    // When: the slow process pushes the bucket further ahead than the fast one ever would
+    assertThat(slow.reserve()).isZero();
+    assertThat(slow.reserve()).isZero();
+    assertThat(slow.reserve()).isEqualTo(1_000 * MILLIS);
+    long emptyAt = fast.emptyAt();
+
+    // Then: the fast process waits its turn instead of restarting the bucket
+    assertThat(fast.reserve()).isNegative();
+    assertThat(fast.emptyAt()).isEqualTo(emptyAt);
+  }
+
+  @Test
+  void shouldKeepStateAcrossReopen() {
+    // Given
+    Path file = tempDir.resolve("bucket");
+    SharedFileRateLimiter.builder()
+        .path(file)
+        .permitsPerSecond(10)
+        .burst(1)
+        .build(clock::get)
+        .reserve();
+
+    // When
+    SharedFileRateLimiter reopened =
+        SharedFileRateLimiter.builder().path(file).permitsPerSecond(10).burst(1).build(clock::get);
+
+    // Then
+    assertThat(reopened.reserve()).isEqualTo(100 * MILLIS);
+  }
+
+  @Test
+  void shouldRejectFileThatIsNotLimiterState() throws IOException {
+    Path file = Files.writeString(tempDir.resolve("notes.txt"), "not a bucket");
+
+    assertThatThrownBy(() -> SharedFileRateLimiter.builder().path(file).build())
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("notes.txt");
+  }
+
+  @Test
+  void shouldRejectInvalidSettings() {
+    assertThatThrownBy(() -> SharedFileRateLimiter.builder().build())
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("path is required");
+    assertThatThrownBy(
+            () ->
+                SharedFileRateLimiter.builder()
+                    .path(tempDir.resolve("bucket"))
+                    .permitsPerSecond(-1)
+                    .build())
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void shouldHandOutDistinctSlotsAcrossProcesses() throws Exception {
+    // Given: a minute of reservations pins the bucket ahead of the wall clock, so every later
+    // reservation must advance the shared timestamp by exactly one interval
+    Path file = tempDir.resolve("bucket");
+    SharedFileRateLimiter limiter = sharedLimiter(file);
+    for (int i = 0; i < 6_000; i++) {
+      limiter.reserve();
+    }
+    long start = limiter.emptyAt();
+    int processes = 4;
+    int perProcess = 500;
+
+    // When
+    List<Process> workers = new ArrayList<>();
+    for (int i = 0; i < processes; i++) {
+      workers.add(
+          new ProcessBuilder(
+                  Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                  "-cp",
+                  System.getProperty("java.class.path"),
+                  Worker.class.getName(),
+                  file.toString(),
+                  String.valueOf(perProcess))
+              .redirectErrorStream(true)
+              .start());
+    }
+    long granted = 0;
+    for (Process worker : workers) {
+      assertThat(worker.waitFor(60, TimeUnit.SECONDS)).isTrue();
+      String output = new String(worker.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+      assertThat(worker.exitValue()).as(output).isZero();
+      granted += Long.parseLong(output.trim());
+    }
+
+    // Then: no reservation was lost to a racing process
+    long intervalNanos = TimeUnit.SECONDS.toNanos(1) / 100;
+    assertThat(granted).isEqualTo((long) processes * perProcess);
+    assertThat(limiter.emptyAt() - start).isEqualTo(granted * intervalNanos);
+  }
+
+  private static SharedFileRateLimiter sharedLimiter(Path file) {
+    return SharedFileRateLimiter.builder()
+        .path(file)
+        .permitsPerSecond(100)
+        .burst(1)
+        .maxWait(Duration.ofHours(1))
+        .build();
+  }
+
+  /** Reserves permits from a separate JVM and prints how many were granted. */
+  static final class Worker {
+    public static void main(String[] args) {
+      SharedFileRateLimiter limiter = sharedLimiter(Path.of(args[0]));
+      int permits = Integer.parseInt(args[1]);
+      int granted = 0;
+      for (int i = 0; i < permits; i++) {
+        if (limiter.reserve() >= 0) {
+          granted++;
+        }
+      }
+      System.out.println(granted);
+    }
+  }
+}
@@ -0,0 +1,165 @@
+package com.telos.loops.resilience;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class TokenBucketRateLimiterTest {
+
+  private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+  @Test
+  void shouldGrantBurstImmediatelyThenPaceAtRate() {
+    // Given
+    TokenBucketRateLimiter limiter =
+        TokenBucketRateLimiter.builder().permitsPerSecond(10).burst(3).build(clock::get);
+
+    // When/Then
+    assertThat(limiter.reserve()).isZero();
+    assertThat(limiter.reserve()).isZero();
+    assertThat(limiter.reserve()).isZero();
+    assertThat(limiter.reserve()).isEqualTo(100 * MILLIS);
+    assertThat(limiter.reserve()).isEqualTo(200 * MILLIS);
+  }
+
+  @Test
+  void shouldRefillAfterIdlePeriod() {
+    // Given
+    TokenBucketRateLimiter limiter =
+        TokenBucketRateLimiter.builder().permitsPerSecond(10).burst(2).build(clock::get);
+    limiter.reserve();
+    limiter.reserve();
+    assertThat(limiter.availablePermits()).isZero();
+
+    // When
+    clock.addAndGet(150 * MILLIS);
+
+    // Then
+    assertThat(limiter.availablePermits()).isEqualTo(1);
+    clock.addAndGet(10_000 * MILLIS);
+    assertThat(limiter.availablePermits()).isEqualTo(2);
+  }
+
+  @Test
+  void shouldRefuseWhenWaitExceedsMaxWait() {
+    // Given
+    TokenBucketRateLimiter limiter =
+        TokenBucketRateLimiter.builder()
+            .permitsPerSecond(10)
+            .burst(1)
+            .maxWait(Duration.ofMillis(150))
+            .build(clock::get);
+
+    // When
+    long first = limiter.reserve();
+    long second = limiter.reserve();
+    long third = limiter.reserve();
+
+    // Then
+    assertThat(first).isZero();
+    assertThat(second).isEqualTo(100 * MILLIS);
+    assertThat(third).isEqualTo(-200 * MILLIS);
+    assertThat(limiter.rejectedCount()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldFailFastWithZeroMaxWait() {
+    // Given
+    TokenBucketRateLimiter limiter =
+        TokenBucketRateLimiter.builder()
+            .permitsPerSecond(10)
+            .burst(1)
+            .maxWait(Duration.ZERO)
+            .build(clock::get);
+    limiter.reserve();
+
+    // When
+    long refused = limiter.reserve();
+
+    // Then
+    assertThat(refused).isNegative();
+    assertThat(limiter.availablePermits()).isZero();
+  }
+
+  @Test
+  void shouldDefaultBurstToOneSecondOfPermits() {
+    TokenBucketRateLimiter limiter = TokenBucketRateLimiter.builder().permitsPerSecond(4.5).build();
+
+    assertThat(limiter.burst()).isEqualTo(5);
+    assertThat(limiter.maxWait()).isEqualTo(TokenBucketRateLimiter.DEFAULT_MAX_WAIT);
+  }
+
+  @Test
+  void shouldCapRateAtUpdatedLimitWithoutExceedingConfiguredRate() {
+    // Given
+    TokenBucketRateLimiter limiter =
+        TokenBucketRateLimiter.builder().permitsPerSecond(20).burst(1).build(clock::get);
+
+    // When/Then
+    limiter.updateLimit(5);
+    assertThat(limiter.permitsPerSecond()).isEqualTo(5);
+    limiter.reserve();
+    assertThat(limiter.reserve()).isEqualTo(200 * MILLIS);
+
+    limiter.updateLimit(100);
+    assertThat(limiter.permitsPerSecond()).isEqualTo(20);
+  }
+
+  @Test
+  void shouldRejectInvalidSettings() {
+    assertThatThrownBy(() -> TokenBucketRateLimiter.builder().permitsPerSecond(0).build())
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> TokenBucketRateLimiter.builder().burst(0).build())
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(
+            () -> TokenBucketRateLimiter.builder().maxWait(Duration.ofSeconds(-1)).build())
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void shouldHandOutDistinctSlotsUnderContention() throws Exception {
+    // Given
+    int threads = 8;
+    int perThread = 1_000;
+    TokenBucketRateLimiter limiter =
+        TokenBucketRateLimiter.builder()
+            .permitsPerSecond(1_000)
+            .burst(1)
+            .maxWait(Duration.ofHours(1))
+            .build(clock::get);
+    AtomicLong totalWait = new AtomicLong();
+    AtomicInteger granted = new AtomicInteger();
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+    // When
+    for (int t = 0; t < threads; t++) {
+      executor.submit(
+          () -> {
+            start.await();
+            for (int i = 0; i < perThread; i++) {
+              totalWait.addAndGet(limiter.reserve());
+              granted.incrementAndGet();
+            }
+            return null;
+          });
+    }
+    start.countDown();
+    executor.shutdown();
+    assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+    // Then: with a frozen clock every permit gets its own 1 ms slot: 0 + 1 + ... + (n - 1) ms
+    long n = (long) threads * perThread;
+    assertThat(granted.get()).isEqualTo(n);
+    assertThat(totalWait.get()).isEqualTo(n * (n - 1) / 2 * MILLIS);
+  }
+}
@@ -5,9 +5,16 @@ import static org.assertj.core.api.Assertions.*;
 
 import com.github.tomakehurst.wiremock.WireMockServer;
 import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.telos.loops.AsyncTestUtils;
+import com.telos.loops.error.OverloadedException;
+import java.io.InterruptedIOException;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import okhttp3.OkHttpClient;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -252,4 +259,178 @@ class OkHttpTransportTest {
     assertThat(response.status()).isEqualTo(200);
     assertThat(response.response()).isEmpty();
   }
+
+  @Test
+  void shouldRaiseDefaultPerHostLimitForSingleHostTraffic() {
+    // When
+    ConcurrencyStats stats = transport.concurrencyStats();
+
+    // Then
+    assertThat(stats.maxRequestsPerHost())
+        .isEqualTo(ConcurrencySettings.DEFAULT_MAX_REQUESTS_PER_HOST);
+    assertThat(stats.runningCalls()).isZero();
+    assertThat(stats.queuedCalls()).isZero();
+  }
+
+  @Test
+  void shouldApplyConfiguredConcurrencyLimits() {
+    // Given
+    ConcurrencySettings settings =
+        ConcurrencySettings.builder().maxRequests(20).maxRequestsPerHost(8).build();
+
+    // When
+    ConcurrencyStats stats = new OkHttpTransport(new OkHttpClient(), settings).concurrencyStats();
+
+    // Then
+    assertThat(stats.maxRequests()).isEqualTo(20);
+    assertThat(stats.maxRequestsPerHost()).isEqualTo(8);
+  }
+
+  @Test
+  void shouldValidatePerHostLimitAgainstOverallLimit() {
+    // When/Then: an unset per-host limit follows a lower overall limit, an explicit one must fit
+    assertThat(ConcurrencySettings.builder().maxRequests(16).build().maxRequestsPerHost())
+        .isEqualTo(16);
+    assertThatThrownBy(
+            () -> ConcurrencySettings.builder().maxRequests(16).maxRequestsPerHost(32).build())
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("maxRequestsPerHost");
+  }
+
+  @Test
+  void shouldRejectAsyncCallsBeyondQueueDepth() {
+    // Given
+    stubFor(get(urlEqualTo("/slow")).willReturn(ok().withFixedDelay(500)));
+    OkHttpTransport limited =
+        new OkHttpTransport(
+            new OkHttpClient(),
+            ConcurrencySettings.builder()
+                .maxRequests(1)
+                .maxRequestsPerHost(1)
+                .maxQueuedRequests(1)
+                .build());
+    TransportRequest request =
+        new TransportRequest(HttpMethod.GET, baseUrl + "/slow", Map.of(), new byte[0]);
+
+    // When
+    CompletableFuture<TransportResponse> running = limited.executeAsync(request);
+    CompletableFuture<TransportResponse> queued = limited.executeAsync(request);
+    CompletableFuture<TransportResponse> rejected = limited.executeAsync(request);
+
+    // Then
+    assertThat(limited.concurrencyStats().queuedCalls()).isEqualTo(1);
+    assertThatThrownBy(rejected::join).hasCauseInstanceOf(OverloadedException.class);
+    assertThat(running.join().status()).isEqualTo(200);
+    assertThat(queued.join().status()).isEqualTo(200);
+  }
+
+  @Test
+  void shouldAutoTunePerHostLimitFromObservedLatency() {
+    // Given - 100 req/s at ~50 ms latency needs ~5 concurrent calls, doubled for headroom
+    stubFor(get(urlEqualTo("/tuned")).willReturn(ok().withFixedDelay(50)));
+    OkHttpTransport tuned =
+        new OkHttpTransport(
+            new OkHttpClient(),
+            ConcurrencySettings.builder().autoTune(true).rateLimitPerSecond(100).build());
+    TransportRequest request =
+        new TransportRequest(HttpMethod.GET, baseUrl + "/tuned", Map.of(), new byte[0]);
+
+    // When
+    for (int i = 0; i < 32; i++) {
+      tuned.execute(request);
+    }
+
+    // Then
+    ConcurrencyStats stats = tuned.concurrencyStats();
+    assertThat(stats.latencyMillis()).isGreaterThanOrEqualTo(50);
+    assertThat(stats.maxRequestsPerHost()).isBetween(10, 20);
+    assertThat(stats.maxQueuedRequests()).isGreaterThanOrEqualTo(stats.maxRequestsPerHost());
+  }
+
+  @Test
+  void shouldAutoTuneFromAdvertisedRateLimit() {
+    // Given - the API advertises 200 req/s, so ~50 ms latency needs ~10 calls, doubled
+    stubFor(
+        get(urlEqualTo("/tuned"))
+            .willReturn(ok().withHeader("x-ratelimit-limit", "200").withFixedDelay(50)));
+    OkHttpTransport tuned =
+        new OkHttpTransport(
+            new OkHttpClient(),
+            ConcurrencySettings.builder().autoTune(true).rateLimitPerSecond(10).build());
+    TransportRequest request =
+        new TransportRequest(HttpMethod.GET, baseUrl + "/tuned", Map.of(), new byte[0]);
+
+    // When
+    for (int i = 0; i < 32; i++) {
+      tuned.execute(request);
+    }
+
+    // Then
+    assertThat(tuned.concurrencyStats().maxRequestsPerHost()).isBetween(20, 40);
+  }
+
+  @Test
+  void shouldKeepIdleConnectionsUpToConfiguredPoolSize() {
+    // Given: slow responses, so concurrent calls each open a connection
+    stubFor(get(urlEqualTo("/slow")).willReturn(ok().withFixedDelay(200)));
+    OkHttpTransport pooled =
+        new OkHttpTransport(
+            new OkHttpClient(),
+            null,
+            ConnectionPoolSettings.builder().maxIdleConnections(2).build());
+    TransportRequest request =
+        new TransportRequest(HttpMethod.GET, baseUrl + "/slow", Map.of(), new byte[0]);
+
+    // When
+    CompletableFuture.allOf(
+            pooled.executeAsync(request),
+            pooled.executeAsync(request),
+            pooled.executeAsync(request))
+        .join();
+
+    // Then: the third connection is closed once idle
+    AsyncTestUtils.waitUntil(
+        () -> assertThat(pooled.connectionPoolStats()).isEqualTo(new ConnectionPoolStats(2, 2)));
+  }
+
+  @Test
+  void shouldTimeOutCallAtRequestDeadline() {
+    // Given
+    stubFor(get(urlEqualTo("/slow")).willReturn(ok().withFixedDelay(2_000)));
+    TransportRequest request =
+        TransportRequest.builder()
+            .httpMethod(HttpMethod.GET)
+            .url(baseUrl + "/slow")
+            .deadline(Instant.now().plusMillis(200))
+            .build();
+
+    // When
+    long start = System.nanoTime();
+    CompletableFuture<TransportResponse> response = transport.executeAsync(request);
+
+    // Then
+    assertThat(response)
+        .failsWithin(Duration.ofSeconds(3))
+        .withThrowableOfType(ExecutionException.class)
+        .withCauseInstanceOf(InterruptedIOException.class);
+    assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(3));
+  }
+
+  @Test
+  void shouldCancelCallWhenFutureIsCancelled() {
+    // Given
+    stubFor(get(urlEqualTo("/slow")).willReturn(ok().withFixedDelay(2_000)));
+    TransportRequest request =
+        new TransportRequest(HttpMethod.GET, baseUrl + "/slow", Map.of(), new byte[0]);
+    CompletableFuture<TransportResponse> response = transport.executeAsync(request);
+    AsyncTestUtils.waitUntil(
+        () -> assertThat(transport.concurrencyStats().runningCalls()).isEqualTo(1));
+
+    // When
+    response.cancel(true);
+
+    // Then: the call stops holding its dispatcher slot
+    AsyncTestUtils.waitUntil(
+        () -> assertThat(transport.concurrencyStats().runningCalls()).isZero());
+  }
 }
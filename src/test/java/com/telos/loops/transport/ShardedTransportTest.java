@@ -0,0 +1,155 @@
+package com.telos.loops.transport;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.Test;
+
+class ShardedTransportTest {
+
+  private static final TransportRequest REQUEST =
+      new TransportRequest(HttpMethod.GET, "http://localhost/test", Map.of(), new byte[0]);
+
+  @Test
+  void shouldSpreadRequestsEvenlyAcrossIdleShards() {
+    // Given
+    PendingTransport first = new PendingTransport();
+    PendingTransport second = new PendingTransport();
+    PendingTransport third = new PendingTransport();
+    ShardedTransport transport = new ShardedTransport(List.of(first, second, third));
+
+    // When
+    for (int i = 0; i < 6; i++) {
+      transport.executeAsync(REQUEST);
+    }
+
+    // Then
+    assertThat(transport.inFlight()).containsExactly(2, 2, 2);
+  }
+
+  @Test
+  void shouldSendToShardWithFewestRequestsInFlight() {
+    // Given: two requests on each shard, then both of the first shard's complete
+    PendingTransport first = new PendingTransport();
+    PendingTransport second = new PendingTransport();
+    ShardedTransport transport = new ShardedTransport(List.of(first, second));
+    for (int i = 0; i < 4; i++) {
+      transport.executeAsync(REQUEST);
+    }
+    first.completeAll();
+
+    // When
+    transport.executeAsync(REQUEST);
+    transport.executeAsync(REQUEST);
+
+    // Then
+    assertThat(first.calls).hasSize(4);
+    assertThat(second.calls).hasSize(2);
+    assertThat(transport.inFlight()).containsExactly(2, 2);
+  }
+
+  @Test
+  void shouldCancelShardCallAndFreeItsSlot() {
+    // Given
+    PendingTransport shard = new PendingTransport();
+    ShardedTransport transport = new ShardedTransport(List.of(shard));
+    CompletableFuture<TransportResponse> response = transport.executeAsync(REQUEST);
+
+    // When
+    response.cancel(true);
+
+    // Then
+    assertThat(shard.calls.get(0)).isCancelled();
+    assertThat(transport.inFlight()).containsExactly(0);
+  }
+
+  @Test
+  void shouldReleaseShardWhenSyncCallFails() {
+    // Given
+    Transport failing =
+        new Transport() {
+          @Override
+          public TransportResponse execute(TransportRequest request) {
+            throw new IllegalStateException("connection reset");
+          }
+
+          @Override
+          public CompletableFuture<TransportResponse> executeAsync(TransportRequest request) {
+            throw new UnsupportedOperationException();
+          }
+        };
+    ShardedTransport transport = new ShardedTransport(List.of(failing));
+
+    // When/Then
+    assertThatThrownBy(() -> transport.execute(REQUEST)).isInstanceOf(IllegalStateException.class);
+    assertThat(transport.inFlight()).containsExactly(0);
+  }
+
+  @Test
+  void shouldGiveEachOkHttpShardItsOwnConnectionPool() {
+    // Given
+    OkHttpClient client = new OkHttpClient();
+
+    // When
+    ShardedTransport transport = ShardedTransport.okHttp(client, 3);
+
+    // Then
+    assertThat(transport.shards()).hasSize(3);
+    assertThat(transport.shards().get(0)).isInstanceOf(OkHttpTransport.class);
+    assertThat(transport.shards().get(0)).isNotSameAs(transport.shards().get(1));
+  }
+
+  @Test
+  void shouldGiveOkHttpShardsTheSdkDispatcherLimits() {
+    // Given: a plain client, whose dispatcher allows 5 calls per host
+    OkHttpClient client = new OkHttpClient();
+
+    // When
+    ShardedTransport defaults = ShardedTransport.okHttp(client, 2);
+    ShardedTransport sized =
+        ShardedTransport.okHttp(
+            client, 2, ConcurrencySettings.builder().maxRequests(16).build(), null);
+
+    // Then
+    for (Transport shard : defaults.shards()) {
+      assertThat(((OkHttpTransport) shard).concurrencyStats().maxRequestsPerHost())
+          .isEqualTo(ConcurrencySettings.DEFAULT_MAX_REQUESTS_PER_HOST);
+    }
+    assertThat(((OkHttpTransport) sized.shards().get(1)).concurrencyStats().maxRequestsPerHost())
+        .isEqualTo(16);
+  }
+
+  @Test
+  void shouldRequireAtLeastOneShard() {
+    assertThatThrownBy(() -> new ShardedTransport(List.of()))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> ShardedTransport.okHttp(new OkHttpClient(), 0))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("shards must be positive");
+  }
+
+  /** Transport whose async calls stay in flight until the test completes them. */
+  private static final class PendingTransport implements Transport {
+    private final List<CompletableFuture<TransportResponse>> calls = new CopyOnWriteArrayList<>();
+
+    @Override
+    public TransportResponse execute(TransportRequest request) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public CompletableFuture<TransportResponse> executeAsync(TransportRequest request) {
+      CompletableFuture<TransportResponse> call = new CompletableFuture<>();
+      calls.add(call);
+      return call;
+    }
+
+    void completeAll() {
+      calls.forEach(call -> call.complete(new TransportResponse(200, Map.of(), new byte[0])));
+    }
+  }
+}